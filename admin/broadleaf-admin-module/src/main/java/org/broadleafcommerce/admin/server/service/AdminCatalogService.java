@@ -33,9 +33,50 @@ public interface AdminCatalogService {
      * 
      * @param productId - the Product to generate Skus from
      * @return the number of generated Skus from the ProductOption permutations
+     * @throws SkuGenerationLimitExceededException if the ProductOptions produce more permutations than
+     * admin.sku.generation.max.permutations
+     * @throws SkuGenerationInProgressException if this admin server is already generating the Skus of the Product
      */
     public Integer generateSkusFromProduct(Long productId);
 
+    /**
+     * @param productId
+     * @return the number of permutations of the ProductOptions attached to this Product that are used in Sku generation,
+     * whether or not a Sku already exists for them
+     */
+    public long getSkuPermutationCount(Long productId);
+
+    /**
+     * @param productId
+     * @return whether the Product has enough permutations (see admin.sku.generation.background.threshold) that its Skus
+     * should be generated with {@link #generateSkusFromProductInBackground(Long)}
+     */
+    public boolean shouldGenerateSkusInBackground(Long productId);
+
+    /**
+     * Generates the Skus of a Product in the same way as {@link #generateSkusFromProduct(Long)}, but on a background
+     * thread. If a generation is already running for this Product, that one is returned instead of starting another.
+     * <p/>
+     * Generations are tracked in memory by the admin server that runs them. With several admin servers, a generation
+     * started on one is neither seen by the others nor prevents them from generating the same Skus, and its progress
+     * can only be read from that server, so the admin should be deployed with sticky sessions.
+     * 
+     * @param productId - the Product to generate Skus from
+     * @return the progress of the generation, which is updated as Skus are created
+     * @throws SkuGenerationLimitExceededException if the ProductOptions produce more permutations than
+     * admin.sku.generation.max.permutations
+     */
+    public SkuGenerationProgress generateSkusFromProductInBackground(Long productId);
+
+    /**
+     * @param productId
+     * @return the progress of the Sku generation running for this Product, or of the last background one if it finished
+     * and has not been read yet. Null if this admin server knows of no such generation; it may have finished and been
+     * read already, or have been started on another admin server. Once a finished generation is returned, it is
+     * forgotten.
+     */
+    public SkuGenerationProgress getSkuGenerationProgress(Long productId);
+
     /**
      * This will create a new product along with a new Sku for the defaultSku, along with new
      * Skus for all of the additional Skus. This is achieved by simply detaching the entities
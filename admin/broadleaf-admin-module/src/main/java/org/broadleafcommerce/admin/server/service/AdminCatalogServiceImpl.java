@@ -26,6 +26,7 @@ import org.broadleafcommerce.admin.server.service.extension.AdminCatalogServiceE
 import org.broadleafcommerce.common.extension.ExtensionResultHolder;
 import org.broadleafcommerce.common.extension.ExtensionResultStatusType;
 import org.broadleafcommerce.common.util.BLCCollectionUtils;
+import org.broadleafcommerce.common.util.TransactionUtils;
 import org.broadleafcommerce.common.util.TypedTransformer;
 import org.broadleafcommerce.core.catalog.dao.SkuDao;
 import org.broadleafcommerce.core.catalog.domain.Product;
@@ -33,11 +34,32 @@ import org.broadleafcommerce.core.catalog.domain.ProductOption;
 import org.broadleafcommerce.core.catalog.domain.ProductOptionValue;
 import org.broadleafcommerce.core.catalog.domain.Sku;
 import org.broadleafcommerce.core.catalog.service.CatalogService;
+import org.broadleafcommerce.openadmin.server.service.persistence.Persistable;
+import org.broadleafcommerce.openadmin.server.service.persistence.PersistenceThreadManager;
+import org.broadleafcommerce.openadmin.server.service.persistence.TargetModeType;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.Resource;
 import javax.persistence.EntityManager;
@@ -49,7 +71,7 @@ import javax.persistence.PersistenceContext;
  *
  */
 @Service("blAdminCatalogService")
-public class AdminCatalogServiceImpl implements AdminCatalogService {
+public class AdminCatalogServiceImpl implements AdminCatalogService, DisposableBean {
     
     private static final Log LOG = LogFactory.getLog(AdminCatalogServiceImpl.class);
 
@@ -64,6 +86,37 @@ public class AdminCatalogServiceImpl implements AdminCatalogService {
 
     @Resource(name = "blAdminCatalogServiceExtensionManager")
     protected AdminCatalogServiceExtensionManager extensionManager;
+
+    @Resource(name = "blTransactionManager")
+    protected PlatformTransactionManager transactionManager;
+
+    @Resource(name = "blPersistenceThreadManager")
+    protected PersistenceThreadManager persistenceThreadManager;
+
+    @Value("${admin.sku.generation.max.permutations}")
+    protected long maxPermutations = 10000;
+
+    @Value("${admin.sku.generation.batch.size}")
+    protected int batchSize = 50;
+
+    @Value("${admin.sku.generation.background.threshold}")
+    protected long backgroundThreshold = 0;
+
+    @Value("${admin.sku.generation.background.threads}")
+    protected int backgroundThreads = 2;
+
+    /**
+     * Finished background generations whose progress was never read are forgotten after this long
+     */
+    protected long finishedJobRetentionMillis = 600000L;
+
+    /**
+     * The generations running on this admin server, and the background ones that finished but whose result has not
+     * been read yet. Guarded by itself.
+     */
+    protected final Map<Long, SkuGenerationProgress> skuGenerationJobs = new HashMap<Long, SkuGenerationProgress>();
+
+    protected volatile ExecutorService skuGenerationExecutor;
     
     @Override
     public Integer generateSkusFromProduct(Long productId) {
@@ -73,46 +126,238 @@ public class AdminCatalogServiceImpl implements AdminCatalogService {
             return -1;
         }
         
-        List<List<ProductOptionValue>> allPermutations = generatePermutations(0, new ArrayList<ProductOptionValue>(), product.getProductOptions());
-        LOG.info("Total number of permutations: " + allPermutations.size());
-        LOG.info(allPermutations);
-        
-        //determine the permutations that I already have Skus for
-        List<List<ProductOptionValue>> previouslyGeneratedPermutations = new ArrayList<List<ProductOptionValue>>();
+        SkuPermutationIterator permutations = new SkuPermutationIterator(product.getProductOptions());
+        checkPermutationCount(productId, permutations.getPermutationCount());
+        SkuGenerationProgress progress = new SkuGenerationProgress(productId, permutations.getPermutationCount());
+        SkuGenerationProgress running = registerSkuGenerationJob(progress);
+        if (running != null) {
+            throw new SkuGenerationInProgressException(running);
+        }
+        try {
+            return generateSkus(product, permutations, progress);
+        } finally {
+            progress.setDone(true);
+            // The result is returned to the caller, so there is nothing left to report
+            synchronized (skuGenerationJobs) {
+                if (skuGenerationJobs.get(productId) == progress) {
+                    skuGenerationJobs.remove(productId);
+                }
+            }
+        }
+    }
+
+    @Override
+    public long getSkuPermutationCount(Long productId) {
+        Product product = catalogService.findProductById(productId);
+        if (CollectionUtils.isEmpty(product.getProductOptions())) {
+            return 0;
+        }
+        return new SkuPermutationIterator(product.getProductOptions()).getPermutationCount();
+    }
+
+    @Override
+    public boolean shouldGenerateSkusInBackground(Long productId) {
+        return backgroundThreshold > 0 && getSkuPermutationCount(productId) > backgroundThreshold;
+    }
+
+    @Override
+    public SkuGenerationProgress generateSkusFromProductInBackground(final Long productId) {
+        long permutationCount = getSkuPermutationCount(productId);
+        checkPermutationCount(productId, permutationCount);
+
+        final SkuGenerationProgress progress = new SkuGenerationProgress(productId, permutationCount);
+        SkuGenerationProgress running = registerSkuGenerationJob(progress);
+        if (running != null) {
+            return running;
+        }
+
+        // Runs with the sandbox, request and security context of this request and its own entity manager
+        final Callable<Integer> operation = persistenceThreadManager.contextualOperation(TargetModeType.SANDBOX,
+                new Persistable<Integer, RuntimeException>() {
+                    @Override
+                    public Integer execute() {
+                        Product product = catalogService.findProductById(productId);
+                        return generateSkus(product, new SkuPermutationIterator(product.getProductOptions()), progress);
+                    }
+                });
+        getSkuGenerationExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    operation.call();
+                } catch (Exception e) {
+                    LOG.error("Unable to generate the Skus of product " + productId, e);
+                    progress.setErrorMessage(e.getMessage());
+                } finally {
+                    progress.setDone(true);
+                }
+            }
+        });
+        return progress;
+    }
+
+    @Override
+    public SkuGenerationProgress getSkuGenerationProgress(Long productId) {
+        synchronized (skuGenerationJobs) {
+            evictFinishedSkuGenerationJobs();
+            SkuGenerationProgress progress = skuGenerationJobs.get(productId);
+            if (progress != null && progress.isDone()) {
+                // The final result has been read, so the job does not need to be kept any longer
+                skuGenerationJobs.remove(productId);
+            }
+            return progress;
+        }
+    }
+
+    /**
+     * Records the given generation as running unless one is already running for the same product
+     * 
+     * @return the generation already running for the product, or null if the given one was recorded
+     */
+    protected SkuGenerationProgress registerSkuGenerationJob(SkuGenerationProgress progress) {
+        synchronized (skuGenerationJobs) {
+            evictFinishedSkuGenerationJobs();
+            SkuGenerationProgress running = skuGenerationJobs.get(progress.getProductId());
+            if (running != null && !running.isDone()) {
+                return running;
+            }
+            skuGenerationJobs.put(progress.getProductId(), progress);
+            return null;
+        }
+    }
+
+    /**
+     * Forgets the generations that finished more than {@link #finishedJobRetentionMillis} ago. Must be called while
+     * holding the lock on {@link #skuGenerationJobs}.
+     */
+    protected void evictFinishedSkuGenerationJobs() {
+        long cutoff = System.currentTimeMillis() - finishedJobRetentionMillis;
+        for (Iterator<SkuGenerationProgress> itr = skuGenerationJobs.values().iterator(); itr.hasNext();) {
+            SkuGenerationProgress progress = itr.next();
+            if (progress.isDone() && progress.getFinishedTime() < cutoff) {
+                itr.remove();
+            }
+        }
+    }
+
+    protected void checkPermutationCount(Long productId, long permutationCount) {
+        if (maxPermutations > 0 && permutationCount > maxPermutations) {
+            throw new SkuGenerationLimitExceededException(productId, permutationCount, maxPermutations);
+        }
+    }
+
+    /**
+     * Creates a Sku for every permutation that the product does not have a Sku for yet. Permutations are read one at a
+     * time and compared against the option value ids of the existing Skus through a hash lookup. New permutations are
+     * handed to the extension handlers {@link #batchSize} at a time, each batch in its own transaction, so that the Skus
+     * of a batch are inserted together (see hibernate.jdbc.batch_size). Batches that were persisted before a failure
+     * stay persisted; running the generation again only creates the remaining Skus.
+     * 
+     * @return the number of Skus created
+     */
+    protected int generateSkus(Product product, Iterator<List<ProductOptionValue>> permutations, SkuGenerationProgress progress) {
+        Set<List<Long>> generatedPermutations = new HashSet<List<Long>>();
         if (CollectionUtils.isNotEmpty(product.getAdditionalSkus())) {
             for (Sku additionalSku : product.getAdditionalSkus()) {
                 if (CollectionUtils.isNotEmpty(additionalSku.getProductOptionValues())) {
-                    previouslyGeneratedPermutations.add(additionalSku.getProductOptionValues());
+                    generatedPermutations.add(getPermutationKey(additionalSku.getProductOptionValues()));
                 }
             }
         }
-        
-        List<List<ProductOptionValue>> permutationsToGenerate = new ArrayList<List<ProductOptionValue>>();
-        for (List<ProductOptionValue> permutation : allPermutations) {
-            boolean previouslyGenerated = false;
-            for (List<ProductOptionValue> generatedPermutation : previouslyGeneratedPermutations) {
-                if (isSamePermutation(permutation, generatedPermutation)) {
-                    previouslyGenerated = true;
-                    break;
-                }
-            }
-            
-            if (!previouslyGenerated) {
+
+        long processed = 0;
+        int numPermutationsCreated = 0;
+        List<List<ProductOptionValue>> permutationsToGenerate = new ArrayList<List<ProductOptionValue>>(batchSize);
+        while (permutations.hasNext()) {
+            List<ProductOptionValue> permutation = permutations.next();
+            if (generatedPermutations.add(getPermutationKey(permutation))) {
                 permutationsToGenerate.add(permutation);
             }
+            progress.setProcessed(++processed);
+            if (permutationsToGenerate.size() >= batchSize) {
+                numPermutationsCreated += persistSkuPermutations(product, permutationsToGenerate);
+                progress.setGenerated(numPermutationsCreated);
+                permutationsToGenerate = new ArrayList<List<ProductOptionValue>>(batchSize);
+            }
+        }
+        if (!permutationsToGenerate.isEmpty()) {
+            numPermutationsCreated += persistSkuPermutations(product, permutationsToGenerate);
+            progress.setGenerated(numPermutationsCreated);
         }
 
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Generated " + numPermutationsCreated + " Skus from " + processed + " permutations for product "
+                    + product.getId());
+        }
+        return numPermutationsCreated;
+    }
+
+    protected int persistSkuPermutations(Product product, List<List<ProductOptionValue>> permutationsToGenerate) {
         int numPermutationsCreated = 0;
         if (extensionManager != null) {
-            ExtensionResultHolder<Integer> result = new ExtensionResultHolder<Integer>();
-            ExtensionResultStatusType resultStatusType = extensionManager.getProxy().persistSkuPermutation(product, permutationsToGenerate, result);
-            if (ExtensionResultStatusType.HANDLED == resultStatusType) {
-                numPermutationsCreated = result.getResult();
+            TransactionStatus status = TransactionUtils.createTransaction("generateSkus",
+                    TransactionDefinition.PROPAGATION_REQUIRED, transactionManager);
+            boolean isError = true;
+            try {
+                ExtensionResultHolder<Integer> result = new ExtensionResultHolder<Integer>();
+                ExtensionResultStatusType resultStatusType = extensionManager.getProxy().persistSkuPermutation(product, permutationsToGenerate, result);
+                if (ExtensionResultStatusType.HANDLED == resultStatusType) {
+                    numPermutationsCreated = result.getResult();
+                }
+                isError = false;
+            } finally {
+                TransactionUtils.finalizeTransaction(status, transactionManager, isError);
             }
         }
         return numPermutationsCreated;
     }
 
+    /**
+     * @return the sorted ids of the given option values, which are the same for every ordering of the same values
+     */
+    protected List<Long> getPermutationKey(Collection<ProductOptionValue> permutation) {
+        List<Long> key = new ArrayList<Long>(permutation.size());
+        for (ProductOptionValue value : permutation) {
+            key.add(value.getId());
+        }
+        Collections.sort(key);
+        return key;
+    }
+
+    protected ExecutorService getSkuGenerationExecutor() {
+        if (skuGenerationExecutor == null) {
+            synchronized (this) {
+                if (skuGenerationExecutor == null) {
+                    skuGenerationExecutor = new ThreadPoolExecutor(backgroundThreads, backgroundThreads, 60L,
+                            TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                                protected final AtomicInteger threadNumber = new AtomicInteger();
+
+                                @Override
+                                public Thread newThread(Runnable r) {
+                                    Thread thread = new Thread(r, "blSkuGeneration-" + threadNumber.incrementAndGet());
+                                    thread.setDaemon(true);
+                                    return thread;
+                                }
+                            });
+                    ((ThreadPoolExecutor) skuGenerationExecutor).allowCoreThreadTimeOut(true);
+                }
+            }
+        }
+        return skuGenerationExecutor;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (skuGenerationExecutor != null) {
+            skuGenerationExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * @deprecated Skus are no longer generated from a list of every permutation; permutations are compared by
+     * {@link #getPermutationKey(Collection)} instead
+     */
+    @Deprecated
     protected boolean isSamePermutation(List<ProductOptionValue> perm1, List<ProductOptionValue> perm2) {
         if (perm1.size() == perm2.size()) {
             
@@ -141,7 +386,9 @@ public class AdminCatalogServiceImpl implements AdminCatalogService {
      * @param currentPermutation
      * @param options
      * @return a list containing all of the possible combinations of ProductOptionValues based on grouping by the ProductOptionValue
+     * @deprecated this holds every permutation in memory at once; use {@link SkuPermutationIterator} instead
      */
+    @Deprecated
     public List<List<ProductOptionValue>> generatePermutations(int currentTypeIndex, List<ProductOptionValue> currentPermutation, List<ProductOption> options) {
         List<List<ProductOptionValue>> result = new ArrayList<List<ProductOptionValue>>();
         if (currentTypeIndex == options.size()) {
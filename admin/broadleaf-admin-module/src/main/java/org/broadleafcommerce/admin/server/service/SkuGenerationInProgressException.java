@@ -0,0 +1,41 @@
+/*
+ * #%L
+ * BroadleafCommerce Admin Module
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.admin.server.service;
+
+/**
+ * Thrown when the skus of a product are to be generated while this admin server is already generating them. No skus
+ * are generated in that case; the progress of the running generation can be followed instead.
+ */
+public class SkuGenerationInProgressException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    protected final SkuGenerationProgress progress;
+
+    public SkuGenerationInProgressException(SkuGenerationProgress progress) {
+        super("The Skus of product " + progress.getProductId() + " are already being generated");
+        this.progress = progress;
+    }
+
+    public SkuGenerationProgress getProgress() {
+        return progress;
+    }
+
+}
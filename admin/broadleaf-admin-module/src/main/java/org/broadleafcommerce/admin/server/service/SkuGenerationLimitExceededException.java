@@ -0,0 +1,49 @@
+/*
+ * #%L
+ * BroadleafCommerce Admin Module
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.admin.server.service;
+
+/**
+ * Thrown when the product options of a product would produce more sku permutations than the configured maximum
+ * (see admin.sku.generation.max.permutations). No skus are generated in that case.
+ */
+public class SkuGenerationLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    protected final long permutationCount;
+    protected final long maxPermutations;
+
+    public SkuGenerationLimitExceededException(Long productId, long permutationCount, long maxPermutations) {
+        super("The product options of product " + productId + " produce " + permutationCount
+                + " Sku permutations, which is more than the maximum of " + maxPermutations
+                + ". Remove option values or raise admin.sku.generation.max.permutations.");
+        this.permutationCount = permutationCount;
+        this.maxPermutations = maxPermutations;
+    }
+
+    public long getPermutationCount() {
+        return permutationCount;
+    }
+
+    public long getMaxPermutations() {
+        return maxPermutations;
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * #%L
+ * BroadleafCommerce Admin Module
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.admin.server.service;
+
+import java.io.Serializable;
+
+/**
+ * Progress of a background sku generation for a single product, as started by
+ * {@link AdminCatalogService#generateSkusFromProductInBackground(Long)}. The generating thread updates it while the
+ * admin reads it, so all of the fields are volatile.
+ */
+public class SkuGenerationProgress implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    protected final Long productId;
+    protected final long permutationCount;
+    protected volatile long processed;
+    protected volatile int generated;
+    protected volatile boolean done;
+    protected volatile long finishedTime;
+    protected volatile String errorMessage;
+
+    public SkuGenerationProgress(Long productId, long permutationCount) {
+        this.productId = productId;
+        this.permutationCount = permutationCount;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    /**
+     * @return the number of permutations of the product options, including the ones that already have a Sku
+     */
+    public long getPermutationCount() {
+        return permutationCount;
+    }
+
+    /**
+     * @return the number of permutations looked at so far
+     */
+    public long getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(long processed) {
+        this.processed = processed;
+    }
+
+    /**
+     * @return the number of Skus created so far
+     */
+    public int getGenerated() {
+        return generated;
+    }
+
+    public void setGenerated(int generated) {
+        this.generated = generated;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public void setDone(boolean done) {
+        if (done && !this.done) {
+            finishedTime = System.currentTimeMillis();
+        }
+        this.done = done;
+    }
+
+    /**
+     * @return when the generation finished, in milliseconds since the epoch, or 0 while it is running
+     */
+    public long getFinishedTime() {
+        return finishedTime;
+    }
+
+    /**
+     * @return the reason the generation stopped early, or null if it did not fail
+     */
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+}
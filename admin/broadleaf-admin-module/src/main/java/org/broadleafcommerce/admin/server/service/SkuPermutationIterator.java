@@ -0,0 +1,99 @@
+/*
+ * #%L
+ * BroadleafCommerce Admin Module
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.admin.server.service;
+
+import org.broadleafcommerce.core.catalog.domain.ProductOption;
+import org.broadleafcommerce.core.catalog.domain.ProductOptionValue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Walks the permutations of the allowed values of a set of {@link ProductOption}s one at a time, in the same order as
+ * {@link AdminCatalogServiceImpl#generatePermutations(int, List, List)} but without building the whole cartesian product
+ * in memory. Options that are not used in sku generation or that have no allowed values are left out. When no option
+ * contributes a value there are no permutations.
+ */
+public class SkuPermutationIterator implements Iterator<List<ProductOptionValue>> {
+
+    protected final List<List<ProductOptionValue>> dimensions = new ArrayList<List<ProductOptionValue>>();
+    protected final int[] positions;
+    protected boolean hasNext;
+
+    public SkuPermutationIterator(List<ProductOption> options) {
+        for (ProductOption option : options) {
+            if (option.getUseInSkuGeneration() && option.getAllowedValues().size() > 0) {
+                dimensions.add(new ArrayList<ProductOptionValue>(option.getAllowedValues()));
+            }
+        }
+        positions = new int[dimensions.size()];
+        hasNext = !dimensions.isEmpty();
+    }
+
+    /**
+     * @return the total number of permutations, or {@link Long#MAX_VALUE} if there are more than that
+     */
+    public long getPermutationCount() {
+        if (dimensions.isEmpty()) {
+            return 0;
+        }
+        long count = 1;
+        for (List<ProductOptionValue> values : dimensions) {
+            if (count > Long.MAX_VALUE / values.size()) {
+                return Long.MAX_VALUE;
+            }
+            count *= values.size();
+        }
+        return count;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    @Override
+    public List<ProductOptionValue> next() {
+        if (!hasNext) {
+            throw new NoSuchElementException();
+        }
+        List<ProductOptionValue> permutation = new ArrayList<ProductOptionValue>(dimensions.size());
+        for (int i = 0; i < dimensions.size(); i++) {
+            permutation.add(dimensions.get(i).get(positions[i]));
+        }
+
+        // Advance the last option first, carrying over into the options before it
+        int i = positions.length - 1;
+        while (i >= 0 && ++positions[i] == dimensions.get(i).size()) {
+            positions[i] = 0;
+            i--;
+        }
+        hasNext = i >= 0;
+        return permutation;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+}
@@ -20,6 +20,9 @@
 package org.broadleafcommerce.admin.web.controller.action;
 
 import org.broadleafcommerce.admin.server.service.AdminCatalogService;
+import org.broadleafcommerce.admin.server.service.SkuGenerationInProgressException;
+import org.broadleafcommerce.admin.server.service.SkuGenerationLimitExceededException;
+import org.broadleafcommerce.admin.server.service.SkuGenerationProgress;
 import org.broadleafcommerce.admin.web.controller.entity.AdminProductController;
 import org.broadleafcommerce.openadmin.web.controller.AdminAbstractController;
 import org.springframework.stereotype.Controller;
@@ -60,23 +63,87 @@ public class AdminCatalogActionsController extends AdminAbstractController {
             @PathVariable(value = "productId") Long productId,
             @PathVariable(value = "skusFieldName") String skusFieldName) {
         HashMap<String, Object> result = new HashMap<String, Object>();
-        Integer skusGenerated = adminCatalogService.generateSkusFromProduct(productId);
-        
-        //TODO: Externalize these messages to property files
-        if (skusGenerated == 0) {
-            result.put("message", "No Skus were generated. It is likely that each product option value permutation " +
-            		"already has a Sku associated with it");
-        } else if (skusGenerated == -1) {
-            result.put("message", "This product has no Product Options configured to generate Skus from");
-        } else {
-            result.put("message", skusGenerated + " Skus have been generated from the configured product options");
+        String url = request.getRequestURL().toString();
+        url = url.substring(0, url.indexOf("/generate-skus"));
+        result.put("listGridUrl", url);
+
+        try {
+            if (adminCatalogService.shouldGenerateSkusInBackground(productId)) {
+                SkuGenerationProgress progress = adminCatalogService.generateSkusFromProductInBackground(productId);
+                result.put("message", "Skus are being generated from " + progress.getPermutationCount() + 
+                        " product option permutations");
+                result.put("skusGenerated", 0);
+                result.put("progressUrl", url + "/generate-skus/progress");
+                return result;
+            }
+
+            Integer skusGenerated = adminCatalogService.generateSkusFromProduct(productId);
+
+            //TODO: Externalize these messages to property files
+            if (skusGenerated == 0) {
+                result.put("message", "No Skus were generated. It is likely that each product option value permutation " +
+                		"already has a Sku associated with it");
+            } else if (skusGenerated == -1) {
+                result.put("message", "This product has no Product Options configured to generate Skus from");
+            } else {
+                result.put("message", skusGenerated + " Skus have been generated from the configured product options");
+            }
+            result.put("skusGenerated", skusGenerated);
+        } catch (SkuGenerationLimitExceededException e) {
+            result.put("error", true);
+            result.put("message", e.getMessage());
+            result.put("skusGenerated", 0);
+        } catch (SkuGenerationInProgressException e) {
+            result.put("message", "Skus are already being generated for this product, " + e.getProgress().getProcessed() +
+                    " of " + e.getProgress().getPermutationCount() + " product option permutations checked");
+            result.put("skusGenerated", 0);
+            result.put("progressUrl", url + "/generate-skus/progress");
         }
-        
+        return result;
+    }
+
+    /**
+     * Reports the progress of a Sku generation started in the background by
+     * {@link #generateSkus(HttpServletRequest, HttpServletResponse, Model, Long, String)}
+     */
+    @RequestMapping(value = "product/{productId}/{skusFieldName}/generate-skus/progress",
+                    method = RequestMethod.GET,
+                    produces = "application/json")
+    public @ResponseBody Map<String, Object> getGenerateSkusProgress(HttpServletRequest request, HttpServletResponse response, 
+            Model model,
+            @PathVariable(value = "productId") Long productId,
+            @PathVariable(value = "skusFieldName") String skusFieldName) {
+        HashMap<String, Object> result = new HashMap<String, Object>();
         String url = request.getRequestURL().toString();
         url = url.substring(0, url.indexOf("/generate-skus"));
-        
-        result.put("skusGenerated", skusGenerated);
         result.put("listGridUrl", url);
+
+        SkuGenerationProgress progress = adminCatalogService.getSkuGenerationProgress(productId);
+        if (progress == null) {
+            // Either the result was already read or the generation runs on another admin server, so whether it is
+            // done is not known here
+            result.put("done", true);
+            result.put("unknown", true);
+            result.put("skusGenerated", 0);
+            result.put("message", "This server is not generating Skus for this product. They may have been generated " +
+                    "already or be generated by another server; the Skus below are the ones generated so far");
+            return result;
+        }
+
+        result.put("done", progress.isDone());
+        result.put("processed", progress.getProcessed());
+        result.put("permutationCount", progress.getPermutationCount());
+        result.put("skusGenerated", progress.getGenerated());
+        if (progress.getErrorMessage() != null) {
+            result.put("error", true);
+            result.put("message", "Sku generation stopped after " + progress.getGenerated() + " Skus: " + 
+                    progress.getErrorMessage());
+        } else if (progress.isDone()) {
+            result.put("message", progress.getGenerated() + " Skus have been generated from the configured product options");
+        } else {
+            result.put("message", progress.getGenerated() + " Skus have been generated so far, " + progress.getProcessed() + 
+                    " of " + progress.getPermutationCount() + " product option permutations checked");
+        }
         return result;
     }
 }
@@ -29,6 +29,26 @@
             }, function(data) {
                 BLCAdmin.listGrid.replaceRelatedListGrid($(data));
             });
+        },
+        
+        pollSkuGeneration : function($container, progressUrl) {
+            setTimeout(function() {
+                BLC.ajax({
+                    url : progressUrl,
+                    type : "GET"
+                }, function(data) {
+                    BLCAdmin.listGrid.showAlert($container, data.message, {
+                        alertType: data.error ? 'alert' : '',
+                        clearOtherAlerts: true
+                    });
+                    
+                    if (!data.done) {
+                        BLCAdmin.product.pollSkuGeneration($container, progressUrl);
+                    } else if (data.skusGenerated > 0 || data.unknown) {
+                        BLCAdmin.product.refreshSkusGrid($container, data.listGridUrl);
+                    }
+                });
+            }, 2000);
         }
 
     };
@@ -51,7 +71,9 @@ $(document).ready(function() {
                 clearOtherAlerts: true
             });
             
-            if (data.skusGenerated > 0) {
+            if (data.progressUrl) {
+                BLCAdmin.product.pollSkuGeneration($container, data.progressUrl);
+            } else if (data.skusGenerated > 0) {
                 BLCAdmin.product.refreshSkusGrid($container, data.listGridUrl);
             }
         });
@@ -0,0 +1,165 @@
+/*
+ * #%L
+ * BroadleafCommerce Admin Module
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.admin.server.service;
+
+import junit.framework.TestCase;
+
+import org.broadleafcommerce.core.catalog.domain.Product;
+import org.broadleafcommerce.core.catalog.domain.ProductImpl;
+import org.broadleafcommerce.core.catalog.domain.ProductOption;
+import org.broadleafcommerce.core.catalog.domain.ProductOptionImpl;
+import org.broadleafcommerce.core.catalog.domain.ProductOptionValue;
+import org.broadleafcommerce.core.catalog.domain.ProductOptionValueImpl;
+import org.broadleafcommerce.core.catalog.domain.Sku;
+import org.broadleafcommerce.core.catalog.domain.SkuImpl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+public class AdminCatalogServiceImplTest extends TestCase {
+
+    protected long nextId = 1;
+
+    public void testIteratorMatchesGeneratedPermutations() {
+        List<ProductOption> options = Arrays.asList(createOption(3, true), createOption(2, false), createOption(0, true),
+                createOption(2, true), createOption(4, true));
+
+        List<List<ProductOptionValue>> expected = new AdminCatalogServiceImpl().generatePermutations(0,
+                new ArrayList<ProductOptionValue>(), options);
+        List<List<ProductOptionValue>> actual = new ArrayList<List<ProductOptionValue>>();
+        SkuPermutationIterator iterator = new SkuPermutationIterator(options);
+        while (iterator.hasNext()) {
+            actual.add(iterator.next());
+        }
+
+        assertEquals(24, expected.size());
+        assertEquals(expected, actual);
+        assertEquals(24L, new SkuPermutationIterator(options).getPermutationCount());
+    }
+
+    public void testIteratorWithoutGeneratingOptionsIsEmpty() {
+        SkuPermutationIterator iterator = new SkuPermutationIterator(Arrays.asList(createOption(3, false), createOption(0, true)));
+        assertFalse(iterator.hasNext());
+        assertEquals(0L, iterator.getPermutationCount());
+    }
+
+    public void testPermutationCountSaturates() {
+        List<ProductOption> options = new ArrayList<ProductOption>();
+        for (int i = 0; i < 20; i++) {
+            options.add(createOption(10, true));
+        }
+        assertEquals(Long.MAX_VALUE, new SkuPermutationIterator(options).getPermutationCount());
+    }
+
+    public void testExistingPermutationsAreSkippedAndNewOnesBatched() {
+        List<ProductOption> options = Arrays.asList(createOption(5, true), createOption(5, true), createOption(4, true));
+        Product product = new ProductImpl();
+        List<Sku> existingSkus = new ArrayList<Sku>();
+        SkuPermutationIterator iterator = new SkuPermutationIterator(options);
+        for (int i = 0; i < 7; i++) {
+            // the values of an existing sku are not kept in option order
+            Sku sku = new SkuImpl();
+            sku.setProductOptionValuesCollection(new HashSet<ProductOptionValue>(iterator.next()));
+            existingSkus.add(sku);
+        }
+        product.setAdditionalSkus(existingSkus);
+
+        RecordingAdminCatalogService service = new RecordingAdminCatalogService();
+        service.batchSize = 40;
+        SkuGenerationProgress progress = new SkuGenerationProgress(1L, 100);
+        int generated = service.generateSkus(product, new SkuPermutationIterator(options), progress);
+
+        assertEquals(93, generated);
+        assertEquals(Arrays.asList(40, 40, 13), service.batchSizes);
+        assertEquals(100L, progress.getProcessed());
+        assertEquals(93, progress.getGenerated());
+    }
+
+    public void testPermutationLimit() {
+        AdminCatalogServiceImpl service = new AdminCatalogServiceImpl();
+        service.maxPermutations = 100;
+        service.checkPermutationCount(1L, 100);
+        try {
+            service.checkPermutationCount(1L, 101);
+            fail();
+        } catch (SkuGenerationLimitExceededException e) {
+            assertEquals(101L, e.getPermutationCount());
+            assertEquals(100L, e.getMaxPermutations());
+        }
+        service.maxPermutations = 0;
+        service.checkPermutationCount(1L, Long.MAX_VALUE);
+    }
+
+    public void testRunningJobIsReturnedAndFinishedJobEvictedOnRead() {
+        AdminCatalogServiceImpl service = new AdminCatalogServiceImpl();
+        SkuGenerationProgress running = new SkuGenerationProgress(1L, 100);
+        assertNull(service.registerSkuGenerationJob(running));
+        assertSame(running, service.registerSkuGenerationJob(new SkuGenerationProgress(1L, 100)));
+        assertSame(running, service.getSkuGenerationProgress(1L));
+
+        running.setDone(true);
+        assertSame(running, service.getSkuGenerationProgress(1L));
+        assertNull(service.getSkuGenerationProgress(1L));
+        assertNull(service.registerSkuGenerationJob(new SkuGenerationProgress(1L, 100)));
+    }
+
+    public void testUnreadFinishedJobsExpire() {
+        AdminCatalogServiceImpl service = new AdminCatalogServiceImpl();
+        SkuGenerationProgress finished = new SkuGenerationProgress(1L, 100);
+        service.registerSkuGenerationJob(finished);
+        finished.setDone(true);
+        service.registerSkuGenerationJob(new SkuGenerationProgress(2L, 100));
+        assertEquals(2, service.skuGenerationJobs.size());
+
+        service.finishedJobRetentionMillis = -1;
+        assertNull(service.registerSkuGenerationJob(new SkuGenerationProgress(3L, 100)));
+        assertFalse(service.skuGenerationJobs.containsKey(1L));
+        assertEquals(2, service.skuGenerationJobs.size());
+    }
+
+    protected ProductOption createOption(int valueCount, boolean useInSkuGeneration) {
+        ProductOption option = new ProductOptionImpl();
+        option.setId(nextId++);
+        option.setUseInSkuGeneration(useInSkuGeneration);
+        List<ProductOptionValue> values = new ArrayList<ProductOptionValue>();
+        for (int i = 0; i < valueCount; i++) {
+            ProductOptionValue value = new ProductOptionValueImpl();
+            value.setId(nextId++);
+            value.setProductOption(option);
+            values.add(value);
+        }
+        option.setAllowedValues(values);
+        return option;
+    }
+
+    protected static class RecordingAdminCatalogService extends AdminCatalogServiceImpl {
+
+        protected List<Integer> batchSizes = new ArrayList<Integer>();
+
+        @Override
+        protected int persistSkuPermutations(Product product, List<List<ProductOptionValue>> permutationsToGenerate) {
+            batchSizes.add(permutationsToGenerate.size());
+            return permutationsToGenerate.size();
+        }
+    }
+
+}
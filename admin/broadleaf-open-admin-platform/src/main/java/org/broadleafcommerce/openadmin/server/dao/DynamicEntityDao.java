@@ -74,6 +74,17 @@ public interface DynamicEntityDao {
     
     public void refresh(Serializable entity);
 
+    /**
+     * Whether {@link #persist(Object)}, {@link #merge(Object)} and {@link #remove(Serializable)} flush the entity
+     * manager right away. This is true by default. Bulk operations turn it off and flush once per batch instead, so
+     * that the statements can be sent to the database in JDBC batches.
+     *
+     * @param immediateFlush
+     */
+    public void setImmediateFlush(boolean immediateFlush);
+
+    public boolean isImmediateFlush();
+
     public Object find(Class<?> entityClass, Object key);
 
     public EntityManager getStandardEntityManager();
@@ -45,7 +45,6 @@ import org.broadleafcommerce.openadmin.server.service.AppConfigurationService;
 import org.broadleafcommerce.openadmin.server.service.persistence.module.FieldManager;
 import org.broadleafcommerce.openadmin.server.service.persistence.validation.FieldNamePropertyValidator;
 import org.broadleafcommerce.openadmin.server.service.type.FieldProviderResponse;
-import org.codehaus.jackson.map.util.LRUMap;
 import org.hibernate.Criteria;
 import org.hibernate.MappingException;
 import org.hibernate.SessionFactory;
@@ -95,7 +94,7 @@ public class DynamicEntityDaoImpl implements DynamicEntityDao, ApplicationContex
     
     private static final Log LOG = LogFactory.getLog(DynamicEntityDaoImpl.class);
     
-    protected static final Map<String,Map<String, FieldMetadata>> METADATA_CACHE = new LRUMap<String, Map<String, FieldMetadata>>(100, 1000);
+    protected static final FieldMetadataCache METADATA_CACHE = new FieldMetadataCache(1000);
     /*
      * This is the same as POLYMORPHIC_ENTITY_CACHE, except that it does not contain classes that are abstract or have been marked for exclusion 
      * from polymorphism
@@ -128,8 +127,17 @@ public class DynamicEntityDaoImpl implements DynamicEntityDao, ApplicationContex
 
     protected long lastCacheFlushTime = System.currentTimeMillis();
 
+    protected boolean immediateFlush = true;
+
     protected ApplicationContext applicationContext;
 
+    /**
+     * @return the cache of entity metadata shared by all instances of this dao
+     */
+    public static FieldMetadataCache getMetadataCache() {
+        return METADATA_CACHE;
+    }
+
     @Override
     public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
         this.applicationContext = applicationContext;
@@ -143,7 +151,9 @@ public class DynamicEntityDaoImpl implements DynamicEntityDao, ApplicationContex
     @Override
     public <T> T persist(T entity) {
         standardEntityManager.persist(entity);
-        standardEntityManager.flush();
+        if (immediateFlush) {
+            standardEntityManager.flush();
+        }
         return entity;
     }
 
@@ -155,7 +165,9 @@ public class DynamicEntityDaoImpl implements DynamicEntityDao, ApplicationContex
     @Override
     public <T> T merge(T entity) {
         T response = standardEntityManager.merge(entity);
-        standardEntityManager.flush();
+        if (immediateFlush) {
+            standardEntityManager.flush();
+        }
         return response;
     }
     
@@ -174,6 +186,16 @@ public class DynamicEntityDaoImpl implements DynamicEntityDao, ApplicationContex
         standardEntityManager.refresh(entity);
     }
     
+    @Override
+    public void setImmediateFlush(boolean immediateFlush) {
+        this.immediateFlush = immediateFlush;
+    }
+
+    @Override
+    public boolean isImmediateFlush() {
+        return immediateFlush;
+    }
+
     @Override
     public Serializable retrieve(Class<?> entityClass, Object primaryKey) {
         return (Serializable) standardEntityManager.find(entityClass, primaryKey);
@@ -182,7 +204,9 @@ public class DynamicEntityDaoImpl implements DynamicEntityDao, ApplicationContex
     @Override
     public void remove(Serializable entity) {
         standardEntityManager.remove(entity);
-        standardEntityManager.flush();
+        if (immediateFlush) {
+            standardEntityManager.flush();
+        }
     }
 
     @Override
@@ -574,7 +598,8 @@ public class DynamicEntityDaoImpl implements DynamicEntityDao, ApplicationContex
 
     protected String getCacheKey(ForeignKey foreignField, String[] additionalNonPersistentProperties, ForeignKey[] additionalForeignFields, MergedPropertyType mergedPropertyType, Boolean populateManyToOneFields, Class<?> clazz, String configurationKey, Boolean isParentExcluded) {
         StringBuilder sb = new StringBuilder(150);
-        sb.append(clazz.hashCode());
+        // the class name, unlike its identity hash code, is stable across restarts, which keeps snapshots usable
+        sb.append(clazz.getName());
         sb.append(foreignField==null?"":foreignField.toString());
         sb.append(configurationKey);
         sb.append(isParentExcluded);
@@ -623,54 +648,58 @@ public class DynamicEntityDaoImpl implements DynamicEntityDao, ApplicationContex
         for (Class<?> clazz : entities) {
             String cacheKey = getCacheKey(foreignField, additionalNonPersistentProperties, additionalForeignFields, mergedPropertyType, populateManyToOneFields, clazz, configurationKey, isParentExcluded);
 
+            boolean useCache = useCache();
             Map<String, FieldMetadata> cacheData = null;
-            synchronized(DynamicDaoHelperImpl.LOCK_OBJECT) {
-                if (useCache()) {
-                    cacheData = METADATA_CACHE.get(cacheKey);
-                }
-
-                if (cacheData == null) {
-                    Map<String, FieldMetadata> props = getPropertiesForEntityClass(
-                        clazz,
-                        foreignField,
-                        additionalNonPersistentProperties,
-                        additionalForeignFields,
-                        mergedPropertyType,
-                        populateManyToOneFields,
-                        includeFields,
-                        excludeFields,
-                        configurationKey,
-                        ceilingEntityFullyQualifiedClassname,
-                        parentClasses,
-                        prefix,
-                        isParentExcluded
-                    );
-                    //first check all the properties currently in there to see if my entity inherits from them
-                    for (Class<?> clazz2 : entities) {
-                        if (!clazz2.getName().equals(clazz.getName())) {
-                            for (Map.Entry<String, FieldMetadata> entry : props.entrySet()) {
-                                FieldMetadata metadata = entry.getValue();
-                                try {
-                                    if (Class.forName(metadata.getInheritedFromType()).isAssignableFrom(clazz2)) {
-                                        String[] both = (String[]) ArrayUtils.addAll(metadata.getAvailableToTypes(), new String[]{clazz2.getName()});
-                                        metadata.setAvailableToTypes(both);
+            if (useCache) {
+                // published entries are never modified, so they can be read without holding the lock
+                cacheData = METADATA_CACHE.get(cacheKey);
+            }
+            if (cacheData == null) {
+                synchronized(DynamicDaoHelperImpl.LOCK_OBJECT) {
+                    if (useCache) {
+                        // another thread may have built the metadata while this one waited for the lock
+                        cacheData = METADATA_CACHE.get(cacheKey);
+                    }
+                    if (cacheData == null) {
+                        Map<String, FieldMetadata> props = getPropertiesForEntityClass(
+                            clazz,
+                            foreignField,
+                            additionalNonPersistentProperties,
+                            additionalForeignFields,
+                            mergedPropertyType,
+                            populateManyToOneFields,
+                            includeFields,
+                            excludeFields,
+                            configurationKey,
+                            ceilingEntityFullyQualifiedClassname,
+                            parentClasses,
+                            prefix,
+                            isParentExcluded
+                        );
+                        //first check all the properties currently in there to see if my entity inherits from them
+                        for (Class<?> clazz2 : entities) {
+                            if (!clazz2.getName().equals(clazz.getName())) {
+                                for (Map.Entry<String, FieldMetadata> entry : props.entrySet()) {
+                                    FieldMetadata metadata = entry.getValue();
+                                    try {
+                                        if (Class.forName(metadata.getInheritedFromType()).isAssignableFrom(clazz2)) {
+                                            String[] both = (String[]) ArrayUtils.addAll(metadata.getAvailableToTypes(), new String[]{clazz2.getName()});
+                                            metadata.setAvailableToTypes(both);
+                                        }
+                                    } catch (ClassNotFoundException e) {
+                                        throw new RuntimeException(e);
                                     }
-                                } catch (ClassNotFoundException e) {
-                                    throw new RuntimeException(e);
                                 }
                             }
                         }
+                        cacheData = METADATA_CACHE.put(cacheKey, props);
                     }
-                    METADATA_CACHE.put(cacheKey, props);
-                    cacheData = props;
                 }
             }
-            //clone the metadata before passing to the system
-            Map<String, FieldMetadata> clonedCache = new HashMap<String, FieldMetadata>(cacheData.size());
+            //clone the metadata before passing to the system, as the late stage metadata providers modify it
             for (Map.Entry<String, FieldMetadata> entry : cacheData.entrySet()) {
-                clonedCache.put(entry.getKey(), entry.getValue().cloneFieldMetadata());
+                mergedProperties.put(entry.getKey(), entry.getValue().cloneFieldMetadata());
             }
-            mergedProperties.putAll(clonedCache);
         }
     }
 
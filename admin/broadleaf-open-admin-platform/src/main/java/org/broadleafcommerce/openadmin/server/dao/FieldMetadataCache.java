@@ -0,0 +1,241 @@
+/*
+ * #%L
+ * BroadleafCommerce Open Admin Platform
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.openadmin.server.dao;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.broadleafcommerce.openadmin.dto.FieldMetadata;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Holds the {@link FieldMetadata} built by {@link DynamicEntityDaoImpl} for each entity class, keyed by
+ * {@link DynamicEntityDaoImpl#getCacheKey}. Entries are published as unmodifiable maps that are never changed
+ * afterwards, so reads do not need to lock. Callers that intend to change the metadata they receive (as
+ * {@link DynamicEntityDaoImpl#getMergedProperties} does through the late stage metadata providers) must work
+ * on a copy.
+ * 
+ * <p>The contents may be written to and restored from a serialized snapshot on disk, which allows the admin to start
+ * with warm metadata. A snapshot is only restored when the signature it was written with matches the current one.
+ * Since the file may live in a location shared by several nodes, reading it only resolves classes from the packages the
+ * metadata is made of (see {@link #allowSnapshotPackage(String)}); a snapshot referencing any other class is ignored.</p>
+ */
+public class FieldMetadataCache {
+
+    private static final Log LOG = LogFactory.getLog(FieldMetadataCache.class);
+
+    protected final Map<String, Map<String, FieldMetadata>> entries = new ConcurrentHashMap<String, Map<String, FieldMetadata>>();
+    protected final int maxEntries;
+    protected final Set<String> snapshotPackages = new CopyOnWriteArraySet<String>();
+
+    public FieldMetadataCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        snapshotPackages.add("java.lang");
+        snapshotPackages.add("java.math");
+        snapshotPackages.add("java.util");
+        snapshotPackages.add("org.broadleafcommerce.openadmin.dto");
+        snapshotPackages.add("org.broadleafcommerce.common.presentation");
+        snapshotPackages.add("org.broadleafcommerce.common.presentation.client");
+    }
+
+    /**
+     * Allows classes of the given package (but not of its sub-packages) to be read from a snapshot. Needed when custom
+     * {@link FieldMetadata} implementations, or the values they hold, live outside of the default packages.
+     */
+    public void allowSnapshotPackage(String packageName) {
+        snapshotPackages.add(packageName);
+    }
+
+    public Map<String, FieldMetadata> get(String cacheKey) {
+        return entries.get(cacheKey);
+    }
+
+    /**
+     * Publishes the metadata for the given key. The passed map must not be changed by the caller afterwards.
+     * 
+     * @return the unmodifiable view that was stored
+     */
+    public Map<String, FieldMetadata> put(String cacheKey, Map<String, FieldMetadata> metadata) {
+        if (entries.size() >= maxEntries && !entries.containsKey(cacheKey)) {
+            // the cache is only full when the admin uses an unusually large variety of perspectives, so evicting
+            // an arbitrary entry is good enough
+            Iterator<String> itr = entries.keySet().iterator();
+            if (itr.hasNext()) {
+                itr.next();
+                itr.remove();
+            }
+        }
+        Map<String, FieldMetadata> published = Collections.unmodifiableMap(metadata);
+        entries.put(cacheKey, published);
+        return published;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Writes the current contents of the cache to the given file
+     * 
+     * @param snapshot the file to write
+     * @param signature identifies the code and configuration the metadata was built from
+     * @return whether or not the snapshot could be written
+     */
+    public boolean writeSnapshot(File snapshot, String signature) {
+        HashMap<String, HashMap<String, FieldMetadata>> contents = new HashMap<String, HashMap<String, FieldMetadata>>(entries.size());
+        for (Map.Entry<String, Map<String, FieldMetadata>> entry : entries.entrySet()) {
+            contents.put(entry.getKey(), new HashMap<String, FieldMetadata>(entry.getValue()));
+        }
+        File temp = new File(snapshot.getPath() + ".tmp");
+        ObjectOutputStream out = null;
+        try {
+            if (snapshot.getParentFile() != null) {
+                snapshot.getParentFile().mkdirs();
+            }
+            out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+            out.writeUTF(signature);
+            out.writeObject(contents);
+            out.close();
+            out = null;
+            // replace the previous snapshot only once the new one is complete
+            if (snapshot.exists() && !snapshot.delete()) {
+                LOG.warn("Unable to replace the admin metadata snapshot at " + snapshot.getAbsolutePath());
+                return false;
+            }
+            return temp.renameTo(snapshot);
+        } catch (IOException e) {
+            LOG.warn("Unable to write the admin metadata snapshot to " + snapshot.getAbsolutePath(), e);
+            return false;
+        } finally {
+            closeQuietly(out);
+            temp.delete();
+        }
+    }
+
+    /**
+     * Restores the contents of a snapshot written by {@link #writeSnapshot(File, String)}. Entries already in the cache
+     * are kept.
+     * 
+     * @return the number of entries restored, or -1 if the snapshot does not exist, cannot be read or was written with
+     * a different signature
+     */
+    @SuppressWarnings("unchecked")
+    public int readSnapshot(File snapshot, String signature) {
+        if (!snapshot.exists()) {
+            return -1;
+        }
+        ObjectInputStream in = null;
+        try {
+            in = new SnapshotObjectInputStream(new BufferedInputStream(new FileInputStream(snapshot)));
+            if (!signature.equals(in.readUTF())) {
+                LOG.info("Ignoring the admin metadata snapshot at " + snapshot.getAbsolutePath() + " as it was built from a different configuration");
+                return -1;
+            }
+            Map<String, HashMap<String, FieldMetadata>> contents = (Map<String, HashMap<String, FieldMetadata>>) in.readObject();
+            int restored = 0;
+            for (Map.Entry<String, HashMap<String, FieldMetadata>> entry : contents.entrySet()) {
+                if (!entries.containsKey(entry.getKey()) && entries.size() < maxEntries) {
+                    entries.put(entry.getKey(), Collections.unmodifiableMap((Map<String, FieldMetadata>) entry.getValue()));
+                    restored++;
+                }
+            }
+            return restored;
+        } catch (Exception e) {
+            LOG.warn("Unable to read the admin metadata snapshot at " + snapshot.getAbsolutePath(), e);
+            return -1;
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    protected boolean isSnapshotClassAllowed(String className) {
+        String name = className;
+        while (name.startsWith("[")) {
+            name = name.substring(1);
+        }
+        if (name.length() == 1) {
+            // an array of primitives
+            return true;
+        }
+        if (name.startsWith("L") && name.endsWith(";")) {
+            name = name.substring(1, name.length() - 1);
+        }
+        int lastDot = name.lastIndexOf('.');
+        return lastDot > 0 && snapshotPackages.contains(name.substring(0, lastDot));
+    }
+
+    /**
+     * Only resolves the classes allowed by {@link FieldMetadataCache#isSnapshotClassAllowed(String)}, so that a
+     * tampered snapshot cannot instantiate arbitrary serializable classes from the classpath
+     */
+    protected class SnapshotObjectInputStream extends ObjectInputStream {
+
+        public SnapshotObjectInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            if (!isSnapshotClassAllowed(desc.getName())) {
+                throw new InvalidClassException(desc.getName(), "Not allowed in an admin metadata snapshot");
+            }
+            return super.resolveClass(desc);
+        }
+
+        @Override
+        protected Class<?> resolveProxyClass(String[] interfaces) throws IOException, ClassNotFoundException {
+            throw new InvalidClassException("Proxy classes are not allowed in an admin metadata snapshot");
+        }
+
+    }
+
+    protected void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+}
@@ -29,6 +29,7 @@ import org.broadleafcommerce.openadmin.dto.FilterAndSortCriteria;
 import org.broadleafcommerce.openadmin.dto.Property;
 import org.broadleafcommerce.openadmin.dto.SectionCrumb;
 import org.broadleafcommerce.openadmin.server.domain.PersistencePackageRequest;
+import org.broadleafcommerce.openadmin.server.service.persistence.BulkPersistenceResponse;
 import org.broadleafcommerce.openadmin.server.service.persistence.PersistenceResponse;
 import org.broadleafcommerce.openadmin.web.form.entity.EntityForm;
 
@@ -126,6 +127,30 @@ public interface AdminEntityService {
      */
     public PersistenceResponse update(PersistencePackageRequest request) throws ServiceException;
 
+    /**
+     * Adds each of the given entities in one transaction, using the request for everything but the entity. Rows that
+     * fail validation are returned in the response rather than stopping the rest of the batch.
+     * 
+     * @param request describes the entities being added; sub-requests are not supported
+     * @param entities
+     * @return the number of rows added and the rows that failed validation
+     * @throws ServiceException if there were exceptions other than validation failures, in which case nothing is added
+     * @see DynamicEntityService#bulkAdd(org.broadleafcommerce.openadmin.dto.PersistencePackage, List)
+     */
+    public BulkPersistenceResponse bulkAdd(PersistencePackageRequest request, List<Entity> entities) throws ServiceException;
+
+    /**
+     * Updates each of the given entities in one transaction, using the request for everything but the entity. Rows
+     * that fail validation are returned in the response rather than stopping the rest of the batch.
+     * 
+     * @param request describes the entities being updated; sub-requests are not supported
+     * @param entities each one identifying a different record
+     * @return the number of rows updated and the rows that failed validation
+     * @throws ServiceException if there were exceptions other than validation failures, in which case nothing is updated
+     * @see DynamicEntityService#bulkUpdate(org.broadleafcommerce.openadmin.dto.PersistencePackage, List)
+     */
+    public BulkPersistenceResponse bulkUpdate(PersistencePackageRequest request, List<Entity> entities) throws ServiceException;
+
     /**
      * Thin layer on top of {@link DynamicEntityService#inspect(org.broadleafcommerce.openadmin.dto.PersistencePackage)}
      * @param request
@@ -202,7 +227,9 @@ public interface AdminEntityService {
             Property collectionProperty, FilterAndSortCriteria[] fascs, Integer startIndex, Integer maxIndex, 
             String idValueOverride, List<SectionCrumb> sectionCrumb) throws ServiceException;
     /**
-     * Returns all records for all subcollections of the specified request and its primary key
+     * Returns all records for all subcollections of the specified request and its primary key. The map iterates in the
+     * order the collections appear in the class metadata. When admin.subcollection.parallel.enabled is set, the
+     * collections are fetched concurrently.
      * 
      * @param ppr
      * @param containingEntity
@@ -20,6 +20,8 @@
 package org.broadleafcommerce.openadmin.server.service;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.broadleafcommerce.common.admin.domain.AdminMainEntity;
 import org.broadleafcommerce.common.exception.ServiceException;
 import org.broadleafcommerce.common.persistence.EntityConfiguration;
@@ -45,20 +47,36 @@ import org.broadleafcommerce.openadmin.dto.Property;
 import org.broadleafcommerce.openadmin.dto.SectionCrumb;
 import org.broadleafcommerce.openadmin.server.domain.PersistencePackageRequest;
 import org.broadleafcommerce.openadmin.server.factory.PersistencePackageFactory;
+import org.broadleafcommerce.openadmin.server.service.persistence.BulkPersistenceResponse;
+import org.broadleafcommerce.openadmin.server.service.persistence.Persistable;
 import org.broadleafcommerce.openadmin.server.service.persistence.PersistenceResponse;
+import org.broadleafcommerce.openadmin.server.service.persistence.PersistenceThreadManager;
+import org.broadleafcommerce.openadmin.server.service.persistence.TargetModeType;
 import org.broadleafcommerce.openadmin.web.form.entity.DynamicEntityFormInfo;
 import org.broadleafcommerce.openadmin.web.form.entity.EntityForm;
 import org.broadleafcommerce.openadmin.web.form.entity.Field;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.Resource;
 import javax.persistence.EntityManager;
@@ -69,7 +87,9 @@ import javax.persistence.PersistenceContext;
  * @author Andre Azzolini (apazzolini)
  */
 @Service("blAdminEntityService")
-public class AdminEntityServiceImpl implements AdminEntityService {
+public class AdminEntityServiceImpl implements AdminEntityService, DisposableBean {
+
+    private static final Log LOG = LogFactory.getLog(AdminEntityServiceImpl.class);
 
     @Resource(name = "blDynamicEntityRemoteService")
     protected DynamicEntityService service;
@@ -83,8 +103,29 @@ public class AdminEntityServiceImpl implements AdminEntityService {
     @Resource(name = "blEntityConfiguration")
     protected EntityConfiguration entityConfiguration;
 
+    @Resource(name = "blPersistenceThreadManager")
+    protected PersistenceThreadManager persistenceThreadManager;
+
+    @Value("${admin.subcollection.parallel.enabled}")
+    protected boolean parallelSubCollectionsEnabled = false;
+
+    @Value("${admin.subcollection.parallel.threads}")
+    protected int subCollectionThreads = 8;
+
+    @Value("${admin.subcollection.parallel.timeout.millis}")
+    protected long subCollectionTimeoutMillis = 10000;
+
+    protected volatile ExecutorService subCollectionExecutor;
+
     protected DynamicDaoHelper dynamicDaoHelper = new DynamicDaoHelperImpl();
 
+    @Override
+    public void destroy() throws Exception {
+        if (subCollectionExecutor != null) {
+            subCollectionExecutor.shutdownNow();
+        }
+    }
+
     @Override
     public PersistenceResponse getClassMetadata(PersistencePackageRequest request)
             throws ServiceException {
@@ -333,12 +374,21 @@ public class AdminEntityServiceImpl implements AdminEntityService {
     @Override
     public Map<String, DynamicResultSet> getRecordsForAllSubCollections(PersistencePackageRequest ppr, Entity containingEntity, List<SectionCrumb> sectionCrumb)
             throws ServiceException {
-        Map<String, DynamicResultSet> map = new HashMap<String, DynamicResultSet>();
+        Map<String, DynamicResultSet> map = new LinkedHashMap<String, DynamicResultSet>();
 
         PersistenceResponse response = getClassMetadata(ppr);
         ClassMetadata cmd = response.getDynamicResultSet().getClassMetaData();
+        List<Property> collectionProperties = new ArrayList<Property>();
         for (Property p : cmd.getProperties()) {
             if (p.getMetadata() instanceof CollectionMetadata) {
+                collectionProperties.add(p);
+            }
+        }
+
+        if (parallelSubCollectionsEnabled && collectionProperties.size() > 1) {
+            fetchSubCollectionsConcurrently(cmd, containingEntity, collectionProperties, sectionCrumb, map);
+        } else {
+            for (Property p : collectionProperties) {
                 PersistenceResponse response2 = getRecordsForCollection(cmd, containingEntity, p, null, null, null, sectionCrumb);
                 map.put(p.getName(), response2.getDynamicResultSet());
             }
@@ -347,6 +397,84 @@ public class AdminEntityServiceImpl implements AdminEntityService {
         return map;
     }
 
+    /**
+     * Fetches each of the given collections on the sub-collection executor. The fetches run through
+     * {@link PersistenceThreadManager#contextualOperation(TargetModeType, Persistable)}, so each one sees the sandbox,
+     * request and security context of the calling thread and uses its own entity manager. Any collection that could not
+     * be submitted, that failed or that did not finish within the timeout is fetched again on the calling thread, which
+     * means the results are always the same as those of a sequential fetch. Entries are added to the map in property
+     * order.
+     */
+    protected void fetchSubCollectionsConcurrently(final ClassMetadata cmd, final Entity containingEntity,
+            List<Property> collectionProperties, final List<SectionCrumb> sectionCrumb, Map<String, DynamicResultSet> map)
+            throws ServiceException {
+        List<Future<PersistenceResponse>> futures = new ArrayList<Future<PersistenceResponse>>(collectionProperties.size());
+        ExecutorService executor = getSubCollectionExecutor();
+        for (final Property p : collectionProperties) {
+            try {
+                futures.add(executor.submit(persistenceThreadManager.contextualOperation(TargetModeType.SANDBOX,
+                        new Persistable<PersistenceResponse, ServiceException>() {
+                            @Override
+                            public PersistenceResponse execute() throws ServiceException {
+                                return getRecordsForCollection(cmd, containingEntity, p, null, null, null, sectionCrumb);
+                            }
+                        })));
+            } catch (RejectedExecutionException e) {
+                futures.add(null);
+            }
+        }
+
+        long deadline = System.currentTimeMillis() + subCollectionTimeoutMillis;
+        for (int i = 0; i < futures.size(); i++) {
+            Property p = collectionProperties.get(i);
+            Future<PersistenceResponse> future = futures.get(i);
+            PersistenceResponse response = null;
+            if (future != null) {
+                try {
+                    long remaining = Math.max(0, deadline - System.currentTimeMillis());
+                    response = future.get(remaining, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    future.cancel(true);
+                    LOG.warn("Timed out fetching the " + p.getName() + " collection of " + cmd.getCeilingType()
+                            + " concurrently, fetching it on the request thread instead");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    future.cancel(true);
+                } catch (ExecutionException e) {
+                    LOG.debug("Unable to fetch the " + p.getName() + " collection of " + cmd.getCeilingType()
+                            + " concurrently, fetching it on the request thread instead", e.getCause());
+                }
+            }
+            if (response == null) {
+                // No thread was free, or the concurrent fetch failed, so fetch it on this one
+                response = getRecordsForCollection(cmd, containingEntity, p, null, null, null, sectionCrumb);
+            }
+            map.put(p.getName(), response.getDynamicResultSet());
+        }
+    }
+
+    protected ExecutorService getSubCollectionExecutor() {
+        if (subCollectionExecutor == null) {
+            synchronized (this) {
+                if (subCollectionExecutor == null) {
+                    subCollectionExecutor = new ThreadPoolExecutor(subCollectionThreads, subCollectionThreads, 60L,
+                            TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(subCollectionThreads * 4), new ThreadFactory() {
+                                protected final AtomicInteger threadNumber = new AtomicInteger();
+
+                                @Override
+                                public Thread newThread(Runnable r) {
+                                    Thread thread = new Thread(r, "blAdminSubCollection-" + threadNumber.incrementAndGet());
+                                    thread.setDaemon(true);
+                                    return thread;
+                                }
+                            });
+                    ((ThreadPoolExecutor) subCollectionExecutor).allowCoreThreadTimeOut(true);
+                }
+            }
+        }
+        return subCollectionExecutor;
+    }
+
     @Override
     public PersistenceResponse addSubCollectionEntity(EntityForm entityForm, ClassMetadata mainMetadata, Property field,
             Entity parentEntity, List<SectionCrumb> sectionCrumbs)
@@ -664,6 +792,22 @@ public class AdminEntityServiceImpl implements AdminEntityService {
         }
     }
 
+    @Override
+    public BulkPersistenceResponse bulkAdd(PersistencePackageRequest request, List<Entity> entities)
+            throws ServiceException {
+        Assert.isTrue(request.getSubRequests().isEmpty(), "Sub-requests are not supported in bulk operations");
+        PersistencePackage pkg = persistencePackageFactory.create(request);
+        return service.bulkAdd(pkg, entities);
+    }
+
+    @Override
+    public BulkPersistenceResponse bulkUpdate(PersistencePackageRequest request, List<Entity> entities)
+            throws ServiceException {
+        Assert.isTrue(request.getSubRequests().isEmpty(), "Sub-requests are not supported in bulk operations");
+        PersistencePackage pkg = persistencePackageFactory.create(request);
+        return service.bulkUpdate(pkg, entities);
+    }
+
     @Override
     public PersistenceResponse inspect(PersistencePackageRequest request)
             throws ServiceException {
@@ -0,0 +1,306 @@
+/*
+ * #%L
+ * BroadleafCommerce Open Admin Platform
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.openadmin.server.service;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.broadleafcommerce.common.web.BroadleafRequestContext;
+import org.broadleafcommerce.openadmin.dto.ForeignKey;
+import org.broadleafcommerce.openadmin.dto.MergedPropertyType;
+import org.broadleafcommerce.openadmin.server.dao.DynamicEntityDao;
+import org.broadleafcommerce.openadmin.server.dao.DynamicEntityDaoImpl;
+import org.broadleafcommerce.openadmin.server.dao.FieldMetadataCache;
+import org.broadleafcommerce.openadmin.server.security.domain.AdminSection;
+import org.broadleafcommerce.openadmin.server.security.service.navigation.AdminNavigationService;
+import org.broadleafcommerce.openadmin.server.service.persistence.Persistable;
+import org.broadleafcommerce.openadmin.server.service.persistence.PersistenceManager;
+import org.broadleafcommerce.openadmin.server.service.persistence.PersistenceManagerFactory;
+import org.broadleafcommerce.openadmin.server.service.persistence.PersistenceThreadManager;
+import org.broadleafcommerce.openadmin.server.service.persistence.TargetModeType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.InputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * Builds the entity metadata for every admin section once the application context has started, so that the first
+ * admin requests do not pay for reflecting over the entities. When {@code admin.metadata.snapshot.file} is set, the
+ * metadata is restored from that file before warming and written back to it afterwards, which allows a restarted admin
+ * (or another node pointed at the same file) to start warm. A snapshot is only used when it was written for the same
+ * set of entities, loaded from the same jars, with the same metadata overrides and configuration files (see
+ * {@link #buildSignature(DynamicEntityDao)}).
+ */
+@Component("blAdminMetadataCacheWarmer")
+public class AdminMetadataCacheWarmer implements ApplicationListener<ContextRefreshedEvent> {
+
+    private static final Log LOG = LogFactory.getLog(AdminMetadataCacheWarmer.class);
+
+    /**
+     * Nesting depth after which metadata overrides are no longer described in the signature, which also stops cycles
+     */
+    protected static final int MAX_DESCRIBE_DEPTH = 8;
+
+    @javax.annotation.Resource(name = "blAdminNavigationService")
+    protected AdminNavigationService adminNavigationService;
+
+    @javax.annotation.Resource(name = "blPersistenceThreadManager")
+    protected PersistenceThreadManager persistenceThreadManager;
+
+    @javax.annotation.Resource(name = "blMetadataOverrides")
+    protected Map<?, ?> metadataOverrides;
+
+    @Value("${admin.metadata.prewarm.enabled}")
+    protected boolean prewarmEnabled = false;
+
+    @Value("${admin.metadata.snapshot.file}")
+    protected String snapshotFile = "";
+
+    /**
+     * The configuration files whose contents are part of the signature
+     */
+    protected List<String> configSourcePatterns = new ArrayList<String>(Arrays.asList(
+            "classpath*:*applicationContext*.xml",
+            "classpath*:config/bc/**/*.properties",
+            "classpath*:runtime-properties/**/*.properties"));
+
+    protected final AtomicBoolean started = new AtomicBoolean(false);
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        if ((!prewarmEnabled && StringUtils.isBlank(snapshotFile)) || !started.compareAndSet(false, true)) {
+            return;
+        }
+        Thread thread = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                warm();
+            }
+        }, "blAdminMetadataCacheWarmer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Restores the snapshot (if configured), builds the metadata for every admin section (if enabled) and writes the
+     * snapshot back
+     */
+    public void warm() {
+        long start = System.currentTimeMillis();
+        BroadleafRequestContext.setBroadleafRequestContext(new BroadleafRequestContext());
+        try {
+            persistenceThreadManager.operation(TargetModeType.SANDBOX, new Persistable<Void, RuntimeException>() {
+
+                @Override
+                public Void execute() {
+                    PersistenceManager persistenceManager = PersistenceManagerFactory.getPersistenceManager();
+                    DynamicEntityDao dynamicEntityDao = persistenceManager.getDynamicEntityDao();
+                    FieldMetadataCache cache = DynamicEntityDaoImpl.getMetadataCache();
+                    File snapshot = StringUtils.isBlank(snapshotFile) ? null : new File(snapshotFile);
+                    String signature = snapshot == null ? null : buildSignature(dynamicEntityDao);
+
+                    if (snapshot != null) {
+                        int restored = cache.readSnapshot(snapshot, signature);
+                        if (restored >= 0) {
+                            LOG.info("Restored " + restored + " admin metadata cache entries from " + snapshot.getAbsolutePath());
+                        }
+                    }
+                    if (prewarmEnabled) {
+                        for (AdminSection section : adminNavigationService.findAllAdminSections()) {
+                            warmSection(persistenceManager, dynamicEntityDao, section);
+                        }
+                    }
+                    if (snapshot != null && cache.writeSnapshot(snapshot, signature)) {
+                        LOG.info("Wrote " + cache.size() + " admin metadata cache entries to " + snapshot.getAbsolutePath());
+                    }
+                    return null;
+                }
+            });
+            LOG.info("Admin metadata cache warmed in " + (System.currentTimeMillis() - start) + "ms");
+        } catch (Exception e) {
+            LOG.warn("Unable to warm the admin metadata cache", e);
+        } finally {
+            BroadleafRequestContext.setBroadleafRequestContext(null);
+        }
+    }
+
+    /**
+     * Builds the metadata for the ceiling entity of the section the same way an inspect of a standard
+     * persistence package does
+     */
+    protected void warmSection(PersistenceManager persistenceManager, DynamicEntityDao dynamicEntityDao, AdminSection section) {
+        String ceilingEntity = section.getCeilingEntity();
+        if (StringUtils.isBlank(ceilingEntity)) {
+            return;
+        }
+        try {
+            Class<?>[] entities = persistenceManager.getPolymorphicEntities(ceilingEntity);
+            dynamicEntityDao.getMergedProperties(ceilingEntity, entities, null, new String[] {}, new ForeignKey[] {},
+                    MergedPropertyType.PRIMARY, false, new String[] {}, new String[] {}, null, "");
+        } catch (Exception e) {
+            LOG.debug("Unable to warm the admin metadata for " + ceilingEntity, e);
+        }
+    }
+
+    /**
+     * The signature covers:
+     * <ul>
+     * <li>the names of the mapped entities and the location and modification time of the jars or directories they were
+     * loaded from, so that a snapshot is discarded after a deployment</li>
+     * <li>the contents of blMetadataOverrides, which change the metadata without changing any class</li>
+     * <li>the contents of the configuration files matched by {@link #configSourcePatterns}</li>
+     * </ul>
+     */
+    protected String buildSignature(DynamicEntityDao dynamicEntityDao) {
+        List<String> parts = new ArrayList<String>();
+        for (Object entityName : dynamicEntityDao.getSessionFactory().getAllClassMetadata().keySet()) {
+            parts.add(describeEntity(String.valueOf(entityName)));
+        }
+        Collections.sort(parts);
+
+        StringBuilder overrides = new StringBuilder("overrides=");
+        describe(overrides, metadataOverrides, 0);
+        parts.add(overrides.toString());
+
+        parts.addAll(describeConfigSources());
+        return DigestUtils.md5Hex(StringUtils.join(parts, '|'));
+    }
+
+    protected String describeEntity(String name) {
+        StringBuilder sb = new StringBuilder(name);
+        try {
+            CodeSource codeSource = Class.forName(name).getProtectionDomain().getCodeSource();
+            URL location = codeSource == null ? null : codeSource.getLocation();
+            if (location != null) {
+                sb.append('@').append(location);
+                if ("file".equals(location.getProtocol())) {
+                    sb.append(':').append(new File(location.toURI()).lastModified());
+                }
+            }
+        } catch (Exception e) {
+            // the name alone still distinguishes most configuration changes
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return the location and a digest of the contents of each configuration file, sorted by location
+     */
+    protected List<String> describeConfigSources() {
+        ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        List<String> parts = new ArrayList<String>();
+        for (String pattern : configSourcePatterns) {
+            try {
+                for (Resource resource : resolver.getResources(pattern)) {
+                    InputStream in = null;
+                    try {
+                        in = resource.getInputStream();
+                        parts.add(resource.getURL() + "=" + DigestUtils.md5Hex(in));
+                    } finally {
+                        if (in != null) {
+                            in.close();
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                // an unreadable source must still change the signature, rather than make it match any configuration
+                parts.add(pattern + "=unreadable");
+            }
+        }
+        Collections.sort(parts);
+        return parts;
+    }
+
+    /**
+     * Appends a description of the value that only depends on its contents: maps are sorted by key and other objects
+     * are described field by field, since the override classes do not implement toString()
+     */
+    protected void describe(StringBuilder sb, Object value, int depth) {
+        if (value == null) {
+            sb.append("null");
+        } else if (depth > MAX_DESCRIBE_DEPTH) {
+            sb.append("...");
+        } else if (value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+                || value instanceof Character || value instanceof Enum || value instanceof Class) {
+            sb.append(value);
+        } else if (value.getClass().isArray()) {
+            sb.append('[');
+            for (int i = 0; i < Array.getLength(value); i++) {
+                describe(sb, Array.get(value, i), depth + 1);
+                sb.append(',');
+            }
+            sb.append(']');
+        } else if (value instanceof Map) {
+            Map<String, Object> sorted = new TreeMap<String, Object>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                sorted.put(String.valueOf(entry.getKey()), entry.getValue());
+            }
+            sb.append('{');
+            for (Map.Entry<String, Object> entry : sorted.entrySet()) {
+                sb.append(entry.getKey()).append('=');
+                describe(sb, entry.getValue(), depth + 1);
+                sb.append(',');
+            }
+            sb.append('}');
+        } else if (value instanceof Collection) {
+            describe(sb, ((Collection<?>) value).toArray(), depth);
+        } else {
+            Map<String, Object> fields = new TreeMap<String, Object>();
+            for (Class<?> type = value.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+                for (Field field : type.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                        continue;
+                    }
+                    try {
+                        field.setAccessible(true);
+                        fields.put(type.getName() + "." + field.getName(), field.get(value));
+                    } catch (Exception e) {
+                        fields.put(type.getName() + "." + field.getName(), "?");
+                    }
+                }
+            }
+            sb.append(value.getClass().getName());
+            describe(sb, fields, depth);
+        }
+    }
+
+}
@@ -32,6 +32,8 @@ import org.broadleafcommerce.openadmin.dto.CriteriaTransferObject;
 import org.broadleafcommerce.openadmin.dto.Entity;
 import org.broadleafcommerce.openadmin.dto.PersistencePackage;
 import org.broadleafcommerce.openadmin.dto.Property;
+import org.broadleafcommerce.openadmin.server.dao.DynamicEntityDao;
+import org.broadleafcommerce.openadmin.server.service.persistence.BulkPersistenceResponse;
 import org.broadleafcommerce.openadmin.server.service.persistence.Persistable;
 import org.broadleafcommerce.openadmin.server.service.persistence.PersistenceManager;
 import org.broadleafcommerce.openadmin.server.service.persistence.PersistenceManagerFactory;
@@ -39,10 +41,12 @@ import org.broadleafcommerce.openadmin.server.service.persistence.PersistenceRes
 import org.broadleafcommerce.openadmin.server.service.persistence.PersistenceThreadManager;
 import org.broadleafcommerce.openadmin.server.service.persistence.TargetModeType;
 import org.codehaus.jackson.map.util.LRUMap;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.lang.reflect.Constructor;
+import java.util.List;
 import java.util.Map;
 
 import javax.annotation.Resource;
@@ -61,6 +65,9 @@ public class DynamicEntityRemoteService implements DynamicEntityService {
     @Resource(name="blPersistenceThreadManager")
     protected PersistenceThreadManager persistenceThreadManager;
 
+    @Value("${admin.bulk.flush.size}")
+    protected int bulkFlushSize = 50;
+
     protected ServiceException recreateSpecificServiceException(ServiceException e, String message, Throwable cause) {
         try {
             ServiceException newException;
@@ -217,4 +224,77 @@ public class DynamicEntityRemoteService implements DynamicEntityService {
             }
         });
     }
+
+    @Override
+    @Transactional(value="blTransactionManager", rollbackFor = ServiceException.class)
+    public BulkPersistenceResponse bulkAdd(PersistencePackage persistencePackage, List<Entity> entities) throws ServiceException {
+        return bulk(persistencePackage, entities, true);
+    }
+
+    @Override
+    @Transactional(value="blTransactionManager", rollbackFor = ServiceException.class)
+    public BulkPersistenceResponse bulkUpdate(PersistencePackage persistencePackage, List<Entity> entities) throws ServiceException {
+        return bulk(persistencePackage, entities, false);
+    }
+
+    /**
+     * Runs every row through the persistence manager with immediate flushing turned off, then flushes and clears the
+     * entity manager every {@link #bulkFlushSize} rows, so that the pending statements go to the database together as
+     * JDBC batches (see hibernate.jdbc.batch_size) and the session does not grow with the size of the batch. The session
+     * keeps its flush mode, so it still auto-flushes before a query that touches pending rows: validators (such as
+     * uniqueness checks) then see the rows added earlier in the same batch.
+     */
+    protected BulkPersistenceResponse bulk(final PersistencePackage persistencePackage, final List<Entity> entities,
+            final boolean add) throws ServiceException {
+        return persistenceThreadManager.operation(TargetModeType.SANDBOX, new Persistable<BulkPersistenceResponse, ServiceException>() {
+            @Override
+            public BulkPersistenceResponse execute() throws ServiceException {
+                BulkPersistenceResponse response = new BulkPersistenceResponse();
+                PersistenceManager persistenceManager = PersistenceManagerFactory.getPersistenceManager();
+                DynamicEntityDao dynamicEntityDao = persistenceManager.getDynamicEntityDao();
+                dynamicEntityDao.setImmediateFlush(false);
+                try {
+                    int pending = 0;
+                    for (int i = 0; i < entities.size(); i++) {
+                        Entity entity = entities.get(i);
+                        persistencePackage.setEntity(entity);
+                        cleanEntity(entity);
+                        if (entity.isValidationFailure()) {
+                            response.addFailure(i, entity);
+                            continue;
+                        }
+                        try {
+                            if (add) {
+                                persistenceManager.add(persistencePackage);
+                            } else {
+                                persistenceManager.update(persistencePackage);
+                            }
+                        } catch (ServiceException e) {
+                            if (e instanceof ValidationException) {
+                                response.addFailure(i, ((ValidationException) e).getEntity());
+                                continue;
+                            } else if (e.getCause() instanceof ValidationException) {
+                                response.addFailure(i, ((ValidationException) e.getCause()).getEntity());
+                                continue;
+                            }
+                            LOG.error("Problem in bulk " + (add ? "add" : "update") + " of "
+                                    + persistencePackage.getCeilingEntityFullyQualifiedClassname() + " at row " + i, e);
+                            String message = exploitProtectionService.cleanString(e.getMessage());
+                            throw recreateSpecificServiceException(e, message, e.getCause());
+                        }
+                        response.addSuccess();
+                        if (++pending >= bulkFlushSize) {
+                            dynamicEntityDao.flush();
+                            dynamicEntityDao.clear();
+                            pending = 0;
+                        }
+                    }
+                    dynamicEntityDao.flush();
+                } finally {
+                    dynamicEntityDao.setImmediateFlush(true);
+                }
+                return response;
+            }
+        });
+    }
 }
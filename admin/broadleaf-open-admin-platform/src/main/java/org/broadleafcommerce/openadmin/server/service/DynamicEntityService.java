@@ -21,10 +21,14 @@ package org.broadleafcommerce.openadmin.server.service;
 
 import org.broadleafcommerce.common.exception.ServiceException;
 import org.broadleafcommerce.openadmin.dto.CriteriaTransferObject;
+import org.broadleafcommerce.openadmin.dto.Entity;
 import org.broadleafcommerce.openadmin.dto.PersistencePackage;
+import org.broadleafcommerce.openadmin.server.service.persistence.BulkPersistenceResponse;
 import org.broadleafcommerce.openadmin.server.service.persistence.PersistenceResponse;
 import org.springframework.security.access.annotation.Secured;
 
+import java.util.List;
+
 /**
  * Rather than using this clas directly, it might be more appropraite to utilize {@link AdminEntityService} instead. The
  * methods in this class will not attempt to recover from things like validation problems whereas {@link AdminEntityService}
@@ -67,5 +71,31 @@ public interface DynamicEntityService {
     
     @Secured("PERMISSION_OTHER_DEFAULT")
     public PersistenceResponse remove(PersistencePackage persistencePackage) throws ServiceException;
+
+    /**
+     * Adds each of the given entities through the same pipeline as {@link #add(PersistencePackage)}, all in one
+     * transaction. The given package is used for every row, with its entity replaced by the row being added. Inserts
+     * are flushed in batches rather than one at a time. A row that fails validation is reported in the response and
+     * does not stop the others; any other exception rolls back the whole batch.
+     * 
+     * @param persistencePackage the package describing the entities, without sub-packages
+     * @param entities the rows to add
+     * @return the number of rows added and the rows that failed validation
+     * @throws ServiceException
+     */
+    @Secured("PERMISSION_OTHER_DEFAULT")
+    public BulkPersistenceResponse bulkAdd(PersistencePackage persistencePackage, List<Entity> entities) throws ServiceException;
+
+    /**
+     * Updates each of the given entities in the same way as {@link #bulkAdd(PersistencePackage, List)} adds them.
+     * Each entity should identify a different record.
+     * 
+     * @param persistencePackage the package describing the entities, without sub-packages
+     * @param entities the rows to update
+     * @return the number of rows updated and the rows that failed validation
+     * @throws ServiceException
+     */
+    @Secured("PERMISSION_OTHER_DEFAULT")
+    public BulkPersistenceResponse bulkUpdate(PersistencePackage persistencePackage, List<Entity> entities) throws ServiceException;
     
 }
@@ -0,0 +1,61 @@
+/*
+ * #%L
+ * BroadleafCommerce Open Admin Platform
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.openadmin.server.service.persistence;
+
+import org.broadleafcommerce.openadmin.dto.Entity;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The outcome of a bulk add or update. Rows that passed validation were written; rows that did not are reported here
+ * by their position in the submitted list, with the validation errors set on the returned {@link Entity}.
+ */
+public class BulkPersistenceResponse {
+
+    protected int successCount;
+    protected Map<Integer, Entity> failures = new TreeMap<Integer, Entity>();
+
+    public void addSuccess() {
+        successCount++;
+    }
+
+    public void addFailure(int index, Entity entity) {
+        failures.put(index, entity);
+    }
+
+    /**
+     * @return the number of rows that were written
+     */
+    public int getSuccessCount() {
+        return successCount;
+    }
+
+    /**
+     * @return the rows that failed validation, keyed by their position in the submitted list
+     */
+    public Map<Integer, Entity> getFailures() {
+        return failures;
+    }
+
+    public boolean isValidationFailure() {
+        return !failures.isEmpty();
+    }
+}
@@ -19,7 +19,23 @@
  */
 package org.broadleafcommerce.openadmin.server.service.persistence;
 
+import org.broadleafcommerce.common.classloader.release.ThreadLocalManager;
+import org.broadleafcommerce.common.web.BroadleafRequestContext;
+import org.broadleafcommerce.common.web.SandBoxContext;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.concurrent.Callable;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
 
 /**
  * @author Jeff Fischer
@@ -27,6 +43,9 @@ import org.springframework.stereotype.Service;
 @Service("blPersistenceThreadManager")
 public class PersistenceThreadManager {
 
+    @PersistenceUnit(unitName = "blPU")
+    protected EntityManagerFactory entityManagerFactory;
+
     public <T, G extends Throwable> T operation(TargetModeType targetModeType, Persistable<T, G> persistable) throws G {
         try {
             PersistenceManagerFactory.startPersistenceManager(targetModeType);
@@ -35,4 +54,58 @@ public class PersistenceThreadManager {
             PersistenceManagerFactory.endPersistenceManager();
         }
     }
+
+    /**
+     * Wraps the operation in a task that can be handed to another thread (usually a pooled executor thread) and will
+     * run there as if it were running on the thread that called this method. The Broadleaf request and sandbox contexts,
+     * the web request attributes and the security context are captured now and installed on the executing thread for
+     * the duration of the operation. They are shared with the calling thread, so the operation should only read them.
+     * The executing thread also gets its own entity manager, since the one bound to the request is not thread-safe.
+     * Everything is cleared again afterwards so that pooled threads do not carry state from one request to the next.
+     *
+     * @param targetModeType
+     * @param persistable
+     * @return a task that runs the operation with the context of the calling thread
+     */
+    public <T, G extends Throwable> Callable<T> contextualOperation(final TargetModeType targetModeType,
+            final Persistable<T, G> persistable) {
+        final BroadleafRequestContext requestContext = BroadleafRequestContext.getBroadleafRequestContext();
+        final SandBoxContext sandBoxContext = SandBoxContext.getSandBoxContext();
+        final RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        final SecurityContext securityContext = SecurityContextHolder.getContext();
+        return new Callable<T>() {
+
+            @Override
+            public T call() throws Exception {
+                BroadleafRequestContext.setBroadleafRequestContext(requestContext);
+                SandBoxContext.setSandBoxContext(sandBoxContext);
+                RequestContextHolder.setRequestAttributes(requestAttributes);
+                SecurityContextHolder.setContext(securityContext);
+                boolean bound = false;
+                if (entityManagerFactory != null && !TransactionSynchronizationManager.hasResource(entityManagerFactory)) {
+                    TransactionSynchronizationManager.bindResource(entityManagerFactory,
+                            new EntityManagerHolder(entityManagerFactory.createEntityManager()));
+                    bound = true;
+                }
+                try {
+                    return operation(targetModeType, persistable);
+                } catch (Exception e) {
+                    throw e;
+                } catch (Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new UndeclaredThrowableException(e);
+                } finally {
+                    if (bound) {
+                        EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager
+                                .unbindResource(entityManagerFactory);
+                        EntityManagerFactoryUtils.closeEntityManager(holder.getEntityManager());
+                    }
+                    SecurityContextHolder.clearContext();
+                    RequestContextHolder.resetRequestAttributes();
+                    ThreadLocalManager.remove();
+                }
+            }
+        };
+    }
 }
@@ -0,0 +1,120 @@
+/*
+ * #%L
+ * BroadleafCommerce Open Admin Platform
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.openadmin.server.dao
+
+import org.broadleafcommerce.openadmin.dto.BasicFieldMetadata
+import org.broadleafcommerce.openadmin.dto.FieldMetadata
+import org.broadleafcommerce.common.presentation.client.SupportedFieldType
+
+import spock.lang.Specification
+
+class FieldMetadataCacheSpec extends Specification {
+
+    FieldMetadataCache cache
+    File snapshot
+
+    def setup() {
+        cache = new FieldMetadataCache(2)
+        snapshot = File.createTempFile("admin-metadata", ".snapshot")
+        snapshot.delete()
+    }
+
+    def cleanup() {
+        snapshot.delete()
+    }
+
+    def "published metadata cannot be changed"() {
+        when:
+        Map<String, FieldMetadata> published = cache.put("product", metadata("name"))
+        published.put("description", new BasicFieldMetadata())
+
+        then:
+        thrown(UnsupportedOperationException)
+        cache.get("product").keySet() == ["name"] as Set
+    }
+
+    def "the cache never holds more than its maximum number of entries"() {
+        when:
+        cache.put("product", metadata("name"))
+        cache.put("sku", metadata("name"))
+        cache.put("category", metadata("name"))
+
+        then:
+        cache.size() == 2
+        cache.get("category") != null
+    }
+
+    def "a snapshot is restored when its signature matches"() {
+        setup:
+        cache.put("product", metadata("name"))
+
+        when:
+        boolean written = cache.writeSnapshot(snapshot, "signature")
+        FieldMetadataCache restored = new FieldMetadataCache(2)
+        int count = restored.readSnapshot(snapshot, "signature")
+
+        then:
+        written
+        count == 1
+        restored.get("product")["name"].friendlyName == "name"
+        ((BasicFieldMetadata) restored.get("product")["name"]).fieldType == SupportedFieldType.STRING
+    }
+
+    def "a snapshot written with a different signature is ignored"() {
+        setup:
+        cache.put("product", metadata("name"))
+        cache.writeSnapshot(snapshot, "signature")
+
+        expect:
+        new FieldMetadataCache(2).readSnapshot(snapshot, "other signature") == -1
+        new FieldMetadataCache(2).readSnapshot(new File(snapshot.path + ".missing"), "signature") == -1
+    }
+
+    def "a snapshot referencing classes outside of the metadata packages is ignored"() {
+        setup:
+        snapshot.withObjectOutputStream { out ->
+            out.writeUTF("signature")
+            out.writeObject(["product": ["name": new java.text.SimpleDateFormat()]])
+        }
+        FieldMetadataCache restored = new FieldMetadataCache(2)
+
+        expect:
+        restored.readSnapshot(snapshot, "signature") == -1
+        restored.size() == 0
+    }
+
+    def "only the allowed packages can be read from a snapshot"() {
+        expect:
+        cache.isSnapshotClassAllowed(BasicFieldMetadata.name)
+        cache.isSnapshotClassAllowed("[[Ljava.lang.String;")
+        cache.isSnapshotClassAllowed("[I")
+        !cache.isSnapshotClassAllowed("java.lang.reflect.Proxy")
+        !cache.isSnapshotClassAllowed("org.apache.commons.collections.functors.InvokerTransformer")
+    }
+
+    protected Map<String, FieldMetadata> metadata(String name) {
+        BasicFieldMetadata metadata = new BasicFieldMetadata()
+        metadata.name = name
+        metadata.friendlyName = name
+        metadata.fieldType = SupportedFieldType.STRING
+        return [(name): metadata]
+    }
+
+}
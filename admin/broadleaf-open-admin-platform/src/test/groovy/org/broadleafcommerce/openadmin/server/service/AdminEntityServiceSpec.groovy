@@ -0,0 +1,199 @@
+/*
+ * #%L
+ * BroadleafCommerce Open Admin Platform
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.openadmin.server.service
+
+import org.broadleafcommerce.common.web.BroadleafRequestContext
+import org.broadleafcommerce.openadmin.dto.BasicCollectionMetadata
+import org.broadleafcommerce.openadmin.dto.BasicFieldMetadata
+import org.broadleafcommerce.openadmin.dto.ClassMetadata
+import org.broadleafcommerce.openadmin.dto.DynamicResultSet
+import org.broadleafcommerce.openadmin.dto.Entity
+import org.broadleafcommerce.openadmin.dto.FilterAndSortCriteria
+import org.broadleafcommerce.openadmin.dto.Property
+import org.broadleafcommerce.openadmin.dto.SectionCrumb
+import org.broadleafcommerce.openadmin.server.domain.PersistencePackageRequest
+import org.broadleafcommerce.openadmin.server.service.persistence.Persistable
+import org.broadleafcommerce.openadmin.server.service.persistence.PersistenceResponse
+import org.broadleafcommerce.openadmin.server.service.persistence.PersistenceThreadManager
+import org.broadleafcommerce.openadmin.server.service.persistence.TargetModeType
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+import spock.lang.Specification
+
+/**
+ * Compares the concurrent sub-collection fetch with the sequential one. Each collection fetch is simulated with a
+ * fixed latency, standing in for the round trips a persistence package fetch makes to the database, and records which
+ * thread ran it and how many fetches were running at the time.
+ */
+class AdminEntityServiceSpec extends Specification {
+
+    static final long LATENCY = 100
+
+    static final List<String> COLLECTIONS = ["additionalSkus", "productOptions", "media", "crossSaleProducts",
+            "upSaleProducts", "productAttributes"]
+
+    LatentAdminEntityService service
+    BroadleafRequestContext requestContext
+
+    def setup() {
+        service = new LatentAdminEntityService()
+        service.persistenceThreadManager = new DirectPersistenceThreadManager()
+        requestContext = new BroadleafRequestContext()
+        BroadleafRequestContext.setBroadleafRequestContext(requestContext)
+    }
+
+    def cleanup() {
+        service.destroy()
+        BroadleafRequestContext.setBroadleafRequestContext(null)
+    }
+
+    def "concurrent fetch returns the same collections in the same order as the sequential fetch"() {
+        when:
+        service.parallelSubCollectionsEnabled = false
+        Map<String, DynamicResultSet> sequential = service.getRecordsForAllSubCollections(new PersistencePackageRequest(), new Entity(), [])
+        service.parallelSubCollectionsEnabled = true
+        Map<String, DynamicResultSet> concurrent = service.getRecordsForAllSubCollections(new PersistencePackageRequest(), new Entity(), [])
+
+        then:
+        sequential.keySet() as List == COLLECTIONS
+        concurrent.keySet() as List == COLLECTIONS
+        COLLECTIONS.every { name ->
+            concurrent[name].totalRecords == sequential[name].totalRecords &&
+                    concurrent[name].records*.type == sequential[name].records*.type
+        }
+    }
+
+    def "concurrent fetch runs with the request context of the calling thread"() {
+        when:
+        service.parallelSubCollectionsEnabled = true
+        service.getRecordsForAllSubCollections(new PersistencePackageRequest(), new Entity(), [])
+
+        then:
+        service.fetchThreads.values().any { it != Thread.currentThread() }
+        service.fetchContexts.values().every { it.is(requestContext) }
+    }
+
+    def "concurrent fetch runs every collection fetch at the same time"() {
+        setup:
+        // each fetch waits here until all of them have started, which only happens if none waits for another
+        service.rendezvous = new CountDownLatch(COLLECTIONS.size())
+
+        when:
+        service.parallelSubCollectionsEnabled = true
+        service.getRecordsForAllSubCollections(new PersistencePackageRequest(), new Entity(), [])
+
+        then:
+        service.rendezvous.count == 0
+        service.rendezvousMissed == 0
+        service.fetchThreads.values().every { it != Thread.currentThread() }
+        service.fetchThreads.values().unique(false).size() == COLLECTIONS.size()
+    }
+
+    def "sequential fetch runs one collection fetch at a time on the calling thread"() {
+        when:
+        service.parallelSubCollectionsEnabled = false
+        service.getRecordsForAllSubCollections(new PersistencePackageRequest(), new Entity(), [])
+
+        then:
+        service.maxInFlight == 1
+        service.fetchThreads.values().every { it == Thread.currentThread() }
+    }
+
+    def "a collection that fails concurrently is fetched again on the calling thread"() {
+        when:
+        service.failOnceFor = "media"
+        service.parallelSubCollectionsEnabled = true
+        Map<String, DynamicResultSet> result = service.getRecordsForAllSubCollections(new PersistencePackageRequest(), new Entity(), [])
+
+        then:
+        result.keySet() as List == COLLECTIONS
+        result["media"].records[0].type[0] == "media"
+        service.fetchThreads["media"] == Thread.currentThread()
+    }
+
+    static class LatentAdminEntityService extends AdminEntityServiceImpl {
+
+        Map<String, Thread> fetchThreads = new ConcurrentHashMap<String, Thread>()
+        Map<String, BroadleafRequestContext> fetchContexts = new ConcurrentHashMap<String, BroadleafRequestContext>()
+        volatile String failOnceFor
+        volatile CountDownLatch rendezvous
+        AtomicInteger rendezvousMissed = new AtomicInteger()
+        AtomicInteger inFlight = new AtomicInteger()
+        volatile int maxInFlight
+
+        @Override
+        PersistenceResponse getClassMetadata(PersistencePackageRequest request) {
+            List<Property> properties = []
+            properties << new Property(name: "name", metadata: new BasicFieldMetadata())
+            COLLECTIONS.each { properties << new Property(name: it, metadata: new BasicCollectionMetadata()) }
+            ClassMetadata cmd = new ClassMetadata(ceilingType: "org.broadleafcommerce.core.catalog.domain.Product",
+                    properties: properties as Property[])
+            new PersistenceResponse().withDynamicResultSet(new DynamicResultSet(cmd))
+        }
+
+        @Override
+        PersistenceResponse getRecordsForCollection(ClassMetadata containingClassMetadata, Entity containingEntity,
+                Property collectionProperty, FilterAndSortCriteria[] fascs, Integer startIndex, Integer maxIndex,
+                List<SectionCrumb> sectionCrumb) {
+            String name = collectionProperty.name
+            fetchThreads[name] = Thread.currentThread()
+            if (BroadleafRequestContext.broadleafRequestContext != null) {
+                fetchContexts[name] = BroadleafRequestContext.broadleafRequestContext
+            }
+            if (name == failOnceFor) {
+                failOnceFor = null
+                throw new IllegalStateException("Simulated failure fetching " + name)
+            }
+            int running = inFlight.incrementAndGet()
+            synchronized (this) {
+                maxInFlight = Math.max(maxInFlight, running)
+            }
+            try {
+                if (rendezvous != null) {
+                    rendezvous.countDown()
+                    if (!rendezvous.await(5, TimeUnit.SECONDS)) {
+                        rendezvousMissed.incrementAndGet()
+                    }
+                }
+                Thread.sleep(LATENCY)
+            } finally {
+                inFlight.decrementAndGet()
+            }
+            Entity record = new Entity(type: [name] as String[])
+            new PersistenceResponse().withDynamicResultSet(new DynamicResultSet([record] as Entity[], 1))
+        }
+    }
+
+    /**
+     * Runs the operation without a persistence manager, which needs the application context
+     */
+    static class DirectPersistenceThreadManager extends PersistenceThreadManager {
+
+        @Override
+        public <T, G extends Throwable> T operation(TargetModeType targetModeType, Persistable<T, G> persistable) throws G {
+            persistable.execute()
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * #%L
+ * BroadleafCommerce Open Admin Platform
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.openadmin.server.service
+
+import org.broadleafcommerce.openadmin.dto.override.FieldMetadataOverride
+import org.broadleafcommerce.openadmin.server.dao.DynamicEntityDao
+import org.hibernate.SessionFactory
+import org.springframework.context.ApplicationContext
+import org.springframework.context.event.ContextRefreshedEvent
+
+import spock.lang.Specification
+
+class AdminMetadataCacheWarmerSpec extends Specification {
+
+    AdminMetadataCacheWarmer warmer
+    DynamicEntityDao dynamicEntityDao = Stub()
+
+    def setup() {
+        SessionFactory sessionFactory = Stub()
+        sessionFactory.getAllClassMetadata() >> ["org.broadleafcommerce.openadmin.server.service.AdminMetadataCacheWarmer": null]
+        dynamicEntityDao.getSessionFactory() >> sessionFactory
+        warmer = new AdminMetadataCacheWarmer()
+        warmer.configSourcePatterns = []
+    }
+
+    def "the signature only depends on the contents of the metadata overrides"() {
+        when:
+        warmer.metadataOverrides = overrides("Product Name")
+        String first = warmer.buildSignature(dynamicEntityDao)
+        warmer.metadataOverrides = overrides("Product Name")
+        String second = warmer.buildSignature(dynamicEntityDao)
+
+        then:
+        first == second
+    }
+
+    def "changing a metadata override changes the signature"() {
+        when:
+        warmer.metadataOverrides = overrides("Product Name")
+        String before = warmer.buildSignature(dynamicEntityDao)
+        warmer.metadataOverrides = overrides("Name")
+        String after = warmer.buildSignature(dynamicEntityDao)
+
+        then:
+        before != after
+    }
+
+    def "changing the configuration files changes the signature"() {
+        setup:
+        File config = File.createTempFile("admin", ".properties")
+        config.text = "admin.metadata.prewarm.enabled=false"
+        warmer.configSourcePatterns = [config.toURI().toString()]
+
+        when:
+        String before = warmer.buildSignature(dynamicEntityDao)
+        config.text = "admin.metadata.prewarm.enabled=true"
+        String after = warmer.buildSignature(dynamicEntityDao)
+
+        then:
+        before != after
+
+        cleanup:
+        config.delete()
+    }
+
+    def "nothing is started when neither pre-warming nor a snapshot is configured"() {
+        when:
+        warmer.onApplicationEvent(new ContextRefreshedEvent(Stub(ApplicationContext)))
+
+        then:
+        !warmer.prewarmEnabled
+        !warmer.started.get()
+    }
+
+    protected Map<String, Map<String, FieldMetadataOverride>> overrides(String friendlyName) {
+        FieldMetadataOverride override = new FieldMetadataOverride()
+        override.friendlyName = friendlyName
+        override.excluded = false
+        return ["org.broadleafcommerce.core.catalog.domain.Product": ["name": override]]
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * #%L
+ * BroadleafCommerce Open Admin Platform
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.openadmin.server.service
+
+import org.broadleafcommerce.common.exception.ServiceException
+import org.broadleafcommerce.common.security.service.ExploitProtectionService
+import org.broadleafcommerce.openadmin.dto.Entity
+import org.broadleafcommerce.openadmin.dto.PersistencePackage
+import org.broadleafcommerce.openadmin.dto.Property
+import org.broadleafcommerce.openadmin.server.dao.DynamicEntityDao
+import org.broadleafcommerce.openadmin.server.service.persistence.BulkPersistenceResponse
+import org.broadleafcommerce.openadmin.server.service.persistence.PersistenceManager
+import org.broadleafcommerce.openadmin.server.service.persistence.PersistenceManagerFactory
+import org.broadleafcommerce.openadmin.server.service.persistence.PersistenceResponse
+import org.broadleafcommerce.openadmin.server.service.persistence.PersistenceThreadManager
+import org.hibernate.FlushMode
+import org.hibernate.Session
+import org.springframework.context.ApplicationContext
+
+import javax.persistence.EntityManager
+
+import spock.lang.Specification
+
+class DynamicEntityRemoteServiceSpec extends Specification {
+
+    DynamicEntityRemoteService service
+    PersistenceManager persistenceManager = Mock()
+    DynamicEntityDao dynamicEntityDao = Mock()
+    Session session = Mock()
+
+    def setup() {
+        ApplicationContext applicationContext = Stub()
+        applicationContext.getBean(PersistenceManagerFactory.DEFAULTPERSISTENCEMANAGERREF) >> persistenceManager
+        new PersistenceManagerFactory().setApplicationContext(applicationContext)
+
+        EntityManager entityManager = Stub()
+        entityManager.unwrap(Session) >> session
+        persistenceManager.getDynamicEntityDao() >> dynamicEntityDao
+        dynamicEntityDao.getStandardEntityManager() >> entityManager
+        session.getFlushMode() >> FlushMode.AUTO
+
+        ExploitProtectionService exploitProtectionService = Stub()
+        exploitProtectionService.cleanStringWithResults(_) >> { String value -> value }
+        exploitProtectionService.cleanString(_) >> { String value -> value }
+
+        service = new DynamicEntityRemoteService()
+        service.persistenceThreadManager = new PersistenceThreadManager()
+        service.exploitProtectionService = exploitProtectionService
+        service.bulkFlushSize = 2
+    }
+
+    def "rows that fail validation are reported without stopping the rest of the batch"() {
+        given:
+        List<Entity> entities = rows(5)
+
+        when:
+        BulkPersistenceResponse response = service.bulkUpdate(new PersistencePackage(), entities)
+
+        then:
+        5 * persistenceManager.update(_) >> { PersistencePackage pkg ->
+            if (pkg.entity.findProperty("name").value == "row 2") {
+                pkg.entity.addValidationError("name", "invalid")
+                throw new ValidationException(pkg.entity, "The entity has failed validation")
+            }
+            new PersistenceResponse().withEntity(pkg.entity)
+        }
+        response.successCount == 4
+        response.failures.keySet() as List == [2]
+        response.failures[2].propertyValidationErrors["name"] == ["invalid"]
+    }
+
+    def "writes are flushed and cleared once per batch instead of once per row"() {
+        when:
+        BulkPersistenceResponse response = service.bulkAdd(new PersistencePackage(), rows(5))
+
+        then:
+        1 * dynamicEntityDao.setImmediateFlush(false)
+        5 * persistenceManager.add(_) >> { PersistencePackage pkg -> new PersistenceResponse().withEntity(pkg.entity) }
+        3 * dynamicEntityDao.flush()
+        2 * dynamicEntityDao.clear()
+        0 * session.setFlushMode(_)
+        1 * dynamicEntityDao.setImmediateFlush(true)
+        response.successCount == 5
+        !response.validationFailure
+    }
+
+    def "any other failure aborts the batch and restores immediate flushing"() {
+        when:
+        service.bulkUpdate(new PersistencePackage(), rows(5))
+
+        then:
+        2 * persistenceManager.update(_) >>> [new PersistenceResponse()] >> { throw new ServiceException("Unable to update") }
+        0 * dynamicEntityDao.flush()
+        1 * dynamicEntityDao.setImmediateFlush(true)
+        thrown(ServiceException)
+    }
+
+    List<Entity> rows(int count) {
+        (0..<count).collect { int i ->
+            new Entity(type: ["org.broadleafcommerce.core.catalog.domain.SkuImpl"] as String[],
+                    properties: [new Property(name: "id", value: String.valueOf(i)), new Property(name: "name", value: "row " + i)] as Property[])
+        }
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * #%L
+ * BroadleafCommerce Benchmarks
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.benchmark;
+
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prints the scores of two JMH JSON result files side by side, for instance the results of the same benchmarks on two
+ * commits (see {@link BenchmarkRunner}). A change is marked with * when the difference between the scores is larger
+ * than the sum of their error margins, which is when it is likely to be more than noise. Whether a higher score is
+ * better depends on the benchmark mode: it is for throughput, it is not for average time.
+ * <pre>
+ * java -cp target/benchmarks.jar org.broadleafcommerce.benchmark.BenchmarkComparison before.json after.json
+ * </pre>
+ */
+public class BenchmarkComparison {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <candidate.json>");
+            System.exit(1);
+        }
+        Map<String, JsonNode> baseline = readScores(new File(args[0]));
+        Map<String, JsonNode> candidate = readScores(new File(args[1]));
+
+        System.out.println(String.format("%-90s %14s %14s %9s %s", "Benchmark", "Baseline", "Candidate", "Change", "Unit"));
+        for (Map.Entry<String, JsonNode> entry : candidate.entrySet()) {
+            JsonNode after = entry.getValue();
+            JsonNode before = baseline.get(entry.getKey());
+            double afterScore = after.path("score").asDouble();
+            if (before == null) {
+                System.out.println(String.format("%-90s %14s %14.3f %9s %s", entry.getKey(), "-", afterScore, "",
+                        after.path("scoreUnit").asText()));
+                continue;
+            }
+            double beforeScore = before.path("score").asDouble();
+            double change = beforeScore == 0 ? 0 : (afterScore - beforeScore) * 100 / beforeScore;
+            boolean significant = Math.abs(afterScore - beforeScore) > errorOf(before) + errorOf(after);
+            System.out.println(String.format("%-90s %14.3f %14.3f %+8.1f%% %s%s", entry.getKey(), beforeScore, afterScore,
+                    change, after.path("scoreUnit").asText(), significant ? " *" : ""));
+        }
+    }
+
+    /**
+     * @return the primary metric of every result in the file, keyed by benchmark name, mode and parameters
+     */
+    protected static Map<String, JsonNode> readScores(File file) throws IOException {
+        Map<String, JsonNode> scores = new LinkedHashMap<String, JsonNode>();
+        JsonNode results = new ObjectMapper().readTree(file);
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            key.append(" (").append(result.path("mode").asText());
+            Iterator<Map.Entry<String, JsonNode>> params = result.path("params").getFields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(", ").append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            key.append(')');
+            scores.put(key.toString(), result.path("primaryMetric"));
+        }
+        return scores;
+    }
+
+    protected static double errorOf(JsonNode metric) {
+        double error = metric.path("scoreError").asDouble();
+        // JMH reports NaN when there were too few iterations to compute an error
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * #%L
+ * BroadleafCommerce Benchmarks
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.benchmark;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Entry point of benchmarks.jar. Accepts the usual JMH command line (a benchmark name regex, -f, -wi, -i, -p and so on),
+ * and unless a result format is given with -rf, writes the results as JSON to
+ * <pre>target/jmh/&lt;label&gt;.json</pre>
+ * where the label is the benchmark.label system property, or the current time when it is not set. Running the same
+ * benchmarks on two commits with different labels and passing both files to {@link BenchmarkComparison} shows what
+ * changed:
+ * <pre>
+ * java -Dbenchmark.label=before -jar target/benchmarks.jar Money
+ * (switch commits and rebuild)
+ * java -Dbenchmark.label=after -jar target/benchmarks.jar Money
+ * java -cp target/benchmarks.jar org.broadleafcommerce.benchmark.BenchmarkComparison target/jmh/before.json target/jmh/after.json
+ * </pre>
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListProfilers()
+                || commandLine.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (!commandLine.getResultFormat().hasValue()) {
+            File resultFile = new File(System.getProperty("benchmark.result.dir", "target/jmh"), getLabel() + ".json");
+            resultFile.getAbsoluteFile().getParentFile().mkdirs();
+            options.resultFormat(ResultFormatType.JSON).result(resultFile.getPath());
+        }
+        new Runner(options.build()).run();
+    }
+
+    protected static String getLabel() {
+        String label = System.getProperty("benchmark.label");
+        if (label == null || label.length() == 0) {
+            label = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        }
+        return label;
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * #%L
+ * BroadleafCommerce Benchmarks
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.benchmark.api;
+
+import org.broadleafcommerce.common.money.Money;
+import org.broadleafcommerce.core.catalog.domain.Product;
+import org.broadleafcommerce.core.catalog.domain.ProductImpl;
+import org.broadleafcommerce.core.catalog.domain.Sku;
+import org.broadleafcommerce.core.catalog.domain.SkuImpl;
+import org.broadleafcommerce.core.search.domain.ProductSearchResult;
+import org.broadleafcommerce.core.web.api.stream.CatalogJsonStreamer;
+import org.broadleafcommerce.core.web.api.wrapper.APIWrapperFactory;
+import org.broadleafcommerce.core.web.api.wrapper.ProductWrapper;
+import org.broadleafcommerce.core.web.api.wrapper.SearchResultsWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+
+/**
+ * The cost of the REST API's catalog responses. Creating a wrapper through {@link APIWrapperFactory} is compared to
+ * creating the prototype bean through the ApplicationContext, as the wrappers used to be created. Writing a page of
+ * search results with {@link CatalogJsonStreamer} is compared to wrapping it in a {@link SearchResultsWrapper} and
+ * marshalling that with JAXB. The wrapper bean definitions are the framework's own, and the products have no media so
+ * that no static asset configuration is needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiWrapperBenchmark {
+
+    @Param({ "15", "100" })
+    protected int productCount;
+
+    protected GenericApplicationContext context;
+    protected APIWrapperFactory wrapperFactory;
+    protected CatalogJsonStreamer catalogJsonStreamer;
+    protected JAXBContext jaxbContext;
+    protected MockHttpServletRequest request;
+    protected ProductSearchResult searchResult;
+
+    @Setup
+    public void setUp() throws JAXBException {
+        context = new GenericApplicationContext();
+        new XmlBeanDefinitionReader(context).loadBeanDefinitions(
+                new ClassPathResource("bl-framework-web-applicationContext-api-wrapper.xml"));
+        context.refresh();
+        wrapperFactory = context.getBean("blApiWrapperFactory", APIWrapperFactory.class);
+        catalogJsonStreamer = new CatalogJsonStreamer();
+        jaxbContext = JAXBContext.newInstance(SearchResultsWrapper.class);
+        request = new MockHttpServletRequest("GET", "/api/v1/catalog/search/products");
+
+        Calendar yesterday = Calendar.getInstance();
+        yesterday.add(Calendar.DATE, -1);
+        List<Product> products = new ArrayList<Product>();
+        for (int i = 0; i < productCount; i++) {
+            Sku sku = new SkuImpl();
+            sku.setId(i + 1L);
+            sku.setName("Hot Sauce " + i);
+            sku.setDescription("A hot sauce");
+            sku.setLongDescription("One of the hottest sauces on the market, number " + i);
+            sku.setRetailPrice(new Money(BigDecimal.valueOf(999 + i, 2)));
+            sku.setSalePrice(new Money(BigDecimal.valueOf(799 + i, 2)));
+            sku.setActiveStartDate(yesterday.getTime());
+            Product product = new ProductImpl();
+            product.setId(i + 1L);
+            product.setDefaultSku(sku);
+            products.add(product);
+        }
+        searchResult = new ProductSearchResult();
+        searchResult.setProducts(products);
+        searchResult.setPage(1);
+        searchResult.setPageSize(productCount);
+        searchResult.setTotalResults(productCount * 10);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProductWrapper createWrapperWithFactory() {
+        return wrapperFactory.createWrapper(ProductWrapper.class);
+    }
+
+    @Benchmark
+    public Object createWrapperWithGetBean() {
+        return context.getBean(ProductWrapper.class.getName());
+    }
+
+    @Benchmark
+    public String writeSearchResultsStreamed() throws IOException {
+        StringWriter writer = new StringWriter();
+        catalogJsonStreamer.writeSearchResults(searchResult, request, writer);
+        return writer.toString();
+    }
+
+    @Benchmark
+    public String writeSearchResultsWrapped() throws JAXBException {
+        SearchResultsWrapper wrapper = wrapperFactory.createWrapper(SearchResultsWrapper.class);
+        wrapper.wrapDetails(searchResult, request);
+        StringWriter writer = new StringWriter();
+        Marshaller marshaller = jaxbContext.createMarshaller();
+        marshaller.marshal(wrapper, writer);
+        return writer.toString();
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * #%L
+ * BroadleafCommerce Benchmarks
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.benchmark.cms;
+
+import org.broadleafcommerce.cms.url.dao.URLHandlerDao;
+import org.broadleafcommerce.cms.url.domain.URLHandler;
+import org.broadleafcommerce.cms.url.domain.URLHandlerImpl;
+import org.broadleafcommerce.cms.url.service.URLHandlerServiceImpl;
+import org.broadleafcommerce.cms.url.type.URLRedirectType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matching of request URIs against the configured URL handlers by {@link URLHandlerServiceImpl#findURLHandlerByURI},
+ * which the URL handler filter does for every request that is not a static asset. Every other handler is a literal
+ * path, the rest are patterns with a group. The handlers are served from memory instead of the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class URLHandlerMatchingBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    protected int handlerCount;
+
+    protected URLHandlerServiceImpl urlHandlerService;
+    protected String firstUri;
+    protected String lastUri;
+
+    @Setup
+    public void setUp() {
+        List<URLHandler> handlers = new ArrayList<URLHandler>();
+        for (int i = 0; i < handlerCount; i++) {
+            URLHandlerImpl handler = new URLHandlerImpl();
+            handler.setId((long) i);
+            if (i % 2 == 0) {
+                handler.setIncomingURL("/old-page-" + i);
+                handler.setNewURL("/new-page-" + i);
+                handler.setUrlRedirectType(URLRedirectType.REDIRECT_PERM);
+            } else {
+                handler.setIncomingURL("^/legacy-" + i + "/(.*)$");
+                handler.setNewURL("/current-" + i + "/$1");
+                handler.setUrlRedirectType(URLRedirectType.FORWARD);
+            }
+            handlers.add(handler);
+        }
+        urlHandlerService = new InMemoryURLHandlerService(new InMemoryURLHandlerDao(handlers));
+
+        firstUri = "/old-page-0";
+        lastUri = "/legacy-" + (handlerCount - 1) + "/hot-sauces/sudden-death";
+        if (urlHandlerService.findURLHandlerByURI(firstUri) == null || urlHandlerService.findURLHandlerByURI(lastUri) == null) {
+            throw new IllegalStateException("The benchmark URIs should match a handler");
+        }
+    }
+
+    @Benchmark
+    public URLHandler matchFirst() {
+        return urlHandlerService.findURLHandlerByURI(firstUri);
+    }
+
+    @Benchmark
+    public URLHandler matchLast() {
+        return urlHandlerService.findURLHandlerByURI(lastUri);
+    }
+
+    @Benchmark
+    public URLHandler noMatch() {
+        return urlHandlerService.findURLHandlerByURI("/hot-sauces/sudden-death");
+    }
+
+    protected static class InMemoryURLHandlerService extends URLHandlerServiceImpl {
+
+        public InMemoryURLHandlerService(URLHandlerDao urlHandlerDao) {
+            this.urlHandlerDao = urlHandlerDao;
+        }
+
+    }
+
+    protected static class InMemoryURLHandlerDao implements URLHandlerDao {
+
+        protected final List<URLHandler> handlers;
+
+        public InMemoryURLHandlerDao(List<URLHandler> handlers) {
+            this.handlers = handlers;
+        }
+
+        @Override
+        public URLHandler findURLHandlerByURI(String uri) {
+            for (URLHandler handler : handlers) {
+                if (handler.getIncomingURL().equals(uri)) {
+                    return handler;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public List<URLHandler> findAllURLHandlers() {
+            return handlers;
+        }
+
+        @Override
+        public URLHandler saveURLHandler(URLHandler handler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public URLHandler findURLHandlerById(Long id) {
+            for (URLHandler handler : handlers) {
+                if (handler.getId().equals(id)) {
+                    return handler;
+                }
+            }
+            return null;
+        }
+
+    }
+
+}
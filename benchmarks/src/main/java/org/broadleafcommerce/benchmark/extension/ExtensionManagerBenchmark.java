@@ -0,0 +1,123 @@
+/*
+ * #%L
+ * BroadleafCommerce Benchmarks
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.benchmark.extension;
+
+import org.broadleafcommerce.common.extension.AbstractExtensionHandler;
+import org.broadleafcommerce.common.extension.ExtensionHandler;
+import org.broadleafcommerce.common.extension.ExtensionManager;
+import org.broadleafcommerce.common.extension.ExtensionResultHolder;
+import org.broadleafcommerce.common.extension.ExtensionResultStatusType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatch through the {@link ExtensionManager#getProxy()} dynamic proxy that the services call their extension points
+ * with, compared to calling the same handlers directly. With no handlers registered this is the overhead every
+ * extension point adds to a site that does not use it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtensionManagerBenchmark {
+
+    @Param({ "0", "1", "3" })
+    protected int handlerCount;
+
+    protected BenchmarkExtensionManager extensionManager;
+    protected List<BenchmarkExtensionHandler> handlers;
+    protected ExtensionResultHolder<Long> resultHolder;
+
+    @Setup
+    public void setUp() {
+        extensionManager = new BenchmarkExtensionManager();
+        handlers = new ArrayList<BenchmarkExtensionHandler>();
+        for (int i = 0; i < handlerCount; i++) {
+            CountingExtensionHandler handler = new CountingExtensionHandler();
+            handler.setPriority(i);
+            handlers.add(handler);
+        }
+        // registerHandler only accepts one handler of each class
+        extensionManager.setHandlers(new ArrayList<BenchmarkExtensionHandler>(handlers));
+        resultHolder = new ExtensionResultHolder<Long>();
+        resultHolder.setResult(0L);
+    }
+
+    @Benchmark
+    public ExtensionResultStatusType proxy() {
+        return extensionManager.getProxy().increment(resultHolder);
+    }
+
+    @Benchmark
+    public ExtensionResultStatusType direct() {
+        ExtensionResultStatusType status = ExtensionResultStatusType.NOT_HANDLED;
+        for (BenchmarkExtensionHandler handler : handlers) {
+            if (handler.isEnabled()) {
+                status = handler.increment(resultHolder);
+            }
+        }
+        return status;
+    }
+
+    public static interface BenchmarkExtensionHandler extends ExtensionHandler {
+
+        public ExtensionResultStatusType increment(ExtensionResultHolder<Long> resultHolder);
+
+    }
+
+    public static class BenchmarkExtensionManager extends ExtensionManager<BenchmarkExtensionHandler> {
+
+        public BenchmarkExtensionManager() {
+            super(BenchmarkExtensionHandler.class);
+        }
+
+        @Override
+        public boolean continueOnHandled() {
+            return true;
+        }
+
+    }
+
+    public static class CountingExtensionHandler extends AbstractExtensionHandler implements BenchmarkExtensionHandler {
+
+        @Override
+        public ExtensionResultStatusType increment(ExtensionResultHolder<Long> resultHolder) {
+            resultHolder.setResult(resultHolder.getResult() + 1);
+            return ExtensionResultStatusType.HANDLED_CONTINUE;
+        }
+
+    }
+
+}
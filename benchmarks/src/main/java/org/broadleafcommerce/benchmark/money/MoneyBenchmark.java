@@ -0,0 +1,124 @@
+/*
+ * #%L
+ * BroadleafCommerce Benchmarks
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.benchmark.money;
+
+import org.broadleafcommerce.common.money.Money;
+import org.broadleafcommerce.common.money.MoneyAccumulator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order total arithmetic the way the pricing workflow does it: summing line amounts, summing price times quantity and
+ * applying a percentage to the total, once with {@link Money} and once with {@link MoneyAccumulator}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    protected int itemCount;
+
+    protected Currency currency;
+    protected Money[] prices;
+    protected int[] quantities;
+    protected BigDecimal percentage;
+
+    @Setup
+    public void setUp() {
+        currency = Currency.getInstance("USD");
+        prices = new Money[itemCount];
+        quantities = new int[itemCount];
+        Random random = new Random(42);
+        for (int i = 0; i < itemCount; i++) {
+            prices[i] = new Money(BigDecimal.valueOf(random.nextInt(100000), 2), currency);
+            quantities[i] = 1 + random.nextInt(5);
+        }
+        percentage = new BigDecimal("0.0825");
+    }
+
+    @Benchmark
+    public Money sumMoney() {
+        Money total = Money.zero(currency);
+        for (Money price : prices) {
+            total = total.add(price);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money sumAccumulator() {
+        MoneyAccumulator total = new MoneyAccumulator(currency);
+        for (Money price : prices) {
+            total.add(price);
+        }
+        return total.toMoney();
+    }
+
+    @Benchmark
+    public Money extendedPriceMoney() {
+        Money total = Money.zero(currency);
+        for (int i = 0; i < prices.length; i++) {
+            total = total.add(prices[i].multiply(quantities[i]));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money extendedPriceAccumulator() {
+        MoneyAccumulator total = new MoneyAccumulator(currency);
+        for (int i = 0; i < prices.length; i++) {
+            total.add(prices[i].multiply(quantities[i]));
+        }
+        return total.toMoney();
+    }
+
+    @Benchmark
+    public Money percentageMoney() {
+        return sumMoney().multiply(percentage);
+    }
+
+    @Benchmark
+    public Money percentageAccumulator() {
+        MoneyAccumulator total = new MoneyAccumulator(currency);
+        for (Money price : prices) {
+            total.add(price);
+        }
+        return total.multiply(percentage).toMoney();
+    }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * #%L
+ * BroadleafCommerce Benchmarks
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.benchmark.offer;
+
+import org.broadleafcommerce.core.offer.dao.OfferDao;
+import org.broadleafcommerce.core.offer.domain.Offer;
+import org.broadleafcommerce.core.offer.domain.OfferImpl;
+import org.broadleafcommerce.core.offer.service.OfferDataItemProvider;
+import org.broadleafcommerce.core.offer.service.OfferServiceUtilitiesImpl;
+import org.broadleafcommerce.core.offer.service.discount.domain.PromotableCandidateItemOffer;
+import org.broadleafcommerce.core.offer.service.discount.domain.PromotableCandidateOrderOffer;
+import org.broadleafcommerce.core.offer.service.discount.domain.PromotableItemFactoryImpl;
+import org.broadleafcommerce.core.offer.service.discount.domain.PromotableOrder;
+import org.broadleafcommerce.core.offer.service.processor.ItemOfferProcessorImpl;
+import org.broadleafcommerce.core.offer.service.processor.OfferTimeZoneProcessor;
+import org.broadleafcommerce.core.offer.service.type.OfferDiscountType;
+import org.broadleafcommerce.core.order.dao.OrderItemDao;
+import org.easymock.EasyMock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Item offer application through {@link ItemOfferProcessorImpl#applyAndCompareOrderAndItemOffers}, which compares
+ * the permutations of the qualified item offers and keeps the one giving the lowest subtotal. The first offer is not
+ * combinable with the others, so that with more than one offer the processor has several permutations to try. The
+ * orders come from the same {@link OfferDataItemProvider} fixtures as the offer unit tests, with the DAOs mocked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemOfferProcessorBenchmark {
+
+    protected static final String CATEGORY_RULE = "([MVEL.eval(\"toUpperCase()\",\"test1\"), MVEL.eval(\"toUpperCase()\",\"test2\")] " +
+            "contains MVEL.eval(\"toUpperCase()\", discreteOrderItem.category.name))";
+
+    @Param({ "1", "2", "3" })
+    protected int offerCount;
+
+    protected OfferDataItemProvider dataProvider = new OfferDataItemProvider();
+    protected ItemOfferProcessorImpl itemProcessor;
+    protected List<Offer> offers;
+
+    protected PromotableOrder order;
+    protected List<PromotableCandidateOrderOffer> qualifiedOrderOffers;
+    protected List<PromotableCandidateItemOffer> qualifiedItemOffers;
+
+    @Setup
+    public void setUp() {
+        OfferDao offerDaoMock = EasyMock.createMock(OfferDao.class);
+        OrderItemDao orderItemDaoMock = EasyMock.createMock(OrderItemDao.class);
+        OfferTimeZoneProcessor offerTimeZoneProcessorMock = EasyMock.createMock(OfferTimeZoneProcessor.class);
+        EasyMock.expect(orderItemDaoMock.createOrderItemPriceDetail()).andAnswer(OfferDataItemProvider.getCreateOrderItemPriceDetailAnswer()).anyTimes();
+        EasyMock.expect(orderItemDaoMock.createOrderItemQualifier()).andAnswer(OfferDataItemProvider.getCreateOrderItemQualifierAnswer()).anyTimes();
+        EasyMock.expect(offerDaoMock.createOrderItemPriceDetailAdjustment()).andAnswer(OfferDataItemProvider.getCreateOrderItemPriceDetailAdjustmentAnswer()).anyTimes();
+        EasyMock.expect(offerTimeZoneProcessorMock.getTimeZone(EasyMock.isA(OfferImpl.class))).andReturn(TimeZone.getTimeZone("CST")).anyTimes();
+        EasyMock.replay(offerDaoMock, orderItemDaoMock, offerTimeZoneProcessorMock);
+
+        OfferServiceUtilitiesImpl offerServiceUtilities = new OfferServiceUtilitiesImpl();
+        offerServiceUtilities.setOfferDao(offerDaoMock);
+        offerServiceUtilities.setPromotableItemFactory(new PromotableItemFactoryImpl());
+
+        itemProcessor = new ItemOfferProcessorImpl();
+        itemProcessor.setOfferDao(offerDaoMock);
+        itemProcessor.setOrderItemDao(orderItemDaoMock);
+        itemProcessor.setOfferTimeZoneProcessor(offerTimeZoneProcessorMock);
+        itemProcessor.setPromotableItemFactory(new PromotableItemFactoryImpl());
+        itemProcessor.setOfferServiceUtilities(offerServiceUtilities);
+
+        offers = new ArrayList<Offer>();
+        for (int i = 0; i < offerCount; i++) {
+            Offer offer = dataProvider.createItemBasedOfferWithItemCriteria("order.subTotal.getAmount()>20",
+                    OfferDiscountType.PERCENT_OFF, CATEGORY_RULE, CATEGORY_RULE).get(0);
+            offer.setId(i + 1L);
+            offer.setValue(BigDecimal.valueOf(20 - i * 5));
+            offer.setCombinableWithOtherOffers(i > 0);
+            offers.add(offer);
+        }
+    }
+
+    /**
+     * Applying offers changes the order's price details, so every invocation starts from a freshly built order with
+     * freshly qualified offers
+     */
+    @Setup(Level.Invocation)
+    public void prepareOrder() {
+        order = dataProvider.createBasicPromotableOrder();
+        qualifiedOrderOffers = new ArrayList<PromotableCandidateOrderOffer>();
+        qualifiedItemOffers = new ArrayList<PromotableCandidateItemOffer>();
+        itemProcessor.filterOffers(order, offers, qualifiedOrderOffers, qualifiedItemOffers);
+        if (qualifiedItemOffers.size() != offerCount) {
+            throw new IllegalStateException("Expected all " + offerCount + " offers to qualify for the order but " + 
+                    qualifiedItemOffers.size() + " did");
+        }
+    }
+
+    @Benchmark
+    public PromotableOrder applyAndCompareItemOffers() {
+        itemProcessor.applyAndCompareOrderAndItemOffers(order, qualifiedOrderOffers, qualifiedItemOffers);
+        return order;
+    }
+
+}
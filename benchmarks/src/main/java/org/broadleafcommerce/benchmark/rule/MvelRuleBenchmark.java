@@ -0,0 +1,96 @@
+/*
+ * #%L
+ * BroadleafCommerce Benchmarks
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.benchmark.rule;
+
+import org.apache.commons.collections.map.LRUMap;
+import org.broadleafcommerce.common.rule.MvelHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluation of offer style MVEL rules through {@link MvelHelper}, with the compiled expression already cached and with
+ * an empty cache so that every evaluation compiles the rule first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MvelRuleBenchmark {
+
+    @Param({ "simple", "compound" })
+    protected String ruleType;
+
+    protected String rule;
+    protected Map<String, Object> ruleParameters;
+    protected Map expressionCache;
+
+    @Setup
+    public void setUp() {
+        MvelHelper.setTestMode(true);
+        if ("simple".equals(ruleType)) {
+            rule = "customer.registered == true";
+        } else {
+            rule = "customer.registered == true && order.subTotal > 50.0 && " +
+                    "MvelHelper.toUpperCase(product.name) == MvelHelper.toUpperCase(\"Hot Sauce\")";
+        }
+
+        Map<String, Object> customer = new HashMap<String, Object>();
+        customer.put("registered", Boolean.TRUE);
+        Map<String, Object> order = new HashMap<String, Object>();
+        order.put("subTotal", 75.5d);
+        Map<String, Object> product = new HashMap<String, Object>();
+        product.put("name", "hot sauce");
+        ruleParameters = new HashMap<String, Object>();
+        ruleParameters.put("customer", customer);
+        ruleParameters.put("order", order);
+        ruleParameters.put("product", product);
+
+        expressionCache = new LRUMap(10);
+        if (!MvelHelper.evaluateRule(rule, ruleParameters, expressionCache)) {
+            throw new IllegalStateException("The " + ruleType + " rule should match the benchmark parameters");
+        }
+    }
+
+    @Benchmark
+    public boolean evaluateCached() {
+        return MvelHelper.evaluateRule(rule, ruleParameters, expressionCache);
+    }
+
+    @Benchmark
+    public boolean evaluateUncached() {
+        return MvelHelper.evaluateRule(rule, ruleParameters, new HashMap<String, Object>());
+    }
+
+}
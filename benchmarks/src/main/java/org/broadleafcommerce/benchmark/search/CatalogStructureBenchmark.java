@@ -0,0 +1,258 @@
+/*
+ * #%L
+ * BroadleafCommerce Benchmarks
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.benchmark.search;
+
+import org.broadleafcommerce.core.search.dao.CatalogStructure;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and walking {@link CatalogStructure} against the boxed maps the catalog structure used to be held in, over
+ * a synthetic catalog. Walking looks up the display order of every product in each of its categories and visits the
+ * category's ancestors, as indexing a product does. Run with -prof gc to compare the allocations of each
+ * representation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = { "-Xmx2g" })
+public class CatalogStructureBenchmark {
+
+    @Param({ "100000" })
+    protected int productCount;
+
+    @Param({ "5000" })
+    protected int categoryCount;
+
+    protected SyntheticCatalog catalog;
+    protected CatalogStructure compact;
+    protected BoxedCatalogStructure boxed;
+
+    @Setup
+    public void setUp() {
+        catalog = new SyntheticCatalog(productCount, categoryCount, 42L);
+        compact = buildCompact();
+        boxed = buildBoxed();
+    }
+
+    @Benchmark
+    public CatalogStructure buildCompact() {
+        CatalogStructure structure = new CatalogStructure();
+        for (int p = 0; p < catalog.productParents.length; p++) {
+            structure.addProductParents(catalog.productId(p), asList(catalog.productParents[p]));
+        }
+        for (int c = 0; c < catalog.categoryParents.length; c++) {
+            structure.addCategoryParents(catalog.categoryId(c), asList(catalog.categoryParents[c]));
+            structure.addCategoryProducts(catalog.categoryId(c), catalog.categoryProducts[c],
+                    catalog.categoryDisplayOrders[c], catalog.categoryProductCounts[c]);
+        }
+        return structure;
+    }
+
+    @Benchmark
+    public BoxedCatalogStructure buildBoxed() {
+        BoxedCatalogStructure structure = new BoxedCatalogStructure();
+        for (int p = 0; p < catalog.productParents.length; p++) {
+            Set<Long> parents = new HashSet<Long>();
+            for (long parent : catalog.productParents[p]) {
+                parents.add(parent);
+            }
+            structure.parentCategoriesByProduct.put(catalog.productId(p), parents);
+        }
+        for (int c = 0; c < catalog.categoryParents.length; c++) {
+            Set<Long> parents = new HashSet<Long>();
+            for (long parent : catalog.categoryParents[c]) {
+                parents.add(parent);
+            }
+            structure.parentCategoriesByCategory.put(catalog.categoryId(c), parents);
+            List<Long> products = new ArrayList<Long>();
+            for (int i = 0; i < catalog.categoryProductCounts[c]; i++) {
+                long productId = catalog.categoryProducts[c][i];
+                products.add(productId);
+                structure.displayOrdersByCategoryProduct.put(catalog.categoryId(c) + "-" + productId,
+                        catalog.categoryDisplayOrders[c][i]);
+            }
+            structure.productsByCategory.put(catalog.categoryId(c), products);
+        }
+        return structure;
+    }
+
+    @Benchmark
+    public long walkCompact() {
+        final long[] checksum = new long[1];
+        CatalogStructure.CategoryVisitor visitor = new CatalogStructure.CategoryVisitor() {
+            @Override
+            public void visit(long categoryId) {
+                checksum[0] += categoryId;
+            }
+        };
+        for (int p = 0; p < catalog.productParents.length; p++) {
+            long productId = catalog.productId(p);
+            int parentCount = compact.getProductParentCount(productId);
+            for (int i = 0; i < parentCount; i++) {
+                long categoryId = compact.getProductParent(productId, i);
+                BigDecimal displayOrder = compact.getDisplayOrder(categoryId, productId);
+                checksum[0] += displayOrder == null ? 0 : displayOrder.intValue();
+                compact.visitCategoryHierarchy(categoryId, visitor);
+            }
+        }
+        return checksum[0];
+    }
+
+    @Benchmark
+    public long walkBoxed() {
+        long checksum = 0;
+        for (int p = 0; p < catalog.productParents.length; p++) {
+            Long productId = catalog.productId(p);
+            for (Long categoryId : boxed.parentCategoriesByProduct.get(productId)) {
+                BigDecimal displayOrder = boxed.displayOrdersByCategoryProduct.get(categoryId + "-" + productId);
+                checksum += displayOrder == null ? 0 : displayOrder.intValue();
+                checksum += walkBoxed(boxed.parentCategoriesByCategory, categoryId, new HashSet<Long>());
+            }
+        }
+        return checksum;
+    }
+
+    protected static long walkBoxed(Map<Long, Set<Long>> parentCategoriesByCategory, Long categoryId, Set<Long> indexedParents) {
+        long checksum = categoryId;
+        for (Long parent : parentCategoriesByCategory.get(categoryId)) {
+            if (!indexedParents.contains(parent)) {
+                indexedParents.add(parent);
+                checksum += walkBoxed(parentCategoriesByCategory, parent, indexedParents);
+            }
+        }
+        return checksum;
+    }
+
+    protected static List<Long> asList(long[] values) {
+        List<Long> list = new ArrayList<Long>(values.length);
+        for (long value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    public static class BoxedCatalogStructure {
+
+        protected final Map<Long, Set<Long>> parentCategoriesByProduct = new HashMap<Long, Set<Long>>();
+        protected final Map<Long, Set<Long>> parentCategoriesByCategory = new HashMap<Long, Set<Long>>();
+        protected final Map<Long, List<Long>> productsByCategory = new HashMap<Long, List<Long>>();
+        protected final Map<String, BigDecimal> displayOrdersByCategoryProduct = new HashMap<String, BigDecimal>();
+
+    }
+
+    /**
+     * A category forest where every category below the first hundred has a parent with a lower id and one in ten has
+     * a second parent, and every product is in one to three categories
+     */
+    public static class SyntheticCatalog {
+
+        protected final long[][] productParents;
+        protected final long[][] categoryParents;
+        protected final long[][] categoryProducts;
+        protected final BigDecimal[][] categoryDisplayOrders;
+        protected final int[] categoryProductCounts;
+        protected long linkCount;
+
+        public SyntheticCatalog(int productCount, int categoryCount, long seed) {
+            Random random = new Random(seed);
+            categoryParents = new long[categoryCount][];
+            for (int c = 0; c < categoryCount; c++) {
+                if (c < 100) {
+                    categoryParents[c] = new long[0];
+                } else if (random.nextInt(10) == 0) {
+                    int first = random.nextInt(c);
+                    int second = random.nextInt(c);
+                    categoryParents[c] = first == second ? new long[] { categoryId(first) }
+                            : new long[] { categoryId(first), categoryId(second) };
+                } else {
+                    categoryParents[c] = new long[] { categoryId(random.nextInt(c)) };
+                }
+            }
+            productParents = new long[productCount][];
+            categoryProductCounts = new int[categoryCount];
+            for (int p = 0; p < productCount; p++) {
+                int links = 1 + random.nextInt(3);
+                long[] parents = new long[links];
+                int distinct = 0;
+                for (int i = 0; i < links; i++) {
+                    int c = random.nextInt(categoryCount);
+                    long categoryId = categoryId(c);
+                    boolean duplicate = false;
+                    for (int j = 0; j < distinct; j++) {
+                        duplicate |= parents[j] == categoryId;
+                    }
+                    if (!duplicate) {
+                        parents[distinct++] = categoryId;
+                        categoryProductCounts[c]++;
+                    }
+                }
+                productParents[p] = Arrays.copyOf(parents, distinct);
+                linkCount += distinct;
+            }
+            categoryProducts = new long[categoryCount][];
+            categoryDisplayOrders = new BigDecimal[categoryCount][];
+            for (int c = 0; c < categoryCount; c++) {
+                categoryProducts[c] = new long[categoryProductCounts[c]];
+                categoryDisplayOrders[c] = new BigDecimal[categoryProductCounts[c]];
+                categoryProductCounts[c] = 0;
+            }
+            for (int p = 0; p < productCount; p++) {
+                for (long categoryId : productParents[p]) {
+                    int c = (int) (categoryId - 1);
+                    int position = categoryProductCounts[c]++;
+                    categoryProducts[c][position] = productId(p);
+                    categoryDisplayOrders[c][position] = BigDecimal.valueOf(position, 6);
+                }
+            }
+        }
+
+        protected long productId(int ordinal) {
+            return ordinal + 1L;
+        }
+
+        protected long categoryId(int ordinal) {
+            return ordinal + 1L;
+        }
+    }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * #%L
+ * BroadleafCommerce Benchmarks
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.benchmark.workflow;
+
+import org.broadleafcommerce.core.workflow.Activity;
+import org.broadleafcommerce.core.workflow.BaseActivity;
+import org.broadleafcommerce.core.workflow.DefaultErrorHandler;
+import org.broadleafcommerce.core.workflow.DefaultProcessContextImpl;
+import org.broadleafcommerce.core.workflow.ProcessContext;
+import org.broadleafcommerce.core.workflow.ProcessContextFactory;
+import org.broadleafcommerce.core.workflow.SequenceProcessor;
+import org.broadleafcommerce.core.workflow.WorkflowException;
+import org.broadleafcommerce.core.workflow.state.ActivityStateManagerImpl;
+import org.broadleafcommerce.core.workflow.state.RollbackFailureException;
+import org.broadleafcommerce.core.workflow.state.RollbackHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost {@link SequenceProcessor} adds around the activities of a workflow: creating the process context, checking
+ * each activity's conditions, and registering rollback handlers with the activity state manager when the activities
+ * have them. The activities themselves do nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class SequenceProcessorBenchmark {
+
+    @Param({ "1", "10", "30" })
+    protected int activityCount;
+
+    @Param({ "false", "true" })
+    protected boolean rollbackHandlers;
+
+    protected SequenceProcessor processor;
+    protected Object seedData = new Object();
+
+    @Setup
+    public void setUp() throws Exception {
+        ActivityStateManagerImpl stateManager = new ActivityStateManagerImpl();
+        stateManager.init();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("blActivityStateManager", stateManager);
+
+        List activities = new ArrayList();
+        for (int i = 0; i < activityCount; i++) {
+            activities.add(new NoOpActivity("activity" + i, rollbackHandlers));
+        }
+
+        processor = new SequenceProcessor();
+        processor.setBeanName("benchmarkWorkflow");
+        processor.setBeanFactory(beanFactory);
+        processor.setActivities(activities);
+        processor.setDefaultErrorHandler(new DefaultErrorHandler());
+        processor.setProcessContextFactory(new ProcessContextFactory<Object, Object>() {
+
+            @Override
+            public ProcessContext<Object> createContext(Object preSeedData) throws WorkflowException {
+                DefaultProcessContextImpl<Object> context = new DefaultProcessContextImpl<Object>();
+                context.setSeedData(preSeedData);
+                return context;
+            }
+        });
+        processor.afterPropertiesSet();
+    }
+
+    @Benchmark
+    public ProcessContext<?> doActivities() throws WorkflowException {
+        return processor.doActivities(seedData);
+    }
+
+    protected static class NoOpActivity extends BaseActivity<ProcessContext<Object>> {
+
+        public NoOpActivity(String name, boolean rollbackHandler) {
+            setBeanName(name);
+            if (rollbackHandler) {
+                setAutomaticallyRegisterRollbackHandler(true);
+                setRollbackHandler(new RollbackHandler<ProcessContext<Object>>() {
+
+                    @Override
+                    public void rollbackState(Activity<? extends ProcessContext<ProcessContext<Object>>> activity,
+                            ProcessContext<ProcessContext<Object>> processContext, Map<String, Object> stateConfiguration)
+                            throws RollbackFailureException {
+                        // nothing to undo
+                    }
+                });
+            }
+        }
+
+        @Override
+        public ProcessContext<Object> execute(ProcessContext<Object> context) throws Exception {
+            return context;
+        }
+
+    }
+
+}
@@ -33,6 +33,7 @@ import org.broadleafcommerce.common.email.service.info.ServerInfo;
 import org.broadleafcommerce.common.email.service.message.EmailPropertyType;
 import org.broadleafcommerce.common.email.service.message.EmailServiceProducer;
 import org.broadleafcommerce.common.email.service.message.MessageCreator;
+import org.broadleafcommerce.common.email.service.outbox.EmailOutboxServiceProducer;
 import org.springframework.stereotype.Service;
 
 /**
@@ -55,6 +56,9 @@ public class EmailServiceImpl implements EmailService {
     @Resource(name = "blEmailReportingDao")
     protected EmailReportingDao emailReportingDao;
 
+    @Resource(name = "blEmailOutbox")
+    protected EmailOutboxServiceProducer emailOutbox;
+
     public boolean sendTemplateEmail(EmailTarget emailTarget, EmailInfo emailInfo, Map<String, Object> props) {
         if (props == null) {
             props = new HashMap<String, Object>();
@@ -92,11 +96,17 @@ public class EmailServiceImpl implements EmailService {
         props.put(EmailPropertyType.INFO.getType(), emailInfo);
         props.put(EmailPropertyType.USER.getType(), emailTarget);
 
+        boolean outboxEnabled = emailOutbox != null && emailOutbox.isEnabled();
         if (Boolean.parseBoolean(emailInfo.getSendEmailReliableAsync())) {
-            if (emailServiceProducer == null) {
+            if (emailServiceProducer != null) {
+                emailServiceProducer.send(props);
+            } else if (outboxEnabled) {
+                emailOutbox.send(props);
+            } else {
                 throw new EmailException("The property sendEmailReliableAsync on EmailInfo is true, but the EmailService does not have an instance of JMSEmailServiceProducer set.");
             }
-            emailServiceProducer.send(props);
+        } else if (outboxEnabled) {
+            emailOutbox.send(props);
         } else {
             messageCreator.sendMessage(props);
         }
@@ -146,6 +156,20 @@ public class EmailServiceImpl implements EmailService {
         this.emailServiceProducer = emailServiceProducer;
     }
 
+    /**
+     * @return the emailOutbox
+     */
+    public EmailOutboxServiceProducer getEmailOutbox() {
+        return emailOutbox;
+    }
+
+    /**
+     * @param emailOutbox the emailOutbox to set
+     */
+    public void setEmailOutbox(EmailOutboxServiceProducer emailOutbox) {
+        this.emailOutbox = emailOutbox;
+    }
+
     /**
      * @return the messageCreator
      */
@@ -0,0 +1,149 @@
+/*
+ * #%L
+ * BroadleafCommerce Common Libraries
+ * %%
+ * Copyright (C) 2009 - 2014 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.common.email.service.outbox;
+
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+
+/**
+ * Stores queued emails as rendered MIME messages, one file per email, so that emails accepted by the outbox survive a
+ * restart. Only the rendered message is kept, never the entities it was rendered from. An entry is written to a temporary file, synced and then renamed, so a crash never leaves a partial entry
+ * behind. Entries that permanently fail are moved to a "failed" subdirectory for inspection.
+ * <p/>
+ * The directory must not be shared between running instances.
+ */
+public class EmailOutboxJournal {
+
+    protected static final String ENTRY_SUFFIX = ".eml";
+    protected static final String TEMP_SUFFIX = ".tmp";
+
+    protected final File directory;
+    protected final File failedDirectory;
+    protected final AtomicLong sequence = new AtomicLong();
+
+    public EmailOutboxJournal(File directory) {
+        this.directory = directory;
+        this.failedDirectory = new File(directory, "failed");
+        if (!failedDirectory.exists() && !failedDirectory.mkdirs()) {
+            throw new IllegalArgumentException("Unable to create the email outbox directory " + failedDirectory);
+        }
+    }
+
+    /**
+     * @return the journal entry for the given message
+     * @throws IOException if the message could not be written
+     */
+    public File write(MimeMessage message) throws IOException, MessagingException {
+        String name = String.format("%013d-%09d", System.currentTimeMillis(), sequence.incrementAndGet());
+        File temp = new File(directory, name + TEMP_SUFFIX);
+        File entry = new File(directory, name + ENTRY_SUFFIX);
+        FileOutputStream fileOut = new FileOutputStream(temp);
+        try {
+            OutputStream out = new BufferedOutputStream(fileOut);
+            message.writeTo(out);
+            out.flush();
+            fileOut.getFD().sync();
+            out.close();
+        } catch (IOException e) {
+            fileOut.close();
+            temp.delete();
+            throw e;
+        } catch (MessagingException e) {
+            fileOut.close();
+            temp.delete();
+            throw e;
+        }
+        if (!temp.renameTo(entry)) {
+            temp.delete();
+            throw new IOException("Unable to rename " + temp + " to " + entry);
+        }
+        return entry;
+    }
+
+    /**
+     * @return the message stored in the given entry, created through the given mail sender
+     */
+    public MimeMessage read(File entry, JavaMailSender mailSender) throws IOException {
+        InputStream in = new BufferedInputStream(new FileInputStream(entry));
+        try {
+            return mailSender.createMimeMessage(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    public void delete(File entry) {
+        entry.delete();
+    }
+
+    public void markFailed(File entry) {
+        if (!entry.renameTo(new File(failedDirectory, entry.getName()))) {
+            entry.delete();
+        }
+    }
+
+    /**
+     * @return the entries still waiting to be sent, oldest first. Leftover temporary files from an interrupted write
+     * are removed.
+     */
+    public File[] listPending() {
+        File[] leftovers = directory.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(File file) {
+                return file.isFile() && file.getName().endsWith(TEMP_SUFFIX);
+            }
+        });
+        if (leftovers != null) {
+            for (File leftover : leftovers) {
+                leftover.delete();
+            }
+        }
+        File[] entries = directory.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(File file) {
+                return file.isFile() && file.getName().endsWith(ENTRY_SUFFIX);
+            }
+        });
+        if (entries == null) {
+            return new File[0];
+        }
+        Arrays.sort(entries);
+        return entries;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+}
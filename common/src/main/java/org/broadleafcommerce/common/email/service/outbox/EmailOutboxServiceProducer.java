@@ -0,0 +1,491 @@
+/*
+ * #%L
+ * BroadleafCommerce Common Libraries
+ * %%
+ * Copyright (C) 2009 - 2014 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.common.email.service.outbox;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.broadleafcommerce.common.email.service.message.EmailServiceProducer;
+import org.broadleafcommerce.common.email.service.message.MessageCreator;
+import org.broadleafcommerce.common.time.SystemTime;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Resource;
+import javax.mail.MessagingException;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+
+/**
+ * {@link EmailServiceProducer} that renders each email through the {@link MessageCreator} on the calling thread,
+ * journals the rendered message to local disk and returns. Rendering happens where the caller's persistence session
+ * and request context are available to the templates; only the rendered message is handed to the workers. A bounded
+ * pool of workers drains the journal in batches and delivers the messages.
+ * <p/>
+ * When the mail sender is a {@link JavaMailSenderImpl}, each worker keeps its SMTP connection open between emails and
+ * closes it once it has been idle for email.outbox.transport.idle.millis. Other senders are handed a whole batch at
+ * a time. Failed emails are retried with exponential backoff and are moved to the journal's "failed" directory once
+ * email.outbox.max.attempts is reached. Emails still in the journal on startup are sent again.
+ * <p/>
+ * The outbox is only active when email.outbox.enabled is true, in which case {@link
+ * org.broadleafcommerce.common.email.service.EmailServiceImpl} routes its emails through it.
+ */
+@Component("blEmailOutbox")
+@ManagedResource(objectName="org.broadleafcommerce:name=EmailOutbox", description="Email Outbox", currencyTimeLimit=15)
+public class EmailOutboxServiceProducer implements EmailServiceProducer, InitializingBean, DisposableBean {
+
+    private static final Log LOG = LogFactory.getLog(EmailOutboxServiceProducer.class);
+
+    @Resource(name = "blMessageCreator")
+    protected MessageCreator messageCreator;
+
+    @Value("${email.outbox.enabled}")
+    protected boolean enabled = false;
+
+    @Value("${email.outbox.directory}")
+    protected String directory = "";
+
+    @Value("${email.outbox.workers}")
+    protected int workers = 2;
+
+    @Value("${email.outbox.batch.size}")
+    protected int batchSize = 20;
+
+    @Value("${email.outbox.max.attempts}")
+    protected int maxAttempts = 8;
+
+    @Value("${email.outbox.retry.initial.delay.millis}")
+    protected long retryInitialDelayMillis = 5000;
+
+    @Value("${email.outbox.retry.max.delay.millis}")
+    protected long retryMaxDelayMillis = 600000;
+
+    @Value("${email.outbox.transport.idle.millis}")
+    protected long transportIdleMillis = 30000;
+
+    protected EmailOutboxJournal journal;
+    protected final DelayQueue<OutboxEntry> queue = new DelayQueue<OutboxEntry>();
+    protected final List<Thread> workerThreads = new ArrayList<Thread>();
+    protected volatile boolean running;
+
+    protected final AtomicLong sentCount = new AtomicLong();
+    protected final AtomicLong failedCount = new AtomicLong();
+    protected final AtomicLong retryCount = new AtomicLong();
+    protected final AtomicInteger retryingCount = new AtomicInteger();
+
+    @Override
+    public void afterPropertiesSet() {
+        if (enabled) {
+            start();
+        }
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        if (journal == null) {
+            File dir = StringUtils.isBlank(directory) ?
+                    new File(System.getProperty("java.io.tmpdir"), "broadleaf-email-outbox") : new File(directory);
+            journal = new EmailOutboxJournal(dir);
+        }
+        File[] pending = journal.listPending();
+        if (pending.length > 0) {
+            LOG.info("Resending " + pending.length + " email(s) left in the outbox at " + journal.getDirectory());
+        }
+        long now = SystemTime.asMillis();
+        for (File entry : pending) {
+            queue.put(new OutboxEntry(entry, now));
+        }
+        running = true;
+        for (int i = 0; i < Math.max(1, workers); i++) {
+            Thread thread = new Thread(new Worker(), "blEmailOutbox-" + (i + 1));
+            thread.setDaemon(true);
+            workerThreads.add(thread);
+            thread.start();
+        }
+    }
+
+    @Override
+    public synchronized void destroy() throws Exception {
+        running = false;
+        for (Thread thread : workerThreads) {
+            thread.interrupt();
+        }
+        for (Thread thread : workerThreads) {
+            thread.join(transportIdleMillis);
+        }
+        workerThreads.clear();
+        queue.clear();
+    }
+
+    /**
+     * Renders the email and journals it for delivery by the workers. Emails that cannot be journaled are sent on the
+     * calling thread instead.
+     * 
+     * @throws MailPreparationException if the email could not be rendered
+     */
+    @Override
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public void send(Map props) {
+        if (!running) {
+            messageCreator.sendMessage(props);
+            return;
+        }
+        JavaMailSender mailSender = messageCreator.getMailSender();
+        MimeMessage message = mailSender.createMimeMessage();
+        try {
+            messageCreator.buildMimeMessagePreparator(props).prepare(message);
+        } catch (MailException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new MailPreparationException(e);
+        }
+        File entry;
+        try {
+            entry = journal.write(message);
+        } catch (Exception e) {
+            LOG.warn("Unable to write the email to the outbox, sending it immediately instead", e);
+            mailSender.send(message);
+            return;
+        }
+        queue.put(new OutboxEntry(entry, SystemTime.asMillis()));
+    }
+
+    protected void sendBatch(Worker worker, List<OutboxEntry> batch) {
+        List<OutboxEntry> prepared = new ArrayList<OutboxEntry>(batch.size());
+        List<MimeMessage> messages = new ArrayList<MimeMessage>(batch.size());
+        JavaMailSender mailSender = messageCreator.getMailSender();
+        for (OutboxEntry entry : batch) {
+            try {
+                MimeMessage message = journal.read(entry.file, mailSender);
+                prepared.add(entry);
+                messages.add(message);
+            } catch (Exception e) {
+                onFailure(entry, e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        if (mailSender instanceof JavaMailSenderImpl) {
+            for (int i = 0; i < messages.size(); i++) {
+                try {
+                    worker.send((JavaMailSenderImpl) mailSender, messages.get(i));
+                    onSuccess(prepared.get(i));
+                } catch (MessagingException e) {
+                    worker.closeTransport();
+                    onFailure(prepared.get(i), e);
+                }
+            }
+        } else {
+            Map<Object, Exception> failures = null;
+            try {
+                mailSender.send(messages.toArray(new MimeMessage[messages.size()]));
+            } catch (MailSendException e) {
+                failures = e.getFailedMessages();
+            } catch (MailException e) {
+                for (OutboxEntry entry : prepared) {
+                    onFailure(entry, e);
+                }
+                return;
+            }
+            for (int i = 0; i < messages.size(); i++) {
+                Exception failure = failures == null ? null : failures.get(messages.get(i));
+                if (failure == null) {
+                    onSuccess(prepared.get(i));
+                } else {
+                    onFailure(prepared.get(i), failure);
+                }
+            }
+        }
+    }
+
+    protected void onSuccess(OutboxEntry entry) {
+        if (entry.attempts > 0) {
+            retryingCount.decrementAndGet();
+        }
+        journal.delete(entry.file);
+        sentCount.incrementAndGet();
+    }
+
+    protected void onFailure(OutboxEntry entry, Exception e) {
+        entry.attempts++;
+        if (entry.attempts >= maxAttempts) {
+            if (entry.attempts > 1) {
+                retryingCount.decrementAndGet();
+            }
+            LOG.error("Giving up on email " + entry.file.getName() + " after " + entry.attempts + " attempt(s)", e);
+            journal.markFailed(entry.file);
+            failedCount.incrementAndGet();
+            return;
+        }
+        if (entry.attempts == 1) {
+            retryingCount.incrementAndGet();
+        }
+        long delay = computeRetryDelay(entry.attempts);
+        if (LOG.isWarnEnabled()) {
+            LOG.warn("Unable to send email " + entry.file.getName() + ", retrying in " + delay + "ms: " + e.getMessage());
+        }
+        entry.dueAt = SystemTime.asMillis() + delay;
+        retryCount.incrementAndGet();
+        queue.put(entry);
+    }
+
+    /**
+     * @return the delay before the given attempt is retried, doubling from email.outbox.retry.initial.delay.millis up
+     * to email.outbox.retry.max.delay.millis
+     */
+    protected long computeRetryDelay(int attempts) {
+        long delay = retryInitialDelayMillis;
+        for (int i = 1; i < attempts && delay < retryMaxDelayMillis; i++) {
+            delay *= 2;
+        }
+        return Math.min(delay, retryMaxDelayMillis);
+    }
+
+    @ManagedAttribute(description="Number of emails waiting in the outbox, including those waiting to be retried")
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    @ManagedAttribute(description="Number of emails waiting to be retried after a failed attempt")
+    public int getRetryingCount() {
+        return retryingCount.get();
+    }
+
+    @ManagedAttribute(description="Number of emails sent since startup")
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    @ManagedAttribute(description="Number of emails given up on since startup")
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    @ManagedAttribute(description="Number of retries scheduled since startup")
+    public long getRetryCount() {
+        return retryCount.get();
+    }
+
+    @ManagedAttribute(description="Age in milliseconds of the oldest email in the outbox")
+    public long getOldestEntryAgeMillis() {
+        long oldest = Long.MAX_VALUE;
+        for (OutboxEntry entry : queue) {
+            oldest = Math.min(oldest, entry.createdAt);
+        }
+        return oldest == Long.MAX_VALUE ? 0 : SystemTime.asMillis() - oldest;
+    }
+
+    @ManagedAttribute(description="Whether the outbox workers are running")
+    public boolean isRunning() {
+        return running;
+    }
+
+    public MessageCreator getMessageCreator() {
+        return messageCreator;
+    }
+
+    public void setMessageCreator(MessageCreator messageCreator) {
+        this.messageCreator = messageCreator;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public long getRetryInitialDelayMillis() {
+        return retryInitialDelayMillis;
+    }
+
+    public void setRetryInitialDelayMillis(long retryInitialDelayMillis) {
+        this.retryInitialDelayMillis = retryInitialDelayMillis;
+    }
+
+    public long getRetryMaxDelayMillis() {
+        return retryMaxDelayMillis;
+    }
+
+    public void setRetryMaxDelayMillis(long retryMaxDelayMillis) {
+        this.retryMaxDelayMillis = retryMaxDelayMillis;
+    }
+
+    public long getTransportIdleMillis() {
+        return transportIdleMillis;
+    }
+
+    public void setTransportIdleMillis(long transportIdleMillis) {
+        this.transportIdleMillis = transportIdleMillis;
+    }
+
+    public void setJournal(EmailOutboxJournal journal) {
+        this.journal = journal;
+    }
+
+    protected static class OutboxEntry implements Delayed {
+
+        protected final File file;
+        protected final long createdAt;
+        protected volatile long dueAt;
+        protected int attempts;
+
+        public OutboxEntry(File file, long now) {
+            this.file = file;
+            this.createdAt = now;
+            this.dueAt = now;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAt - SystemTime.asMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            long diff = getDelay(TimeUnit.MILLISECONDS) - other.getDelay(TimeUnit.MILLISECONDS);
+            return diff < 0 ? -1 : diff > 0 ? 1 : 0;
+        }
+
+    }
+
+    /**
+     * Drains due entries in batches and owns the SMTP connection it reuses between them.
+     */
+    protected class Worker implements Runnable {
+
+        protected Transport transport;
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    OutboxEntry first;
+                    try {
+                        first = queue.poll(transportIdleMillis, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                    if (first == null) {
+                        closeTransport();
+                        continue;
+                    }
+                    List<OutboxEntry> batch = new ArrayList<OutboxEntry>(batchSize);
+                    batch.add(first);
+                    queue.drainTo(batch, Math.max(0, batchSize - 1));
+                    try {
+                        sendBatch(this, batch);
+                    } catch (RuntimeException e) {
+                        LOG.error("Unexpected error while sending emails from the outbox", e);
+                    }
+                }
+            } finally {
+                closeTransport();
+            }
+        }
+
+        protected void send(JavaMailSenderImpl mailSender, MimeMessage message) throws MessagingException {
+            if (transport == null || !transport.isConnected()) {
+                closeTransport();
+                String protocol = mailSender.getProtocol() == null ? "smtp" : mailSender.getProtocol();
+                transport = mailSender.getSession().getTransport(protocol);
+                transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+            }
+            if (message.getSentDate() == null) {
+                message.setSentDate(new Date());
+            }
+            String messageId = message.getMessageID();
+            message.saveChanges();
+            if (messageId != null) {
+                message.setHeader("Message-ID", messageId);
+            }
+            transport.sendMessage(message, message.getAllRecipients());
+        }
+
+        protected void closeTransport() {
+            if (transport != null) {
+                try {
+                    transport.close();
+                } catch (MessagingException e) {
+                    LOG.debug("Unable to close the mail transport", e);
+                }
+                transport = null;
+            }
+        }
+
+    }
+
+}
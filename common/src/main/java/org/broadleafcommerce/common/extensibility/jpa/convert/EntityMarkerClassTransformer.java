@@ -121,13 +121,7 @@ public class EntityMarkerClassTransformer extends AbstractClassTransformer imple
         boolean isValidPattern = true;
         List<DirectCopyIgnorePattern> matchedPatterns = new ArrayList<DirectCopyIgnorePattern>();
         for (DirectCopyIgnorePattern pattern : ignorePatterns) {
-            boolean isPatternMatch = false;
-            for (String patternString : pattern.getPatterns()) {
-                isPatternMatch = convertedClassName.matches(patternString);
-                if (isPatternMatch) {
-                    break;
-                }
-            }
+            boolean isPatternMatch = pattern.matches(convertedClassName);
             if (isPatternMatch) {
                 matchedPatterns.add(pattern);
             }
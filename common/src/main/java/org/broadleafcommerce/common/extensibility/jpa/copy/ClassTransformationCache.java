@@ -0,0 +1,183 @@
+/*
+ * #%L
+ * BroadleafCommerce Common Libraries
+ * %%
+ * Copyright (C) 2009 - 2014 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.common.extensibility.jpa.copy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Stores the output of a class transformation on disk so that later starts of the JVM can serve the transformed
+ * bytecode without re-running Javassist. Entries are keyed by a digest of the transformer identity, the transformation
+ * configuration and the untransformed class bytes, so a change to either the target class or any of the templates simply
+ * results in a miss.
+ * <p/>
+ * A cache marked read-only never writes. This is the mode to use when the cache directory has been populated ahead of time
+ * (for example, by starting the application once as part of the build) and is shipped with the deployment.
+ * <p/>
+ * Only JDK classes are used here, since this is executed from inside a class transformer (see the ClassCircularityError
+ * note in {@link DirectCopyClassTransformer}).
+ */
+public class ClassTransformationCache {
+
+    protected static final String FILE_SUFFIX = ".class";
+    protected static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    protected final File directory;
+    protected final boolean readOnly;
+
+    public ClassTransformationCache(File directory, boolean readOnly) {
+        this.directory = directory;
+        this.readOnly = readOnly;
+        if (!readOnly && !directory.exists() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Unable to create the class transformation cache directory " + directory);
+        }
+    }
+
+    /**
+     * Computes the cache key for a single class.
+     *
+     * @param configurationDigest a digest of everything, other than the class itself, that influences the transformation result
+     * @param className the fully qualified name of the class being transformed
+     * @param classBytes the untransformed bytecode
+     */
+    public String buildKey(String configurationDigest, String className, byte[] classBytes) {
+        MessageDigest digest = newDigest();
+        update(digest, configurationDigest);
+        update(digest, className);
+        digest.update(classBytes);
+        return className + "-" + toHex(digest.digest());
+    }
+
+    /**
+     * @return the transformed bytecode previously stored under the key, or null on a miss
+     */
+    public byte[] get(String key) {
+        File file = new File(directory, key + FILE_SUFFIX);
+        if (!file.isFile()) {
+            return null;
+        }
+        InputStream in = null;
+        try {
+            in = new FileInputStream(file);
+            return readFully(in);
+        } catch (IOException e) {
+            // A corrupt or unreadable entry is treated as a miss - the class is simply transformed again
+            return null;
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    /**
+     * Stores the transformed bytecode under the key. The entry is written to a temporary file first and then renamed
+     * so that a concurrently starting JVM never reads a partial entry. This is a no-op for a read-only cache.
+     */
+    public void put(String key, byte[] transformedBytes) {
+        if (readOnly) {
+            return;
+        }
+        File target = new File(directory, key + FILE_SUFFIX);
+        File temp = new File(directory, key + "." + System.nanoTime() + ".tmp");
+        OutputStream out = null;
+        try {
+            out = new FileOutputStream(temp);
+            out.write(transformedBytes);
+            out.close();
+            out = null;
+            if (!temp.renameTo(target)) {
+                temp.delete();
+            }
+        } catch (IOException e) {
+            // Failing to cache is not fatal to the transformation
+            temp.delete();
+        } finally {
+            closeQuietly(out);
+        }
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return a new digest instance suitable for building cache keys and configuration digests
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static void update(MessageDigest digest, String value) {
+        if (value != null) {
+            try {
+                digest.update(value.getBytes("UTF-8"));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        // separator, so that adjacent values cannot run together
+        digest.update((byte) 0);
+    }
+
+    public static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+
+    public static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    protected static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                //do nothing
+            }
+        }
+    }
+
+}
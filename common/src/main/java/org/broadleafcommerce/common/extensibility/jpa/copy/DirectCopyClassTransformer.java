@@ -26,7 +26,11 @@ import org.broadleafcommerce.common.logging.SupportLogManager;
 import org.broadleafcommerce.common.logging.SupportLogger;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.instrument.IllegalClassFormatException;
+import java.security.MessageDigest;
 import java.security.ProtectionDomain;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -37,6 +41,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 import javassist.ClassPool;
 import javassist.CtClass;
@@ -55,6 +61,8 @@ import javassist.bytecode.annotation.BooleanMemberValue;
 import javassist.bytecode.annotation.MemberValue;
 import javassist.bytecode.annotation.StringMemberValue;
 
+import org.springframework.beans.factory.annotation.Value;
+
 import javax.annotation.Resource;
 import javax.persistence.EntityListeners;
 
@@ -70,6 +78,13 @@ public class DirectCopyClassTransformer extends AbstractClassTransformer impleme
     protected static List<String> transformedMethods = new ArrayList<String>();
     protected static List<String> annotationTransformedClasses = new ArrayList<String>();
 
+    /**
+     * The class file constant pool entry present in any class annotated with {@link DirectCopyTransform}. Classes that do
+     * not contain it can be rejected in annotation mode without being parsed.
+     */
+    protected static final byte[] DIRECT_COPY_TRANSFORM_DESCRIPTOR =
+            ("L" + DirectCopyTransform.class.getName().replace('.', '/') + ";").getBytes();
+
     protected SupportLogger logger;
     protected String moduleName;
     protected Map<String, String> xformTemplates = new HashMap<String, String>();
@@ -81,6 +96,21 @@ public class DirectCopyClassTransformer extends AbstractClassTransformer impleme
     @Resource(name="blDirectCopyIgnorePatterns")
     protected List<DirectCopyIgnorePattern> ignorePatterns = new ArrayList<DirectCopyIgnorePattern>();
 
+    /**
+     * Directory used to store transformed bytecode between starts. Transformation caching is disabled when blank.
+     */
+    @Value("${class.transformer.cache.dir}")
+    protected String transformationCacheDirectory = "";
+
+    /**
+     * When true, the cache directory is only read from. Use this to ship a cache that was populated at build time.
+     */
+    @Value("${class.transformer.cache.readonly}")
+    protected boolean transformationCacheReadOnly = false;
+
+    protected volatile ClassTransformationCache transformationCache;
+    protected volatile String configurationDigest;
+
     public DirectCopyClassTransformer(String moduleName) {
         this.moduleName = moduleName;
         logger = SupportLogManager.getLogger(moduleName, this.getClass());
@@ -107,6 +137,23 @@ public class DirectCopyClassTransformer extends AbstractClassTransformer impleme
             boolean mySkipOverlaps = skipOverlaps;
             boolean myRenameMethodOverlaps = renameMethodOverlaps;
             String convertedClassName = className.replace('/', '.');
+            if (xformTemplates.isEmpty() ? !containsBytes(classfileBuffer, DIRECT_COPY_TRANSFORM_DESCRIPTOR)
+                    : !xformTemplates.containsKey(convertedClassName)) {
+                return null;
+            }
+            ClassTransformationCache cache = getTransformationCache();
+            String cacheKey = null;
+            if (cache != null) {
+                cacheKey = cache.buildKey(getConfigurationDigest(loader), convertedClassName, classfileBuffer);
+                byte[] cached = cache.get(cacheKey);
+                if (cached != null) {
+                    if (xformTemplates.isEmpty()) {
+                        annotationTransformedClasses.add(convertedClassName);
+                    }
+                    logger.debug(String.format("Transform - Using cached transformation for [%s]", convertedClassName));
+                    return cached;
+                }
+            }
             ClassPool classPool = null;
             String xformKey = convertedClassName;
             String[] xformVals = null;
@@ -128,13 +175,7 @@ public class DirectCopyClassTransformer extends AbstractClassTransformer impleme
                 boolean isValidPattern = true;
                 List<DirectCopyIgnorePattern> matchedPatterns = new ArrayList<DirectCopyIgnorePattern>();
                 for (DirectCopyIgnorePattern pattern : ignorePatterns) {
-                    boolean isPatternMatch = false;
-                    for (String patternString : pattern.getPatterns()) {
-                        isPatternMatch = convertedClassName.matches(patternString);
-                        if (isPatternMatch) {
-                            break;
-                        }
-                    }
+                    boolean isPatternMatch = pattern.matches(convertedClassName);
                     if (isPatternMatch) {
                         matchedPatterns.add(pattern);
                     }
@@ -170,10 +211,8 @@ public class DirectCopyClassTransformer extends AbstractClassTransformer impleme
                                                 if (val != null && templateTokens.containsKey(val)) {
                                                     templateCheck: {
                                                         for (DirectCopyIgnorePattern matchedPattern : matchedPatterns) {
-                                                            for (String ignoreToken : matchedPattern.getTemplateTokenPatterns()) {
-                                                                if (val.matches(ignoreToken)) {
-                                                                    break templateCheck;
-                                                                }
+                                                            if (matchedPattern.matchesTemplateToken(val)) {
+                                                                break templateCheck;
                                                             }
                                                         }
                                                         templates.add(templateTokens.get(val));
@@ -344,7 +383,11 @@ public class DirectCopyClassTransformer extends AbstractClassTransformer impleme
                 }
                 logger.lifecycle(LifeCycleEvent.END, String.format("Transform - Copying into [%s] from [%s]", xformKey,
                                     StringUtils.join(xformVals, ",")));
-                return clazz.toBytecode();
+                byte[] transformed = clazz.toBytecode();
+                if (cacheKey != null) {
+                    cache.put(cacheKey, transformed);
+                }
+                return transformed;
             }
         } catch (ClassCircularityError error) {
             error.printStackTrace();
@@ -364,6 +407,82 @@ public class DirectCopyClassTransformer extends AbstractClassTransformer impleme
         return null;
     }
 
+    /**
+     * @return the on-disk transformation cache, or null if caching has not been configured
+     */
+    protected ClassTransformationCache getTransformationCache() {
+        if (transformationCache == null && transformationCacheDirectory != null
+                && transformationCacheDirectory.trim().length() > 0) {
+            synchronized (this) {
+                if (transformationCache == null) {
+                    File directory = new File(transformationCacheDirectory.trim(), moduleName.replaceAll("[^A-Za-z0-9_-]", "_"));
+                    transformationCache = new ClassTransformationCache(directory, transformationCacheReadOnly);
+                }
+            }
+        }
+        return transformationCache;
+    }
+
+    /**
+     * Builds a digest of everything besides the target class that determines the result of a transformation: the
+     * transformer settings, the template mappings, the ignore patterns and the bytecode of every template class. Any
+     * change to these invalidates all previously cached entries for this transformer.
+     */
+    protected String getConfigurationDigest(ClassLoader loader) throws IOException {
+        if (configurationDigest == null) {
+            synchronized (this) {
+                if (configurationDigest == null) {
+                    MessageDigest digest = ClassTransformationCache.newDigest();
+                    ClassTransformationCache.update(digest, moduleName);
+                    ClassTransformationCache.update(digest, String.valueOf(skipOverlaps));
+                    ClassTransformationCache.update(digest, String.valueOf(renameMethodOverlaps));
+                    ClassTransformationCache.update(digest, renameMethodPrefix);
+                    Set<String> templateClassNames = new TreeSet<String>();
+                    for (Map<String, String> mappings : Arrays.asList(xformTemplates, templateTokens)) {
+                        for (Map.Entry<String, String> entry : new TreeMap<String, String>(mappings).entrySet()) {
+                            ClassTransformationCache.update(digest, entry.getKey());
+                            ClassTransformationCache.update(digest, entry.getValue());
+                            for (String templateClassName : entry.getValue().split(",")) {
+                                templateClassNames.add(templateClassName.trim());
+                            }
+                        }
+                    }
+                    for (DirectCopyIgnorePattern pattern : ignorePatterns) {
+                        ClassTransformationCache.update(digest, Arrays.toString(pattern.getPatterns()));
+                        ClassTransformationCache.update(digest, Arrays.toString(pattern.getTemplateTokenPatterns()));
+                    }
+                    ClassLoader templateLoader = loader == null ? getClass().getClassLoader() : loader;
+                    for (String templateClassName : templateClassNames) {
+                        ClassTransformationCache.update(digest, templateClassName);
+                        InputStream in = templateLoader.getResourceAsStream(templateClassName.replace('.', '/') + ".class");
+                        if (in != null) {
+                            try {
+                                digest.update(ClassTransformationCache.readFully(in));
+                            } finally {
+                                in.close();
+                            }
+                        }
+                    }
+                    configurationDigest = ClassTransformationCache.toHex(digest.digest());
+                }
+            }
+        }
+        return configurationDigest;
+    }
+
+    protected static boolean containsBytes(byte[] source, byte[] target) {
+        outer:
+        for (int i = 0; i <= source.length - target.length; i++) {
+            for (int j = 0; j < target.length; j++) {
+                if (source[i + j] != target[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
     protected void buildClassLevelAnnotations(ClassFile classFile, ClassFile templateClassFile, ConstPool constantPool) throws NotFoundException {
         List<?> templateAttributes = templateClassFile.getAttributes();
         Iterator<?> templateItr = templateAttributes.iterator();
@@ -466,6 +585,7 @@ public class DirectCopyClassTransformer extends AbstractClassTransformer impleme
 
     public void setXformTemplates(Map<String, String> xformTemplates) {
         this.xformTemplates = xformTemplates;
+        this.configurationDigest = null;
     }
 
     public Boolean getRenameMethodOverlaps() {
@@ -474,6 +594,7 @@ public class DirectCopyClassTransformer extends AbstractClassTransformer impleme
 
     public void setRenameMethodOverlaps(Boolean renameMethodOverlaps) {
         this.renameMethodOverlaps = renameMethodOverlaps;
+        this.configurationDigest = null;
     }
 
     public String getRenameMethodPrefix() {
@@ -482,6 +603,7 @@ public class DirectCopyClassTransformer extends AbstractClassTransformer impleme
 
     public void setRenameMethodPrefix(String renameMethodPrefix) {
         this.renameMethodPrefix = renameMethodPrefix;
+        this.configurationDigest = null;
     }
 
     public Boolean getSkipOverlaps() {
@@ -490,6 +612,7 @@ public class DirectCopyClassTransformer extends AbstractClassTransformer impleme
 
     public void setSkipOverlaps(Boolean skipOverlaps) {
         this.skipOverlaps = skipOverlaps;
+        this.configurationDigest = null;
     }
 
     public Map<String, String> getTemplateTokens() {
@@ -498,6 +621,7 @@ public class DirectCopyClassTransformer extends AbstractClassTransformer impleme
 
     public void setTemplateTokens(Map<String, String> templateTokens) {
         this.templateTokens = templateTokens;
+        this.configurationDigest = null;
     }
 
     public List<DirectCopyIgnorePattern> getIgnorePatterns() {
@@ -506,5 +630,24 @@ public class DirectCopyClassTransformer extends AbstractClassTransformer impleme
 
     public void setIgnorePatterns(List<DirectCopyIgnorePattern> ignorePatterns) {
         this.ignorePatterns = ignorePatterns;
+        this.configurationDigest = null;
+    }
+
+    public String getTransformationCacheDirectory() {
+        return transformationCacheDirectory;
+    }
+
+    public void setTransformationCacheDirectory(String transformationCacheDirectory) {
+        this.transformationCacheDirectory = transformationCacheDirectory;
+        this.transformationCache = null;
+    }
+
+    public boolean isTransformationCacheReadOnly() {
+        return transformationCacheReadOnly;
+    }
+
+    public void setTransformationCacheReadOnly(boolean transformationCacheReadOnly) {
+        this.transformationCacheReadOnly = transformationCacheReadOnly;
+        this.transformationCache = null;
     }
 }
@@ -19,6 +19,8 @@
  */
 package org.broadleafcommerce.common.extensibility.jpa.copy;
 
+import java.util.regex.Pattern;
+
 /**
  * @author Jeff Fischer
  */
@@ -27,12 +29,17 @@ public class DirectCopyIgnorePattern {
     private String[] patterns;
     private String[] templateTokenPatterns;
 
+    // compiled once, since the class name patterns are evaluated for every class loaded by the JVM
+    private Pattern[] compiledPatterns;
+    private Pattern[] compiledTemplateTokenPatterns;
+
     public String[] getPatterns() {
         return patterns;
     }
 
     public void setPatterns(String[] patterns) {
         this.patterns = patterns;
+        this.compiledPatterns = compile(patterns);
     }
 
     public String[] getTemplateTokenPatterns() {
@@ -41,6 +48,43 @@ public class DirectCopyIgnorePattern {
 
     public void setTemplateTokenPatterns(String[] templateTokenPatterns) {
         this.templateTokenPatterns = templateTokenPatterns;
+        this.compiledTemplateTokenPatterns = compile(templateTokenPatterns);
+    }
+
+    /**
+     * @return whether or not the fully qualified class name matches one of the patterns
+     */
+    public boolean matches(String className) {
+        return matchesAny(compiledPatterns, className);
+    }
+
+    /**
+     * @return whether or not the template token matches one of the template token patterns
+     */
+    public boolean matchesTemplateToken(String templateToken) {
+        return matchesAny(compiledTemplateTokenPatterns, templateToken);
+    }
+
+    private static boolean matchesAny(Pattern[] compiled, String value) {
+        if (compiled != null) {
+            for (Pattern pattern : compiled) {
+                if (pattern.matcher(value).matches()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Pattern[] compile(String[] patterns) {
+        if (patterns == null) {
+            return null;
+        }
+        Pattern[] compiled = new Pattern[patterns.length];
+        for (int i = 0; i < patterns.length; i++) {
+            compiled[i] = Pattern.compile(patterns[i]);
+        }
+        return compiled;
     }
 
 }
@@ -0,0 +1,87 @@
+/*
+ * #%L
+ * BroadleafCommerce Common Libraries
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.common.money;
+
+import java.util.Currency;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cached description of how amounts of a {@link Currency} are rounded: the number of decimal places chosen by
+ * {@link BankersRounding#getScaleForCurrency(Currency)} and the matching power of ten. Used by {@link MoneyAccumulator}
+ * to work in minor units without asking the currency again on every operation.
+ */
+public final class CurrencyScale {
+
+    /**
+     * Largest exponent for which 10^exponent fits in a long
+     */
+    public static final int MAX_EXPONENT = 18;
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_EXPONENT + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1L;
+        for (int i = 1; i <= MAX_EXPONENT; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10L;
+        }
+    }
+
+    private static final ConcurrentMap<Currency, CurrencyScale> CACHE = new ConcurrentHashMap<Currency, CurrencyScale>();
+
+    private final Currency currency;
+    private final int scale;
+
+    private CurrencyScale(Currency currency) {
+        this.currency = currency;
+        this.scale = BankersRounding.getScaleForCurrency(currency);
+    }
+
+    public static CurrencyScale forCurrency(Currency currency) {
+        CurrencyScale currencyScale = CACHE.get(currency);
+        if (currencyScale == null) {
+            currencyScale = new CurrencyScale(currency);
+            CurrencyScale existing = CACHE.putIfAbsent(currency, currencyScale);
+            if (existing != null) {
+                currencyScale = existing;
+            }
+        }
+        return currencyScale;
+    }
+
+    /**
+     * @return 10^exponent, for an exponent between 0 and {@link #MAX_EXPONENT}
+     */
+    public static long powerOfTen(int exponent) {
+        return POWERS_OF_TEN[exponent];
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    /**
+     * @return the number of decimal places amounts in this currency are rounded to
+     */
+    public int getScale() {
+        return scale;
+    }
+
+}
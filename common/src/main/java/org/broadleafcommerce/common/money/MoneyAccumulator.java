@@ -0,0 +1,252 @@
+/*
+ * #%L
+ * BroadleafCommerce Common Libraries
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.common.money;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Currency;
+
+/**
+ * <p>Running total of {@link Money} values kept as a long count of minor units (cents, for USD) so that loops that sum
+ * prices or adjustments do not build a new {@link BigDecimal} and {@link Money} for every step. Convert to {@link Money}
+ * with {@link #toMoney()} once the loop is done.</p>
+ * 
+ * <p>The result is always identical to chaining the same calls on the starting {@link Money}, including
+ * {@link BankersRounding}'s half-even rounding in {@link #multiply(BigDecimal)}. Whenever an operation cannot be done
+ * exactly in minor units (an operand in another currency, an operand with more decimal places than the total, or a
+ * long overflow) the accumulator switches to plain {@link Money} arithmetic for the rest of its life.</p>
+ * 
+ * <pre>
+ * MoneyAccumulator subTotal = new MoneyAccumulator(BroadleafCurrencyUtils.getMoney(getCurrency()));
+ * for (OrderItem orderItem : orderItems) {
+ *     subTotal.add(orderItem.getTotalPrice());
+ * }
+ * return subTotal.toMoney();
+ * </pre>
+ * 
+ * <p>Instances are not thread safe.</p>
+ */
+public class MoneyAccumulator {
+
+    protected final Money initial;
+    protected final CurrencyScale currencyScale;
+
+    /**
+     * The scale {@link Money} rounds the running total to: that of the starting amount, or the currency's when the
+     * starting amount has none
+     */
+    protected final int scale;
+
+    protected long units;
+    protected boolean changed;
+
+    /**
+     * Set once the accumulator has fallen back to {@link Money} arithmetic
+     */
+    protected Money money;
+
+    public MoneyAccumulator(Money initial) {
+        this.initial = initial;
+        currencyScale = CurrencyScale.forCurrency(initial.getCurrency());
+        int amountScale = initial.getAmount().scale();
+        scale = amountScale == 0 ? currencyScale.getScale() : amountScale;
+        if (scale < 0 || scale > CurrencyScale.MAX_EXPONENT) {
+            money = initial;
+        } else {
+            try {
+                units = toUnits(initial.getAmount());
+            } catch (ArithmeticException e) {
+                money = initial;
+            }
+        }
+    }
+
+    public MoneyAccumulator(Currency currency) {
+        this(Money.zero(currency));
+    }
+
+    public MoneyAccumulator add(Money other) {
+        if (money == null && isSameCurrency(other)) {
+            try {
+                units = addExact(units, toUnits(other.getAmount()));
+                changed = true;
+                return this;
+            } catch (ArithmeticException e) {
+                // fall through to Money arithmetic
+            }
+        }
+        money = toMoney().add(other);
+        return this;
+    }
+
+    public MoneyAccumulator subtract(Money other) {
+        if (money == null && isSameCurrency(other)) {
+            try {
+                units = subtractExact(units, toUnits(other.getAmount()));
+                changed = true;
+                return this;
+            } catch (ArithmeticException e) {
+                // fall through to Money arithmetic
+            }
+        }
+        money = toMoney().subtract(other);
+        return this;
+    }
+
+    public MoneyAccumulator multiply(int multiplier) {
+        if (money == null) {
+            try {
+                units = multiplyExact(units, multiplier);
+                changed = true;
+                return this;
+            } catch (ArithmeticException e) {
+                // fall through to Money arithmetic
+            }
+        }
+        money = toMoney().multiply(multiplier);
+        return this;
+    }
+
+    /**
+     * Multiplies the total, rounding half-even to the total's scale as {@link Money#multiply(BigDecimal)} does
+     */
+    public MoneyAccumulator multiply(BigDecimal multiplier) {
+        if (money == null) {
+            try {
+                long factor = toLong(multiplier.unscaledValue());
+                int multiplierScale = multiplier.scale();
+                if (multiplierScale <= 0) {
+                    if (-multiplierScale > CurrencyScale.MAX_EXPONENT) {
+                        throw new ArithmeticException();
+                    }
+                    units = multiplyExact(multiplyExact(units, factor), CurrencyScale.powerOfTen(-multiplierScale));
+                } else {
+                    if (multiplierScale > CurrencyScale.MAX_EXPONENT) {
+                        throw new ArithmeticException();
+                    }
+                    units = divideHalfEven(multiplyExact(units, factor), CurrencyScale.powerOfTen(multiplierScale));
+                }
+                changed = true;
+                return this;
+            } catch (ArithmeticException e) {
+                // fall through to Money arithmetic
+            }
+        }
+        money = toMoney().multiply(multiplier);
+        return this;
+    }
+
+    /**
+     * @return the total in minor units of {@link #getScale()}. Only meaningful while {@link #isExact()}
+     */
+    public long getUnits() {
+        return units;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * @return whether the total is still held in minor units rather than as a {@link Money}
+     */
+    public boolean isExact() {
+        return money == null;
+    }
+
+    public Money toMoney() {
+        if (money != null) {
+            return money;
+        }
+        if (!changed) {
+            return initial;
+        }
+        return new Money(BigDecimal.valueOf(units, scale), currencyScale.getCurrency(), scale);
+    }
+
+    protected boolean isSameCurrency(Money other) {
+        return currencyScale.getCurrency().equals(other.getCurrency());
+    }
+
+    /**
+     * Converts an amount to minor units of the total's scale, failing with an {@link ArithmeticException} if that cannot
+     * be done exactly
+     */
+    protected long toUnits(BigDecimal amount) {
+        int amountScale = amount.scale();
+        if (amountScale > scale || amountScale < 0) {
+            throw new ArithmeticException();
+        }
+        return multiplyExact(toLong(amount.unscaledValue()), CurrencyScale.powerOfTen(scale - amountScale));
+    }
+
+    protected static long toLong(BigInteger value) {
+        if (value.bitLength() > 63) {
+            throw new ArithmeticException();
+        }
+        return value.longValue();
+    }
+
+    protected static long addExact(long left, long right) {
+        long result = left + right;
+        if (((left ^ result) & (right ^ result)) < 0) {
+            throw new ArithmeticException();
+        }
+        return result;
+    }
+
+    protected static long subtractExact(long left, long right) {
+        long result = left - right;
+        if (((left ^ right) & (left ^ result)) < 0) {
+            throw new ArithmeticException();
+        }
+        return result;
+    }
+
+    protected static long multiplyExact(long left, long right) {
+        long result = left * right;
+        long absLeft = Math.abs(left);
+        long absRight = Math.abs(right);
+        if (((absLeft | absRight) >>> 31) != 0) {
+            if ((right != 0 && result / right != left) || (left == Long.MIN_VALUE && right == -1)) {
+                throw new ArithmeticException();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Divides by a positive divisor, rounding half-even
+     */
+    protected static long divideHalfEven(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        // |remainder| < divisor <= 10^18, so doubling it cannot overflow
+        long twiceRemainder = Math.abs(remainder) * 2;
+        if (twiceRemainder > divisor || (twiceRemainder == divisor && (quotient & 1) != 0)) {
+            quotient += dividend < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+
+}
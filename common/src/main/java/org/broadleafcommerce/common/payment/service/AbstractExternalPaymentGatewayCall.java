@@ -22,8 +22,13 @@ package org.broadleafcommerce.common.payment.service;
 
 import org.broadleafcommerce.common.vendor.service.exception.PaymentException;
 import org.broadleafcommerce.common.vendor.service.monitor.ServiceStatusDetectable;
+import org.broadleafcommerce.common.vendor.service.monitor.resilience.VendorResilienceRegistry;
 import org.broadleafcommerce.common.vendor.service.type.ServiceStatusType;
 
+import java.util.concurrent.Callable;
+
+import javax.annotation.Resource;
+
 /**
  * <p>All payment gateway classes that intend to make an external call, either manually
  * from an HTTP Post or through an SDK which makes its own external call, should
@@ -36,9 +41,20 @@ import org.broadleafcommerce.common.vendor.service.type.ServiceStatusType;
  * <p>This allows anyone using the framework to configure the ServiceMonitor AOP hooks
  * and detect any outages to provide (email/logging) feedback when necessary.</p>
  *
+ * <p>When this class is managed by Spring, calls to communicateWithVendor() are made through the
+ * {@link VendorResilienceRegistry}, which applies a concurrency limit and a circuit breaker per vendor
+ * (keyed by getServiceName()). While the circuit is open, calls fail fast with a {@link PaymentException}
+ * wrapping a VendorUnavailableException and the service reports itself as DOWN. Only I/O errors and timeouts
+ * count towards opening the circuit, a declined transaction does not.</p>
+ *
+ * <p>The registry's timeout is not applied by default: a transaction that is abandoned after the timeout may
+ * still be completed by the gateway, so implementations should configure the connect and read timeouts of
+ * their HTTP client instead. See {@link #isVendorTimeoutApplied()}.</p>
+ *
  * @see org.broadleafcommerce.common.vendor.service.monitor.ServiceMonitor
  * @see org.broadleafcommerce.common.vendor.service.monitor.StatusHandler
  * @see ServiceStatusDetectable
+ * @see VendorResilienceRegistry
  *
  * @author Elbert Bautista (elbertbautista)
  */
@@ -47,6 +63,9 @@ public abstract class AbstractExternalPaymentGatewayCall<T,R> implements Service
     protected Integer failureCount = 0;
     protected Boolean isUp = true;
 
+    @Resource(name="blVendorResilienceRegistry")
+    protected VendorResilienceRegistry resilienceRegistry;
+
     protected synchronized void clearStatus() {
         isUp = true;
         failureCount = 0;
@@ -62,6 +81,12 @@ public abstract class AbstractExternalPaymentGatewayCall<T,R> implements Service
 
     @Override
     public synchronized ServiceStatusType getServiceStatus() {
+        if (resilienceRegistry != null) {
+            ServiceStatusType circuitStatus = resilienceRegistry.getGuard(getServiceName()).getServiceStatus();
+            if (!ServiceStatusType.UP.equals(circuitStatus)) {
+                return circuitStatus;
+            }
+        }
         if (isUp) {
             return ServiceStatusType.UP;
         } else {
@@ -70,10 +95,19 @@ public abstract class AbstractExternalPaymentGatewayCall<T,R> implements Service
     }
 
     @Override
-    public R process(T paymentRequest) throws PaymentException {
+    public R process(final T paymentRequest) throws PaymentException {
         R response;
         try {
-            response = communicateWithVendor(paymentRequest);
+            if (resilienceRegistry == null) {
+                response = communicateWithVendor(paymentRequest);
+            } else {
+                response = resilienceRegistry.getGuard(getServiceName()).execute(new Callable<R>() {
+                    @Override
+                    public R call() throws Exception {
+                        return communicateWithVendor(paymentRequest);
+                    }
+                }, isVendorTimeoutApplied());
+            }
         } catch (Exception e) {
             incrementFailure();
             throw new PaymentException(e);
@@ -83,6 +117,16 @@ public abstract class AbstractExternalPaymentGatewayCall<T,R> implements Service
         return response;
     }
 
+    /**
+     * Whether calls to communicateWithVendor() are abandoned after the vendor.resilience timeout. False by default,
+     * since the gateway may still complete a transaction whose response we stopped waiting for, which would then be
+     * reported to the customer as a failure. Override to return true only for calls that are safe to abandon, such as
+     * read-only lookups.
+     */
+    protected boolean isVendorTimeoutApplied() {
+        return false;
+    }
+
     public abstract R communicateWithVendor(T paymentRequest) throws Exception;
 
     public abstract Integer getFailureReportingThreshold();
@@ -0,0 +1,52 @@
+/*
+ * #%L
+ * BroadleafCommerce Common Libraries
+ * %%
+ * Copyright (C) 2009 - 2014 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.common.referencedata.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * JPA entity listener for the entities held in a {@link ReferenceDataSnapshot}. Any change made through this node's
+ * persistence unit bumps the global reference data version, which makes {@link ReferenceDataSnapshotService} rebuild
+ * its snapshot on the next lookup. Changes made on other nodes are picked up when the snapshot expires.
+ */
+public class ReferenceDataEntityListener {
+
+    protected static final AtomicLong VERSION = new AtomicLong();
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        VERSION.incrementAndGet();
+    }
+
+    public static long getCurrentVersion() {
+        return VERSION.get();
+    }
+
+    public static void markChanged() {
+        VERSION.incrementAndGet();
+    }
+
+}
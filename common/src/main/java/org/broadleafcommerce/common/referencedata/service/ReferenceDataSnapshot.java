@@ -0,0 +1,113 @@
+/*
+ * #%L
+ * BroadleafCommerce Common Libraries
+ * %%
+ * Copyright (C) 2009 - 2014 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.common.referencedata.service;
+
+import org.broadleafcommerce.common.currency.domain.BroadleafCurrency;
+import org.broadleafcommerce.common.locale.domain.Locale;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of the locales and currencies known at the time it was built. A snapshot is never modified once
+ * published; {@link ReferenceDataSnapshotService} replaces it as a whole when the underlying data changes, so any
+ * number of threads may read it without locking.
+ */
+public class ReferenceDataSnapshot {
+
+    protected final long version;
+    protected final long createdAt;
+    protected final Map<String, Locale> localesByCode;
+    protected final List<Locale> locales;
+    protected final Locale defaultLocale;
+    protected final Map<String, BroadleafCurrency> currenciesByCode;
+    protected final List<BroadleafCurrency> currencies;
+    protected final BroadleafCurrency defaultCurrency;
+
+    public ReferenceDataSnapshot(long version, long createdAt, List<Locale> locales, List<BroadleafCurrency> currencies) {
+        this.version = version;
+        this.createdAt = createdAt;
+
+        Map<String, Locale> localeMap = new HashMap<String, Locale>();
+        Locale foundDefaultLocale = null;
+        for (Locale locale : locales) {
+            // Mirror the query based lookup, which returns the first match when a code is duplicated
+            if (!localeMap.containsKey(locale.getLocaleCode())) {
+                localeMap.put(locale.getLocaleCode(), locale);
+            }
+            if (foundDefaultLocale == null && Boolean.TRUE.equals(locale.getDefaultFlag())) {
+                foundDefaultLocale = locale;
+            }
+        }
+        this.localesByCode = Collections.unmodifiableMap(localeMap);
+        this.locales = Collections.unmodifiableList(new ArrayList<Locale>(locales));
+        this.defaultLocale = foundDefaultLocale;
+
+        Map<String, BroadleafCurrency> currencyMap = new HashMap<String, BroadleafCurrency>();
+        BroadleafCurrency foundDefaultCurrency = null;
+        for (BroadleafCurrency currency : currencies) {
+            if (!currencyMap.containsKey(currency.getCurrencyCode())) {
+                currencyMap.put(currency.getCurrencyCode(), currency);
+            }
+            if (foundDefaultCurrency == null && currency.getDefaultFlag()) {
+                foundDefaultCurrency = currency;
+            }
+        }
+        this.currenciesByCode = Collections.unmodifiableMap(currencyMap);
+        this.currencies = Collections.unmodifiableList(new ArrayList<BroadleafCurrency>(currencies));
+        this.defaultCurrency = foundDefaultCurrency;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public Locale findLocaleByCode(String localeCode) {
+        return localeCode == null ? null : localesByCode.get(localeCode);
+    }
+
+    public Locale getDefaultLocale() {
+        return defaultLocale;
+    }
+
+    public List<Locale> getLocales() {
+        return locales;
+    }
+
+    public BroadleafCurrency findCurrencyByCode(String currencyCode) {
+        return currencyCode == null ? null : currenciesByCode.get(currencyCode);
+    }
+
+    public BroadleafCurrency getDefaultCurrency() {
+        return defaultCurrency;
+    }
+
+    public List<BroadleafCurrency> getCurrencies() {
+        return currencies;
+    }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * #%L
+ * BroadleafCommerce Common Libraries
+ * %%
+ * Copyright (C) 2009 - 2014 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.common.referencedata.service;
+
+import org.broadleafcommerce.common.currency.domain.BroadleafCurrency;
+import org.broadleafcommerce.common.locale.domain.Locale;
+
+/**
+ * Serves locale and currency lookups for request processing from an in-memory {@link ReferenceDataSnapshot} instead of
+ * going through the persistence layer on every request.
+ */
+public interface ReferenceDataSnapshotService {
+
+    /**
+     * @return the current snapshot, rebuilding it first if it has been invalidated or has expired
+     */
+    public ReferenceDataSnapshot getSnapshot();
+
+    public Locale findLocaleByCode(String localeCode);
+
+    public Locale findDefaultLocale();
+
+    public BroadleafCurrency findCurrencyByCode(String currencyCode);
+
+    public BroadleafCurrency findDefaultCurrency();
+
+    /**
+     * Marks the current snapshot as stale so that the next lookup rebuilds it.
+     */
+    public void invalidate();
+
+}
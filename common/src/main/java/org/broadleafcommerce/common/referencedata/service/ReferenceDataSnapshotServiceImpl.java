@@ -0,0 +1,179 @@
+/*
+ * #%L
+ * BroadleafCommerce Common Libraries
+ * %%
+ * Copyright (C) 2009 - 2014 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.common.referencedata.service;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.broadleafcommerce.common.currency.domain.BroadleafCurrency;
+import org.broadleafcommerce.common.currency.service.BroadleafCurrencyService;
+import org.broadleafcommerce.common.locale.domain.Locale;
+import org.broadleafcommerce.common.locale.service.LocaleService;
+import org.broadleafcommerce.common.time.SystemTime;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Resource;
+
+/**
+ * Keeps a single {@link ReferenceDataSnapshot} that is published through a volatile field and swapped for a new one
+ * when {@link ReferenceDataEntityListener} reports a change or when it is older than
+ * reference.data.snapshot.ttl.seconds (a negative value never expires it). Readers never block; only the thread that
+ * rebuilds the snapshot touches the database.
+ * <p/>
+ * Setting reference.data.snapshot.enabled to false sends every lookup straight to the {@link LocaleService} and
+ * {@link BroadleafCurrencyService}.
+ */
+@Service("blReferenceDataSnapshotService")
+@ManagedResource(objectName="org.broadleafcommerce:name=ReferenceDataSnapshot", description="Reference Data Snapshot", currencyTimeLimit=15)
+public class ReferenceDataSnapshotServiceImpl implements ReferenceDataSnapshotService {
+
+    private static final Log LOG = LogFactory.getLog(ReferenceDataSnapshotServiceImpl.class);
+
+    @Resource(name = "blLocaleService")
+    protected LocaleService localeService;
+
+    @Resource(name = "blCurrencyService")
+    protected BroadleafCurrencyService currencyService;
+
+    @Value("${reference.data.snapshot.enabled}")
+    protected boolean enabled = true;
+
+    @Value("${reference.data.snapshot.ttl.seconds}")
+    protected long ttlSeconds = 60;
+
+    protected volatile ReferenceDataSnapshot snapshot;
+
+    @Override
+    public ReferenceDataSnapshot getSnapshot() {
+        ReferenceDataSnapshot current = snapshot;
+        if (isCurrent(current)) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (isCurrent(current)) {
+                return current;
+            }
+            // Capture the version before reading so that a change made while loading causes another rebuild
+            long version = ReferenceDataEntityListener.getCurrentVersion();
+            try {
+                current = new ReferenceDataSnapshot(version, SystemTime.asMillis(), localeService.findAllLocales(),
+                        currencyService.getAllCurrencies());
+            } catch (RuntimeException e) {
+                if (current == null) {
+                    throw e;
+                }
+                LOG.warn("Unable to refresh the reference data snapshot, continuing with version " + current.getVersion(), e);
+                return current;
+            }
+            snapshot = current;
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Published reference data snapshot version " + version + " with " + current.getLocales().size()
+                        + " locale(s) and " + current.getCurrencies().size() + " currencies");
+            }
+            return current;
+        }
+    }
+
+    protected boolean isCurrent(ReferenceDataSnapshot current) {
+        if (current == null || current.getVersion() != ReferenceDataEntityListener.getCurrentVersion()) {
+            return false;
+        }
+        return ttlSeconds < 0 || SystemTime.asMillis() - current.getCreatedAt() < ttlSeconds * 1000L;
+    }
+
+    @Override
+    public Locale findLocaleByCode(String localeCode) {
+        if (!enabled) {
+            return localeService.findLocaleByCode(localeCode);
+        }
+        return getSnapshot().findLocaleByCode(localeCode);
+    }
+
+    @Override
+    public Locale findDefaultLocale() {
+        if (!enabled) {
+            return localeService.findDefaultLocale();
+        }
+        return getSnapshot().getDefaultLocale();
+    }
+
+    @Override
+    public BroadleafCurrency findCurrencyByCode(String currencyCode) {
+        if (!enabled) {
+            return currencyService.findCurrencyByCode(currencyCode);
+        }
+        return getSnapshot().findCurrencyByCode(currencyCode);
+    }
+
+    @Override
+    public BroadleafCurrency findDefaultCurrency() {
+        if (!enabled) {
+            return currencyService.findDefaultBroadleafCurrency();
+        }
+        return getSnapshot().getDefaultCurrency();
+    }
+
+    @Override
+    @ManagedOperation(description="Discards the current snapshot so that the next lookup reloads it")
+    public void invalidate() {
+        ReferenceDataEntityListener.markChanged();
+    }
+
+    @ManagedAttribute(description="Version of the published snapshot, or -1 if none has been built")
+    public long getSnapshotVersion() {
+        ReferenceDataSnapshot current = snapshot;
+        return current == null ? -1 : current.getVersion();
+    }
+
+    @ManagedAttribute(description="Age of the published snapshot in milliseconds")
+    public long getSnapshotAgeMillis() {
+        ReferenceDataSnapshot current = snapshot;
+        return current == null ? 0 : SystemTime.asMillis() - current.getCreatedAt();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(long ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public void setLocaleService(LocaleService localeService) {
+        this.localeService = localeService;
+    }
+
+    public void setCurrencyService(BroadleafCurrencyService currencyService) {
+        this.currencyService = currencyService;
+    }
+
+}
@@ -22,8 +22,8 @@ package org.broadleafcommerce.common.web;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.broadleafcommerce.common.currency.domain.BroadleafCurrency;
-import org.broadleafcommerce.common.currency.service.BroadleafCurrencyService;
 import org.broadleafcommerce.common.locale.domain.Locale;
+import org.broadleafcommerce.common.referencedata.service.ReferenceDataSnapshotService;
 import org.broadleafcommerce.common.util.BLCRequestUtils;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.ServletWebRequest;
@@ -55,8 +55,8 @@ public class BroadleafCurrencyResolverImpl implements BroadleafCurrencyResolver
      */
     public static String CURRENCY_VAR = "blCurrency";
 
-    @Resource(name = "blCurrencyService")
-    private BroadleafCurrencyService broadleafCurrencyService;
+    @Resource(name = "blReferenceDataSnapshotService")
+    protected ReferenceDataSnapshotService referenceDataSnapshotService;
 
     /**
      * Responsible for returning the currency to use for the current request.
@@ -76,7 +76,7 @@ public class BroadleafCurrencyResolverImpl implements BroadleafCurrencyResolver
         // 2) Check for a request parameter
         if (currency == null && BLCRequestUtils.getURLorHeaderParameter(request, CURRENCY_CODE_PARAM) != null) {
             String currencyCode = BLCRequestUtils.getURLorHeaderParameter(request, CURRENCY_CODE_PARAM);
-            currency = broadleafCurrencyService.findCurrencyByCode(currencyCode);
+            currency = referenceDataSnapshotService.findCurrencyByCode(currencyCode);
             if (LOG.isTraceEnabled()) {
                 LOG.trace("Attempt to find currency by param " + currencyCode + " resulted in " + currency);
             }
@@ -97,7 +97,7 @@ public class BroadleafCurrencyResolverImpl implements BroadleafCurrencyResolver
 
         // 5) Check default currency from DB
         if (currency == null) {
-            currency = broadleafCurrencyService.findDefaultBroadleafCurrency();
+            currency = referenceDataSnapshotService.findDefaultCurrency();
         }
 
         if (BLCRequestUtils.isOKtoUseSession(request)) {
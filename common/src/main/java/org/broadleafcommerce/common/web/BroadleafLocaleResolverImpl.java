@@ -22,7 +22,7 @@ package org.broadleafcommerce.common.web;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.broadleafcommerce.common.locale.domain.Locale;
-import org.broadleafcommerce.common.locale.service.LocaleService;
+import org.broadleafcommerce.common.referencedata.service.ReferenceDataSnapshotService;
 import org.broadleafcommerce.common.util.BLCRequestUtils;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.ServletWebRequest;
@@ -57,8 +57,8 @@ public class BroadleafLocaleResolverImpl implements BroadleafLocaleResolver {
      */
     public static String LOCALE_PULLED_FROM_SESSION = "blLocalePulledFromSession";
 
-    @Resource(name = "blLocaleService")
-    private LocaleService localeService;
+    @Resource(name = "blReferenceDataSnapshotService")
+    protected ReferenceDataSnapshotService referenceDataSnapshotService;
 
     @Override
     public Locale resolveLocale(HttpServletRequest request) {
@@ -75,7 +75,7 @@ public class BroadleafLocaleResolverImpl implements BroadleafLocaleResolver {
         // Second, check for a request parameter
         if (locale == null && BLCRequestUtils.getURLorHeaderParameter(request, LOCALE_CODE_PARAM) != null) {
             String localeCode = BLCRequestUtils.getURLorHeaderParameter(request, LOCALE_CODE_PARAM);
-            locale = localeService.findLocaleByCode(localeCode);
+            locale = referenceDataSnapshotService.findLocaleByCode(localeCode);
             if (BLCRequestUtils.isOKtoUseSession(request)) {
                 request.removeAttribute(BroadleafCurrencyResolverImpl.CURRENCY_VAR, WebRequest.SCOPE_GLOBAL_SESSION);
             }
@@ -99,7 +99,7 @@ public class BroadleafLocaleResolverImpl implements BroadleafLocaleResolver {
 
         // Finally, use the default
         if (locale == null) {
-            locale = localeService.findDefaultLocale();
+            locale = referenceDataSnapshotService.findDefaultLocale();
             if (BLCRequestUtils.isOKtoUseSession(request)) {
                 request.removeAttribute(BroadleafCurrencyResolverImpl.CURRENCY_VAR, WebRequest.SCOPE_GLOBAL_SESSION);
             }
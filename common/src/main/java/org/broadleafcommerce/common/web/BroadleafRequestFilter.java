@@ -24,6 +24,7 @@ import org.apache.commons.logging.LogFactory;
 import org.broadleafcommerce.common.RequestDTOImpl;
 import org.broadleafcommerce.common.exception.SiteNotFoundException;
 import org.broadleafcommerce.common.web.exception.HaltFilterChainException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -63,6 +64,9 @@ public class BroadleafRequestFilter extends OncePerRequestFilter {
 
     private Set<String> ignoreSuffixes;
 
+    @Value("${request.filter.skip.static.resources}")
+    protected boolean skipStaticResources = false;
+
     @Resource(name = "blRequestProcessor")
     protected BroadleafRequestProcessor requestProcessor;
 
@@ -114,7 +118,9 @@ public class BroadleafRequestFilter extends OncePerRequestFilter {
     /**
      * Determines if the passed in URL should be processed by the content management system.
      * <p/>
-     * By default, this method returns false for any BLC-Admin URLs and service calls and for all common image/digital mime-types (as determined by an internal call to {@code getIgnoreSuffixes}.
+     * By default, this method returns false for any BLC-Admin URLs and service calls. When request.filter.skip.static.resources is enabled, it
+     * also returns false for all common image/digital mime-types (as determined by an internal call to {@code getIgnoreSuffixes}). Only enable
+     * this when static resources, including CMS static assets, do not need the site, locale or sandbox of the request.
      * <p/>
      * This check is called with the {@code doFilterInternal} method to short-circuit the content processing which can be expensive for requests that do not require it.
      * 
@@ -130,14 +136,14 @@ public class BroadleafRequestFilter extends OncePerRequestFilter {
             return false;
         } else {
             int pos = requestURI.lastIndexOf(".");
-            if (pos > 0) {
-//                String suffix = requestURI.substring(pos);
-//                if (getIgnoreSuffixes().contains(suffix.toLowerCase())) {
-//                    if (LOG.isTraceEnabled()) {
-//                        LOG.trace("BroadleafProcessURLFilter ignoring request due to suffix " + requestURI);
-//                    }
-//                    return false;
-//                }
+            if (skipStaticResources && pos > 0 && requestURI.indexOf('/', pos) < 0) {
+                String suffix = requestURI.substring(pos);
+                if (getIgnoreSuffixes().contains(suffix.toLowerCase())) {
+                    if (LOG.isTraceEnabled()) {
+                        LOG.trace("BroadleafProcessURLFilter ignoring request due to suffix " + requestURI);
+                    }
+                    return false;
+                }
             }
         }
         return true;
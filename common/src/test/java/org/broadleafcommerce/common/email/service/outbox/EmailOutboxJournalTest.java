@@ -0,0 +1,151 @@
+/*
+ * #%L
+ * BroadleafCommerce Common Libraries
+ * %%
+ * Copyright (C) 2009 - 2014 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.common.email.service.outbox;
+
+import junit.framework.TestCase;
+
+import org.broadleafcommerce.common.email.service.info.EmailInfo;
+import org.broadleafcommerce.common.email.service.message.MessageCreator;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessagePreparator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.mail.internet.MimeMessage;
+
+public class EmailOutboxJournalTest extends TestCase {
+
+    protected File directory;
+    protected EmailOutboxJournal journal;
+    protected JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+
+    @Override
+    protected void setUp() throws Exception {
+        directory = File.createTempFile("outbox", "");
+        directory.delete();
+        journal = new EmailOutboxJournal(directory);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        delete(directory);
+    }
+
+    public void testWriteAndRead() throws Exception {
+        File entry = journal.write(createMessage("Your order"));
+
+        assertEquals(1, journal.listPending().length);
+        assertEquals("Your order", journal.read(entry, mailSender).getSubject());
+
+        journal.delete(entry);
+        assertEquals(0, journal.listPending().length);
+    }
+
+    public void testPendingEntriesAreOldestFirstAndSkipTemporaryFiles() throws Exception {
+        File first = journal.write(createMessage("test"));
+        File second = journal.write(createMessage("test"));
+        assertTrue(new File(directory, "partial" + EmailOutboxJournal.TEMP_SUFFIX).createNewFile());
+
+        File[] pending = new EmailOutboxJournal(directory).listPending();
+        assertEquals(2, pending.length);
+        assertEquals(first, pending[0]);
+        assertEquals(second, pending[1]);
+        assertFalse(new File(directory, "partial" + EmailOutboxJournal.TEMP_SUFFIX).exists());
+    }
+
+    public void testMarkFailedMovesEntryOutOfPending() throws Exception {
+        File entry = journal.write(createMessage("test"));
+        journal.markFailed(entry);
+
+        assertEquals(0, journal.listPending().length);
+        assertTrue(new File(new File(directory, "failed"), entry.getName()).exists());
+    }
+
+    public void testSendRendersOnCallingThreadAndJournalsTheMessage() throws Exception {
+        final Thread caller = Thread.currentThread();
+        final Thread[] renderedOn = new Thread[1];
+        EmailOutboxServiceProducer outbox = new EmailOutboxServiceProducer();
+        outbox.setJournal(journal);
+        outbox.setMessageCreator(new MessageCreator(mailSender) {
+
+            @Override
+            public String buildMessageBody(EmailInfo info, Map<String, Object> props) {
+                return null;
+            }
+
+            @Override
+            public MimeMessagePreparator buildMimeMessagePreparator(final Map<String, Object> props) {
+                return new MimeMessagePreparator() {
+
+                    @Override
+                    public void prepare(MimeMessage mimeMessage) throws Exception {
+                        renderedOn[0] = Thread.currentThread();
+                        mimeMessage.setSubject((String) props.get("subject"));
+                        mimeMessage.setText("body");
+                    }
+                };
+            }
+        });
+        // accept emails without starting the workers
+        outbox.running = true;
+
+        Map<String, Object> props = new HashMap<String, Object>();
+        props.put("subject", "Order confirmation");
+        outbox.send(props);
+
+        assertSame(caller, renderedOn[0]);
+        assertEquals(1, outbox.getQueueDepth());
+        File[] pending = journal.listPending();
+        assertEquals(1, pending.length);
+        assertEquals("Order confirmation", journal.read(pending[0], mailSender).getSubject());
+    }
+
+    public void testRetryDelayDoublesUpToMaximum() {
+        EmailOutboxServiceProducer outbox = new EmailOutboxServiceProducer();
+        outbox.setRetryInitialDelayMillis(1000);
+        outbox.setRetryMaxDelayMillis(5000);
+        assertEquals(1000, outbox.computeRetryDelay(1));
+        assertEquals(2000, outbox.computeRetryDelay(2));
+        assertEquals(4000, outbox.computeRetryDelay(3));
+        assertEquals(5000, outbox.computeRetryDelay(4));
+        assertEquals(5000, outbox.computeRetryDelay(30));
+    }
+
+    protected MimeMessage createMessage(String subject) throws Exception {
+        MimeMessage message = mailSender.createMimeMessage();
+        message.setSubject(subject);
+        message.setText("body");
+        return message;
+    }
+
+    protected void delete(File file) throws IOException {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+}
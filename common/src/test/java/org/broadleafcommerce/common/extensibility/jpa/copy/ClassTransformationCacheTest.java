@@ -0,0 +1,84 @@
+/*
+ * #%L
+ * BroadleafCommerce Common Libraries
+ * %%
+ * Copyright (C) 2009 - 2014 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.common.extensibility.jpa.copy;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.util.Arrays;
+
+public class ClassTransformationCacheTest extends TestCase {
+
+    protected File directory;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        directory = new File(System.getProperty("java.io.tmpdir"), "bl-xform-cache-" + System.nanoTime());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+        super.tearDown();
+    }
+
+    public void testStoredEntryIsServed() {
+        ClassTransformationCache cache = new ClassTransformationCache(directory, false);
+        String key = cache.buildKey("config", "com.example.Foo", new byte[] {1, 2, 3});
+        assertNull(cache.get(key));
+
+        cache.put(key, new byte[] {4, 5, 6});
+        assertTrue(Arrays.equals(new byte[] {4, 5, 6}, new ClassTransformationCache(directory, true).get(key)));
+    }
+
+    public void testKeyChangesWithClassBytesAndConfiguration() {
+        ClassTransformationCache cache = new ClassTransformationCache(directory, false);
+        String key = cache.buildKey("config", "com.example.Foo", new byte[] {1, 2, 3});
+        assertEquals(key, cache.buildKey("config", "com.example.Foo", new byte[] {1, 2, 3}));
+        assertFalse(key.equals(cache.buildKey("config", "com.example.Foo", new byte[] {1, 2, 4})));
+        assertFalse(key.equals(cache.buildKey("other", "com.example.Foo", new byte[] {1, 2, 3})));
+    }
+
+    public void testReadOnlyCacheDoesNotWrite() {
+        directory.mkdirs();
+        ClassTransformationCache cache = new ClassTransformationCache(directory, true);
+        String key = cache.buildKey("config", "com.example.Foo", new byte[] {1});
+        cache.put(key, new byte[] {2});
+        assertNull(cache.get(key));
+    }
+
+    public void testPrecompiledIgnorePatterns() {
+        DirectCopyIgnorePattern pattern = new DirectCopyIgnorePattern();
+        pattern.setPatterns(new String[] {"org\\.broadleafcommerce\\.core\\..*"});
+        pattern.setTemplateTokenPatterns(new String[] {"multiTenant.*"});
+        assertTrue(pattern.matches("org.broadleafcommerce.core.catalog.domain.ProductImpl"));
+        assertFalse(pattern.matches("com.example.ProductImpl"));
+        assertTrue(pattern.matchesTemplateToken("multiTenantCatalog"));
+        assertFalse(pattern.matchesTemplateToken("sandbox"));
+    }
+
+}
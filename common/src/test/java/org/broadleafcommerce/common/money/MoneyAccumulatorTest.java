@@ -0,0 +1,171 @@
+/*
+ * #%L
+ * BroadleafCommerce Common Libraries
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.common.money;
+
+import junit.framework.TestCase;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Currency;
+import java.util.Random;
+
+/**
+ * Checks that {@link MoneyAccumulator} produces exactly what chaining the same operations on {@link Money} does, for
+ * randomly generated operation sequences
+ */
+public class MoneyAccumulatorTest extends TestCase {
+
+    protected static final Currency USD = Currency.getInstance("USD");
+    protected static final Currency JPY = Currency.getInstance("JPY");
+    protected static final Currency BHD = Currency.getInstance("BHD");
+    protected static final Currency[] CURRENCIES = { USD, JPY, BHD };
+
+    protected Random random;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        random = new Random(20141107L);
+    }
+
+    public void testSumsMatchMoney() {
+        MoneyAccumulator accumulator = new MoneyAccumulator(Money.zero(USD));
+        Money expected = Money.zero(USD);
+        for (int i = 0; i < 1000; i++) {
+            Money price = new Money(new BigDecimal(BigInteger.valueOf(random.nextInt(1000000) - 500000), 2), USD);
+            accumulator.add(price);
+            expected = expected.add(price);
+        }
+        assertTrue(accumulator.isExact());
+        assertIdentical(expected, accumulator.toMoney());
+    }
+
+    public void testUnchangedAccumulatorReturnsInitial() {
+        Money initial = new Money(new BigDecimal("12.34"), USD);
+        assertSame(initial, new MoneyAccumulator(initial).toMoney());
+    }
+
+    public void testMultiplyRoundsHalfEven() {
+        assertIdentical(new Money(new BigDecimal("0.02"), USD),
+                new MoneyAccumulator(new Money(new BigDecimal("0.05"), USD)).multiply(new BigDecimal("0.5")).toMoney());
+        assertIdentical(new Money(new BigDecimal("0.04"), USD),
+                new MoneyAccumulator(new Money(new BigDecimal("0.07"), USD)).multiply(new BigDecimal("0.5")).toMoney());
+        assertIdentical(new Money(new BigDecimal("-0.02"), USD),
+                new MoneyAccumulator(new Money(new BigDecimal("-0.05"), USD)).multiply(new BigDecimal("0.5")).toMoney());
+        assertIdentical(new Money(new BigDecimal("-0.04"), USD),
+                new MoneyAccumulator(new Money(new BigDecimal("-0.07"), USD)).multiply(new BigDecimal("0.5")).toMoney());
+    }
+
+    public void testFinerOperandFallsBackToMoney() {
+        Money initial = new Money(new BigDecimal("1.00"), USD);
+        Money fine = new Money(new BigDecimal("0.005"), USD, 3);
+        MoneyAccumulator accumulator = new MoneyAccumulator(initial).add(fine).add(fine);
+        assertFalse(accumulator.isExact());
+        assertIdentical(initial.add(fine).add(fine), accumulator.toMoney());
+    }
+
+    public void testOverflowFallsBackToMoney() {
+        Money large = new Money(new BigDecimal(BigInteger.valueOf(Long.MAX_VALUE - 1), 2), USD);
+        MoneyAccumulator accumulator = new MoneyAccumulator(large).add(large).multiply(3);
+        assertFalse(accumulator.isExact());
+        assertIdentical(large.add(large).multiply(3), accumulator.toMoney());
+    }
+
+    public void testOtherCurrencyBehavesLikeMoney() {
+        Money dollars = new Money(new BigDecimal("1.00"), USD);
+        Money yen = new Money(new BigDecimal("100"), JPY);
+        try {
+            new MoneyAccumulator(dollars).add(yen);
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // Money cannot add currencies without a conversion service either
+        }
+        assertIdentical(dollars.add(Money.ZERO), new MoneyAccumulator(dollars).add(Money.ZERO).toMoney());
+    }
+
+    public void testRandomOperationsMatchMoney() {
+        for (int run = 0; run < 2000; run++) {
+            Currency currency = CURRENCIES[random.nextInt(CURRENCIES.length)];
+            Money initial = randomMoney(currency);
+            Money expected = initial;
+            MoneyAccumulator accumulator = new MoneyAccumulator(initial);
+            StringBuilder operations = new StringBuilder(initial.getAmount().toPlainString());
+            for (int step = 0; step < 30; step++) {
+                switch (random.nextInt(4)) {
+                    case 0: {
+                        Money operand = randomMoney(currency);
+                        operations.append(" + ").append(operand.getAmount());
+                        expected = expected.add(operand);
+                        accumulator.add(operand);
+                        break;
+                    }
+                    case 1: {
+                        Money operand = randomMoney(currency);
+                        operations.append(" - ").append(operand.getAmount());
+                        expected = expected.subtract(operand);
+                        accumulator.subtract(operand);
+                        break;
+                    }
+                    case 2: {
+                        int multiplier = random.nextInt(41) - 20;
+                        operations.append(" * ").append(multiplier);
+                        expected = expected.multiply(multiplier);
+                        accumulator.multiply(multiplier);
+                        break;
+                    }
+                    default: {
+                        BigDecimal multiplier = new BigDecimal(BigInteger.valueOf(random.nextInt(2000001) - 1000000),
+                                random.nextInt(9) - 1);
+                        operations.append(" * ").append(multiplier);
+                        expected = expected.multiply(multiplier);
+                        accumulator.multiply(multiplier);
+                        break;
+                    }
+                }
+                Money actual = accumulator.toMoney();
+                assertEquals(operations.toString(), expected.getAmount(), actual.getAmount());
+                assertEquals(operations.toString(), expected.getCurrency(), actual.getCurrency());
+            }
+        }
+    }
+
+    /**
+     * Mostly amounts at the currency's scale, with occasional finer and very large ones to exercise the fallbacks
+     */
+    protected Money randomMoney(Currency currency) {
+        int choice = random.nextInt(20);
+        if (choice == 0) {
+            int scale = BankersRounding.getScaleForCurrency(currency) + 1 + random.nextInt(2);
+            return new Money(new BigDecimal(BigInteger.valueOf(random.nextInt(100000) - 50000), scale), currency, scale);
+        }
+        if (choice == 1) {
+            return new Money(new BigDecimal(BigInteger.valueOf(random.nextLong()).shiftLeft(random.nextInt(8)),
+                    BankersRounding.getScaleForCurrency(currency)), currency);
+        }
+        return new Money(new BigDecimal(BigInteger.valueOf(random.nextInt(10000000) - 5000000),
+                BankersRounding.getScaleForCurrency(currency)), currency);
+    }
+
+    protected void assertIdentical(Money expected, Money actual) {
+        assertEquals(expected.getAmount(), actual.getAmount());
+        assertEquals(expected.getCurrency(), actual.getCurrency());
+    }
+
+}
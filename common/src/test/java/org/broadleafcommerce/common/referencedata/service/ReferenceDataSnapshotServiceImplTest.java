@@ -0,0 +1,139 @@
+/*
+ * #%L
+ * BroadleafCommerce Common Libraries
+ * %%
+ * Copyright (C) 2009 - 2014 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.common.referencedata.service;
+
+import junit.framework.TestCase;
+
+import org.broadleafcommerce.common.currency.domain.BroadleafCurrency;
+import org.broadleafcommerce.common.currency.domain.BroadleafCurrencyImpl;
+import org.broadleafcommerce.common.currency.service.BroadleafCurrencyService;
+import org.broadleafcommerce.common.locale.domain.Locale;
+import org.broadleafcommerce.common.locale.domain.LocaleImpl;
+import org.broadleafcommerce.common.locale.service.LocaleService;
+import org.broadleafcommerce.common.time.FixedTimeSource;
+import org.broadleafcommerce.common.time.SystemTime;
+import org.easymock.EasyMock;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class ReferenceDataSnapshotServiceImplTest extends TestCase {
+
+    protected LocaleService localeService;
+    protected BroadleafCurrencyService currencyService;
+    protected ReferenceDataSnapshotServiceImpl service;
+    protected Locale english;
+    protected Locale french;
+    protected BroadleafCurrency usd;
+
+    @Override
+    protected void setUp() throws Exception {
+        SystemTime.setGlobalTimeSource(new FixedTimeSource(1000000L));
+        english = createLocale("en_US", true);
+        french = createLocale("fr_FR", false);
+        usd = new BroadleafCurrencyImpl();
+        usd.setCurrencyCode("USD");
+        usd.setDefaultFlag(true);
+
+        localeService = EasyMock.createMock(LocaleService.class);
+        currencyService = EasyMock.createMock(BroadleafCurrencyService.class);
+        service = new ReferenceDataSnapshotServiceImpl();
+        service.setLocaleService(localeService);
+        service.setCurrencyService(currencyService);
+        service.setTtlSeconds(60);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        SystemTime.reset();
+    }
+
+    public void testLookupsAreServedFromOneLoad() {
+        expectLoad(1);
+
+        assertSame(english, service.findDefaultLocale());
+        assertSame(french, service.findLocaleByCode("fr_FR"));
+        assertNull(service.findLocaleByCode("de_DE"));
+        assertSame(usd, service.findCurrencyByCode("USD"));
+        assertSame(usd, service.findDefaultCurrency());
+        EasyMock.verify(localeService, currencyService);
+    }
+
+    public void testChangeReplacesSnapshot() {
+        expectLoad(2);
+
+        ReferenceDataSnapshot first = service.getSnapshot();
+        assertSame(first, service.getSnapshot());
+        new ReferenceDataEntityListener().onChange(english);
+
+        ReferenceDataSnapshot second = service.getSnapshot();
+        assertNotSame(first, second);
+        assertTrue(second.getVersion() > first.getVersion());
+        EasyMock.verify(localeService, currencyService);
+    }
+
+    public void testSnapshotExpires() {
+        expectLoad(2);
+
+        ReferenceDataSnapshot first = service.getSnapshot();
+        SystemTime.setGlobalTimeSource(new FixedTimeSource(1000000L + 59000L));
+        assertSame(first, service.getSnapshot());
+        SystemTime.setGlobalTimeSource(new FixedTimeSource(1000000L + 60000L));
+        assertNotSame(first, service.getSnapshot());
+        EasyMock.verify(localeService, currencyService);
+    }
+
+    public void testFailedRefreshKeepsPreviousSnapshot() {
+        EasyMock.expect(localeService.findAllLocales()).andReturn(Arrays.asList(english, french));
+        EasyMock.expect(localeService.findAllLocales()).andThrow(new RuntimeException("database unavailable"));
+        EasyMock.expect(currencyService.getAllCurrencies()).andReturn(Collections.singletonList(usd));
+        EasyMock.replay(localeService, currencyService);
+
+        ReferenceDataSnapshot first = service.getSnapshot();
+        service.invalidate();
+        assertSame(first, service.getSnapshot());
+    }
+
+    public void testDisabledDelegatesToServices() {
+        EasyMock.expect(localeService.findLocaleByCode("fr_FR")).andReturn(french);
+        EasyMock.expect(currencyService.findDefaultBroadleafCurrency()).andReturn(usd);
+        EasyMock.replay(localeService, currencyService);
+        service.setEnabled(false);
+
+        assertSame(french, service.findLocaleByCode("fr_FR"));
+        assertSame(usd, service.findDefaultCurrency());
+        assertEquals(-1, service.getSnapshotVersion());
+        EasyMock.verify(localeService, currencyService);
+    }
+
+    protected void expectLoad(int times) {
+        EasyMock.expect(localeService.findAllLocales()).andReturn(Arrays.asList(english, french)).times(times);
+        EasyMock.expect(currencyService.getAllCurrencies()).andReturn(Collections.singletonList(usd)).times(times);
+        EasyMock.replay(localeService, currencyService);
+    }
+
+    protected Locale createLocale(String code, boolean defaultFlag) {
+        Locale locale = new LocaleImpl();
+        locale.setLocaleCode(code);
+        locale.setDefaultFlag(defaultFlag);
+        return locale;
+    }
+
+}
@@ -19,6 +19,7 @@
  */
 package org.broadleafcommerce.core.web.api.endpoint;
 
+import org.broadleafcommerce.core.web.api.wrapper.APIWrapperFactory;
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
@@ -31,6 +32,8 @@ public abstract class BaseEndpoint implements ApplicationContextAware, MessageSo
 
     protected MessageSource messageSource;
 
+    protected APIWrapperFactory wrapperFactory;
+
     @Override
     public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
         this.context = applicationContext;
@@ -41,6 +44,16 @@ public abstract class BaseEndpoint implements ApplicationContextAware, MessageSo
         this.messageSource = messageSource;
     }
 
+    /**
+     * Creates a response wrapper through the {@link APIWrapperFactory}, rather than a prototype bean lookup per element.
+     */
+    protected <T> T createWrapper(Class<T> wrapperClass) {
+        if (wrapperFactory == null) {
+            wrapperFactory = (APIWrapperFactory) context.getBean("blApiWrapperFactory");
+        }
+        return wrapperFactory.createWrapper(wrapperClass);
+    }
+
     public ApplicationContext getApplicationContext() {
         return this.context;
     }
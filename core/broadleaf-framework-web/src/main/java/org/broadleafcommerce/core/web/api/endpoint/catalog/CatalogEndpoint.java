@@ -41,6 +41,7 @@ import org.broadleafcommerce.core.search.domain.SearchFacetDTO;
 import org.broadleafcommerce.core.search.service.SearchService;
 import org.broadleafcommerce.core.web.api.BroadleafWebServicesException;
 import org.broadleafcommerce.core.web.api.endpoint.BaseEndpoint;
+import org.broadleafcommerce.core.web.api.stream.CatalogJsonStreamer;
 import org.broadleafcommerce.core.web.api.wrapper.CategoriesWrapper;
 import org.broadleafcommerce.core.web.api.wrapper.CategoryAttributeWrapper;
 import org.broadleafcommerce.core.web.api.wrapper.CategoryWrapper;
@@ -54,6 +55,11 @@ import org.broadleafcommerce.core.web.api.wrapper.SkuAttributeWrapper;
 import org.broadleafcommerce.core.web.api.wrapper.SkuWrapper;
 import org.broadleafcommerce.core.web.service.SearchFacetDTOService;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -61,7 +67,9 @@ import java.util.Map;
 
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 /**
  * This class exposes catalog services as RESTful APIs.  It is dependent on
@@ -105,6 +113,9 @@ public abstract class CatalogEndpoint extends BaseEndpoint {
     @Resource(name = "blInventoryService")
     protected InventoryService inventoryService;
 
+    @Resource(name = "blCatalogJsonStreamer")
+    protected CatalogJsonStreamer catalogJsonStreamer;
+
     /**
      * Search for {@code Product} by product id
      *
@@ -115,7 +126,7 @@ public abstract class CatalogEndpoint extends BaseEndpoint {
         Product product = catalogService.findProductById(id);
         if (product != null) {
             ProductWrapper wrapper;
-            wrapper = (ProductWrapper) context.getBean(ProductWrapper.class.getName());
+            wrapper = createWrapper(ProductWrapper.class);
             wrapper.wrapDetails(product, request);
             return wrapper;
         }
@@ -169,7 +180,7 @@ public abstract class CatalogEndpoint extends BaseEndpoint {
             result = getSearchService().findProductsByCategoryAndQuery(category, q, searchCriteria);
             facetService.setActiveFacetResults(result.getFacets(), request);
 
-            SearchResultsWrapper wrapper = (SearchResultsWrapper) context.getBean(SearchResultsWrapper.class.getName());
+            SearchResultsWrapper wrapper = createWrapper(SearchResultsWrapper.class);
             wrapper.wrapDetails(result, request);
             return wrapper;
         } catch (ServiceException e) {
@@ -190,6 +201,38 @@ public abstract class CatalogEndpoint extends BaseEndpoint {
             String q,
             Integer pageSize,
             Integer page) {
+        ProductSearchResult result = searchProductsByQuery(request, q);
+        SearchResultsWrapper wrapper = createWrapper(SearchResultsWrapper.class);
+        wrapper.wrapDetails(result, request);
+        return wrapper;
+    }
+
+    /**
+     * Same as {@link #findProductsByQuery(HttpServletRequest, String, Integer, Integer)}, but writes the results as JSON
+     * directly from the domain objects through the {@link CatalogJsonStreamer} instead of building and serializing
+     * wrappers. The search itself is performed before this method returns, so search errors are still reported
+     * through the usual exception mapping. Map this to a path producing application/json in the subclass.
+     * @param request
+     * @param q
+     * @param pageSize
+     * @param page
+     * @return
+     */
+    public StreamingOutput streamProductsByQuery(final HttpServletRequest request,
+            String q,
+            Integer pageSize,
+            Integer page) {
+        final ProductSearchResult result = searchProductsByQuery(request, q);
+        return new StreamingOutput() {
+            @Override
+            public void write(OutputStream output) throws IOException, WebApplicationException {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(output, "UTF-8"));
+                catalogJsonStreamer.writeSearchResults(result, request, writer);
+            }
+        };
+    }
+
+    protected ProductSearchResult searchProductsByQuery(HttpServletRequest request, String q) {
         try {
             if (StringUtils.isNotEmpty(q)) {
                 q = StringUtils.trim(q);
@@ -206,13 +249,9 @@ public abstract class CatalogEndpoint extends BaseEndpoint {
         List<SearchFacetDTO> availableFacets = getSearchService().getSearchFacets();
         ProductSearchCriteria searchCriteria = facetService.buildSearchCriteria(request, availableFacets);
         try {
-            ProductSearchResult result = null;
-            result = getSearchService().findProductsByQuery(q, searchCriteria);
+            ProductSearchResult result = getSearchService().findProductsByQuery(q, searchCriteria);
             facetService.setActiveFacetResults(result.getFacets(), request);
-
-            SearchResultsWrapper wrapper = (SearchResultsWrapper) context.getBean(SearchResultsWrapper.class.getName());
-            wrapper.wrapDetails(result, request);
-            return wrapper;
+            return result;
         } catch (ServiceException e) {
             throw BroadleafWebServicesException.build(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode())
                     .addMessage(BroadleafWebServicesException.SEARCH_ERROR);
@@ -233,7 +272,7 @@ public abstract class CatalogEndpoint extends BaseEndpoint {
             List<SkuWrapper> out = new ArrayList<SkuWrapper>();
             if (skus != null) {
                 for (Sku sku : skus) {
-                    SkuWrapper wrapper = (SkuWrapper)context.getBean(SkuWrapper.class.getName());
+                    SkuWrapper wrapper = createWrapper(SkuWrapper.class);
                     wrapper.wrapSummary(sku, request);
                     out.add(wrapper);
                 }
@@ -247,7 +286,7 @@ public abstract class CatalogEndpoint extends BaseEndpoint {
     public SkuWrapper findDefaultSkuByProductId(HttpServletRequest request, Long id) {
         Product product = catalogService.findProductById(id);
         if (product != null && product.getDefaultSku() != null) {
-            SkuWrapper wrapper = (SkuWrapper)context.getBean(SkuWrapper.class.getName());
+            SkuWrapper wrapper = createWrapper(SkuWrapper.class);
             wrapper.wrapDetails(product.getDefaultSku(), request);
             return wrapper;
         }
@@ -265,7 +304,7 @@ public abstract class CatalogEndpoint extends BaseEndpoint {
         } else {
             categories = catalogService.findAllCategories(limit, offset);
         }
-        CategoriesWrapper wrapper = (CategoriesWrapper)context.getBean(CategoriesWrapper.class.getName());
+        CategoriesWrapper wrapper = createWrapper(CategoriesWrapper.class);
         wrapper.wrapDetails(categories, request);
         return wrapper;
     }
@@ -278,7 +317,7 @@ public abstract class CatalogEndpoint extends BaseEndpoint {
         Category category = catalogService.findCategoryById(id);
         if (category != null) {
             List<Category> categories;
-            CategoriesWrapper wrapper = (CategoriesWrapper)context.getBean(CategoriesWrapper.class.getName());
+            CategoriesWrapper wrapper = createWrapper(CategoriesWrapper.class);
             if (active) {
                 categories = catalogService.findActiveSubCategoriesByCategory(category, limit, offset);
             } else {
@@ -314,7 +353,7 @@ public abstract class CatalogEndpoint extends BaseEndpoint {
             request.setAttribute("subcategoryLimit", subcategoryLimit);
             request.setAttribute("subcategoryOffset", subcategoryOffset);
 
-            CategoryWrapper wrapper = (CategoryWrapper)context.getBean(CategoryWrapper.class.getName());
+            CategoryWrapper wrapper = createWrapper(CategoryWrapper.class);
             wrapper.wrapDetails(cat, request);
             return wrapper;
         }
@@ -359,7 +398,7 @@ public abstract class CatalogEndpoint extends BaseEndpoint {
             request.setAttribute("subcategoryLimit", subcategoryLimit);
             request.setAttribute("subcategoryOffset", subcategoryOffset);
 
-            CategoryWrapper wrapper = (CategoryWrapper) context.getBean(CategoryWrapper.class.getName());
+            CategoryWrapper wrapper = createWrapper(CategoryWrapper.class);
             wrapper.wrapDetails(cat, request);
             return wrapper;
         }
@@ -374,7 +413,7 @@ public abstract class CatalogEndpoint extends BaseEndpoint {
             ArrayList<CategoryAttributeWrapper> out = new ArrayList<CategoryAttributeWrapper>();
             if (category.getCategoryAttributes() != null) {
                 for (CategoryAttribute attribute : category.getCategoryAttributes()) {
-                    CategoryAttributeWrapper wrapper = (CategoryAttributeWrapper)context.getBean(CategoryAttributeWrapper.class.getName());
+                    CategoryAttributeWrapper wrapper = createWrapper(CategoryAttributeWrapper.class);
                     wrapper.wrapSummary(attribute, request);
                     out.add(wrapper);
                 }
@@ -397,7 +436,7 @@ public abstract class CatalogEndpoint extends BaseEndpoint {
             List<RelatedProduct> relatedProds = product.getUpSaleProducts();
             if (relatedProds != null) {
                 for (RelatedProduct prod : relatedProds) {
-                    RelatedProductWrapper wrapper = (RelatedProductWrapper)context.getBean(RelatedProductWrapper.class.getName());
+                    RelatedProductWrapper wrapper = createWrapper(RelatedProductWrapper.class);
                     wrapper.wrapSummary(prod, request);
                     out.add(wrapper);
                 }
@@ -420,7 +459,7 @@ public abstract class CatalogEndpoint extends BaseEndpoint {
             List<RelatedProduct> xSellProds = product.getCrossSaleProducts();
             if (xSellProds != null) {
                 for (RelatedProduct prod : xSellProds) {
-                    RelatedProductWrapper wrapper = (RelatedProductWrapper)context.getBean(RelatedProductWrapper.class.getName());
+                    RelatedProductWrapper wrapper = createWrapper(RelatedProductWrapper.class);
                     wrapper.wrapSummary(prod, request);
                     out.add(wrapper);
                 }
@@ -438,7 +477,7 @@ public abstract class CatalogEndpoint extends BaseEndpoint {
             ArrayList<ProductAttributeWrapper> out = new ArrayList<ProductAttributeWrapper>();
             if (product.getProductAttributes() != null) {
                 for (Map.Entry<String, ProductAttribute> entry : product.getProductAttributes().entrySet()) {
-                    ProductAttributeWrapper wrapper = (ProductAttributeWrapper)context.getBean(ProductAttributeWrapper.class.getName());
+                    ProductAttributeWrapper wrapper = createWrapper(ProductAttributeWrapper.class);
                     wrapper.wrapSummary(entry.getValue(), request);
                     out.add(wrapper);
                 }
@@ -456,7 +495,7 @@ public abstract class CatalogEndpoint extends BaseEndpoint {
             ArrayList<SkuAttributeWrapper> out = new ArrayList<SkuAttributeWrapper>();
             if (sku.getSkuAttributes() != null) {
                 for (Map.Entry<String, SkuAttribute> entry : sku.getSkuAttributes().entrySet()) {
-                    SkuAttributeWrapper wrapper = (SkuAttributeWrapper)context.getBean(SkuAttributeWrapper.class.getName());
+                    SkuAttributeWrapper wrapper = createWrapper(SkuAttributeWrapper.class);
                     wrapper.wrapSummary(entry.getValue(), request);
                     out.add(wrapper);
                 }
@@ -474,7 +513,7 @@ public abstract class CatalogEndpoint extends BaseEndpoint {
             List<MediaWrapper> medias = new ArrayList<MediaWrapper>();
             if (sku.getSkuMedia() != null && ! sku.getSkuMedia().isEmpty()) {
                 for (Media media : sku.getSkuMedia().values()) {
-                    MediaWrapper wrapper = (MediaWrapper)context.getBean(MediaWrapper.class.getName());
+                    MediaWrapper wrapper = createWrapper(MediaWrapper.class);
                     wrapper.wrapSummary(media, request);
                     if (wrapper.isAllowOverrideUrl()){
                         wrapper.setUrl(staticAssetPathService.convertAssetPath(media.getUrl(), request.getContextPath(), request.isSecure()));
@@ -492,7 +531,7 @@ public abstract class CatalogEndpoint extends BaseEndpoint {
             Long id) {
         Sku sku = catalogService.findSkuById(id);
         if (sku != null) {
-            SkuWrapper wrapper = (SkuWrapper)context.getBean(SkuWrapper.class.getName());
+            SkuWrapper wrapper = createWrapper(SkuWrapper.class);
             wrapper.wrapDetails(sku, request);
             return wrapper;
         }
@@ -506,7 +545,7 @@ public abstract class CatalogEndpoint extends BaseEndpoint {
             Map<Sku, Integer> quantities = inventoryService.retrieveQuantitiesAvailable(new HashSet<Sku>(skus));
             List<InventoryWrapper> out = new ArrayList<InventoryWrapper>();
             for (Map.Entry<Sku, Integer> entry : quantities.entrySet()) {
-                InventoryWrapper wrapper = (InventoryWrapper)context.getBean(InventoryWrapper.class.getName());
+                InventoryWrapper wrapper = createWrapper(InventoryWrapper.class);
                 wrapper.wrapSummary(entry.getKey(), entry.getValue(), request);
                 out.add(wrapper);
             }
@@ -524,7 +563,7 @@ public abstract class CatalogEndpoint extends BaseEndpoint {
             Map<String, Media> media = product.getMedia();
             if (media != null) {
                 for (Media med : media.values()) {
-                    MediaWrapper wrapper = (MediaWrapper)context.getBean(MediaWrapper.class.getName());
+                    MediaWrapper wrapper = createWrapper(MediaWrapper.class);
                     wrapper.wrapSummary(med, request);
                     if (wrapper.isAllowOverrideUrl()){
                         wrapper.setUrl(staticAssetPathService.convertAssetPath(med.getUrl(), request.getContextPath(), request.isSecure()));
@@ -545,7 +584,7 @@ public abstract class CatalogEndpoint extends BaseEndpoint {
             ArrayList<MediaWrapper> out = new ArrayList<MediaWrapper>();
             Map<String, Media> media = category.getCategoryMedia();
             for (Media med : media.values()) {
-                MediaWrapper wrapper = (MediaWrapper)context.getBean(MediaWrapper.class.getName());
+                MediaWrapper wrapper = createWrapper(MediaWrapper.class);
                 wrapper.wrapSummary(med, request);
                 out.add(wrapper);
             }
@@ -559,7 +598,7 @@ public abstract class CatalogEndpoint extends BaseEndpoint {
             Long id) {
         Product product = catalogService.findProductById(id);
         if (product != null) {
-            CategoriesWrapper wrapper = (CategoriesWrapper)context.getBean(CategoriesWrapper.class.getName());
+            CategoriesWrapper wrapper = createWrapper(CategoriesWrapper.class);
             List<Category> categories = new ArrayList<Category>();
             for (CategoryProductXref categoryXref : product.getAllParentCategoryXrefs()) {
                 categories.add(categoryXref.getCategory());
@@ -68,7 +68,7 @@ public abstract class CheckoutEndpoint extends BaseEndpoint {
             List<OrderPayment> payments = cart.getPayments();
             List<OrderPaymentWrapper> paymentWrappers = new ArrayList<OrderPaymentWrapper>();
             for (OrderPayment payment : payments) {
-                OrderPaymentWrapper orderPaymentWrapper = (OrderPaymentWrapper) context.getBean(OrderPaymentWrapper.class.getName());
+                OrderPaymentWrapper orderPaymentWrapper = createWrapper(OrderPaymentWrapper.class);
                 orderPaymentWrapper.wrapSummary(payment, request);
                 paymentWrappers.add(orderPaymentWrapper);
             }
@@ -88,7 +88,7 @@ public abstract class CheckoutEndpoint extends BaseEndpoint {
             if (orderPayment.getOrder() != null && orderPayment.getOrder().getId().equals(cart.getId())) {
                 orderPayment = orderPaymentService.save(orderPayment);
                 OrderPayment savedPayment = orderService.addPaymentToOrder(cart, orderPayment, null);
-                OrderPaymentWrapper orderPaymentWrapper = (OrderPaymentWrapper) context.getBean(OrderPaymentWrapper.class.getName());
+                OrderPaymentWrapper orderPaymentWrapper = createWrapper(OrderPaymentWrapper.class);
                 orderPaymentWrapper.wrapSummary(savedPayment, request);
                 return orderPaymentWrapper;
             }
@@ -115,7 +115,7 @@ public abstract class CheckoutEndpoint extends BaseEndpoint {
 
                 orderService.removePaymentFromOrder(cart, paymentToRemove);
 
-                OrderWrapper orderWrapper = (OrderWrapper) context.getBean(OrderWrapper.class.getName());
+                OrderWrapper orderWrapper = createWrapper(OrderWrapper.class);
                 orderWrapper.wrapDetails(cart, request);
                 return orderWrapper;
             }
@@ -131,7 +131,7 @@ public abstract class CheckoutEndpoint extends BaseEndpoint {
             try {
                 CheckoutResponse response = checkoutService.performCheckout(cart);
                 Order order = response.getOrder();
-                OrderWrapper wrapper = (OrderWrapper) context.getBean(OrderWrapper.class.getName());
+                OrderWrapper wrapper = createWrapper(OrderWrapper.class);
                 wrapper.wrapDetails(order, request);
                 return wrapper;
             } catch (CheckoutException e) {
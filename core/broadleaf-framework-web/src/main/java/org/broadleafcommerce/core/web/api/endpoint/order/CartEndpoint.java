@@ -84,7 +84,7 @@ public abstract class CartEndpoint extends BaseEndpoint {
                 .addMessage(BroadleafWebServicesException.CART_NOT_FOUND);
         }
         
-        OrderWrapper wrapper = (OrderWrapper) context.getBean(OrderWrapper.class.getName());
+        OrderWrapper wrapper = createWrapper(OrderWrapper.class);
         wrapper.wrapDetails(cart, request);
 
         return wrapper;
@@ -108,7 +108,7 @@ public abstract class CartEndpoint extends BaseEndpoint {
             CartState.setCart(cart);
         }
 
-        OrderWrapper wrapper = (OrderWrapper) context.getBean(OrderWrapper.class.getName());
+        OrderWrapper wrapper = createWrapper(OrderWrapper.class);
         wrapper.wrapDetails(cart, request);
 
         return wrapper;
@@ -164,7 +164,7 @@ public abstract class CartEndpoint extends BaseEndpoint {
             Order order = orderService.addItem(cart.getId(), orderItemRequestDTO, priceOrder);
             order = orderService.save(order, priceOrder);
 
-            OrderWrapper wrapper = (OrderWrapper) context.getBean(OrderWrapper.class.getName());
+            OrderWrapper wrapper = createWrapper(OrderWrapper.class);
             wrapper.wrapDetails(order, request);
 
             return wrapper;
@@ -207,7 +207,7 @@ public abstract class CartEndpoint extends BaseEndpoint {
             Order order = orderService.removeItem(cart.getId(), itemId, priceOrder);
             order = orderService.save(order, priceOrder);
 
-            OrderWrapper wrapper = (OrderWrapper) context.getBean(OrderWrapper.class.getName());
+            OrderWrapper wrapper = createWrapper(OrderWrapper.class);
             wrapper.wrapDetails(order, request);
 
             return wrapper;
@@ -243,7 +243,7 @@ public abstract class CartEndpoint extends BaseEndpoint {
                 Order order = orderService.updateItemQuantity(cart.getId(), orderItemRequestDTO, priceOrder);
                 order = orderService.save(order, priceOrder);
 
-                OrderWrapper wrapper = (OrderWrapper) context.getBean(OrderWrapper.class.getName());
+                OrderWrapper wrapper = createWrapper(OrderWrapper.class);
                 wrapper.wrapDetails(order, request);
 
                 return wrapper;
@@ -289,7 +289,7 @@ public abstract class CartEndpoint extends BaseEndpoint {
 
         try {
             cart = orderService.addOfferCode(cart, offerCode, priceOrder);
-            OrderWrapper wrapper = (OrderWrapper) context.getBean(OrderWrapper.class.getName());
+            OrderWrapper wrapper = createWrapper(OrderWrapper.class);
             wrapper.wrapDetails(cart, request);
 
             return wrapper;
@@ -319,7 +319,7 @@ public abstract class CartEndpoint extends BaseEndpoint {
 
         try {
             cart = orderService.removeOfferCode(cart, offerCode, priceOrder);
-            OrderWrapper wrapper = (OrderWrapper) context.getBean(OrderWrapper.class.getName());
+            OrderWrapper wrapper = createWrapper(OrderWrapper.class);
             wrapper.wrapDetails(cart, request);
 
             return wrapper;
@@ -391,7 +391,7 @@ public abstract class CartEndpoint extends BaseEndpoint {
     protected OrderWrapper wrapCart(HttpServletRequest request, Order cart) {
 
         try {
-            OrderWrapper orderWrapper = (OrderWrapper) context.getBean(OrderWrapper.class.getName());
+            OrderWrapper orderWrapper = createWrapper(OrderWrapper.class);
             orderWrapper.wrapDetails(cart, request);
             return orderWrapper;
         } catch (BeansException e) {
@@ -75,7 +75,7 @@ public abstract class FulfillmentEndpoint extends BaseEndpoint {
             List<FulfillmentGroup> fulfillmentGroups = cart.getFulfillmentGroups();
             List<FulfillmentGroupWrapper> fulfillmentGroupWrappers = new ArrayList<FulfillmentGroupWrapper>();
             for (FulfillmentGroup fulfillmentGroup : fulfillmentGroups) {
-                FulfillmentGroupWrapper fulfillmentGroupWrapper = (FulfillmentGroupWrapper) context.getBean(FulfillmentGroupWrapper.class.getName());
+                FulfillmentGroupWrapper fulfillmentGroupWrapper = createWrapper(FulfillmentGroupWrapper.class);
                 fulfillmentGroupWrapper.wrapSummary(fulfillmentGroup, request);
                 fulfillmentGroupWrappers.add(fulfillmentGroupWrapper);
             }
@@ -91,7 +91,7 @@ public abstract class FulfillmentEndpoint extends BaseEndpoint {
         if (cart != null) {
             try {
                 fulfillmentGroupService.removeAllFulfillmentGroupsFromOrder(cart, priceOrder);
-                OrderWrapper wrapper = (OrderWrapper) context.getBean(OrderWrapper.class.getName());
+                OrderWrapper wrapper = createWrapper(OrderWrapper.class);
                 wrapper.wrapDetails(cart, request);
                 return wrapper;
             } catch (PricingException e) {
@@ -115,7 +115,7 @@ public abstract class FulfillmentEndpoint extends BaseEndpoint {
                 try {
                     fulfillmentGroupRequest.setOrder(cart);
                     FulfillmentGroup fulfillmentGroup = fulfillmentGroupService.addFulfillmentGroupToOrder(fulfillmentGroupRequest, priceOrder);
-                    FulfillmentGroupWrapper fulfillmentGroupWrapper = (FulfillmentGroupWrapper) context.getBean(FulfillmentGroupWrapper.class.getName());
+                    FulfillmentGroupWrapper fulfillmentGroupWrapper = createWrapper(FulfillmentGroupWrapper.class);
                     fulfillmentGroupWrapper.wrapDetails(fulfillmentGroup, request);
                     return fulfillmentGroupWrapper;
                 } catch (PricingException e) {
@@ -157,7 +157,7 @@ public abstract class FulfillmentEndpoint extends BaseEndpoint {
                 if (fulfillmentGroup != null && orderItem != null) {
                     try {
                         FulfillmentGroup fg = fulfillmentGroupService.addItemToFulfillmentGroup(fulfillmentGroupItemRequest, priceOrder);
-                        FulfillmentGroupWrapper fulfillmentGroupWrapper = (FulfillmentGroupWrapper) context.getBean(FulfillmentGroupWrapper.class.getName());
+                        FulfillmentGroupWrapper fulfillmentGroupWrapper = createWrapper(FulfillmentGroupWrapper.class);
                         fulfillmentGroupWrapper.wrapDetails(fg, request);
                         return fulfillmentGroupWrapper;
 
@@ -202,7 +202,7 @@ public abstract class FulfillmentEndpoint extends BaseEndpoint {
                     cart = orderService.save(cart, priceOrder);
                     for (FulfillmentGroup fg : groups) {
                         if (fg.getId().equals(fulfillmentGroupId)) {
-                            FulfillmentGroupWrapper fulfillmentGroupWrapper = (FulfillmentGroupWrapper) context.getBean(FulfillmentGroupWrapper.class.getName());
+                            FulfillmentGroupWrapper fulfillmentGroupWrapper = createWrapper(FulfillmentGroupWrapper.class);
                             fulfillmentGroupWrapper.wrapDetails(fg, request);
                             return fulfillmentGroupWrapper;
                         }
@@ -231,7 +231,7 @@ public abstract class FulfillmentEndpoint extends BaseEndpoint {
         }
         
         for (FulfillmentOption option : options) {
-            FulfillmentOptionWrapper fulfillmentOptionWrapper = (FulfillmentOptionWrapper) context.getBean(FulfillmentOptionWrapper.class.getName());
+            FulfillmentOptionWrapper fulfillmentOptionWrapper = createWrapper(FulfillmentOptionWrapper.class);
             fulfillmentOptionWrapper.wrapDetails(option, request);
             out.add(fulfillmentOptionWrapper);
         }
@@ -60,7 +60,7 @@ public abstract class OrderHistoryEndpoint extends BaseEndpoint {
             if (orders != null && !orders.isEmpty()) {
                 List<OrderWrapper> wrappers = new ArrayList<OrderWrapper>();
                 for (Order order : orders) {
-                    OrderWrapper wrapper = (OrderWrapper) context.getBean(OrderWrapper.class.getName());
+                    OrderWrapper wrapper = createWrapper(OrderWrapper.class);
                     wrapper.wrapSummary(order, request);
                     wrappers.add(wrapper);
                 }
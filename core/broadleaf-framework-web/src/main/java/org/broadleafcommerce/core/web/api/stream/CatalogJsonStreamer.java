@@ -0,0 +1,199 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework Web
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.web.api.stream;
+
+import org.broadleafcommerce.common.file.service.StaticAssetPathService;
+import org.broadleafcommerce.common.media.domain.Media;
+import org.broadleafcommerce.common.money.Money;
+import org.broadleafcommerce.core.catalog.domain.Product;
+import org.broadleafcommerce.core.catalog.domain.ProductBundle;
+import org.broadleafcommerce.core.catalog.domain.ProductOption;
+import org.broadleafcommerce.core.catalog.domain.ProductOptionValue;
+import org.broadleafcommerce.core.search.domain.ProductSearchResult;
+import org.broadleafcommerce.core.search.domain.SearchFacetDTO;
+import org.broadleafcommerce.core.search.domain.SearchFacetResultDTO;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.RoundingMode;
+import java.util.List;
+
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Writes catalog responses as JSON directly from the domain objects, without creating API wrappers. The structure and
+ * element names follow {@link org.broadleafcommerce.core.web.api.wrapper.SearchResultsWrapper} and the summary form of
+ * {@link org.broadleafcommerce.core.web.api.wrapper.ProductWrapper}. Unlike the JAXB JSON providers, numbers and
+ * booleans are written as JSON numbers and booleans, and collections are always written as arrays.
+ * <p/>
+ * Override the protected write methods to add or change elements, much as one would extend the corresponding wrapper.
+ *
+ * @see org.broadleafcommerce.core.web.api.endpoint.catalog.CatalogEndpoint#streamProductsByQuery
+ */
+@Component("blCatalogJsonStreamer")
+public class CatalogJsonStreamer {
+
+    @Resource(name = "blStaticAssetPathService")
+    protected StaticAssetPathService staticAssetPathService;
+
+    public void writeSearchResults(ProductSearchResult result, HttpServletRequest request, Writer writer) throws IOException {
+        JsonStreamWriter json = new JsonStreamWriter(writer);
+        writeSearchResults(json, result, request);
+        json.flush();
+    }
+
+    protected void writeSearchResults(JsonStreamWriter json, ProductSearchResult result, HttpServletRequest request) throws IOException {
+        json.beginObject();
+        json.field("page", result.getPage());
+        json.field("pageSize", result.getPageSize());
+        json.field("totalResults", result.getTotalResults());
+        json.field("totalPages", result.getTotalPages());
+        if (result.getProducts() != null) {
+            json.name("products").beginArray();
+            for (Product product : result.getProducts()) {
+                writeProductSummary(json, product, request);
+            }
+            json.endArray();
+        }
+        if (result.getFacets() != null) {
+            json.name("searchFacets").beginArray();
+            for (SearchFacetDTO facet : result.getFacets()) {
+                writeSearchFacet(json, facet);
+            }
+            json.endArray();
+        }
+        json.endObject();
+    }
+
+    protected void writeProductSummary(JsonStreamWriter json, Product product, HttpServletRequest request) throws IOException {
+        json.beginObject();
+        json.field("id", product.getId());
+        json.field("name", product.getName());
+        json.field("description", product.getDescription());
+        json.field("longDescription", product.getLongDescription());
+        json.field("active", product.isActive());
+        if (product instanceof ProductBundle) {
+            ProductBundle bundle = (ProductBundle) product;
+            json.field("priority", bundle.getPriority());
+            writeMoney(json, "bundleItemsRetailPrice", bundle.getBundleItemsRetailPrice());
+            writeMoney(json, "bundleItemsSalePrice", bundle.getBundleItemsSalePrice());
+        } else {
+            writeMoney(json, "retailPrice", product.getDefaultSku().getRetailPrice());
+            writeMoney(json, "salePrice", product.getDefaultSku().getSalePrice());
+        }
+        List<ProductOption> options = product.getProductOptions();
+        if (options != null && !options.isEmpty()) {
+            json.name("productOptions").beginArray();
+            for (ProductOption option : options) {
+                writeProductOption(json, option);
+            }
+            json.endArray();
+        }
+        if (product.getMedia() != null && !product.getMedia().isEmpty()) {
+            Media media = product.getMedia().get("primary");
+            if (media != null) {
+                json.name("primaryMedia");
+                writeMedia(json, media, request);
+            }
+        }
+        json.endObject();
+    }
+
+    protected void writeProductOption(JsonStreamWriter json, ProductOption option) throws IOException {
+        json.beginObject();
+        json.field("attributeName", "productOption." + option.getAttributeName());
+        json.field("label", option.getLabel());
+        json.field("required", option.getRequired());
+        if (option.getType() != null) {
+            json.field("productOptionType", option.getType().getType());
+        }
+        if (option.getProductOptionValidationStrategyType() != null) {
+            json.field("productOptionValidationStrategyType", option.getProductOptionValidationStrategyType().getType());
+        }
+        if (option.getProductOptionValidationType() != null) {
+            json.field("productOptionValidationType", option.getProductOptionValidationType().getType());
+        }
+        List<ProductOptionValue> values = option.getAllowedValues();
+        if (values != null) {
+            json.name("allowedValues").beginArray();
+            for (ProductOptionValue value : values) {
+                json.beginObject();
+                json.field("attributeValue", value.getAttributeValue());
+                writeMoney(json, "priceAdjustment", value.getPriceAdjustment());
+                json.field("productOptionId", value.getProductOption().getId());
+                json.endObject();
+            }
+            json.endArray();
+        }
+        json.field("validationString", option.getValidationString());
+        json.endObject();
+    }
+
+    protected void writeMedia(JsonStreamWriter json, Media media, HttpServletRequest request) throws IOException {
+        json.beginObject();
+        json.field("id", media.getId());
+        json.field("title", media.getTitle());
+        json.field("url", staticAssetPathService.convertAssetPath(media.getUrl(), request.getContextPath(), request.isSecure()));
+        json.field("altText", media.getAltText());
+        json.field("tags", media.getTags());
+        json.endObject();
+    }
+
+    protected void writeSearchFacet(JsonStreamWriter json, SearchFacetDTO facet) throws IOException {
+        json.beginObject();
+        json.field("fieldName", facet.getFacet().getField().getAbbreviation());
+        json.field("active", facet.isActive());
+        if (facet.getFacetValues() != null) {
+            json.name("values").beginArray();
+            for (SearchFacetResultDTO value : facet.getFacetValues()) {
+                json.beginObject();
+                json.field("active", value.isActive());
+                json.field("value", value.getValue());
+                json.field("valueKey", value.getValueKey());
+                json.field("quantity", value.getQuantity());
+                json.field("minValue", value.getMinValue());
+                json.field("maxValue", value.getMaxValue());
+                json.endObject();
+            }
+            json.endArray();
+        }
+        json.endObject();
+    }
+
+    /**
+     * Writes the amount rounded to two places and the currency code, as the JAXB adapters on {@link Money} do
+     */
+    protected void writeMoney(JsonStreamWriter json, String name, Money money) throws IOException {
+        if (money == null) {
+            return;
+        }
+        json.name(name).beginObject();
+        if (money.getAmount() != null) {
+            json.field("amount", money.getAmount().setScale(2, RoundingMode.UP));
+        }
+        if (money.getCurrency() != null) {
+            json.field("currency", money.getCurrency().toString());
+        }
+        json.endObject();
+    }
+
+}
@@ -0,0 +1,199 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework Web
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.web.api.stream;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+
+/**
+ * A minimal forward-only JSON writer. Values are written to the underlying {@link Writer} as they are produced, so a
+ * response can be generated directly from domain objects without building an intermediate object tree.
+ * <p/>
+ * The field helpers skip null values, which matches how the JAXB wrappers omit null elements.
+ */
+public class JsonStreamWriter {
+
+    protected static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    protected final Writer writer;
+
+    /**
+     * Whether the container at each depth has not had an element written to it yet
+     */
+    protected boolean[] empty = new boolean[16];
+    protected int depth = 0;
+    protected boolean afterName = false;
+
+    public JsonStreamWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public JsonStreamWriter beginObject() throws IOException {
+        beforeValue();
+        writer.write('{');
+        push();
+        return this;
+    }
+
+    public JsonStreamWriter endObject() throws IOException {
+        depth--;
+        writer.write('}');
+        return this;
+    }
+
+    public JsonStreamWriter beginArray() throws IOException {
+        beforeValue();
+        writer.write('[');
+        push();
+        return this;
+    }
+
+    public JsonStreamWriter endArray() throws IOException {
+        depth--;
+        writer.write(']');
+        return this;
+    }
+
+    public JsonStreamWriter name(String name) throws IOException {
+        beforeValue();
+        writeString(name);
+        writer.write(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonStreamWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+
+    public JsonStreamWriter value(Number value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writer.write(value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString());
+        return this;
+    }
+
+    public JsonStreamWriter value(Boolean value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writer.write(value ? "true" : "false");
+        return this;
+    }
+
+    public JsonStreamWriter nullValue() throws IOException {
+        beforeValue();
+        writer.write("null");
+        return this;
+    }
+
+    public JsonStreamWriter field(String name, String value) throws IOException {
+        if (value != null) {
+            name(name).value(value);
+        }
+        return this;
+    }
+
+    public JsonStreamWriter field(String name, Number value) throws IOException {
+        if (value != null) {
+            name(name).value(value);
+        }
+        return this;
+    }
+
+    public JsonStreamWriter field(String name, Boolean value) throws IOException {
+        if (value != null) {
+            name(name).value(value);
+        }
+        return this;
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    protected void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth > 0) {
+            if (!empty[depth]) {
+                writer.write(',');
+            }
+            empty[depth] = false;
+        }
+    }
+
+    protected void push() {
+        depth++;
+        if (depth == empty.length) {
+            boolean[] grown = new boolean[empty.length * 2];
+            System.arraycopy(empty, 0, grown, 0, empty.length);
+            empty = grown;
+        }
+        empty[depth] = true;
+    }
+
+    protected void writeString(String value) throws IOException {
+        writer.write('"');
+        int start = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            String replacement = null;
+            if (c == '"') {
+                replacement = "\\\"";
+            } else if (c == '\\') {
+                replacement = "\\\\";
+            } else if (c == '\n') {
+                replacement = "\\n";
+            } else if (c == '\r') {
+                replacement = "\\r";
+            } else if (c == '\t') {
+                replacement = "\\t";
+            } else if (c < 0x20 || c == 0x2028 || c == 0x2029 || c == '<') {
+                // line/paragraph separators and '<' are escaped so that the output can be safely embedded in a script block
+                replacement = new String(new char[] {'\\', 'u', HEX[(c >> 12) & 0xf], HEX[(c >> 8) & 0xf], HEX[(c >> 4) & 0xf], HEX[c & 0xf]});
+            }
+            if (replacement != null) {
+                if (start < i) {
+                    writer.write(value, start, i - start);
+                }
+                writer.write(replacement);
+                start = i + 1;
+            }
+        }
+        if (start < length) {
+            writer.write(value, start, length - start);
+        }
+        writer.write('"');
+    }
+
+}
@@ -0,0 +1,175 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework Web
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.web.api.wrapper;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.Aware;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Creates API wrapper instances without going through the prototype bean creation of the ApplicationContext for every
+ * nested element of a response.
+ * <p/>
+ * Wrappers are still keyed by the name of their base implementation, so overriding the bean definition of a wrapper
+ * (for example, to swap in a subclass) keeps working. The bean definition is inspected once per wrapper: plain prototype
+ * definitions of a {@link BaseWrapper} are instantiated directly through their no-arg constructor and given the
+ * ApplicationContext. Any definition that relies on the container - property values, constructor arguments, init
+ * methods, injection annotations, a non-prototype scope or other Aware callbacks - is still created through
+ * {@link ApplicationContext#getBean(String)}.
+ */
+public class APIWrapperFactory implements ApplicationContextAware {
+
+    protected ApplicationContext context;
+
+    protected final ConcurrentMap<String, WrapperInstantiator> instantiators = new ConcurrentHashMap<String, WrapperInstantiator>();
+
+    @Override
+    public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
+        this.context = applicationContext;
+        instantiators.clear();
+    }
+
+    /**
+     * @param wrapperClass the base implementation of the wrapper, whose name is the id of its bean definition
+     * @return a new wrapper instance, which may be a subclass of wrapperClass if the bean definition was overridden
+     */
+    public <T> T createWrapper(Class<T> wrapperClass) {
+        String beanName = wrapperClass.getName();
+        WrapperInstantiator instantiator = instantiators.get(beanName);
+        if (instantiator == null) {
+            instantiator = buildInstantiator(beanName);
+            instantiators.putIfAbsent(beanName, instantiator);
+        }
+        return wrapperClass.cast(instantiator.newInstance());
+    }
+
+    protected WrapperInstantiator buildInstantiator(String beanName) {
+        if (context instanceof ConfigurableApplicationContext) {
+            ConfigurableListableBeanFactory beanFactory = ((ConfigurableApplicationContext) context).getBeanFactory();
+            if (beanFactory.containsBean(beanName)) {
+                BeanDefinition definition = beanFactory.getMergedBeanDefinition(beanName);
+                Class<?> beanClass = beanFactory.getType(beanName);
+                if (isDirectlyInstantiable(definition, beanClass)) {
+                    try {
+                        Constructor<?> constructor = beanClass.getDeclaredConstructor();
+                        constructor.setAccessible(true);
+                        return new ConstructorInstantiator(constructor);
+                    } catch (NoSuchMethodException e) {
+                        // fall through to the container
+                    }
+                }
+            }
+        }
+        return new BeanInstantiator(beanName);
+    }
+
+    protected boolean isDirectlyInstantiable(BeanDefinition definition, Class<?> beanClass) {
+        if (beanClass == null || !BaseWrapper.class.isAssignableFrom(beanClass) || !definition.isPrototype()
+                || !definition.getPropertyValues().isEmpty() || !definition.getConstructorArgumentValues().isEmpty()
+                || definition.getFactoryMethodName() != null || definition.getFactoryBeanName() != null) {
+            return false;
+        }
+        if (definition instanceof AbstractBeanDefinition) {
+            AbstractBeanDefinition abstractDefinition = (AbstractBeanDefinition) definition;
+            if (abstractDefinition.getInitMethodName() != null || abstractDefinition.getAutowireMode() != AbstractBeanDefinition.AUTOWIRE_NO
+                    || abstractDefinition.hasMethodOverrides()) {
+                return false;
+            }
+        }
+        for (Class<?> clazz = beanClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for (Class<?> implemented : clazz.getInterfaces()) {
+                if (Aware.class.isAssignableFrom(implemented) && implemented != ApplicationContextAware.class) {
+                    return false;
+                }
+            }
+            if (hasContainerAnnotation(clazz.getDeclaredFields()) || hasContainerAnnotation(clazz.getDeclaredMethods())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected boolean hasContainerAnnotation(AccessibleObject[] members) {
+        for (AccessibleObject member : members) {
+            for (Annotation annotation : member.getAnnotations()) {
+                String name = annotation.annotationType().getName();
+                if (name.startsWith("org.springframework.beans.factory.annotation.") || name.startsWith("javax.inject.")
+                        || name.equals("javax.annotation.Resource") || name.equals("javax.annotation.PostConstruct")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    protected interface WrapperInstantiator {
+
+        public Object newInstance();
+
+    }
+
+    protected class ConstructorInstantiator implements WrapperInstantiator {
+
+        protected final Constructor<?> constructor;
+
+        public ConstructorInstantiator(Constructor<?> constructor) {
+            this.constructor = constructor;
+        }
+
+        @Override
+        public Object newInstance() {
+            BaseWrapper wrapper;
+            try {
+                wrapper = (BaseWrapper) constructor.newInstance();
+            } catch (Exception e) {
+                throw new RuntimeException("Unable to instantiate " + constructor.getDeclaringClass().getName(), e);
+            }
+            wrapper.setApplicationContext(context);
+            wrapper.wrapperFactory = APIWrapperFactory.this;
+            return wrapper;
+        }
+    }
+
+    protected class BeanInstantiator implements WrapperInstantiator {
+
+        protected final String beanName;
+
+        public BeanInstantiator(String beanName) {
+            this.beanName = beanName;
+        }
+
+        @Override
+        public Object newInstance() {
+            return context.getBean(beanName);
+        }
+    }
+
+}
@@ -103,31 +103,31 @@ public class AddressWrapper extends BaseWrapper implements APIWrapper<Address>,
         this.isDefault = model.isDefault();
 
         if (model.getState() != null) {
-            StateWrapper stateWrapper = (StateWrapper) context.getBean(StateWrapper.class.getName());
+            StateWrapper stateWrapper = createWrapper(StateWrapper.class);
             stateWrapper.wrapDetails(model.getState(), request);
             this.state = stateWrapper;
         }
 
         if (model.getCountry() != null) {
-            CountryWrapper countryWrapper = (CountryWrapper) context.getBean(CountryWrapper.class.getName());
+            CountryWrapper countryWrapper = createWrapper(CountryWrapper.class);
             countryWrapper.wrapDetails(model.getCountry(), request);
             this.country = countryWrapper;
         }
 
         if (model.getPhonePrimary() != null) {
-            PhoneWrapper primaryWrapper = (PhoneWrapper) context.getBean(PhoneWrapper.class.getName());
+            PhoneWrapper primaryWrapper = createWrapper(PhoneWrapper.class);
             primaryWrapper.wrapDetails(model.getPhonePrimary(), request);
             this.phonePrimary = primaryWrapper;
         }
 
         if (model.getPhoneSecondary() != null) {
-            PhoneWrapper secondaryWrapper = (PhoneWrapper) context.getBean(PhoneWrapper.class.getName());
+            PhoneWrapper secondaryWrapper = createWrapper(PhoneWrapper.class);
             secondaryWrapper.wrapDetails(model.getPhoneSecondary(), request);
             this.phoneSecondary = secondaryWrapper;
         }
 
         if (model.getPhoneFax() != null) {
-            PhoneWrapper faxWrapper = (PhoneWrapper) context.getBean(PhoneWrapper.class.getName());
+            PhoneWrapper faxWrapper = createWrapper(PhoneWrapper.class);
             faxWrapper.wrapDetails(model.getPhoneFax(), request);
             this.phoneFax = faxWrapper;
         }
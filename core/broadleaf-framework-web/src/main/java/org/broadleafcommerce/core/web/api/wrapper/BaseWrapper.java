@@ -33,8 +33,21 @@ public abstract class BaseWrapper implements ApplicationContextAware {
     @XmlTransient
     protected ApplicationContext context;
 
+    @XmlTransient
+    protected APIWrapperFactory wrapperFactory;
+
     @Override
     public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
         context = applicationContext;
     }
+
+    /**
+     * Creates a nested wrapper through the {@link APIWrapperFactory}, rather than a prototype bean lookup per element.
+     */
+    protected <T> T createWrapper(Class<T> wrapperClass) {
+        if (wrapperFactory == null) {
+            wrapperFactory = (APIWrapperFactory) context.getBean("blApiWrapperFactory");
+        }
+        return wrapperFactory.createWrapper(wrapperClass);
+    }
 }
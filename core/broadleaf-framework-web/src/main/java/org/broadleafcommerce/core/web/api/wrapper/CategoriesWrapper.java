@@ -43,7 +43,7 @@ public class CategoriesWrapper extends BaseWrapper implements APIWrapper<List<Ca
     @Override
     public void wrapDetails(List<Category> cats, HttpServletRequest request) {
         for (Category category : cats) {
-            CategoryWrapper wrapper = (CategoryWrapper) context.getBean(CategoryWrapper.class.getName());
+            CategoryWrapper wrapper = createWrapper(CategoryWrapper.class);
             wrapper.wrapSummary(category, request);
             categories.add(wrapper);
         }
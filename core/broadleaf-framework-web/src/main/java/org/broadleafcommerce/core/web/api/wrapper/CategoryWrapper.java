@@ -112,7 +112,7 @@ public class CategoryWrapper extends BaseWrapper implements APIWrapper<Category>
         if (category.getCategoryAttributes() != null && !category.getCategoryAttributes().isEmpty()) {
             categoryAttributes = new ArrayList<CategoryAttributeWrapper>();
             for (CategoryAttribute attribute : category.getCategoryAttributes()) {
-                CategoryAttributeWrapper wrapper = (CategoryAttributeWrapper) context.getBean(CategoryAttributeWrapper.class.getName());
+                CategoryAttributeWrapper wrapper = createWrapper(CategoryAttributeWrapper.class);
                 wrapper.wrapSummary(attribute, request);
                 categoryAttributes.add(wrapper);
             }
@@ -146,7 +146,7 @@ public class CategoryWrapper extends BaseWrapper implements APIWrapper<Category>
                     }
 
                     for (Product p : productList) {
-                        ProductWrapper productSummaryWrapper = (ProductWrapper) context.getBean(ProductWrapper.class.getName());
+                        ProductWrapper productSummaryWrapper = createWrapper(ProductWrapper.class);
                         productSummaryWrapper.wrapSummary(p, request);
                         products.add(productSummaryWrapper);
                     }
@@ -182,7 +182,7 @@ public class CategoryWrapper extends BaseWrapper implements APIWrapper<Category>
         }
 
         for (Category c : subcategories) {
-            CategoryWrapper subcategoryWrapper = (CategoryWrapper) context.getBean(CategoryWrapper.class.getName());
+            CategoryWrapper subcategoryWrapper = createWrapper(CategoryWrapper.class);
             subcategoryWrapper.wrapSummary(c, request);
             wrappers.add(subcategoryWrapper);
         }
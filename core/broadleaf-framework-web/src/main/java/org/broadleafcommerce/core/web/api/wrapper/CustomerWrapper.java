@@ -74,7 +74,7 @@ public class CustomerWrapper extends BaseWrapper implements APIWrapper<Customer>
             Set<String> keys = itemAttributes.keySet();
             for (String key : keys) {
                 CustomerAttributeWrapper customerAttributeWrapper =
-                        (CustomerAttributeWrapper) context.getBean(CustomerAttributeWrapper.class.getName());
+                        createWrapper(CustomerAttributeWrapper.class);
                 customerAttributeWrapper.wrapDetails(itemAttributes.get(key), request);
                 this.customerAttributes.add(customerAttributeWrapper);
             }
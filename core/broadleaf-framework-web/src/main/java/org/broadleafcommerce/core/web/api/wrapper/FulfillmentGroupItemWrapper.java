@@ -89,7 +89,7 @@ public class FulfillmentGroupItemWrapper extends BaseWrapper implements APIWrapp
         if (taxes != null && !taxes.isEmpty()) {
             this.taxDetails = new ArrayList<TaxDetailWrapper>();
             for (TaxDetail detail : taxes) {
-                TaxDetailWrapper taxDetailWrapper = (TaxDetailWrapper) context.getBean(TaxDetailWrapper.class.getName());
+                TaxDetailWrapper taxDetailWrapper = createWrapper(TaxDetailWrapper.class);
                 taxDetailWrapper.wrapSummary(detail, request);
                 this.taxDetails.add(taxDetailWrapper);
             }
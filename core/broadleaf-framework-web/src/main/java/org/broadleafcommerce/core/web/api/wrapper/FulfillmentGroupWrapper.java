@@ -91,12 +91,12 @@ public class FulfillmentGroupWrapper extends BaseWrapper implements APIWrapper<F
         this.total = model.getTotal();
 
         if (model.getType() != null) {
-            this.fulfillmentType = (BroadleafEnumerationTypeWrapper) context.getBean(BroadleafEnumerationTypeWrapper.class.getName());
+            this.fulfillmentType = createWrapper(BroadleafEnumerationTypeWrapper.class);
             this.fulfillmentType.wrapDetails(model.getType(), request);
         }
 
         if (model.getFulfillmentOption() != null) {
-            this.fulfillmentOption = (FulfillmentOptionWrapper) context.getBean(FulfillmentOptionWrapper.class.getName());
+            this.fulfillmentOption = createWrapper(FulfillmentOptionWrapper.class);
             this.fulfillmentOption.wrapDetails(model.getFulfillmentOption(), request);
         }
 
@@ -105,13 +105,13 @@ public class FulfillmentGroupWrapper extends BaseWrapper implements APIWrapper<F
         }
 
         if (model.getAddress() != null) {
-            AddressWrapper addressWrapper = (AddressWrapper) context.getBean(AddressWrapper.class.getName());
+            AddressWrapper addressWrapper = createWrapper(AddressWrapper.class);
             addressWrapper.wrapDetails(model.getAddress(), request);
             this.address = addressWrapper;
         }
 
         if (model.getPhone() != null) {
-            PhoneWrapper phoneWrapper = (PhoneWrapper) context.getBean(PhoneWrapper.class.getName());
+            PhoneWrapper phoneWrapper = createWrapper(PhoneWrapper.class);
             phoneWrapper.wrapDetails(model.getPhone(), request);
             this.phone = phoneWrapper;
         }
@@ -120,7 +120,7 @@ public class FulfillmentGroupWrapper extends BaseWrapper implements APIWrapper<F
         if (fgs != null && !fgs.isEmpty()) {
             List<FulfillmentGroupItemWrapper> fulfillmentGroupItemWrappers = new ArrayList<FulfillmentGroupItemWrapper>();
             for (FulfillmentGroupItem fgi : fgs) {
-                FulfillmentGroupItemWrapper fulfillmentGroupItemWrapper = (FulfillmentGroupItemWrapper) context.getBean(FulfillmentGroupItemWrapper.class.getName());
+                FulfillmentGroupItemWrapper fulfillmentGroupItemWrapper = createWrapper(FulfillmentGroupItemWrapper.class);
                 fulfillmentGroupItemWrapper.wrapSummary(fgi, request);
                 fulfillmentGroupItemWrappers.add(fulfillmentGroupItemWrapper);
             }
@@ -131,7 +131,7 @@ public class FulfillmentGroupWrapper extends BaseWrapper implements APIWrapper<F
         if (adjustments != null && !adjustments.isEmpty()) {
             this.fulfillmentGroupAdjustments = new ArrayList<AdjustmentWrapper>();
             for (FulfillmentGroupAdjustment adj : adjustments) {
-                AdjustmentWrapper adjustmentWrapper = (AdjustmentWrapper) context.getBean(AdjustmentWrapper.class.getName());
+                AdjustmentWrapper adjustmentWrapper = createWrapper(AdjustmentWrapper.class);
                 adjustmentWrapper.wrapSummary(adj, request);
                 this.fulfillmentGroupAdjustments.add(adjustmentWrapper);
             }
@@ -141,7 +141,7 @@ public class FulfillmentGroupWrapper extends BaseWrapper implements APIWrapper<F
         if (taxes != null && !taxes.isEmpty()) {
             this.taxDetails = new ArrayList<TaxDetailWrapper>();
             for (TaxDetail detail : taxes) {
-                TaxDetailWrapper taxDetailWrapper = (TaxDetailWrapper) context.getBean(TaxDetailWrapper.class.getName());
+                TaxDetailWrapper taxDetailWrapper = createWrapper(TaxDetailWrapper.class);
                 taxDetailWrapper.wrapSummary(detail, request);
                 this.taxDetails.add(taxDetailWrapper);
             }
@@ -47,7 +47,7 @@ public class FulfillmentOptionWrapper extends BaseWrapper implements APIWrapper<
     public void wrapDetails(FulfillmentOption model, HttpServletRequest request) {
         this.id = model.getId();
         if (model.getFulfillmentType() != null) {
-            this.fulfillmentType = (BroadleafEnumerationTypeWrapper) context.getBean(BroadleafEnumerationTypeWrapper.class.getName());
+            this.fulfillmentType = createWrapper(BroadleafEnumerationTypeWrapper.class);
             this.fulfillmentType.wrapDetails(model.getFulfillmentType(), request);
         }
         this.name = model.getName();
@@ -70,9 +70,9 @@ public class OfferWrapper extends BaseWrapper implements APIWrapper<Offer> {
     @Override
     public void wrapSummary(Offer model, HttpServletRequest request) {
         this.automatic = model.isAutomaticallyAdded();
-        this.offerType = (BroadleafEnumerationTypeWrapper) context.getBean(BroadleafEnumerationTypeWrapper.class.getName());
+        this.offerType = createWrapper(BroadleafEnumerationTypeWrapper.class);
         this.offerType.wrapDetails(model.getType(), request);
-        this.discountType = (BroadleafEnumerationTypeWrapper) context.getBean(BroadleafEnumerationTypeWrapper.class.getName());
+        this.discountType = createWrapper(BroadleafEnumerationTypeWrapper.class);
         this.discountType.wrapDetails(model.getDiscountType(), request);
         this.offerId = model.getId();
         this.marketingMessage = model.getMarketingMessage();
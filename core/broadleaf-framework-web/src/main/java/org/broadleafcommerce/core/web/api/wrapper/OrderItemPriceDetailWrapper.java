@@ -69,7 +69,7 @@ public class OrderItemPriceDetailWrapper extends BaseWrapper implements
             this.orderItemPriceDetailAdjustments = new ArrayList<AdjustmentWrapper>();
             for (OrderItemPriceDetailAdjustment orderItemPriceDetail : model.getOrderItemPriceDetailAdjustments()) {
                 AdjustmentWrapper orderItemPriceDetailAdjustmentWrapper =
-                        (AdjustmentWrapper) context.getBean(AdjustmentWrapper.class.getName());
+                        createWrapper(AdjustmentWrapper.class);
                 orderItemPriceDetailAdjustmentWrapper.wrapSummary(orderItemPriceDetail, request);
                 this.orderItemPriceDetailAdjustments.add(orderItemPriceDetailAdjustmentWrapper);
             }
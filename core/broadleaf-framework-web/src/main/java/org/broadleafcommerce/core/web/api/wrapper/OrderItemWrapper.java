@@ -120,7 +120,7 @@ public class OrderItemWrapper extends BaseWrapper implements APIWrapper<OrderIte
             Set<String> keys = itemAttributes.keySet();
             for (String key : keys) {
                 OrderItemAttributeWrapper orderItemAttributeWrapper = 
-                        (OrderItemAttributeWrapper) context.getBean(OrderItemAttributeWrapper.class.getName());
+                        createWrapper(OrderItemAttributeWrapper.class);
                 orderItemAttributeWrapper.wrapSummary(itemAttributes.get(key), request);
                 this.orderItemAttributes.add(orderItemAttributeWrapper);
             }
@@ -129,7 +129,7 @@ public class OrderItemWrapper extends BaseWrapper implements APIWrapper<OrderIte
             this.orderItemPriceDetails = new ArrayList<OrderItemPriceDetailWrapper>();
             for (OrderItemPriceDetail orderItemPriceDetail : model.getOrderItemPriceDetails()) {
                 OrderItemPriceDetailWrapper orderItemPriceDetailWrapper =
-                        (OrderItemPriceDetailWrapper) context.getBean(OrderItemPriceDetailWrapper.class.getName());
+                        createWrapper(OrderItemPriceDetailWrapper.class);
                 orderItemPriceDetailWrapper.wrapSummary(orderItemPriceDetail, request);
                 this.orderItemPriceDetails.add(orderItemPriceDetailWrapper);
             }
@@ -152,7 +152,7 @@ public class OrderItemWrapper extends BaseWrapper implements APIWrapper<OrderIte
             if (discreteItems != null && !discreteItems.isEmpty()) {
                 this.bundleItems = new ArrayList<OrderItemWrapper>();
                 for (DiscreteOrderItem doi : discreteItems) {
-                    OrderItemWrapper doiWrapper = (OrderItemWrapper) context.getBean(OrderItemWrapper.class.getName());
+                    OrderItemWrapper doiWrapper = createWrapper(OrderItemWrapper.class);
                     doiWrapper.wrapSummary(doi, request);
                     this.bundleItems.add(doiWrapper);
                 }
@@ -163,7 +163,7 @@ public class OrderItemWrapper extends BaseWrapper implements APIWrapper<OrderIte
         if (model.getOrderItemQualifiers() != null && !model.getOrderItemQualifiers().isEmpty()) {
             this.qualifiers = new ArrayList<OrderItemQualifierWrapper>();
             for (OrderItemQualifier qualifier : model.getOrderItemQualifiers()) {
-                OrderItemQualifierWrapper qualifierWrapper = (OrderItemQualifierWrapper) context.getBean(OrderItemQualifierWrapper.class.getName());
+                OrderItemQualifierWrapper qualifierWrapper = createWrapper(OrderItemQualifierWrapper.class);
                 qualifierWrapper.wrapSummary(qualifier, request);
                 this.qualifiers.add(qualifierWrapper);
             }
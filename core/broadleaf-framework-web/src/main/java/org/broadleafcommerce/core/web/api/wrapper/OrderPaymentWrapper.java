@@ -101,7 +101,7 @@ public class OrderPaymentWrapper extends BaseWrapper implements APIWrapper<Order
         }
 
         if (model.getBillingAddress() != null) {
-            AddressWrapper addressWrapper = (AddressWrapper) context.getBean(AddressWrapper.class.getName());
+            AddressWrapper addressWrapper = createWrapper(AddressWrapper.class);
             addressWrapper.wrapDetails(model.getBillingAddress(), request);
             this.billingAddress = addressWrapper;
         }
@@ -114,7 +114,7 @@ public class OrderPaymentWrapper extends BaseWrapper implements APIWrapper<Order
         if (model.getTransactions() != null && !model.getTransactions().isEmpty()) {
             this.transactions = new ArrayList<PaymentTransactionWrapper>();
             for (PaymentTransaction transaction : model.getTransactions()) {
-                PaymentTransactionWrapper transactionWrapper = (PaymentTransactionWrapper) context.getBean(PaymentTransactionWrapper.class.getName());
+                PaymentTransactionWrapper transactionWrapper = createWrapper(PaymentTransactionWrapper.class);
                 transactionWrapper.wrapSummary(transaction, request);
                 this.transactions.add(transactionWrapper);
             }
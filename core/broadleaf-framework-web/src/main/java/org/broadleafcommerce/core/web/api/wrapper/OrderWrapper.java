@@ -111,7 +111,7 @@ public class OrderWrapper extends BaseWrapper implements APIWrapper<Order> {
         if (model.getOrderItems() != null && !model.getOrderItems().isEmpty()) {
             this.orderItems = new ArrayList<OrderItemWrapper>();
             for (OrderItem orderItem : model.getOrderItems()) {
-                OrderItemWrapper orderItemWrapper = (OrderItemWrapper) context.getBean(OrderItemWrapper.class.getName());
+                OrderItemWrapper orderItemWrapper = createWrapper(OrderItemWrapper.class);
                 orderItemWrapper.wrapSummary(orderItem, request);
                 this.orderItems.add(orderItemWrapper);
             }
@@ -120,7 +120,7 @@ public class OrderWrapper extends BaseWrapper implements APIWrapper<Order> {
         if (model.getFulfillmentGroups() != null && !model.getFulfillmentGroups().isEmpty()) {
             this.fulfillmentGroups = new ArrayList<FulfillmentGroupWrapper>();
             for (FulfillmentGroup fulfillmentGroup : model.getFulfillmentGroups()) {
-                FulfillmentGroupWrapper fulfillmentGroupWrapper = (FulfillmentGroupWrapper) context.getBean(FulfillmentGroupWrapper.class.getName());
+                FulfillmentGroupWrapper fulfillmentGroupWrapper = createWrapper(FulfillmentGroupWrapper.class);
                 fulfillmentGroupWrapper.wrapSummary(fulfillmentGroup, request);
                 this.fulfillmentGroups.add(fulfillmentGroupWrapper);
             }
@@ -129,7 +129,7 @@ public class OrderWrapper extends BaseWrapper implements APIWrapper<Order> {
         if (model.getPayments() != null && !model.getPayments().isEmpty()) {
             this.payments = new ArrayList<OrderPaymentWrapper>();
             for (OrderPayment payment : model.getPayments()) {
-                OrderPaymentWrapper paymentWrapper = (OrderPaymentWrapper) context.getBean(OrderPaymentWrapper.class.getName());
+                OrderPaymentWrapper paymentWrapper = createWrapper(OrderPaymentWrapper.class);
                 paymentWrapper.wrapSummary(payment, request);
                 this.payments.add(paymentWrapper);
             }
@@ -138,7 +138,7 @@ public class OrderWrapper extends BaseWrapper implements APIWrapper<Order> {
         if (model.getOrderAdjustments() != null && !model.getOrderAdjustments().isEmpty()) {
             this.orderAdjustments = new ArrayList<AdjustmentWrapper>();
             for (OrderAdjustment orderAdjustment : model.getOrderAdjustments()) {
-                AdjustmentWrapper orderAdjustmentWrapper = (AdjustmentWrapper) context.getBean(AdjustmentWrapper.class.getName());
+                AdjustmentWrapper orderAdjustmentWrapper = createWrapper(AdjustmentWrapper.class);
                 orderAdjustmentWrapper.wrapSummary(orderAdjustment, request);
                 this.orderAdjustments.add(orderAdjustmentWrapper);
             }
@@ -149,19 +149,19 @@ public class OrderWrapper extends BaseWrapper implements APIWrapper<Order> {
             Set<String> keys = itemAttributes.keySet();
             for (String key : keys) {
                 OrderAttributeWrapper orderAttributeWrapper =
-                        (OrderAttributeWrapper) context.getBean(OrderAttributeWrapper.class.getName());
+                        createWrapper(OrderAttributeWrapper.class);
                 orderAttributeWrapper.wrapSummary(itemAttributes.get(key), request);
                 this.orderAttributes.add(orderAttributeWrapper);
             }
         }
-        CustomerWrapper customerWrapper = (CustomerWrapper) context.getBean(CustomerWrapper.class.getName());
+        CustomerWrapper customerWrapper = createWrapper(CustomerWrapper.class);
         customerWrapper.wrapDetails(model.getCustomer(), request);
         this.customer = customerWrapper;
 
         if (model.getOrderMessages() != null && !model.getOrderMessages().isEmpty()) {
             for (ActivityMessageDTO dto : model.getOrderMessages()) {
 
-                CartMessageWrapper cartMessageWrapper = (CartMessageWrapper) context.getBean(CartMessageWrapper.class.getName());
+                CartMessageWrapper cartMessageWrapper = createWrapper(CartMessageWrapper.class);
                 cartMessageWrapper.wrapSummary(dto, request);
                 if (cartMessages == null) {
                     cartMessages = new ArrayList<CartMessageWrapper>();
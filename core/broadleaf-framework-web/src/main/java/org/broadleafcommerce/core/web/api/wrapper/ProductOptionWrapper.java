@@ -82,7 +82,7 @@ public class ProductOptionWrapper extends BaseWrapper implements APIWrapper<Prod
         if (optionValues != null) {
             ArrayList<ProductOptionValueWrapper> allowedValueWrappers = new ArrayList<ProductOptionValueWrapper>();
             for (ProductOptionValue value : optionValues) {
-                ProductOptionValueWrapper optionValueWrapper = (ProductOptionValueWrapper)context.getBean(ProductOptionValueWrapper.class.getName());
+                ProductOptionValueWrapper optionValueWrapper = createWrapper(ProductOptionValueWrapper.class);
                 optionValueWrapper.wrapSummary(value, request);
                 allowedValueWrappers.add(optionValueWrapper);
             }
@@ -158,7 +158,7 @@ public class ProductWrapper extends BaseWrapper implements APIWrapper<Product> {
                 this.skuBundleItems = new ArrayList<SkuBundleItemWrapper>();
                 List<SkuBundleItem> bundleItems = bundle.getSkuBundleItems();
                 for (SkuBundleItem item : bundleItems) {
-                    SkuBundleItemWrapper skuBundleItemsWrapper = (SkuBundleItemWrapper) context.getBean(SkuBundleItemWrapper.class.getName());
+                    SkuBundleItemWrapper skuBundleItemsWrapper = createWrapper(SkuBundleItemWrapper.class);
                     skuBundleItemsWrapper.wrapSummary(item, request);
                     this.skuBundleItems.add(skuBundleItemsWrapper);
                 }
@@ -172,7 +172,7 @@ public class ProductWrapper extends BaseWrapper implements APIWrapper<Product> {
             this.productOptions = new ArrayList<ProductOptionWrapper>();
             List<ProductOption> options = model.getProductOptions();
             for (ProductOption option : options) {
-                ProductOptionWrapper optionWrapper = (ProductOptionWrapper) context.getBean(ProductOptionWrapper.class.getName());
+                ProductOptionWrapper optionWrapper = createWrapper(ProductOptionWrapper.class);
                 optionWrapper.wrapSummary(option, request);
                 this.productOptions.add(optionWrapper);
             }
@@ -182,7 +182,7 @@ public class ProductWrapper extends BaseWrapper implements APIWrapper<Product> {
             Media media = model.getMedia().get("primary");
             if (media != null) {
                 StaticAssetPathService staticAssetPathService = (StaticAssetPathService) this.context.getBean("blStaticAssetPathService");
-                primaryMedia = (MediaWrapper) context.getBean(MediaWrapper.class.getName());
+                primaryMedia = createWrapper(MediaWrapper.class);
                 primaryMedia.wrapDetails(media, request);
                 if (primaryMedia.isAllowOverrideUrl()) {
                     primaryMedia.setUrl(staticAssetPathService.convertAssetPath(media.getUrl(), request.getContextPath(), request.isSecure()));
@@ -198,7 +198,7 @@ public class ProductWrapper extends BaseWrapper implements APIWrapper<Product> {
             upsaleProducts = new ArrayList<RelatedProductWrapper>();
             for (RelatedProduct p : model.getUpSaleProducts()) {
                 RelatedProductWrapper upsaleProductWrapper =
-                        (RelatedProductWrapper) context.getBean(RelatedProductWrapper.class.getName());
+                        createWrapper(RelatedProductWrapper.class);
                 upsaleProductWrapper.wrapSummary(p, request);
                 upsaleProducts.add(upsaleProductWrapper);
             }
@@ -208,7 +208,7 @@ public class ProductWrapper extends BaseWrapper implements APIWrapper<Product> {
             crossSaleProducts = new ArrayList<RelatedProductWrapper>();
             for (RelatedProduct p : model.getCrossSaleProducts()) {
                 RelatedProductWrapper crossSaleProductWrapper =
-                        (RelatedProductWrapper) context.getBean(RelatedProductWrapper.class.getName());
+                        createWrapper(RelatedProductWrapper.class);
                 crossSaleProductWrapper.wrapSummary(p, request);
                 crossSaleProducts.add(crossSaleProductWrapper);
             }
@@ -218,7 +218,7 @@ public class ProductWrapper extends BaseWrapper implements APIWrapper<Product> {
             productAttributes = new ArrayList<ProductAttributeWrapper>();
             if (model.getProductAttributes() != null) {
                 for (Map.Entry<String, ProductAttribute> entry : model.getProductAttributes().entrySet()) {
-                    ProductAttributeWrapper wrapper = (ProductAttributeWrapper) context.getBean(ProductAttributeWrapper.class.getName());
+                    ProductAttributeWrapper wrapper = createWrapper(ProductAttributeWrapper.class);
                     wrapper.wrapSummary(entry.getValue(), request);
                     productAttributes.add(wrapper);
                 }
@@ -230,7 +230,7 @@ public class ProductWrapper extends BaseWrapper implements APIWrapper<Product> {
             media = new ArrayList<MediaWrapper>();
             StaticAssetPathService staticAssetPathService = (StaticAssetPathService) this.context.getBean("blStaticAssetPathService");
             for (Media med : mediaMap.values()) {
-                MediaWrapper wrapper = (MediaWrapper) context.getBean(MediaWrapper.class.getName());
+                MediaWrapper wrapper = createWrapper(MediaWrapper.class);
                 wrapper.wrapSummary(med, request);
                 if (wrapper.isAllowOverrideUrl()) {
                     wrapper.setUrl(staticAssetPathService.convertAssetPath(med.getUrl(), request.getContextPath(), request.isSecure()));
@@ -263,7 +263,7 @@ public class ProductWrapper extends BaseWrapper implements APIWrapper<Product> {
             this.productOptions = new ArrayList<ProductOptionWrapper>();
             List<ProductOption> options = model.getProductOptions();
             for (ProductOption option : options) {
-                ProductOptionWrapper optionWrapper = (ProductOptionWrapper) context.getBean(ProductOptionWrapper.class.getName());
+                ProductOptionWrapper optionWrapper = createWrapper(ProductOptionWrapper.class);
                 optionWrapper.wrapSummary(option, request);
                 this.productOptions.add(optionWrapper);
             }
@@ -273,7 +273,7 @@ public class ProductWrapper extends BaseWrapper implements APIWrapper<Product> {
             Media media = model.getMedia().get("primary");
             if (media != null) {
                 StaticAssetPathService staticAssetPathService = (StaticAssetPathService) this.context.getBean("blStaticAssetPathService");
-                primaryMedia = (MediaWrapper) context.getBean(MediaWrapper.class.getName());
+                primaryMedia = createWrapper(MediaWrapper.class);
                 primaryMedia.wrapDetails(media, request);
                 if (primaryMedia.isAllowOverrideUrl()) {
                     primaryMedia.setUrl(staticAssetPathService.convertAssetPath(media.getUrl(), request.getContextPath(), request.isSecure()));
@@ -56,7 +56,7 @@ public class RelatedProductWrapper extends BaseWrapper implements APIWrapper<Rel
         this.id = model.getId();
         this.sequence = model.getSequence();
         this.promotionalMessage = model.getPromotionMessage();
-        product = (ProductWrapper) context.getBean(ProductWrapper.class.getName());
+        product = createWrapper(ProductWrapper.class);
         product.wrapSummary(model.getRelatedProduct(), request);
     }
 
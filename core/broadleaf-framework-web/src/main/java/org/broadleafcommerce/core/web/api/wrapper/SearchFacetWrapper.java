@@ -72,7 +72,7 @@ public class SearchFacetWrapper extends BaseWrapper implements APIWrapper<Search
         if (model.getFacetValues() != null) {
             this.values = new ArrayList<SearchFacetValueWrapper>();
             for (SearchFacetResultDTO result : model.getFacetValues()) {
-                SearchFacetValueWrapper wrapper = (SearchFacetValueWrapper) context.getBean(SearchFacetValueWrapper.class.getName());
+                SearchFacetValueWrapper wrapper = createWrapper(SearchFacetValueWrapper.class);
                 wrapper.wrapSummary(result, request);
                 this.values.add(wrapper);
             }
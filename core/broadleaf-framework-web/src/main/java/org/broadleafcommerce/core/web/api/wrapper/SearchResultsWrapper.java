@@ -83,7 +83,7 @@ public class SearchResultsWrapper extends BaseWrapper implements APIWrapper<Prod
         if (model.getProducts() != null) {
             products = new ArrayList<ProductWrapper>();
             for (Product product : model.getProducts()) {
-                ProductWrapper productSummary = (ProductWrapper) context.getBean(ProductWrapper.class.getName());
+                ProductWrapper productSummary = createWrapper(ProductWrapper.class);
                 productSummary.wrapSummary(product, request);
                 this.products.add(productSummary);
             }
@@ -92,7 +92,7 @@ public class SearchResultsWrapper extends BaseWrapper implements APIWrapper<Prod
         if (model.getFacets() != null) {
             this.searchFacets = new ArrayList<SearchFacetWrapper>();
             for (SearchFacetDTO facet : model.getFacets()) {
-                SearchFacetWrapper facetWrapper = (SearchFacetWrapper) context.getBean(SearchFacetWrapper.class.getName());
+                SearchFacetWrapper facetWrapper = createWrapper(SearchFacetWrapper.class);
                 facetWrapper.wrapSummary(facet, request);
                 this.searchFacets.add(facetWrapper);
             }
@@ -75,7 +75,7 @@ public class SkuBundleItemWrapper extends BaseWrapper implements APIWrapper<SkuB
         this.description = model.getSku().getDescription();
         this.longDescription = model.getSku().getLongDescription();
         this.active = model.getSku().isActive();
-        // this.sku = (SkuWrapper)context.getBean(SkuWrapper.class.getName());
+        // this.sku = createWrapper(SkuWrapper.class);
         // this.sku.wrap(model.getSku(), request);
         this.productId = model.getSku().getProduct().getId();
     }
@@ -92,12 +92,12 @@ public class SkuWrapper extends BaseWrapper implements APIWrapper<Sku> {
         }
         
         if (model.getWeight() != null){
-            weight = (WeightWrapper)context.getBean(WeightWrapper.class.getName());
+            weight = createWrapper(WeightWrapper.class);
             weight.wrapDetails(model.getWeight(), request);
         }
 
         if (model.getDimension() != null){
-            dimension = (DimensionWrapper)context.getBean(DimensionWrapper.class.getName());
+            dimension = createWrapper(DimensionWrapper.class);
             dimension.wrapDetails(model.getDimension(), request);
         }
     }
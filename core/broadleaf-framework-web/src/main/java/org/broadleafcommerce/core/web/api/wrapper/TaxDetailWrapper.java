@@ -65,7 +65,7 @@ public class TaxDetailWrapper extends BaseWrapper implements APIWrapper<TaxDetai
     public void wrapDetails(TaxDetail model, HttpServletRequest request) {
         this.id = model.getId();
         if (model.getType() != null) {
-            this.taxType = (BroadleafEnumerationTypeWrapper) context.getBean(BroadleafEnumerationTypeWrapper.class.getName());
+            this.taxType = createWrapper(BroadleafEnumerationTypeWrapper.class);
             this.taxType.wrapDetails(model.getType(), request);
         }
         this.amount = model.getAmount();
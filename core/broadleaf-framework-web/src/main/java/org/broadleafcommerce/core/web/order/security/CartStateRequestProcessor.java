@@ -38,6 +38,7 @@ import org.broadleafcommerce.profile.web.core.CustomerState;
 import org.broadleafcommerce.profile.web.core.security.CustomerStateRequestProcessor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
@@ -90,12 +91,26 @@ public class CartStateRequestProcessor extends AbstractBroadleafWebRequestProces
     @Qualifier("blCrossAppAuthService")
     protected CrossAppAuthService crossAppAuthService;
 
+    @Value("${cart.state.use.fetch.plan}")
+    protected boolean useFetchPlan = false;
+
     protected static String cartRequestAttributeName = "cart";
     
     protected static String anonymousCartSessionAttributeName = "anonymousCart";
 
     public static final String OVERRIDE_CART_ATTR_NAME = "_blc_overrideCartId";
         
+    /**
+     * Reads the customer's cart, with {@link OrderService#findCartForCustomerWithFetchPlan(Customer)} when
+     * cart.state.use.fetch.plan is set
+     */
+    protected Order findCartForCustomer(Customer customer) {
+        if (useFetchPlan) {
+            return orderService.findCartForCustomerWithFetchPlan(customer);
+        }
+        return orderService.findCartForCustomer(customer);
+    }
+
     @Override
     public void process(WebRequest request) {
         Customer customer = CustomerState.getCustomer();
@@ -114,7 +129,7 @@ public class CartStateRequestProcessor extends AbstractBroadleafWebRequestProces
             }
             cart = mergeCart(customer, request);
         } else if (cart == null) {
-            cart = orderService.findCartForCustomer(customer);
+            cart = findCartForCustomer(customer);
         }
 
         if (cart == null) {
@@ -0,0 +1,70 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework Web
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.web.api.stream;
+
+import junit.framework.TestCase;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+
+public class JsonStreamWriterTest extends TestCase {
+
+    public void testNestedStructures() throws Exception {
+        StringWriter out = new StringWriter();
+        JsonStreamWriter json = new JsonStreamWriter(out);
+        json.beginObject();
+        json.field("id", 1L);
+        json.field("name", "Hot Sauce");
+        json.field("missing", (String) null);
+        json.field("active", Boolean.TRUE);
+        json.name("values").beginArray();
+        json.value(new BigDecimal("1.50")).value("two").nullValue();
+        json.beginObject().endObject();
+        json.endArray();
+        json.name("empty").beginArray().endArray();
+        json.endObject();
+        json.flush();
+
+        assertEquals("{\"id\":1,\"name\":\"Hot Sauce\",\"active\":true,\"values\":[1.50,\"two\",null,{}],\"empty\":[]}", out.toString());
+    }
+
+    public void testStringEscaping() throws Exception {
+        StringWriter out = new StringWriter();
+        new JsonStreamWriter(out).value("a\"b\\c\nd\u0001<e");
+        assertEquals("\"a\\\"b\\\\c\\nd\\u0001\\u003ce\"", out.toString());
+    }
+
+    public void testDeepNesting() throws Exception {
+        StringWriter out = new StringWriter();
+        JsonStreamWriter json = new JsonStreamWriter(out);
+        for (int i = 0; i < 40; i++) {
+            json.beginArray();
+        }
+        json.value(1);
+        json.value(2);
+        for (int i = 0; i < 40; i++) {
+            json.endArray();
+        }
+        String result = out.toString();
+        assertTrue(result.contains("[1,2]"));
+        assertEquals(40 + 3 + 40, result.length());
+    }
+
+}
@@ -45,6 +45,25 @@ public interface CategoryDao {
     @Nonnull
     public Category readCategoryById(@Nonnull Long categoryId);
 
+    /**
+     * Retrieve the {@code Category} instances with the given primary keys in a single query. Categories that do not
+     * exist are left out and the order of the results is not defined.
+     *
+     * @param categoryIds the primary keys of the categories to retrieve
+     * @return the categories with the given primary keys
+     */
+    @Nonnull
+    public List<Category> readCategoriesByIds(@Nonnull List<Long> categoryIds);
+
+    /**
+     * Retrieve the primary key of every category that has a default parent category along with the primary key of that
+     * parent, without loading the categories themselves
+     *
+     * @return a list of {category id, default parent category id} arrays
+     */
+    @Nonnull
+    public List<Object[]> readAllDefaultParentCategoryIds();
+
     /**
      * Retrieve a {@code Category} instance by its name.
      *
@@ -31,6 +31,7 @@ import org.broadleafcommerce.core.catalog.domain.Product;
 import org.hibernate.ejb.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -86,6 +87,29 @@ public class CategoryDaoImpl implements CategoryDao {
         return em.find(CategoryImpl.class, categoryId);
     }
 
+    @Override
+    public List<Category> readCategoriesByIds(List<Long> categoryIds) {
+        if (categoryIds.isEmpty()) {
+            return new ArrayList<Category>();
+        }
+        CriteriaBuilder builder = em.getCriteriaBuilder();
+        CriteriaQuery<Category> criteria = builder.createQuery(Category.class);
+        Root<CategoryImpl> category = criteria.from(CategoryImpl.class);
+        criteria.select(category);
+        criteria.where(category.get("id").as(Long.class).in(
+                sandBoxHelper.mergeCloneIds(em, CategoryImpl.class, categoryIds.toArray(new Long[categoryIds.size()]))));
+        TypedQuery<Category> query = em.createQuery(criteria);
+        query.setHint(QueryHints.HINT_CACHEABLE, true);
+        query.setHint(QueryHints.HINT_CACHE_REGION, "query.Catalog");
+        return query.getResultList();
+    }
+
+    @Override
+    public List<Object[]> readAllDefaultParentCategoryIds() {
+        TypedQuery<Object[]> query = em.createNamedQuery("BC_READ_ALL_CATEGORY_DEFAULT_PARENT_IDS", Object[].class);
+        return query.getResultList();
+    }
+
     @Override
     @Deprecated
     public Category readCategoryByName(String categoryName) {
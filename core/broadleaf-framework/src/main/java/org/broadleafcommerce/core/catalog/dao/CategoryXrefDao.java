@@ -66,6 +66,15 @@ public interface CategoryXrefDao {
     @Nonnull
     public CategoryXref readXrefByIds(@Nonnull Long categoryId, @Nonnull Long subCategoryId);
 
+    /**
+     * Retrieve the primary keys of every category relationship, ordered by display order, without loading the
+     * relationships themselves
+     *
+     * @return a list of {xref id, parent category id, sub-category id} arrays
+     */
+    @Nonnull
+    public List<Object[]> readAllCategoryXrefIds();
+
     /**
      * Persist the passed in category relationship to the datastore
      *
@@ -68,6 +68,12 @@ public class CategoryXrefDaoImpl implements CategoryXrefDao {
         return (CategoryXref) query.getSingleResult();
     }
 
+    @Override
+    public List<Object[]> readAllCategoryXrefIds() {
+        TypedQuery<Object[]> query = em.createNamedQuery("BC_READ_ALL_CATEGORY_XREF_IDS", Object[].class);
+        return query.getResultList();
+    }
+
     @Override
     public CategoryXref save(CategoryXrefImpl categoryXref){
         return em.merge(categoryXref);
@@ -57,6 +57,7 @@ import org.broadleafcommerce.common.util.UrlUtil;
 import org.broadleafcommerce.common.web.BroadleafRequestContext;
 import org.broadleafcommerce.common.web.Locatable;
 import org.broadleafcommerce.core.catalog.extension.CategoryEntityExtensionManager;
+import org.broadleafcommerce.core.catalog.service.hierarchy.CategoryHierarchyEntityListener;
 import org.broadleafcommerce.core.inventory.service.type.InventoryType;
 import org.broadleafcommerce.core.order.service.type.FulfillmentType;
 import org.broadleafcommerce.core.search.domain.CategorySearchFacet;
@@ -89,6 +90,7 @@ import javax.persistence.Column;
 import javax.persistence.ElementCollection;
 import javax.persistence.Embedded;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.Inheritance;
@@ -110,6 +112,7 @@ import javax.persistence.Transient;
  * @author Jeff Fischer
  */
 @Entity
+@EntityListeners(value = { CategoryHierarchyEntityListener.class })
 @Inheritance(strategy = InheritanceType.JOINED)
 @Table(name="BLC_CATEGORY")
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region="blCategories")
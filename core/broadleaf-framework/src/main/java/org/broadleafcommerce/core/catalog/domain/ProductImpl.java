@@ -51,6 +51,7 @@ import org.broadleafcommerce.common.vendor.service.type.ContainerSizeType;
 import org.broadleafcommerce.common.web.BroadleafRequestContext;
 import org.broadleafcommerce.common.web.Locatable;
 import org.broadleafcommerce.core.catalog.extension.ProductEntityExtensionManager;
+import org.broadleafcommerce.core.catalog.service.viewmodel.ProductViewModelInvalidationListener;
 import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
@@ -73,6 +74,7 @@ import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Embedded;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
@@ -104,6 +106,7 @@ import javax.persistence.Transient;
  * @see {@link Product}, {@link SkuImpl}, {@link CategoryImpl}
  */
 @Entity
+@EntityListeners(value = { ProductViewModelInvalidationListener.class })
 @Inheritance(strategy = InheritanceType.JOINED)
 @javax.persistence.Table(name="BLC_PRODUCT")
 //multi-column indexes don't appear to get exported correctly when declared at the field level, so declaring here as a workaround
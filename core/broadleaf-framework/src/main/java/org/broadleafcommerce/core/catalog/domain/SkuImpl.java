@@ -52,6 +52,7 @@ import org.broadleafcommerce.core.catalog.service.dynamic.DefaultDynamicSkuPrici
 import org.broadleafcommerce.core.catalog.service.dynamic.DynamicSkuPrices;
 import org.broadleafcommerce.core.catalog.service.dynamic.SkuActiveDateConsiderationContext;
 import org.broadleafcommerce.core.catalog.service.dynamic.SkuPricingConsiderationContext;
+import org.broadleafcommerce.core.catalog.service.viewmodel.ProductViewModelInvalidationListener;
 import org.broadleafcommerce.core.inventory.service.type.InventoryType;
 import org.broadleafcommerce.core.order.domain.FulfillmentOption;
 import org.broadleafcommerce.core.order.domain.FulfillmentOptionImpl;
@@ -84,6 +85,7 @@ import javax.persistence.Column;
 import javax.persistence.ElementCollection;
 import javax.persistence.Embedded;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
@@ -128,6 +130,7 @@ import javax.persistence.Transient;
  * @see {@link Sku}
  */
 @Entity
+@EntityListeners(value = { ProductViewModelInvalidationListener.class })
 @Inheritance(strategy = InheritanceType.JOINED)
 @Table(name = "BLC_SKU")
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "blProducts")
@@ -428,22 +431,35 @@ public class SkuImpl implements Sku {
         return optionValuePriceAdjustments;
     }
 
+    /**
+     * Returns the prices of this sku from the active {@link org.broadleafcommerce.core.catalog.service.dynamic.DynamicSkuPricingService}.
+     * Prices already resolved for the current request (see {@link SkuPricingConsiderationContext#resolveSkuPrices(java.util.Collection)})
+     * are reused; otherwise the service is asked for this sku alone.
+     */
+    protected DynamicSkuPrices getDynamicPrices() {
+        if (dynamicPrices == null) {
+            dynamicPrices = SkuPricingConsiderationContext.getResolvedSkuPrices(id);
+        }
+        if (dynamicPrices == null) {
+            DefaultDynamicSkuPricingInvocationHandler handler = new DefaultDynamicSkuPricingInvocationHandler(this);
+            Sku proxy = (Sku) Proxy.newProxyInstance(getClass().getClassLoader(), ClassUtils.getAllInterfacesForClass(getClass()), handler);
+
+            dynamicPrices = SkuPricingConsiderationContext.getSkuPricingService().getSkuPrices(proxy, SkuPricingConsiderationContext.getSkuPricingConsiderationContext());
+            SkuPricingConsiderationContext.setResolvedSkuPrices(id, dynamicPrices);
+        }
+        return dynamicPrices;
+    }
+
     @Override
     public Money getSalePrice() {
         Money returnPrice = null;
         Money optionValueAdjustments = null;
 
-        if (SkuPricingConsiderationContext.hasDynamicPricing()) {
+        if (SkuPricingConsiderationContext.hasDynamicPricing() && !SkuPricingConsiderationContext.isResolvingSkuPrices()) {
             // We have dynamic pricing, so we will pull the sale price from there
-            if (dynamicPrices == null) {
-                DefaultDynamicSkuPricingInvocationHandler handler = new DefaultDynamicSkuPricingInvocationHandler(this);
-                Sku proxy = (Sku) Proxy.newProxyInstance(getClass().getClassLoader(), ClassUtils.getAllInterfacesForClass(getClass()), handler);
-
-                dynamicPrices = SkuPricingConsiderationContext.getSkuPricingService().getSkuPrices(proxy, SkuPricingConsiderationContext.getSkuPricingConsiderationContext());
-            }
-            
-            returnPrice = dynamicPrices.getSalePrice();
-            optionValueAdjustments = dynamicPrices.getPriceAdjustment();
+            DynamicSkuPrices prices = getDynamicPrices();
+            returnPrice = prices.getSalePrice();
+            optionValueAdjustments = prices.getPriceAdjustment();
         } else if (salePrice != null) {
             // We have an explicitly set sale price directly on this entity. We will not apply any adjustments
             returnPrice = new Money(salePrice, getCurrency());
@@ -493,17 +509,11 @@ public class SkuImpl implements Sku {
         Money returnPrice = null;
         Money optionValueAdjustments = null;
 
-        if (SkuPricingConsiderationContext.hasDynamicPricing()) {
+        if (SkuPricingConsiderationContext.hasDynamicPricing() && !SkuPricingConsiderationContext.isResolvingSkuPrices()) {
             // We have dynamic pricing, so we will pull the retail price from there
-            if (dynamicPrices == null) {
-                DefaultDynamicSkuPricingInvocationHandler handler = new DefaultDynamicSkuPricingInvocationHandler(this);
-                Sku proxy = (Sku) Proxy.newProxyInstance(getClass().getClassLoader(), ClassUtils.getAllInterfacesForClass(getClass()), handler);
-
-                dynamicPrices = SkuPricingConsiderationContext.getSkuPricingService().getSkuPrices(proxy, SkuPricingConsiderationContext.getSkuPricingConsiderationContext());
-            }
-            
-            returnPrice = dynamicPrices.getRetailPrice();
-            optionValueAdjustments = dynamicPrices.getPriceAdjustment();
+            DynamicSkuPrices prices = getDynamicPrices();
+            returnPrice = prices.getRetailPrice();
+            optionValueAdjustments = prices.getPriceAdjustment();
         } else if (retailPrice != null) {
             returnPrice = new Money(retailPrice, getCurrency());
         }
@@ -974,6 +984,7 @@ public class SkuImpl implements Sku {
     @Override
     public void clearDynamicPrices() {
         this.dynamicPrices = null;
+        SkuPricingConsiderationContext.clearResolvedSkuPrices(id);
     }
 
     @Override
@@ -0,0 +1,138 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.catalog.service;
+
+import org.broadleafcommerce.core.catalog.domain.ProductBundle;
+import org.broadleafcommerce.core.catalog.domain.SkuBundleItem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable index of the automatic {@link ProductBundle}s keyed by the ids of the skus they require. This allows the
+ * automatic bundling logic to only consider bundles whose skus are all present in a cart rather than walking every
+ * automatic bundle on every pricing run.
+ * 
+ * Instances are built by {@link AutomaticBundleIndexService} and replaced as a whole when the automatic bundles change.
+ */
+public class AutomaticBundleIndex {
+
+    protected final long version;
+    protected final long buildTime;
+    protected final List<Long> bundleIds;
+    protected final Map<Long, List<Long>> bundleIdsBySkuId;
+    protected final Map<Long, Set<Long>> requiredSkuIdsByBundleId;
+
+    public AutomaticBundleIndex(long version, List<ProductBundle> bundles) {
+        this.version = version;
+        this.buildTime = System.currentTimeMillis();
+
+        List<Long> ids = new ArrayList<Long>(bundles.size());
+        Map<Long, List<Long>> bySku = new HashMap<Long, List<Long>>();
+        Map<Long, Set<Long>> required = new HashMap<Long, Set<Long>>();
+        for (ProductBundle bundle : bundles) {
+            ids.add(bundle.getId());
+            Set<Long> skuIds = new HashSet<Long>();
+            for (SkuBundleItem skuBundleItem : bundle.getSkuBundleItems()) {
+                Long skuId = skuBundleItem.getSku().getId();
+                if (skuIds.add(skuId)) {
+                    List<Long> bundlesForSku = bySku.get(skuId);
+                    if (bundlesForSku == null) {
+                        bundlesForSku = new ArrayList<Long>();
+                        bySku.put(skuId, bundlesForSku);
+                    }
+                    bundlesForSku.add(bundle.getId());
+                }
+            }
+            required.put(bundle.getId(), Collections.unmodifiableSet(skuIds));
+        }
+
+        this.bundleIds = Collections.unmodifiableList(ids);
+        this.bundleIdsBySkuId = Collections.unmodifiableMap(bySku);
+        this.requiredSkuIdsByBundleId = Collections.unmodifiableMap(required);
+    }
+
+    /**
+     * Finds the ids of the bundles whose required skus are all contained in the given sku ids. Bundles without any
+     * sku bundle items are never returned.
+     * 
+     * @param skuIds the ids of the skus present in a cart
+     * @return the ids of the bundles that could possibly apply
+     */
+    public Set<Long> findCandidateBundleIds(Collection<Long> skuIds) {
+        Set<Long> candidates = new HashSet<Long>();
+        Set<Long> rejected = new HashSet<Long>();
+        for (Long skuId : skuIds) {
+            List<Long> bundlesForSku = bundleIdsBySkuId.get(skuId);
+            if (bundlesForSku == null) {
+                continue;
+            }
+            for (Long bundleId : bundlesForSku) {
+                if (candidates.contains(bundleId) || rejected.contains(bundleId)) {
+                    continue;
+                }
+                if (skuIds.containsAll(requiredSkuIdsByBundleId.get(bundleId))) {
+                    candidates.add(bundleId);
+                } else {
+                    rejected.add(bundleId);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * @param bundles
+     * @return whether or not this index was built from the same automatic bundles, in the same order
+     */
+    public boolean isBuiltFrom(List<ProductBundle> bundles) {
+        if (bundles.size() != bundleIds.size()) {
+            return false;
+        }
+        for (int i = 0; i < bundles.size(); i++) {
+            if (!bundleIds.get(i).equals(bundles.get(i).getId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return a value that changes every time the index is rebuilt
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public long getBuildTime() {
+        return buildTime;
+    }
+
+    public List<Long> getBundleIds() {
+        return bundleIds;
+    }
+
+}
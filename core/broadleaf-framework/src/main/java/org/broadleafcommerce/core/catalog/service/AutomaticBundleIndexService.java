@@ -0,0 +1,58 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.catalog.service;
+
+import org.broadleafcommerce.core.catalog.domain.ProductBundle;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Maintains the {@link AutomaticBundleIndex} used by automatic bundling in the pricing workflow.
+ */
+public interface AutomaticBundleIndexService {
+
+    /**
+     * Returns the current index for the given automatic bundles, as returned by
+     * {@link CatalogService#findAutomaticProductBundles()}. The index is rebuilt when the set of automatic bundles
+     * differs from the one it was built from or when it is older than the configured refresh interval.
+     * 
+     * @param automaticBundles
+     * @return the index
+     */
+    public AutomaticBundleIndex getIndex(List<ProductBundle> automaticBundles);
+
+    /**
+     * Filters the given automatic bundles down to the ones whose skus are all present in the given sku ids, preserving
+     * the order of the passed in list.
+     * 
+     * @param automaticBundles
+     * @param skuIds
+     * @return the candidate bundles
+     */
+    public List<ProductBundle> findCandidateBundles(List<ProductBundle> automaticBundles, Collection<Long> skuIds);
+
+    /**
+     * Discards the current index so that it is rebuilt on next use. This should be called whenever the sku bundle
+     * items of an automatic bundle are modified.
+     */
+    public void invalidateIndex();
+
+}
@@ -0,0 +1,89 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.catalog.service;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.broadleafcommerce.core.catalog.domain.ProductBundle;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service("blAutomaticBundleIndexService")
+public class AutomaticBundleIndexServiceImpl implements AutomaticBundleIndexService {
+
+    private static final Log LOG = LogFactory.getLog(AutomaticBundleIndexServiceImpl.class);
+
+    /**
+     * Bundle membership changes that keep the same set of automatic bundles are only picked up after this interval
+     */
+    @Value("${auto.bundle.index.refresh.interval}")
+    protected long refreshInterval = 600000L;
+
+    protected final AtomicLong versionCounter = new AtomicLong();
+
+    protected volatile AutomaticBundleIndex index;
+
+    @Override
+    public AutomaticBundleIndex getIndex(List<ProductBundle> automaticBundles) {
+        AutomaticBundleIndex current = index;
+        if (current == null || isStale(current, automaticBundles)) {
+            synchronized (this) {
+                current = index;
+                if (current == null || isStale(current, automaticBundles)) {
+                    current = new AutomaticBundleIndex(versionCounter.incrementAndGet(), automaticBundles);
+                    index = current;
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Rebuilt automatic bundle index (version " + current.getVersion() + ") for "
+                                + automaticBundles.size() + " bundles");
+                    }
+                }
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public List<ProductBundle> findCandidateBundles(List<ProductBundle> automaticBundles, Collection<Long> skuIds) {
+        Set<Long> candidateIds = getIndex(automaticBundles).findCandidateBundleIds(skuIds);
+        List<ProductBundle> candidates = new ArrayList<ProductBundle>(candidateIds.size());
+        for (ProductBundle bundle : automaticBundles) {
+            if (candidateIds.contains(bundle.getId())) {
+                candidates.add(bundle);
+            }
+        }
+        return candidates;
+    }
+
+    @Override
+    public void invalidateIndex() {
+        index = null;
+    }
+
+    protected boolean isStale(AutomaticBundleIndex current, List<ProductBundle> automaticBundles) {
+        return System.currentTimeMillis() - current.getBuildTime() > refreshInterval || !current.isBuiltFrom(automaticBundles);
+    }
+
+}
@@ -33,6 +33,7 @@ import org.broadleafcommerce.core.catalog.domain.ProductOption;
 import org.broadleafcommerce.core.catalog.domain.ProductOptionValue;
 import org.broadleafcommerce.core.catalog.domain.Sku;
 import org.broadleafcommerce.core.catalog.domain.SkuFee;
+import org.broadleafcommerce.core.catalog.service.hierarchy.CategoryHierarchyService;
 import org.broadleafcommerce.core.catalog.service.type.ProductType;
 import org.broadleafcommerce.core.search.domain.ProductSearchCriteria;
 import org.springframework.stereotype.Service;
@@ -63,6 +64,12 @@ public class CatalogServiceImpl implements CatalogService {
     @Resource(name = "blCatalogServiceExtensionManager")
     protected CatalogServiceExtensionManager extensionManager;
 
+    @Resource(name = "blAutomaticBundleIndexService")
+    protected AutomaticBundleIndexService automaticBundleIndexService;
+
+    @Resource(name = "blCategoryHierarchyService")
+    protected CategoryHierarchyService categoryHierarchyService;
+
     @Override
     public Product findProductById(Long productId) {
         return productDao.readProductById(productId);
@@ -132,7 +139,11 @@ public class CatalogServiceImpl implements CatalogService {
     @Override
     @Transactional("blTransactionManager")
     public Product saveProduct(Product product) {
-        return productDao.save(product);
+        Product savedProduct = productDao.save(product);
+        if (savedProduct instanceof ProductBundle) {
+            automaticBundleIndexService.invalidateIndex();
+        }
+        return savedProduct;
     }
 
     @Override
@@ -279,7 +290,7 @@ public class CatalogServiceImpl implements CatalogService {
     public Map<String, List<Long>> getChildCategoryURLMapByCategoryId(Long categoryId) {
         Category category = findCategoryById(categoryId);
         if (category != null) {
-            return category.getChildCategoryURLMap();
+            return categoryHierarchyService.buildChildCategoryURLMap(category);
         }
         return null;
     }
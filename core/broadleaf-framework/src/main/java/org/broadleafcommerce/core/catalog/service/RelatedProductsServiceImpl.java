@@ -25,12 +25,17 @@ import org.broadleafcommerce.core.catalog.domain.Category;
 import org.broadleafcommerce.core.catalog.domain.FeaturedProduct;
 import org.broadleafcommerce.core.catalog.domain.Product;
 import org.broadleafcommerce.core.catalog.domain.PromotableProduct;
+import org.broadleafcommerce.core.catalog.domain.RelatedProduct;
 import org.broadleafcommerce.core.catalog.domain.RelatedProductDTO;
 import org.broadleafcommerce.core.catalog.domain.RelatedProductTypeEnum;
+import org.broadleafcommerce.core.catalog.service.hierarchy.CategoryHierarchyService;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -51,6 +56,9 @@ public class RelatedProductsServiceImpl implements RelatedProductsService {
     @Resource(name="blCatalogService")
     protected CatalogService catalogService;
 
+    @Resource(name="blCategoryHierarchyService")
+    protected CategoryHierarchyService categoryHierarchyService;
+
     @Override
     public List<? extends PromotableProduct> findRelatedProducts(RelatedProductDTO relatedProductDTO) {
         Product product = lookupProduct(relatedProductDTO);
@@ -83,7 +91,7 @@ public class RelatedProductsServiceImpl implements RelatedProductsService {
         
         if (category != null) {
             if (relatedProductDTO.isCumulativeResults()) {
-                returnFeaturedProducts = category.getCumulativeFeaturedProducts();
+                returnFeaturedProducts = getCumulativeProducts(category, RelatedProductTypeEnum.FEATURED);
             } else {
                 returnFeaturedProducts = category.getFeaturedProducts();
             }
@@ -140,13 +148,13 @@ public class RelatedProductsServiceImpl implements RelatedProductsService {
         
         if (product != null) {
             if (relatedProductDTO.isCumulativeResults()) {
-                returnUpSaleProducts = product.getCumulativeUpSaleProducts();
+                returnUpSaleProducts = getCumulativeProducts(product, RelatedProductTypeEnum.UP_SALE);
             } else {
                 returnUpSaleProducts = product.getUpSaleProducts();
             }
         } else if (category != null) {
             if (relatedProductDTO.isCumulativeResults()) {
-                returnUpSaleProducts = category.getCumulativeUpSaleProducts();
+                returnUpSaleProducts = getCumulativeProducts(category, RelatedProductTypeEnum.UP_SALE);
             } else {
                 returnUpSaleProducts = category.getUpSaleProducts();
             }
@@ -170,13 +178,13 @@ public class RelatedProductsServiceImpl implements RelatedProductsService {
         
         if (product != null) {
             if (relatedProductDTO.isCumulativeResults()) {
-                crossSaleProducts = product.getCumulativeCrossSaleProducts();
+                crossSaleProducts = getCumulativeProducts(product, RelatedProductTypeEnum.CROSS_SALE);
             } else {
                 crossSaleProducts = product.getCrossSaleProducts();
             }
         } else if (category != null) {
             if (relatedProductDTO.isCumulativeResults()) {
-                crossSaleProducts = category.getCumulativeCrossSaleProducts();
+                crossSaleProducts = getCumulativeProducts(category, RelatedProductTypeEnum.CROSS_SALE);
             } else {
                 crossSaleProducts = category.getCrossSaleProducts();
             }
@@ -188,6 +196,66 @@ public class RelatedProductsServiceImpl implements RelatedProductsService {
         return resizeList(crossSaleProducts, relatedProductDTO.getQuantity());
     }   
     
+    /**
+     * The products of the given type on the product itself followed by those of its default category and that
+     * category's default parents, as {@link Product#getCumulativeUpSaleProducts()} returns them
+     */
+    protected List<PromotableProduct> getCumulativeProducts(Product product, RelatedProductTypeEnum type) {
+        List<PromotableProduct> returnProducts = new ArrayList<PromotableProduct>();
+        returnProducts.addAll(RelatedProductTypeEnum.UP_SALE.equals(type) ? product.getUpSaleProducts()
+                : product.getCrossSaleProducts());
+        if (product.getDefaultCategory() != null) {
+            returnProducts.addAll(getCumulativeProducts(product.getDefaultCategory(), type));
+        }
+        return returnProducts;
+    }
+
+    /**
+     * The products of the given type on the category and its default parents, ordered by sequence, as
+     * {@link Category#getCumulativeUpSaleProducts()} returns them. The parents are loaded through the category hierarchy
+     * index rather than one default parent at a time.
+     */
+    @SuppressWarnings("unchecked")
+    protected <T extends PromotableProduct> List<T> getCumulativeProducts(Category category, RelatedProductTypeEnum type) {
+        Set<PromotableProduct> returnProductsSet = new LinkedHashSet<PromotableProduct>();
+        for (Category current : categoryHierarchyService.buildCategoryHierarchy(category)) {
+            if (RelatedProductTypeEnum.FEATURED.equals(type)) {
+                returnProductsSet.addAll(current.getFeaturedProducts());
+            } else if (RelatedProductTypeEnum.UP_SALE.equals(type)) {
+                returnProductsSet.addAll(current.getUpSaleProducts());
+            } else {
+                returnProductsSet.addAll(current.getCrossSaleProducts());
+            }
+        }
+        List<PromotableProduct> result = new ArrayList<PromotableProduct>(returnProductsSet);
+        // all of the individual result sets were sorted, we need to sort the full result set
+        Collections.sort(result, SEQUENCE_COMPARATOR);
+        return (List<T>) result;
+    }
+
+    protected static final Comparator<PromotableProduct> SEQUENCE_COMPARATOR = new Comparator<PromotableProduct>() {
+
+        @Override
+        public int compare(PromotableProduct o1, PromotableProduct o2) {
+            BigDecimal sequence1 = getSequence(o1);
+            BigDecimal sequence2 = getSequence(o2);
+            if (sequence1 == null || sequence2 == null) {
+                return 0;
+            }
+            return sequence1.compareTo(sequence2);
+        }
+
+        protected BigDecimal getSequence(PromotableProduct promotableProduct) {
+            if (promotableProduct instanceof RelatedProduct) {
+                return ((RelatedProduct) promotableProduct).getSequence();
+            }
+            if (promotableProduct instanceof FeaturedProduct) {
+                return ((FeaturedProduct) promotableProduct).getSequence();
+            }
+            return null;
+        }
+    };
+
     /**
      * Resizes the list to match the passed in quantity.   If the quantity is greater than the size of the list or null,
      * the originalList is returned.
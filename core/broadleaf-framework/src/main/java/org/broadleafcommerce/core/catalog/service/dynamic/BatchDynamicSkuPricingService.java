@@ -0,0 +1,55 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.catalog.service.dynamic;
+
+import org.broadleafcommerce.core.catalog.domain.Sku;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>A {@link DynamicSkuPricingService} that can price many skus in one call, for instance every sku shown on a category
+ * page or in a page of search results. Pricing services that call out to a remote pricing system should implement this
+ * so that a whole page is resolved with one backend call instead of one per sku.</p>
+ * 
+ * <p>The skus passed in are the real {@link Sku} entities, not the per-sku proxies handed to
+ * {@link #getSkuPrices(Sku, HashMap)}. While this method runs, their getRetailPrice() and getSalePrice() return the prices
+ * stored on the skus rather than calling back into dynamic pricing.</p>
+ * 
+ * <p>{@link DefaultDynamicSkuPricingServiceImpl} implements this by pricing each sku through
+ * {@link #getSkuPrices(Sku, HashMap)}, so subclasses that only override the single-sku method keep working.</p>
+ * 
+ * @see {@link SkuPricingConsiderationContext#resolveSkuPrices(Collection)}
+ */
+public interface BatchDynamicSkuPricingService extends DynamicSkuPricingService {
+
+    /**
+     * Prices a group of skus at once. Skus left out of the result are priced individually through
+     * {@link #getSkuPrices(Sku, HashMap)} when their prices are first read.
+     * 
+     * @param skus the skus to price, each with an id
+     * @param skuPricingConsiderations
+     * @return the prices of the given skus, keyed by sku id
+     */
+    @SuppressWarnings("rawtypes")
+    public Map<Long, DynamicSkuPrices> getSkuPrices(Collection<Sku> skus, HashMap skuPricingConsiderations);
+
+}
@@ -23,19 +23,24 @@ import org.broadleafcommerce.common.money.Money;
 import org.broadleafcommerce.core.catalog.domain.ProductOptionValueImpl;
 import org.broadleafcommerce.core.catalog.domain.Sku;
 import org.broadleafcommerce.core.catalog.domain.SkuBundleItem;
+import org.hibernate.proxy.HibernateProxy;
 import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
 
+import java.lang.reflect.Proxy;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Default implementation of the {@link DynamicSkuPricingService} which simply ignores the considerations hashmap in all
- * method implementations
+ * method implementations. Batches are priced one sku at a time through {@link #getSkuPrices(Sku, HashMap)}.
  * 
  * @author jfischer
  * 
  */
 @Service("blDynamicSkuPricingService")
-public class DefaultDynamicSkuPricingServiceImpl implements DynamicSkuPricingService {
+public class DefaultDynamicSkuPricingServiceImpl implements BatchDynamicSkuPricingService {
 
     @Override
     @SuppressWarnings("rawtypes")
@@ -47,6 +52,23 @@ public class DefaultDynamicSkuPricingServiceImpl implements DynamicSkuPricingSer
         return prices;
     }
 
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Map<Long, DynamicSkuPrices> getSkuPrices(Collection<Sku> skus, HashMap skuPricingConsiderations) {
+        Map<Long, DynamicSkuPrices> prices = new HashMap<Long, DynamicSkuPrices>(skus.size() * 2);
+        for (Sku sku : skus) {
+            if (sku instanceof HibernateProxy) {
+                // the invocation handler reads the stored prices from the entity's fields
+                sku = (Sku) ((HibernateProxy) sku).getHibernateLazyInitializer().getImplementation();
+            }
+            DefaultDynamicSkuPricingInvocationHandler handler = new DefaultDynamicSkuPricingInvocationHandler(sku);
+            Sku proxy = (Sku) Proxy.newProxyInstance(sku.getClass().getClassLoader(),
+                    ClassUtils.getAllInterfacesForClass(sku.getClass()), handler);
+            prices.put(sku.getId(), getSkuPrices(proxy, skuPricingConsiderations));
+        }
+        return prices;
+    }
+
     @Override
     @SuppressWarnings("rawtypes")
     public DynamicSkuPrices getSkuBundleItemPrice(SkuBundleItem skuBundleItem,
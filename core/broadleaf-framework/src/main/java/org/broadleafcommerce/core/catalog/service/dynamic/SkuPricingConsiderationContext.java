@@ -20,15 +20,23 @@
 package org.broadleafcommerce.core.catalog.service.dynamic;
 
 import org.broadleafcommerce.common.classloader.release.ThreadLocalManager;
+import org.broadleafcommerce.core.catalog.domain.Sku;
 import org.broadleafcommerce.core.catalog.domain.SkuImpl;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Convenient place to store the pricing considerations context and the pricing service on thread local. This class is
  * usually filled out by a {@link org.broadleafcommerce.core.web.catalog.DynamicSkuPricingFilter}. The default
  * implementation of this is {@link org.broadleafcommerce.core.web.catalog.DefaultDynamicSkuPricingFilter}.
  * 
+ * Prices returned by the pricing service are also kept here, by sku id, until the considerations or the service are set
+ * again (normally by the next request), so that each sku is priced at most once per request.
+ * 
  * @author jfischer
  * @see {@link SkuImpl#getRetailPrice}
  * @see {@link SkuImpl#getSalePrice}
@@ -43,7 +51,9 @@ public class SkuPricingConsiderationContext {
     }
     
     public static void setSkuPricingConsiderationContext(HashMap skuPricingConsiderations) {
-        SkuPricingConsiderationContext.skuPricingConsiderationContext.get().considerations = skuPricingConsiderations;
+        SkuPricingConsiderationContext context = SkuPricingConsiderationContext.skuPricingConsiderationContext.get();
+        context.considerations = skuPricingConsiderations;
+        context.resolvedPrices = null;
     }
 
     public static DynamicSkuPricingService getSkuPricingService() {
@@ -51,7 +61,9 @@ public class SkuPricingConsiderationContext {
     }
     
     public static void setSkuPricingService(DynamicSkuPricingService skuPricingService) {
-        SkuPricingConsiderationContext.skuPricingConsiderationContext.get().pricingService = skuPricingService;
+        SkuPricingConsiderationContext context = SkuPricingConsiderationContext.skuPricingConsiderationContext.get();
+        context.pricingService = skuPricingService;
+        context.resolvedPrices = null;
     }
     
     public static boolean hasDynamicPricing() {
@@ -62,6 +74,92 @@ public class SkuPricingConsiderationContext {
         );
     }
 
+    /**
+     * @return the prices already resolved for the sku with the given id under the current considerations, or null
+     */
+    public static DynamicSkuPrices getResolvedSkuPrices(Long skuId) {
+        Map<Long, DynamicSkuPrices> resolvedPrices = SkuPricingConsiderationContext.skuPricingConsiderationContext.get().resolvedPrices;
+        if (skuId == null || resolvedPrices == null) {
+            return null;
+        }
+        return resolvedPrices.get(skuId);
+    }
+
+    public static void setResolvedSkuPrices(Long skuId, DynamicSkuPrices prices) {
+        if (skuId != null && prices != null) {
+            SkuPricingConsiderationContext.skuPricingConsiderationContext.get().getResolvedPrices().put(skuId, prices);
+        }
+    }
+
+    public static void clearResolvedSkuPrices(Long skuId) {
+        Map<Long, DynamicSkuPrices> resolvedPrices = SkuPricingConsiderationContext.skuPricingConsiderationContext.get().resolvedPrices;
+        if (skuId != null && resolvedPrices != null) {
+            resolvedPrices.remove(skuId);
+        }
+    }
+
+    /**
+     * @return whether a {@link BatchDynamicSkuPricingService} is currently pricing skus on this thread, in which case
+     * skus report their stored prices
+     */
+    public static boolean isResolvingSkuPrices() {
+        return SkuPricingConsiderationContext.skuPricingConsiderationContext.get().resolving;
+    }
+
+    /**
+     * Prices the given skus ahead of time, in one call when the pricing service is a
+     * {@link BatchDynamicSkuPricingService}. Skus already priced in this request are skipped. Later calls to
+     * getRetailPrice() and getSalePrice() on these skus use the resolved prices. With a pricing service that cannot
+     * price in batches this does nothing and skus are priced one at a time, as they are read.
+     * 
+     * @param skus the skus about to be displayed
+     */
+    public static void resolveSkuPrices(Collection<? extends Sku> skus) {
+        if (skus == null || skus.isEmpty() || !hasDynamicPricing()
+                || !(getSkuPricingService() instanceof BatchDynamicSkuPricingService)) {
+            return;
+        }
+        SkuPricingConsiderationContext context = SkuPricingConsiderationContext.skuPricingConsiderationContext.get();
+        if (context.resolving) {
+            return;
+        }
+        Map<Long, DynamicSkuPrices> resolvedPrices = context.getResolvedPrices();
+        Map<Long, Sku> unresolved = new HashMap<Long, Sku>();
+        for (Sku sku : skus) {
+            if (sku != null && sku.getId() != null && !resolvedPrices.containsKey(sku.getId())) {
+                unresolved.put(sku.getId(), sku);
+            }
+        }
+        if (unresolved.isEmpty()) {
+            return;
+        }
+
+        Map<Long, DynamicSkuPrices> prices;
+        context.resolving = true;
+        try {
+            List<Sku> batch = new ArrayList<Sku>(unresolved.values());
+            prices = ((BatchDynamicSkuPricingService) context.pricingService).getSkuPrices(batch, context.considerations);
+        } finally {
+            context.resolving = false;
+        }
+        if (prices != null) {
+            for (Map.Entry<Long, DynamicSkuPrices> entry : prices.entrySet()) {
+                if (entry.getValue() != null) {
+                    resolvedPrices.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    protected Map<Long, DynamicSkuPrices> getResolvedPrices() {
+        if (resolvedPrices == null) {
+            resolvedPrices = new HashMap<Long, DynamicSkuPrices>();
+        }
+        return resolvedPrices;
+    }
+
     protected DynamicSkuPricingService pricingService;
     protected HashMap considerations;
+    protected Map<Long, DynamicSkuPrices> resolvedPrices;
+    protected boolean resolving;
 }
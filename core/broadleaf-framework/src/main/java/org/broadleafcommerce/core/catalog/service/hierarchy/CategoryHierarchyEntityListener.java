@@ -0,0 +1,134 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2014 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.catalog.service.hierarchy;
+
+import org.broadleafcommerce.common.util.ApplicationContextHolder;
+import org.broadleafcommerce.common.web.BroadleafRequestContext;
+import org.broadleafcommerce.core.catalog.domain.Category;
+import org.broadleafcommerce.core.catalog.domain.CategoryXref;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * JPA entity listener for {@link Category} and {@link CategoryXref} that passes every change to the category graph on
+ * to {@link CategoryHierarchyService} once the transaction that made it commits. The ids are read when the change is
+ * flushed, since the entity may be detached or modified again by the time the transaction commits.
+ * <p/>
+ * Changes made while a sandbox is active do not belong in the production index, so they only cause it to be rebuilt.
+ */
+public class CategoryHierarchyEntityListener {
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        if (entity instanceof CategoryXref) {
+            CategoryXref xref = (CategoryXref) entity;
+            if (xref.getCategory() == null || xref.getSubCategory() == null) {
+                return;
+            }
+            final Long xrefId = xref.getId();
+            final Long parentId = xref.getCategory().getId();
+            final Long childId = xref.getSubCategory().getId();
+            afterCommit(new IndexChange() {
+                @Override
+                public void apply(CategoryHierarchyService service) {
+                    service.xrefSaved(xrefId, parentId, childId);
+                }
+            });
+        } else if (entity instanceof Category) {
+            Category category = (Category) entity;
+            final Long categoryId = category.getId();
+            final Long defaultParentId = category.getDefaultParentCategory() == null ? null
+                    : category.getDefaultParentCategory().getId();
+            afterCommit(new IndexChange() {
+                @Override
+                public void apply(CategoryHierarchyService service) {
+                    service.categorySaved(categoryId, defaultParentId);
+                }
+            });
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (entity instanceof CategoryXref) {
+            final Long xrefId = ((CategoryXref) entity).getId();
+            afterCommit(new IndexChange() {
+                @Override
+                public void apply(CategoryHierarchyService service) {
+                    service.xrefRemoved(xrefId);
+                }
+            });
+        } else if (entity instanceof Category) {
+            final Long categoryId = ((Category) entity).getId();
+            afterCommit(new IndexChange() {
+                @Override
+                public void apply(CategoryHierarchyService service) {
+                    service.categoryRemoved(categoryId);
+                }
+            });
+        }
+    }
+
+    protected void afterCommit(final IndexChange change) {
+        final CategoryHierarchyService service = getCategoryHierarchyService();
+        if (service == null) {
+            return;
+        }
+        BroadleafRequestContext context = BroadleafRequestContext.getBroadleafRequestContext();
+        final boolean sandBoxChange = context != null && context.getSandBox() != null;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    apply(service, change, sandBoxChange);
+                }
+            });
+        } else {
+            apply(service, change, sandBoxChange);
+        }
+    }
+
+    protected void apply(CategoryHierarchyService service, IndexChange change, boolean sandBoxChange) {
+        if (sandBoxChange) {
+            service.invalidate();
+        } else {
+            change.apply(service);
+        }
+    }
+
+    protected CategoryHierarchyService getCategoryHierarchyService() {
+        ApplicationContext applicationContext = ApplicationContextHolder.getApplicationContext();
+        if (applicationContext == null || !applicationContext.containsBean("blCategoryHierarchyService")) {
+            return null;
+        }
+        return (CategoryHierarchyService) applicationContext.getBean("blCategoryHierarchyService");
+    }
+
+    protected interface IndexChange {
+        void apply(CategoryHierarchyService service);
+    }
+
+}
@@ -0,0 +1,412 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2014 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.catalog.service.hierarchy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An in-memory index of the category graph, made up of the default parent of every category and every
+ * {@link org.broadleafcommerce.core.catalog.domain.CategoryXref}. It holds only ids, so it can answer ancestry,
+ * descendant and depth queries without loading any category.
+ * <p/>
+ * The closure of a category (its ancestors with their depths, or its descendants) is computed the first time it is
+ * asked for and kept until an edge it depends on changes. Changing an edge only discards the closures of the categories
+ * at or below the child and at or above the parent, so the rest of the index stays warm. Cycles in the graph are
+ * tolerated: every walk visits a category at most once.
+ * <p/>
+ * The index is safe for concurrent use. Queries share a read lock; changes take the write lock.
+ */
+public class CategoryHierarchyIndex {
+
+    protected final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    protected final Map<Long, Long[]> xrefs = new HashMap<Long, Long[]>();
+    protected final Map<Long, Long> defaultParents = new HashMap<Long, Long>();
+    protected final Map<Long, List<Long>> xrefParents = new HashMap<Long, List<Long>>();
+    protected final Map<Long, List<Long>> xrefChildren = new HashMap<Long, List<Long>>();
+    protected final Map<Long, List<Long>> defaultChildren = new HashMap<Long, List<Long>>();
+
+    protected final ConcurrentMap<Long, AncestorClosure> ancestorClosures = new ConcurrentHashMap<Long, AncestorClosure>();
+    protected final ConcurrentMap<Long, List<Long>> descendantClosures = new ConcurrentHashMap<Long, List<Long>>();
+
+    /**
+     * Adds the relationship with the given id, or moves it if it already exists with a different parent or child.
+     */
+    public void putXref(Long xrefId, Long parentId, Long childId) {
+        lock.writeLock().lock();
+        try {
+            Long[] existing = xrefs.get(xrefId);
+            if (existing != null) {
+                if (existing[0].equals(parentId) && existing[1].equals(childId)) {
+                    return;
+                }
+                removeXrefEdge(xrefId, existing[0], existing[1]);
+            }
+            discardClosures(parentId, childId);
+            xrefs.put(xrefId, new Long[] { parentId, childId });
+            add(xrefParents, childId, parentId);
+            add(xrefChildren, parentId, childId);
+            discardClosures(parentId, childId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeXref(Long xrefId) {
+        lock.writeLock().lock();
+        try {
+            Long[] existing = xrefs.get(xrefId);
+            if (existing != null) {
+                removeXrefEdge(xrefId, existing[0], existing[1]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sets or, when parentId is null, clears the default parent of the given category.
+     */
+    public void setDefaultParent(Long categoryId, Long parentId) {
+        lock.writeLock().lock();
+        try {
+            Long existing = defaultParents.get(categoryId);
+            if (existing == null ? parentId == null : existing.equals(parentId)) {
+                return;
+            }
+            if (existing != null) {
+                discardClosures(existing, categoryId);
+                defaultParents.remove(categoryId);
+                remove(defaultChildren, existing, categoryId);
+                discardClosures(existing, categoryId);
+            }
+            if (parentId != null) {
+                discardClosures(parentId, categoryId);
+                defaultParents.put(categoryId, parentId);
+                add(defaultChildren, parentId, categoryId);
+                discardClosures(parentId, categoryId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the given category along with every relationship it takes part in, as a parent or as a child.
+     */
+    public void removeCategory(Long categoryId) {
+        lock.writeLock().lock();
+        try {
+            List<Long> xrefIds = new ArrayList<Long>();
+            for (Map.Entry<Long, Long[]> entry : xrefs.entrySet()) {
+                if (entry.getValue()[0].equals(categoryId) || entry.getValue()[1].equals(categoryId)) {
+                    xrefIds.add(entry.getKey());
+                }
+            }
+            for (Long xrefId : xrefIds) {
+                Long[] edge = xrefs.get(xrefId);
+                removeXrefEdge(xrefId, edge[0], edge[1]);
+            }
+            List<Long> children = defaultChildren.get(categoryId);
+            if (children != null) {
+                for (Long child : new ArrayList<Long>(children)) {
+                    setDefaultParent(child, null);
+                }
+            }
+            setDefaultParent(categoryId, null);
+            ancestorClosures.remove(categoryId);
+            descendantClosures.remove(categoryId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the given category followed by all of its ancestors, through both default parents and relationships, in
+     * the order {@link org.broadleafcommerce.core.catalog.domain.Category#buildFullCategoryHierarchy(List)} lists them
+     */
+    public List<Long> getAncestorIds(Long categoryId) {
+        return getAncestorClosure(categoryId).ancestorIds;
+    }
+
+    /**
+     * @return the given category followed by its default parent, the default parent of that one, and so on
+     */
+    public List<Long> getDefaultAncestorIds(Long categoryId) {
+        lock.readLock().lock();
+        try {
+            List<Long> ancestorIds = new ArrayList<Long>();
+            Set<Long> seen = new HashSet<Long>();
+            Long current = categoryId;
+            while (current != null && seen.add(current)) {
+                ancestorIds.add(current);
+                current = defaultParents.get(current);
+            }
+            return ancestorIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return every category below the given one, through both default parents and relationships, nearest first. The
+     * given category is only included if it is its own descendant.
+     */
+    public List<Long> getDescendantIds(Long categoryId) {
+        List<Long> descendantIds = descendantClosures.get(categoryId);
+        if (descendantIds == null) {
+            lock.readLock().lock();
+            try {
+                descendantIds = Collections.unmodifiableList(new ArrayList<Long>(collect(categoryId, false, false)));
+                descendantClosures.put(categoryId, descendantIds);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        return descendantIds;
+    }
+
+    /**
+     * @return the sub-categories of the given category through relationships only, as
+     * {@link org.broadleafcommerce.core.catalog.domain.Category#getAllChildCategoryXrefs()} would list them
+     */
+    public List<Long> getChildIds(Long categoryId) {
+        lock.readLock().lock();
+        try {
+            List<Long> children = xrefChildren.get(categoryId);
+            return children == null ? Collections.<Long>emptyList() : new ArrayList<Long>(children);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the length of the shortest path from the descendant up to the ancestor, 0 if they are the same category
+     * or -1 if the ancestor is not above the descendant
+     */
+    public int getDepth(Long ancestorId, Long descendantId) {
+        if (ancestorId.equals(descendantId)) {
+            return 0;
+        }
+        Integer depth = getAncestorClosure(descendantId).depths.get(ancestorId);
+        return depth == null ? -1 : depth;
+    }
+
+    public boolean isAncestor(Long ancestorId, Long descendantId) {
+        return !ancestorId.equals(descendantId) && getDepth(ancestorId, descendantId) > 0;
+    }
+
+    /**
+     * @return whether the given category can be reached by walking up from one of its own parents
+     */
+    public boolean isInCycle(Long categoryId) {
+        return getAncestorClosure(categoryId).cyclic;
+    }
+
+    public int getXrefCount() {
+        lock.readLock().lock();
+        try {
+            return xrefs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    protected AncestorClosure getAncestorClosure(Long categoryId) {
+        AncestorClosure closure = ancestorClosures.get(categoryId);
+        if (closure == null) {
+            lock.readLock().lock();
+            try {
+                closure = buildAncestorClosure(categoryId);
+                ancestorClosures.put(categoryId, closure);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        return closure;
+    }
+
+    protected AncestorClosure buildAncestorClosure(Long categoryId) {
+        // Preorder walk, default parent first, matching the recursion in CategoryImpl.buildFullCategoryHierarchy
+        List<Long> ancestorIds = new ArrayList<Long>();
+        Set<Long> seen = new HashSet<Long>();
+        ancestorIds.add(categoryId);
+        seen.add(categoryId);
+        Deque<Iterator<Long>> stack = new ArrayDeque<Iterator<Long>>();
+        stack.push(getParents(categoryId).iterator());
+        while (!stack.isEmpty()) {
+            Iterator<Long> parents = stack.peek();
+            if (!parents.hasNext()) {
+                stack.pop();
+                continue;
+            }
+            Long parent = parents.next();
+            if (seen.add(parent)) {
+                ancestorIds.add(parent);
+                stack.push(getParents(parent).iterator());
+            }
+        }
+
+        // Breadth first walk for the shortest depth of each ancestor
+        Map<Long, Integer> depths = new LinkedHashMap<Long, Integer>();
+        boolean cyclic = false;
+        List<Long> level = Collections.singletonList(categoryId);
+        int depth = 0;
+        while (!level.isEmpty()) {
+            depth++;
+            List<Long> next = new ArrayList<Long>();
+            for (Long id : level) {
+                for (Long parent : getParents(id)) {
+                    if (parent.equals(categoryId)) {
+                        cyclic = true;
+                    } else if (!depths.containsKey(parent)) {
+                        depths.put(parent, depth);
+                        next.add(parent);
+                    }
+                }
+            }
+            level = next;
+        }
+        return new AncestorClosure(Collections.unmodifiableList(ancestorIds), depths, cyclic);
+    }
+
+    protected List<Long> getParents(Long categoryId) {
+        Long defaultParent = defaultParents.get(categoryId);
+        List<Long> parents = xrefParents.get(categoryId);
+        if (defaultParent == null) {
+            return parents == null ? Collections.<Long>emptyList() : parents;
+        }
+        List<Long> allParents = new ArrayList<Long>((parents == null ? 0 : parents.size()) + 1);
+        allParents.add(defaultParent);
+        if (parents != null) {
+            allParents.addAll(parents);
+        }
+        return allParents;
+    }
+
+    protected List<Long> getChildren(Long categoryId) {
+        List<Long> children = xrefChildren.get(categoryId);
+        List<Long> defaults = defaultChildren.get(categoryId);
+        if (defaults == null) {
+            return children == null ? Collections.<Long>emptyList() : children;
+        }
+        if (children == null) {
+            return defaults;
+        }
+        List<Long> allChildren = new ArrayList<Long>(children);
+        allChildren.addAll(defaults);
+        return allChildren;
+    }
+
+    /**
+     * Breadth first walk up (or down) from the given category, returning everything reached in the order it was
+     * reached. The category itself comes first when includeSelf is set, and otherwise only if the walk comes back to it.
+     */
+    protected Set<Long> collect(Long categoryId, boolean up, boolean includeSelf) {
+        Set<Long> reached = new LinkedHashSet<Long>();
+        if (includeSelf) {
+            reached.add(categoryId);
+        }
+        Deque<Long> queue = new ArrayDeque<Long>();
+        queue.add(categoryId);
+        while (!queue.isEmpty()) {
+            Long id = queue.poll();
+            for (Long next : up ? getParents(id) : getChildren(id)) {
+                if (reached.add(next)) {
+                    queue.add(next);
+                }
+            }
+        }
+        return reached;
+    }
+
+    /**
+     * Discards the closures that depend on an edge from parentId down to childId: the ancestors of the child and of
+     * everything below it, and the descendants of the parent and of everything above it. Called both before and after
+     * an edge changes so that whatever was reachable through the old or the new edge is covered.
+     */
+    protected void discardClosures(Long parentId, Long childId) {
+        if (ancestorClosures.isEmpty() && descendantClosures.isEmpty()) {
+            return;
+        }
+        for (Long id : collect(childId, false, true)) {
+            ancestorClosures.remove(id);
+        }
+        for (Long id : collect(parentId, true, true)) {
+            descendantClosures.remove(id);
+        }
+    }
+
+    protected void removeXrefEdge(Long xrefId, Long parentId, Long childId) {
+        discardClosures(parentId, childId);
+        xrefs.remove(xrefId);
+        remove(xrefParents, childId, parentId);
+        remove(xrefChildren, parentId, childId);
+        discardClosures(parentId, childId);
+    }
+
+    protected void add(Map<Long, List<Long>> adjacency, Long from, Long to) {
+        List<Long> list = adjacency.get(from);
+        if (list == null) {
+            list = new ArrayList<Long>(4);
+            adjacency.put(from, list);
+        }
+        list.add(to);
+    }
+
+    protected void remove(Map<Long, List<Long>> adjacency, Long from, Long to) {
+        List<Long> list = adjacency.get(from);
+        if (list != null) {
+            list.remove(to);
+            if (list.isEmpty()) {
+                adjacency.remove(from);
+            }
+        }
+    }
+
+    protected static class AncestorClosure {
+
+        protected final List<Long> ancestorIds;
+        protected final Map<Long, Integer> depths;
+        protected final boolean cyclic;
+
+        protected AncestorClosure(List<Long> ancestorIds, Map<Long, Integer> depths, boolean cyclic) {
+            this.ancestorIds = ancestorIds;
+            this.depths = depths;
+            this.cyclic = cyclic;
+        }
+    }
+
+}
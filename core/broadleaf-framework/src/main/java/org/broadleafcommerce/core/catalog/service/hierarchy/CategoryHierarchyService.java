@@ -0,0 +1,86 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2014 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.catalog.service.hierarchy;
+
+import org.broadleafcommerce.core.catalog.domain.Category;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers category hierarchy questions from a {@link CategoryHierarchyIndex} of the whole catalog instead of walking
+ * parent and child associations one category at a time. The index is built on first use and kept up to date as
+ * categories and {@link org.broadleafcommerce.core.catalog.domain.CategoryXref}s are saved (see
+ * {@link CategoryHierarchyEntityListener}).
+ * <p/>
+ * The index reflects the production catalog and does not consult entity extension handlers. When it does not apply to
+ * the current request (see {@link #isIndexAvailable()}), the methods below fall back to walking the associations of the
+ * category, exactly as the corresponding {@link Category} methods do.
+ */
+public interface CategoryHierarchyService {
+
+    /**
+     * @return whether the index is enabled and applies to the current request: false while a sandbox is active and when
+     * the request registers a blCategoryEntityExtensionManager with enabled handlers, which the index does not consult
+     */
+    public boolean isIndexAvailable();
+
+    /**
+     * Loads the given category and the chain of its default parents with a single query, or walks the default parents
+     * when the index is not available.
+     * 
+     * @see Category#buildCategoryHierarchy(List)
+     */
+    public List<Category> buildCategoryHierarchy(Category category);
+
+    /**
+     * Builds the map of url paths to category id paths for the given category and its active descendants, loading
+     * all of the descendants with a single query, or walking the child categories when the index is not available.
+     * 
+     * @see Category#getChildCategoryURLMap()
+     */
+    public Map<String, List<Long>> buildChildCategoryURLMap(Category category);
+
+    /**
+     * Applies a saved {@link org.broadleafcommerce.core.catalog.domain.CategoryXref} to the index.
+     */
+    public void xrefSaved(Long xrefId, Long parentId, Long childId);
+
+    /**
+     * Applies a removed {@link org.broadleafcommerce.core.catalog.domain.CategoryXref} to the index.
+     */
+    public void xrefRemoved(Long xrefId);
+
+    /**
+     * Applies the default parent of a saved category to the index.
+     */
+    public void categorySaved(Long categoryId, Long defaultParentId);
+
+    /**
+     * Removes a deleted category from the index.
+     */
+    public void categoryRemoved(Long categoryId);
+
+    /**
+     * Discards the index so that it is rebuilt from the database the next time it is needed.
+     */
+    public void invalidate();
+
+}
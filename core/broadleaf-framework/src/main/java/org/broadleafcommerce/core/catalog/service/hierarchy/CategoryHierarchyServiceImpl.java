@@ -0,0 +1,266 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2014 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.catalog.service.hierarchy;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.broadleafcommerce.common.web.BroadleafRequestContext;
+import org.broadleafcommerce.core.catalog.extension.CategoryEntityExtensionHandler;
+import org.broadleafcommerce.core.catalog.extension.CategoryEntityExtensionManager;
+import org.broadleafcommerce.core.catalog.dao.CategoryDao;
+import org.broadleafcommerce.core.catalog.dao.CategoryXrefDao;
+import org.broadleafcommerce.core.catalog.domain.Category;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Resource;
+
+/**
+ * Builds the {@link CategoryHierarchyIndex} from two id-only queries the first time it is needed and then keeps it
+ * current with the changes {@link CategoryHierarchyEntityListener} reports after each commit. Only changes made on this
+ * node are seen that way, so the index is also rebuilt every category.hierarchy.index.refresh.seconds to pick up
+ * changes made on other nodes.
+ */
+@Service("blCategoryHierarchyService")
+public class CategoryHierarchyServiceImpl implements CategoryHierarchyService {
+
+    private static final Log LOG = LogFactory.getLog(CategoryHierarchyServiceImpl.class);
+
+    protected static final int LOAD_BATCH_SIZE = 500;
+
+    @Resource(name = "blCategoryDao")
+    protected CategoryDao categoryDao;
+
+    @Resource(name = "blCategoryXrefDao")
+    protected CategoryXrefDao categoryXrefDao;
+
+    @Value("${category.hierarchy.index.enabled}")
+    protected boolean enabled = true;
+
+    @Value("${category.hierarchy.index.refresh.seconds}")
+    protected int refreshSeconds = 300;
+
+    protected final Object buildLock = new Object();
+    protected final AtomicLong changeCount = new AtomicLong();
+    protected volatile CategoryHierarchyIndex index;
+    protected volatile long indexBuiltAt;
+
+    @Override
+    public boolean isIndexAvailable() {
+        if (!enabled) {
+            return false;
+        }
+        BroadleafRequestContext context = BroadleafRequestContext.getBroadleafRequestContext();
+        if (context == null) {
+            return true;
+        }
+        // the index reflects the production catalog and does not consult the handlers of
+        // blCategoryEntityExtensionManager, which may change the parent and child categories the entity reports
+        return context.getSandBox() == null
+                && !hasEnabledHandlers(context.getAdditionalProperties().get("blCategoryEntityExtensionManager"));
+    }
+
+    protected boolean hasEnabledHandlers(Object extensionManager) {
+        if (!(extensionManager instanceof CategoryEntityExtensionManager)) {
+            return extensionManager != null;
+        }
+        for (CategoryEntityExtensionHandler handler : ((CategoryEntityExtensionManager) extensionManager).getHandlers()) {
+            if (handler.isEnabled()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public List<Category> buildCategoryHierarchy(Category category) {
+        if (!isIndexAvailable()) {
+            return category.buildCategoryHierarchy(null);
+        }
+        return loadInOrder(category, getIndex().getDefaultAncestorIds(category.getId()));
+    }
+
+    @Override
+    public Map<String, List<Long>> buildChildCategoryURLMap(Category category) {
+        if (!isIndexAvailable()) {
+            return category.getChildCategoryURLMap();
+        }
+        CategoryHierarchyIndex index = getIndex();
+        List<Category> descendants = loadInOrder(category, index.getDescendantIds(category.getId()));
+        Map<Long, Category> categoriesById = new HashMap<Long, Category>(descendants.size() * 2);
+        for (Category descendant : descendants) {
+            categoriesById.put(descendant.getId(), descendant);
+        }
+        categoriesById.put(category.getId(), category);
+        Map<String, List<Long>> urlMap = new HashMap<String, List<Long>>(50);
+        fillInURLMap(urlMap, index, categoriesById, category, "", new ArrayList<Long>(10));
+        return urlMap;
+    }
+
+    protected void fillInURLMap(Map<String, List<Long>> urlMap, CategoryHierarchyIndex index,
+            Map<Long, Category> categoriesById, Category category, String startingPath, List<Long> startingCategoryIds) {
+        String urlKey = category.getUrlKey();
+        if (urlKey == null) {
+            throw new RuntimeException("Cannot create childCategoryURLMap - the urlKey for a category(" + category.getId()
+                    + ") was null");
+        }
+        String currentPath = "";
+        if (!"/".equals(urlKey)) {
+            currentPath = startingPath + "/" + urlKey;
+        }
+        List<Long> categoryIds = new ArrayList<Long>(startingCategoryIds);
+        categoryIds.add(category.getId());
+        urlMap.put(currentPath, categoryIds);
+        for (Long childId : index.getChildIds(category.getId())) {
+            Category child = categoriesById.get(childId);
+            // Only active children are walked, as with Category.getChildCategoryXrefs(), and a category is never
+            // walked twice along the same path so that a cycle cannot recurse forever
+            if (child != null && child.isActive() && !categoryIds.contains(childId)) {
+                fillInURLMap(urlMap, index, categoriesById, child, currentPath, categoryIds);
+            }
+        }
+    }
+
+    /**
+     * Loads the categories with the given ids in batches and returns them in the same order. The given category is used
+     * as is wherever its own id appears.
+     */
+    protected List<Category> loadInOrder(Category category, List<Long> categoryIds) {
+        List<Long> idsToLoad = new ArrayList<Long>(categoryIds.size());
+        for (Long categoryId : categoryIds) {
+            if (!categoryId.equals(category.getId())) {
+                idsToLoad.add(categoryId);
+            }
+        }
+        Map<Long, Category> loaded = new HashMap<Long, Category>(idsToLoad.size() * 2);
+        for (int i = 0; i < idsToLoad.size(); i += LOAD_BATCH_SIZE) {
+            List<Long> batch = idsToLoad.subList(i, Math.min(i + LOAD_BATCH_SIZE, idsToLoad.size()));
+            for (Category result : categoryDao.readCategoriesByIds(new ArrayList<Long>(batch))) {
+                loaded.put(result.getId(), result);
+            }
+        }
+        loaded.put(category.getId(), category);
+        List<Category> categories = new ArrayList<Category>(categoryIds.size());
+        for (Long categoryId : categoryIds) {
+            Category result = loaded.get(categoryId);
+            if (result != null) {
+                categories.add(result);
+            }
+        }
+        return categories;
+    }
+
+    @Override
+    public void xrefSaved(Long xrefId, Long parentId, Long childId) {
+        changeCount.incrementAndGet();
+        CategoryHierarchyIndex current = index;
+        if (current != null) {
+            current.putXref(xrefId, parentId, childId);
+        }
+    }
+
+    @Override
+    public void xrefRemoved(Long xrefId) {
+        changeCount.incrementAndGet();
+        CategoryHierarchyIndex current = index;
+        if (current != null) {
+            current.removeXref(xrefId);
+        }
+    }
+
+    @Override
+    public void categorySaved(Long categoryId, Long defaultParentId) {
+        changeCount.incrementAndGet();
+        CategoryHierarchyIndex current = index;
+        if (current != null) {
+            current.setDefaultParent(categoryId, defaultParentId);
+        }
+    }
+
+    @Override
+    public void categoryRemoved(Long categoryId) {
+        changeCount.incrementAndGet();
+        CategoryHierarchyIndex current = index;
+        if (current != null) {
+            current.removeCategory(categoryId);
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        changeCount.incrementAndGet();
+        indexBuiltAt = 0;
+    }
+
+    protected CategoryHierarchyIndex getIndex() {
+        CategoryHierarchyIndex current = index;
+        if (current == null || isExpired()) {
+            synchronized (buildLock) {
+                if (index == null || isExpired()) {
+                    long changesBefore = changeCount.get();
+                    long start = System.currentTimeMillis();
+                    index = buildIndex();
+                    // A change committed while the queries ran may or may not be in the new index, so build it again
+                    // on next use rather than risk missing it
+                    indexBuiltAt = changeCount.get() == changesBefore ? start : 0;
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Built the category hierarchy index with " + index.getXrefCount() + " relationships in "
+                                + (System.currentTimeMillis() - start) + "ms");
+                    }
+                }
+                current = index;
+            }
+        }
+        return current;
+    }
+
+    protected boolean isExpired() {
+        if (indexBuiltAt == 0) {
+            return true;
+        }
+        return refreshSeconds > 0 && System.currentTimeMillis() - indexBuiltAt > refreshSeconds * 1000L;
+    }
+
+    protected CategoryHierarchyIndex buildIndex() {
+        CategoryHierarchyIndex newIndex = new CategoryHierarchyIndex();
+        for (Object[] row : categoryDao.readAllDefaultParentCategoryIds()) {
+            newIndex.setDefaultParent((Long) row[0], (Long) row[1]);
+        }
+        for (Object[] row : categoryXrefDao.readAllCategoryXrefIds()) {
+            newIndex.putXref((Long) row[0], (Long) row[1], (Long) row[2]);
+        }
+        return newIndex;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+}
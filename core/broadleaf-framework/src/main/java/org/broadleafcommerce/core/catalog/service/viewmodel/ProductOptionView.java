@@ -0,0 +1,72 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.catalog.service.viewmodel;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable copy of a {@link org.broadleafcommerce.core.catalog.domain.ProductOption} and its allowed values, held
+ * by a {@link ProductViewModel}.
+ */
+public class ProductOptionView implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    protected final Long id;
+    protected final String type;
+    protected final String attributeName;
+    protected final String label;
+    protected final Map<Long, String> values;
+
+    public ProductOptionView(Long id, String type, String attributeName, String label, Map<Long, String> values) {
+        this.id = id;
+        this.type = type;
+        this.attributeName = attributeName;
+        this.label = label;
+        this.values = Collections.unmodifiableMap(new LinkedHashMap<Long, String>(values));
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getAttributeName() {
+        return attributeName;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return the attribute value of each allowed option value, keyed by the option value id, in display order
+     */
+    public Map<Long, String> getValues() {
+        return values;
+    }
+
+}
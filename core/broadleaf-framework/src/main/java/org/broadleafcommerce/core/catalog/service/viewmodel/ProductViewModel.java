@@ -0,0 +1,141 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.catalog.service.viewmodel;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of everything the product detail page renders for one product in one locale, currency and
+ * pricing context: its options, the price of every sku, its media, the ids of its related products and its rating
+ * summary. The product options and sku pricing are also kept in the JSON form consumed by the product options
+ * script so that they do not need to be serialized on every render.
+ * <p/>
+ * Instances are built and cached by {@link ProductViewModelService} and may be shared between threads.
+ */
+public class ProductViewModel implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    protected final String key;
+    protected final Long productId;
+    protected final long catalogVersion;
+    protected final long productVersion;
+    protected final List<ProductOptionView> productOptions;
+    protected final List<SkuPriceView> skuPrices;
+    protected final Map<String, String> mediaUrls;
+    protected final List<Long> crossSaleProductIds;
+    protected final List<Long> upSaleProductIds;
+    protected final Double averageRating;
+    protected final Integer numberOfRatings;
+    protected final String productOptionsJson;
+    protected final String skuPricingJson;
+
+    public ProductViewModel(String key, Long productId, long catalogVersion, long productVersion,
+            List<ProductOptionView> productOptions, List<SkuPriceView> skuPrices, Map<String, String> mediaUrls,
+            List<Long> crossSaleProductIds, List<Long> upSaleProductIds, Double averageRating, Integer numberOfRatings,
+            String productOptionsJson, String skuPricingJson) {
+        this.key = key;
+        this.productId = productId;
+        this.catalogVersion = catalogVersion;
+        this.productVersion = productVersion;
+        this.productOptions = Collections.unmodifiableList(new ArrayList<ProductOptionView>(productOptions));
+        this.skuPrices = Collections.unmodifiableList(new ArrayList<SkuPriceView>(skuPrices));
+        this.mediaUrls = Collections.unmodifiableMap(new LinkedHashMap<String, String>(mediaUrls));
+        this.crossSaleProductIds = Collections.unmodifiableList(new ArrayList<Long>(crossSaleProductIds));
+        this.upSaleProductIds = Collections.unmodifiableList(new ArrayList<Long>(upSaleProductIds));
+        this.averageRating = averageRating;
+        this.numberOfRatings = numberOfRatings;
+        this.productOptionsJson = productOptionsJson;
+        this.skuPricingJson = skuPricingJson;
+    }
+
+    /**
+     * @return the cache key, made up of the product id, locale, currency and pricing context
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    /**
+     * @return the catalog version this snapshot was built from
+     * @see ProductViewModelInvalidationListener
+     */
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    /**
+     * @return the version of this product this snapshot was built from
+     * @see ProductViewModelInvalidationListener
+     */
+    public long getProductVersion() {
+        return productVersion;
+    }
+
+    public List<ProductOptionView> getProductOptions() {
+        return productOptions;
+    }
+
+    public List<SkuPriceView> getSkuPrices() {
+        return skuPrices;
+    }
+
+    /**
+     * @return the url of each of the product's media, keyed the same way as {@link
+     * org.broadleafcommerce.core.catalog.domain.Product#getMedia()}
+     */
+    public Map<String, String> getMediaUrls() {
+        return mediaUrls;
+    }
+
+    public List<Long> getCrossSaleProductIds() {
+        return crossSaleProductIds;
+    }
+
+    public List<Long> getUpSaleProductIds() {
+        return upSaleProductIds;
+    }
+
+    public Double getAverageRating() {
+        return averageRating;
+    }
+
+    public Integer getNumberOfRatings() {
+        return numberOfRatings;
+    }
+
+    public String getProductOptionsJson() {
+        return productOptionsJson;
+    }
+
+    public String getSkuPricingJson() {
+        return skuPricingJson;
+    }
+
+}
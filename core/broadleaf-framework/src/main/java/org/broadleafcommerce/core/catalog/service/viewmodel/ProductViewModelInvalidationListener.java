@@ -0,0 +1,103 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.catalog.service.viewmodel;
+
+import org.broadleafcommerce.core.catalog.domain.Product;
+import org.broadleafcommerce.core.catalog.domain.Sku;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * JPA entity listener for the catalog entities a {@link ProductViewModel} is built from. A change to a product or one
+ * of its skus (including inventory updates) bumps the version of that product only; a change to any other catalog
+ * entity, such as a product option, bumps the version of the whole catalog. {@link ProductViewModelService} discards
+ * view models built before either version that applies to them changed.
+ * <p/>
+ * Product versions are tracked for at most {@link #MAX_TRACKED_PRODUCTS} products. When more products have changed
+ * since the last catalog wide change, the product versions are dropped and the catalog version is bumped instead.
+ * <p/>
+ * Only changes made through this node's persistence unit are seen. Changes made on other nodes are picked up when the
+ * cached view models expire.
+ */
+public class ProductViewModelInvalidationListener {
+
+    protected static final int MAX_TRACKED_PRODUCTS = 10000;
+
+    protected static final AtomicLong CATALOG_VERSION = new AtomicLong();
+    protected static final AtomicLong PRODUCT_VERSION_SEQUENCE = new AtomicLong();
+    protected static final ConcurrentMap<Long, Long> PRODUCT_VERSIONS = new ConcurrentHashMap<Long, Long>();
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        Long productId = null;
+        if (entity instanceof Product) {
+            productId = ((Product) entity).getId();
+        } else if (entity instanceof Sku) {
+            Sku sku = (Sku) entity;
+            Product product = sku.getProduct() != null ? sku.getProduct() : sku.getDefaultProduct();
+            productId = product == null ? null : product.getId();
+        }
+        if (productId == null) {
+            markChanged();
+        } else {
+            markChanged(productId);
+        }
+    }
+
+    /**
+     * @return the version of the catalog as a whole, which every view model must have been built from to be current
+     */
+    public static long getCatalogVersion() {
+        return CATALOG_VERSION.get();
+    }
+
+    /**
+     * @param productId
+     * @return the version a view model of the given product must have been built from to be current, 0 when the
+     * product has not changed since the last catalog wide change
+     */
+    public static long getProductVersion(Long productId) {
+        Long productVersion = productId == null ? null : PRODUCT_VERSIONS.get(productId);
+        return productVersion == null ? 0 : productVersion;
+    }
+
+    public static void markChanged() {
+        CATALOG_VERSION.incrementAndGet();
+    }
+
+    public static void markChanged(Long productId) {
+        PRODUCT_VERSIONS.put(productId, PRODUCT_VERSION_SEQUENCE.incrementAndGet());
+        if (PRODUCT_VERSIONS.size() > MAX_TRACKED_PRODUCTS) {
+            // Bump the catalog version first, so that no view model built against a dropped product version can be
+            // mistaken for current once that product reads as unchanged again
+            markChanged();
+            PRODUCT_VERSIONS.clear();
+        }
+    }
+
+}
@@ -0,0 +1,52 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.catalog.service.viewmodel;
+
+import org.broadleafcommerce.core.catalog.domain.Product;
+
+/**
+ * Builds and caches a {@link ProductViewModel} per product, locale, currency and pricing context so that the product
+ * detail page processors can share a single precomputed snapshot instead of each loading and walking the product.
+ */
+public interface ProductViewModelService {
+
+    /**
+     * Returns the view model of the given product for the locale, currency and pricing context of the current request,
+     * building it if it is not cached or the catalog has changed since it was built.
+     * 
+     * @param productId
+     * @return the view model, or null if there is no such product
+     */
+    public ProductViewModel getProductViewModel(Long productId);
+
+    /**
+     * Same as {@link #getProductViewModel(Long)} for a product that has already been loaded.
+     * 
+     * @param product
+     * @return the view model
+     */
+    public ProductViewModel getProductViewModel(Product product);
+
+    /**
+     * Discards every cached view model.
+     */
+    public void invalidateAll();
+
+}
@@ -0,0 +1,281 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.catalog.service.viewmodel;
+
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Element;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.broadleafcommerce.common.currency.util.BroadleafCurrencyUtils;
+import org.broadleafcommerce.common.media.domain.Media;
+import org.broadleafcommerce.common.money.Money;
+import org.broadleafcommerce.common.web.BroadleafRequestContext;
+import org.broadleafcommerce.core.catalog.domain.Product;
+import org.broadleafcommerce.core.catalog.domain.ProductOption;
+import org.broadleafcommerce.core.catalog.domain.ProductOptionValue;
+import org.broadleafcommerce.core.catalog.domain.RelatedProduct;
+import org.broadleafcommerce.core.catalog.domain.Sku;
+import org.broadleafcommerce.core.catalog.service.CatalogService;
+import org.broadleafcommerce.core.catalog.service.dynamic.DefaultDynamicSkuPricingServiceImpl;
+import org.broadleafcommerce.core.catalog.service.dynamic.DynamicSkuPricingService;
+import org.broadleafcommerce.core.catalog.service.dynamic.SkuPricingConsiderationContext;
+import org.broadleafcommerce.core.rating.domain.RatingSummary;
+import org.broadleafcommerce.core.rating.service.RatingService;
+import org.broadleafcommerce.core.rating.service.type.RatingType;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Resource;
+
+/**
+ * Caches view models in the blProductViewModels cache. A cached view model is only used while the version it was
+ * built from is still current (see {@link ProductViewModelInvalidationListener}), so local catalog saves take effect
+ * immediately; the cache's time to live bounds how long changes made on other nodes, and rating changes, take to show
+ * up.
+ * <p/>
+ * Prices depend on the {@link DynamicSkuPricingService} in use. With the default service prices do not vary by
+ * request, so all requests share a view model. With any other service view models are built for every request and
+ * not cached, unless {@link #buildPricingContextKey()} is overridden to describe what the prices depend on.
+ */
+@Service("blProductViewModelService")
+public class ProductViewModelServiceImpl implements ProductViewModelService {
+
+    private static final Log LOG = LogFactory.getLog(ProductViewModelServiceImpl.class);
+
+    protected static final String DEFAULT_PRICING_CONTEXT = "default";
+    protected static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Resource(name = "blCatalogService")
+    protected CatalogService catalogService;
+
+    @Resource(name = "blRatingService")
+    protected RatingService ratingService;
+
+    protected Cache viewModelCache;
+
+    @Override
+    public ProductViewModel getProductViewModel(Long productId) {
+        if (productId == null) {
+            return null;
+        }
+        String key = buildKey(productId);
+        ProductViewModel viewModel = getCachedViewModel(key);
+        if (viewModel != null) {
+            return viewModel;
+        }
+        Product product = catalogService.findProductById(productId);
+        if (product == null) {
+            return null;
+        }
+        return buildAndCache(key, product);
+    }
+
+    @Override
+    public ProductViewModel getProductViewModel(Product product) {
+        String key = buildKey(product.getId());
+        ProductViewModel viewModel = getCachedViewModel(key);
+        if (viewModel != null) {
+            return viewModel;
+        }
+        return buildAndCache(key, product);
+    }
+
+    @Override
+    public void invalidateAll() {
+        ProductViewModelInvalidationListener.markChanged();
+        getViewModelCache().removeAll();
+    }
+
+    protected ProductViewModel getCachedViewModel(String key) {
+        if (key == null) {
+            return null;
+        }
+        Element element = getViewModelCache().get(key);
+        if (element == null) {
+            return null;
+        }
+        ProductViewModel viewModel = (ProductViewModel) element.getObjectValue();
+        if (viewModel.getCatalogVersion() != ProductViewModelInvalidationListener.getCatalogVersion()
+                || viewModel.getProductVersion() != ProductViewModelInvalidationListener.getProductVersion(viewModel.getProductId())) {
+            return null;
+        }
+        return viewModel;
+    }
+
+    protected ProductViewModel buildAndCache(String key, Product product) {
+        // Capture the versions before reading so that a change made while building is not hidden by this view model
+        long catalogVersion = ProductViewModelInvalidationListener.getCatalogVersion();
+        long productVersion = ProductViewModelInvalidationListener.getProductVersion(product.getId());
+        ProductViewModel viewModel = buildViewModel(key, catalogVersion, productVersion, product);
+        if (key != null) {
+            getViewModelCache().put(new Element(key, viewModel));
+        }
+        return viewModel;
+    }
+
+    protected ProductViewModel buildViewModel(String key, long catalogVersion, long productVersion, Product product) {
+        List<ProductOptionView> options = new ArrayList<ProductOptionView>();
+        List<Map<String, Object>> optionsJson = new ArrayList<Map<String, Object>>();
+        for (ProductOption option : product.getProductOptions()) {
+            Map<Long, String> values = new LinkedHashMap<Long, String>();
+            for (ProductOptionValue value : option.getAllowedValues()) {
+                values.put(value.getId(), value.getAttributeValue());
+            }
+            String type = option.getType() == null ? null : option.getType().getType();
+            options.add(new ProductOptionView(option.getId(), type, option.getAttributeName(), option.getLabel(), values));
+
+            Map<String, Object> json = new LinkedHashMap<String, Object>();
+            json.put("id", option.getId());
+            json.put("type", type);
+            json.put("values", values);
+            json.put("selectedValue", null);
+            optionsJson.add(json);
+        }
+
+        List<SkuPriceView> skuPrices = new ArrayList<SkuPriceView>();
+        List<Map<String, Object>> skuPricingJson = new ArrayList<Map<String, Object>>();
+        SkuPricingConsiderationContext.resolveSkuPrices(product.getSkus());
+        for (Sku sku : product.getSkus()) {
+            List<ProductOptionValue> optionValues = sku.getProductOptionValues();
+            Long[] optionValueIds = new Long[optionValues.size()];
+            for (int i = 0; i < optionValueIds.length; i++) {
+                optionValueIds[i] = optionValues.get(i).getId();
+            }
+            boolean onSale = sku.isOnSale();
+            Money retailPrice = sku.getRetailPrice();
+            Money salePrice = onSale ? sku.getSalePrice() : null;
+            String formattedPrice = formatPrice(onSale ? salePrice : retailPrice);
+            skuPrices.add(new SkuPriceView(sku.getId(), optionValueIds, retailPrice, salePrice, onSale, formattedPrice));
+
+            Map<String, Object> json = new LinkedHashMap<String, Object>();
+            json.put("selectedOptions", optionValueIds);
+            json.put("price", formattedPrice);
+            skuPricingJson.add(json);
+        }
+
+        Map<String, String> mediaUrls = new LinkedHashMap<String, String>();
+        for (Map.Entry<String, Media> entry : product.getMedia().entrySet()) {
+            if (entry.getValue() != null) {
+                mediaUrls.put(entry.getKey(), entry.getValue().getUrl());
+            }
+        }
+
+        Double averageRating = null;
+        Integer numberOfRatings = null;
+        RatingSummary ratingSummary = ratingService.readRatingSummary(String.valueOf(product.getId()), RatingType.PRODUCT);
+        if (ratingSummary != null) {
+            averageRating = ratingSummary.getAverageRating();
+            numberOfRatings = ratingSummary.getNumberOfRatings();
+        }
+
+        return new ProductViewModel(key, product.getId(), catalogVersion, productVersion, options, skuPrices, mediaUrls,
+                getRelatedProductIds(product.getCrossSaleProducts()), getRelatedProductIds(product.getUpSaleProducts()),
+                averageRating, numberOfRatings, toJson(optionsJson), toJson(skuPricingJson));
+    }
+
+    protected List<Long> getRelatedProductIds(List<RelatedProduct> relatedProducts) {
+        List<Long> ids = new ArrayList<Long>();
+        if (relatedProducts != null) {
+            for (RelatedProduct relatedProduct : relatedProducts) {
+                if (relatedProduct.getRelatedProduct() != null) {
+                    ids.add(relatedProduct.getRelatedProduct().getId());
+                }
+            }
+        }
+        return ids;
+    }
+
+    protected String toJson(Object value) {
+        try {
+            return MAPPER.writeValueAsString(value);
+        } catch (Exception e) {
+            LOG.error("There was a problem writing the product view model to JSON", e);
+            return null;
+        }
+    }
+
+    protected String formatPrice(Money price) {
+        if (price == null) {
+            return null;
+        }
+        BroadleafRequestContext brc = BroadleafRequestContext.getBroadleafRequestContext();
+        if (brc != null && brc.getJavaLocale() != null) {
+            return BroadleafCurrencyUtils.getNumberFormatFromCache(brc.getJavaLocale(), price.getCurrency()).format(price.getAmount());
+        } else {
+            // Setup your BLC_CURRENCY and BLC_LOCALE to display a diff default.
+            return "$ " + price.getAmount().toString();
+        }
+    }
+
+    /**
+     * @param productId
+     * @return the cache key for the given product in the current request, or null if its view model must not be cached
+     */
+    protected String buildKey(Long productId) {
+        String pricingContextKey = buildPricingContextKey();
+        if (pricingContextKey == null) {
+            return null;
+        }
+        BroadleafRequestContext brc = BroadleafRequestContext.getBroadleafRequestContext();
+        String localeCode = null;
+        String currencyCode = null;
+        if (brc != null) {
+            localeCode = brc.getLocale() == null ? null : brc.getLocale().getLocaleCode();
+            currencyCode = brc.getBroadleafCurrency() == null ? null : brc.getBroadleafCurrency().getCurrencyCode();
+        }
+        return productId + "|" + localeCode + "|" + currencyCode + "|" + pricingContextKey;
+    }
+
+    /**
+     * @return a key describing everything the dynamic sku prices of the current request depend on, or null if the
+     * prices cannot be shared between requests
+     */
+    protected String buildPricingContextKey() {
+        if (!SkuPricingConsiderationContext.hasDynamicPricing()) {
+            return DEFAULT_PRICING_CONTEXT;
+        }
+        DynamicSkuPricingService pricingService = SkuPricingConsiderationContext.getSkuPricingService();
+        if (AopUtils.getTargetClass(pricingService).equals(DefaultDynamicSkuPricingServiceImpl.class)) {
+            return DEFAULT_PRICING_CONTEXT;
+        }
+        return null;
+    }
+
+    protected Cache getViewModelCache() {
+        if (viewModelCache == null) {
+            viewModelCache = CacheManager.getInstance().getCache("blProductViewModels");
+        }
+        return viewModelCache;
+    }
+
+    public void setViewModelCache(Cache viewModelCache) {
+        this.viewModelCache = viewModelCache;
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.catalog.service.viewmodel;
+
+import org.broadleafcommerce.common.money.Money;
+
+import java.io.Serializable;
+
+/**
+ * Immutable price of a single {@link org.broadleafcommerce.core.catalog.domain.Sku} along with the product option
+ * values that select it, held by a {@link ProductViewModel}.
+ */
+public class SkuPriceView implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    protected final Long skuId;
+    protected final Long[] optionValueIds;
+    protected final Money retailPrice;
+    protected final Money salePrice;
+    protected final boolean onSale;
+    protected final String formattedPrice;
+
+    public SkuPriceView(Long skuId, Long[] optionValueIds, Money retailPrice, Money salePrice, boolean onSale,
+            String formattedPrice) {
+        this.skuId = skuId;
+        this.optionValueIds = optionValueIds.clone();
+        this.retailPrice = retailPrice;
+        this.salePrice = salePrice;
+        this.onSale = onSale;
+        this.formattedPrice = formattedPrice;
+    }
+
+    public Long getSkuId() {
+        return skuId;
+    }
+
+    public Long[] getOptionValueIds() {
+        return optionValueIds.clone();
+    }
+
+    public Money getRetailPrice() {
+        return retailPrice;
+    }
+
+    public Money getSalePrice() {
+        return salePrice;
+    }
+
+    public boolean isOnSale() {
+        return onSale;
+    }
+
+    /**
+     * @return the sale price when the sku is on sale and the retail price otherwise
+     */
+    public Money getPrice() {
+        return onSale ? salePrice : retailPrice;
+    }
+
+    /**
+     * @return {@link #getPrice()} formatted for the locale and currency the view model was built for
+     */
+    public String getFormattedPrice() {
+        return formattedPrice;
+    }
+
+}
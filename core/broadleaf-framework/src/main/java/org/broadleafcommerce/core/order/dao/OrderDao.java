@@ -39,6 +39,20 @@ public interface OrderDao {
 
     Order readCartForCustomer(Customer customer);
 
+    /**
+     * Same as {@link #readCartForCustomer(Customer)}, but hydrates the cart's order items, their price details and
+     * their adjustments along with it. This takes four statements however many items the cart holds, where walking
+     * the items of a cart that is not already cached takes several lazy loads per item. The skus and products of the
+     * items are resolved from the second level cache, as they are on any other load of an order item.
+     * <p/>
+     * The statements are not cached, so a cart read this way always costs those four statements. It pays off when the
+     * cart is unlikely to be in the second level cache, such as on a cluster without a shared cache.
+     * 
+     * @param customer
+     * @return the customer's cart, or null if the customer does not have one
+     */
+    Order readCartForCustomerWithFetchPlan(Customer customer);
+
     Order save(Order order);
 
     void delete(Order order);
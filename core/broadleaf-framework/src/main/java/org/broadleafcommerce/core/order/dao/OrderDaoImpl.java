@@ -118,6 +118,10 @@ public class OrderDaoImpl implements OrderDao {
 
     @Override
     public Order readCartForCustomer(final Customer customer) {
+        if (customer.getId() == null) {
+            // a customer that has not been persisted yet cannot have a cart
+            return null;
+        }
         Order order = null;
         final Query query = em.createNamedQuery("BC_READ_ORDERS_BY_CUSTOMER_ID_AND_NAME_NULL");
         query.setParameter("customerId", customer.getId());
@@ -132,6 +136,36 @@ public class OrderDaoImpl implements OrderDao {
         return order;
     }
 
+    @Override
+    public Order readCartForCustomerWithFetchPlan(final Customer customer) {
+        if (customer.getId() == null) {
+            return null;
+        }
+        final Query query = em.createNamedQuery("BC_READ_CART_FOR_CUSTOMER_WITH_ITEMS");
+        query.setParameter("customerId", customer.getId());
+        query.setParameter("orderStatus", OrderStatus.IN_PROCESS.getType());
+        @SuppressWarnings("rawtypes")
+        final List temp = query.getResultList();
+        if (temp == null || temp.isEmpty()) {
+            return null;
+        }
+        Order order = (Order) temp.get(0);
+        if (!order.getOrderItems().isEmpty()) {
+            // Each of these fetches one collection for every item of the cart at once. They are separate statements
+            // because Hibernate can only fetch one bag (an unindexed list) per statement
+            fetchForCart("BC_FETCH_CART_ORDER_ITEM_PRICE_DETAILS", order);
+            fetchForCart("BC_FETCH_CART_ORDER_ITEM_PRICE_DETAIL_ADJUSTMENTS", order);
+            fetchForCart("BC_FETCH_CART_ORDER_ITEM_ADJUSTMENTS", order);
+        }
+        return order;
+    }
+
+    protected void fetchForCart(String queryName, Order order) {
+        Query query = em.createNamedQuery(queryName);
+        query.setParameter("orderId", order.getId());
+        query.getResultList();
+    }
+
     @Override
     public Order createNewCartForCustomer(Customer customer) {
         Order order = create();
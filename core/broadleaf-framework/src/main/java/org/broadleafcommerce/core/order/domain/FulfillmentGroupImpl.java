@@ -25,6 +25,7 @@ import org.broadleafcommerce.common.extensibility.jpa.copy.DirectCopyTransform;
 import org.broadleafcommerce.common.extensibility.jpa.copy.DirectCopyTransformMember;
 import org.broadleafcommerce.common.extensibility.jpa.copy.DirectCopyTransformTypes;
 import org.broadleafcommerce.common.money.Money;
+import org.broadleafcommerce.common.money.MoneyAccumulator;
 import org.broadleafcommerce.common.presentation.AdminPresentation;
 import org.broadleafcommerce.common.presentation.AdminPresentationClass;
 import org.broadleafcommerce.common.presentation.AdminPresentationCollection;
@@ -501,11 +502,11 @@ public class FulfillmentGroupImpl implements FulfillmentGroup, CurrencyCodeIdent
     
     @Override
     public Money getFulfillmentGroupAdjustmentsValue() {
-        Money adjustmentsValue = BroadleafCurrencyUtils.getMoney(BigDecimal.ZERO, getOrder().getCurrency());
+        MoneyAccumulator adjustmentsValue = new MoneyAccumulator(BroadleafCurrencyUtils.getMoney(BigDecimal.ZERO, getOrder().getCurrency()));
         for (FulfillmentGroupAdjustment adjustment : fulfillmentGroupAdjustments) {
-            adjustmentsValue = adjustmentsValue.add(adjustment.getValue());
+            adjustmentsValue.add(adjustment.getValue());
         }
-        return adjustmentsValue;
+        return adjustmentsValue.toMoney();
     }
 
     @Override
@@ -33,6 +33,7 @@ import org.broadleafcommerce.common.extensibility.jpa.copy.DirectCopyTransformTy
 import org.broadleafcommerce.common.locale.domain.Locale;
 import org.broadleafcommerce.common.locale.domain.LocaleImpl;
 import org.broadleafcommerce.common.money.Money;
+import org.broadleafcommerce.common.money.MoneyAccumulator;
 import org.broadleafcommerce.common.payment.PaymentTransactionType;
 import org.broadleafcommerce.common.payment.PaymentType;
 import org.broadleafcommerce.common.persistence.PreviewStatus;
@@ -317,11 +318,11 @@ public class OrderImpl implements Order, AdminMainEntity, CurrencyCodeIdentifiab
 
     @Override
     public Money calculateSubTotal() {
-        Money calculatedSubTotal = BroadleafCurrencyUtils.getMoney(getCurrency());
+        MoneyAccumulator calculatedSubTotal = new MoneyAccumulator(BroadleafCurrencyUtils.getMoney(getCurrency()));
         for (OrderItem orderItem : orderItems) {
-            calculatedSubTotal = calculatedSubTotal.add(orderItem.getTotalPrice());
+            calculatedSubTotal.add(orderItem.getTotalPrice());
         }
-        return calculatedSubTotal;
+        return calculatedSubTotal.toMoney();
     }
 
     @Override
@@ -588,29 +589,29 @@ public class OrderImpl implements Order, AdminMainEntity, CurrencyCodeIdentifiab
 
     @Override
     public Money getItemAdjustmentsValue() {
-        Money itemAdjustmentsValue = BroadleafCurrencyUtils.getMoney(BigDecimal.ZERO, getCurrency());
+        MoneyAccumulator itemAdjustmentsValue = new MoneyAccumulator(BroadleafCurrencyUtils.getMoney(BigDecimal.ZERO, getCurrency()));
         for (OrderItem orderItem : orderItems) {
-            itemAdjustmentsValue = itemAdjustmentsValue.add(orderItem.getTotalAdjustmentValue());
+            itemAdjustmentsValue.add(orderItem.getTotalAdjustmentValue());
         }
-        return itemAdjustmentsValue;
+        return itemAdjustmentsValue.toMoney();
     }
     
     @Override
     public Money getFulfillmentGroupAdjustmentsValue() {
-        Money adjustmentValue = BroadleafCurrencyUtils.getMoney(BigDecimal.ZERO, getCurrency());
+        MoneyAccumulator adjustmentValue = new MoneyAccumulator(BroadleafCurrencyUtils.getMoney(BigDecimal.ZERO, getCurrency()));
         for (FulfillmentGroup fulfillmentGroup : fulfillmentGroups) {
-            adjustmentValue = adjustmentValue.add(fulfillmentGroup.getFulfillmentGroupAdjustmentsValue());
+            adjustmentValue.add(fulfillmentGroup.getFulfillmentGroupAdjustmentsValue());
         }
-        return adjustmentValue;
+        return adjustmentValue.toMoney();
     }
 
     @Override
     public Money getOrderAdjustmentsValue() {
-        Money orderAdjustmentsValue = BroadleafCurrencyUtils.getMoney(BigDecimal.ZERO, getCurrency());
+        MoneyAccumulator orderAdjustmentsValue = new MoneyAccumulator(BroadleafCurrencyUtils.getMoney(BigDecimal.ZERO, getCurrency()));
         for (OrderAdjustment orderAdjustment : orderAdjustments) {
-            orderAdjustmentsValue = orderAdjustmentsValue.add(orderAdjustment.getValue());
+            orderAdjustmentsValue.add(orderAdjustment.getValue());
         }
-        return orderAdjustmentsValue;
+        return orderAdjustmentsValue.toMoney();
     }
 
     @Override
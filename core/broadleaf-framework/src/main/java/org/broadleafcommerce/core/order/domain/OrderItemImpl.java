@@ -29,6 +29,7 @@ import org.broadleafcommerce.common.extensibility.jpa.copy.DirectCopyTransform;
 import org.broadleafcommerce.common.extensibility.jpa.copy.DirectCopyTransformMember;
 import org.broadleafcommerce.common.extensibility.jpa.copy.DirectCopyTransformTypes;
 import org.broadleafcommerce.common.money.Money;
+import org.broadleafcommerce.common.money.MoneyAccumulator;
 import org.broadleafcommerce.common.presentation.AdminPresentation;
 import org.broadleafcommerce.common.presentation.AdminPresentationClass;
 import org.broadleafcommerce.common.presentation.AdminPresentationCollection;
@@ -578,15 +579,15 @@ public class OrderItemImpl implements OrderItem, Cloneable, AdminMainEntity, Cur
 
     @Override
     public Money getTotalAdjustmentValue() {
-        Money totalAdjustmentValue = BroadleafCurrencyUtils.getMoney(getOrder().getCurrency());
+        MoneyAccumulator totalAdjustmentValue = new MoneyAccumulator(BroadleafCurrencyUtils.getMoney(getOrder().getCurrency()));
         List<OrderItemPriceDetail> priceDetails = getOrderItemPriceDetails();
         if (priceDetails != null) {
             for (OrderItemPriceDetail priceDetail : getOrderItemPriceDetails()) {
-                totalAdjustmentValue = totalAdjustmentValue.add(priceDetail.getTotalAdjustmentValue());
+                totalAdjustmentValue.add(priceDetail.getTotalAdjustmentValue());
             }
         }
 
-        return totalAdjustmentValue;
+        return totalAdjustmentValue.toMoney();
     }
 
     @Override
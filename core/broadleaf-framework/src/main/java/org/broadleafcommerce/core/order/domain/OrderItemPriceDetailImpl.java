@@ -42,6 +42,7 @@ import org.broadleafcommerce.common.extensibility.jpa.copy.DirectCopyTransform;
 import org.broadleafcommerce.common.extensibility.jpa.copy.DirectCopyTransformMember;
 import org.broadleafcommerce.common.extensibility.jpa.copy.DirectCopyTransformTypes;
 import org.broadleafcommerce.common.money.Money;
+import org.broadleafcommerce.common.money.MoneyAccumulator;
 import org.broadleafcommerce.common.presentation.AdminPresentation;
 import org.broadleafcommerce.common.presentation.AdminPresentationCollection;
 import org.broadleafcommerce.common.presentation.client.AddMethodType;
@@ -155,11 +156,11 @@ public class OrderItemPriceDetailImpl implements OrderItemPriceDetail, CurrencyC
 
     @Override
     public Money getAdjustmentValue() {
-        Money adjustmentValue = BroadleafCurrencyUtils.getMoney(BigDecimal.ZERO, getCurrency());
+        MoneyAccumulator adjustmentValue = new MoneyAccumulator(BroadleafCurrencyUtils.getMoney(BigDecimal.ZERO, getCurrency()));
         for (OrderItemPriceDetailAdjustment adjustment : orderItemPriceDetailAdjustments) {
-            adjustmentValue = adjustmentValue.add(adjustment.getValue());
+            adjustmentValue.add(adjustment.getValue());
         }
-        return adjustmentValue;
+        return adjustmentValue.toMoney();
     }
 
     @Override
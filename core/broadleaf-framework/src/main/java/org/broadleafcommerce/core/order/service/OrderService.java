@@ -120,6 +120,16 @@ public interface OrderService {
      * @return the current shopping cart for the customer
      */
     public Order findCartForCustomer(Customer customer);
+
+    /**
+     * Same as {@link #findCartForCustomer(Customer)}, but loads the cart's items, their price details and their
+     * adjustments up front in a fixed number of statements.
+     * 
+     * @param customer
+     * @return the current shopping cart for the customer
+     * @see org.broadleafcommerce.core.order.dao.OrderDao#readCartForCustomerWithFetchPlan(Customer)
+     */
+    public Order findCartForCustomerWithFetchPlan(Customer customer);
     
     /**
      * Looks up all Orders for the specified customer, regardless of current OrderStatus
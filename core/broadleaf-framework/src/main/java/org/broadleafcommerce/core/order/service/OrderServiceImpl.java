@@ -57,6 +57,7 @@ import org.broadleafcommerce.core.payment.dao.OrderPaymentDao;
 import org.broadleafcommerce.core.payment.domain.OrderPayment;
 import org.broadleafcommerce.core.payment.domain.secure.Referenced;
 import org.broadleafcommerce.core.payment.service.SecureOrderPaymentService;
+import org.broadleafcommerce.core.pricing.service.PricingFingerprintService;
 import org.broadleafcommerce.core.pricing.service.PricingService;
 import org.broadleafcommerce.core.pricing.service.exception.PricingException;
 import org.broadleafcommerce.core.workflow.ActivityMessages;
@@ -64,6 +65,7 @@ import org.broadleafcommerce.core.workflow.ProcessContext;
 import org.broadleafcommerce.core.workflow.Processor;
 import org.broadleafcommerce.core.workflow.WorkflowException;
 import org.broadleafcommerce.profile.core.domain.Customer;
+import org.broadleafcommerce.profile.core.service.CustomerService;
 import org.hibernate.exception.LockAcquisitionException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jmx.export.annotation.ManagedAttribute;
@@ -107,6 +109,9 @@ public class OrderServiceImpl implements OrderService {
     /* Services */
     @Resource(name = "blPricingService")
     protected PricingService pricingService;
+
+    @Resource(name = "blPricingFingerprintService")
+    protected PricingFingerprintService pricingFingerprintService;
     
     @Resource(name = "blOrderItemService")
     protected OrderItemService orderItemService;
@@ -122,6 +127,9 @@ public class OrderServiceImpl implements OrderService {
 
     @Resource(name = "blMergeCartService")
     protected MergeCartService mergeCartService;
+
+    @Resource(name = "blCustomerService")
+    protected CustomerService customerService;
     
     @Resource(name = "blOrderServiceExtensionManager")
     protected OrderServiceExtensionManager extensionManager;
@@ -161,6 +169,8 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional("blTransactionManager")
     public Order createNewCartForCustomer(Customer customer) {
+        // Anonymous customers are not given an id until they are persisted along with their first cart
+        customerService.assignCustomerIdIfNecessary(customer);
         return orderDao.createNewCartForCustomer(customer);
     }
 
@@ -208,6 +218,11 @@ public class OrderServiceImpl implements OrderService {
         return orderDao.readCartForCustomer(customer);
     }
 
+    @Override
+    public Order findCartForCustomerWithFetchPlan(Customer customer) {
+        return orderDao.readCartForCustomerWithFetchPlan(customer);
+    }
+
     @Override
     public List<Order> findOrdersForCustomer(Customer customer) {
         return orderDao.readOrdersForCustomer(customer.getId());
@@ -319,6 +334,9 @@ public class OrderServiceImpl implements OrderService {
                 TransactionUtils.finalizeTransaction(status, transactionManager, true);
                 throw ex;
             }
+
+            //remember what was priced so that cart operations that don't change anything can skip pricing
+            pricingFingerprintService.recordPricedFingerprint(order);
         }
 
         return order;
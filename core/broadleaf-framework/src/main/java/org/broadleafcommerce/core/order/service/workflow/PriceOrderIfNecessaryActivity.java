@@ -30,6 +30,7 @@ import org.broadleafcommerce.core.order.domain.OrderItem;
 import org.broadleafcommerce.core.order.service.OrderItemService;
 import org.broadleafcommerce.core.order.service.OrderMultishipOptionService;
 import org.broadleafcommerce.core.order.service.OrderService;
+import org.broadleafcommerce.core.pricing.service.PricingFingerprintService;
 import org.broadleafcommerce.core.workflow.BaseActivity;
 import org.broadleafcommerce.core.workflow.ProcessContext;
 
@@ -65,6 +66,9 @@ public class PriceOrderIfNecessaryActivity extends BaseActivity<ProcessContext<C
 
     @Resource(name = "blOrderMultishipOptionService")
     protected OrderMultishipOptionService orderMultishipOptionService;
+
+    @Resource(name = "blPricingFingerprintService")
+    protected PricingFingerprintService pricingFingerprintService;
     
     @Override
     public ProcessContext<CartOperationRequest> execute(ProcessContext<CartOperationRequest> context) throws Exception {
@@ -183,12 +187,25 @@ public class PriceOrderIfNecessaryActivity extends BaseActivity<ProcessContext<C
         
         // Now that our collection items in our Order have been saved and the state of our Order is in a place where we
         // won't get a transient save exception, we are able to go ahead and save the order with optional pricing.
-        order = orderService.save(order, request.isPriceOrder());
+        order = orderService.save(order, request.isPriceOrder() && isPricingRequired(request, order));
         request.setOrder(order);
         
         return context;
     }
 
+    /**
+     * Determines whether or not the pricing workflow needs to run for this cart operation. Pricing is skipped when the
+     * order's current pricing fingerprint matches the one that was last priced, for example after an update that left
+     * the quantity of the item unchanged. Otherwise the whole pricing workflow runs.
+     * 
+     * @param request
+     * @param order
+     * @return whether or not the order should be priced
+     */
+    protected boolean isPricingRequired(CartOperationRequest request, Order order) {
+        return !pricingFingerprintService.isPricingCurrent(order);
+    }
+
     protected void getOiFgiMap(Order order, Map<OrderItem, List<FulfillmentGroupItem>> oiFgiMap, OrderItem oi) {
         List<FulfillmentGroupItem> fgis = new ArrayList<FulfillmentGroupItem>();
 
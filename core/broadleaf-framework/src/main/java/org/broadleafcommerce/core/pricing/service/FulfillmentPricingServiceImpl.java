@@ -28,6 +28,7 @@ import org.broadleafcommerce.core.order.domain.FulfillmentOption;
 import org.broadleafcommerce.core.order.service.FulfillmentGroupService;
 import org.broadleafcommerce.core.pricing.service.fulfillment.provider.FulfillmentEstimationResponse;
 import org.broadleafcommerce.core.pricing.service.fulfillment.provider.FulfillmentPricingProvider;
+import org.broadleafcommerce.core.pricing.service.quote.PricingQuoteService;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
@@ -46,6 +47,9 @@ public class FulfillmentPricingServiceImpl implements FulfillmentPricingService
     @Resource(name = "blFulfillmentGroupService")
     protected FulfillmentGroupService fulfillmentGroupService;
 
+    @Resource(name = "blPricingQuoteService")
+    protected PricingQuoteService pricingQuoteService;
+
     @Override
     public FulfillmentGroup calculateCostForFulfillmentGroup(FulfillmentGroup fulfillmentGroup) throws FulfillmentPriceException {
 
@@ -59,7 +63,7 @@ public class FulfillmentPricingServiceImpl implements FulfillmentPricingService
         
         for (FulfillmentPricingProvider provider : providers) {
             if (provider.canCalculateCostForFulfillmentGroup(fulfillmentGroup, fulfillmentGroup.getFulfillmentOption())) {
-                return provider.calculateCostForFulfillmentGroup(fulfillmentGroup);
+                return calculateCostForFulfillmentGroup(provider, fulfillmentGroup);
             }
         }
 
@@ -68,6 +72,32 @@ public class FulfillmentPricingServiceImpl implements FulfillmentPricingService
                         " and name: " + fulfillmentGroup.getFulfillmentOption().getName());
     }
     
+    /**
+     * Delegates the cost calculation to the given provider, reusing a cached fulfillment quote when the fulfillment
+     * group's inputs are unchanged since a previous calculation
+     * 
+     * @param provider
+     * @param fulfillmentGroup
+     * @return the priced fulfillment group
+     * @throws FulfillmentPriceException
+     */
+    protected FulfillmentGroup calculateCostForFulfillmentGroup(FulfillmentPricingProvider provider,
+            FulfillmentGroup fulfillmentGroup) throws FulfillmentPriceException {
+        if (pricingQuoteService == null || !pricingQuoteService.isEnabled()) {
+            return provider.calculateCostForFulfillmentGroup(fulfillmentGroup);
+        }
+
+        String key = pricingQuoteService.buildFulfillmentQuoteKey(fulfillmentGroup);
+        if (pricingQuoteService.applyFulfillmentQuote(key, fulfillmentGroup)) {
+            return fulfillmentGroup;
+        }
+
+        long start = System.nanoTime();
+        FulfillmentGroup response = provider.calculateCostForFulfillmentGroup(fulfillmentGroup);
+        pricingQuoteService.cacheFulfillmentQuote(key, response, System.nanoTime() - start);
+        return response;
+    }
+
     @Override
     public FulfillmentEstimationResponse estimateCostForFulfillmentGroup(FulfillmentGroup fulfillmentGroup, Set<FulfillmentOption> options) throws FulfillmentPriceException {
         FulfillmentEstimationResponse response = new FulfillmentEstimationResponse();
@@ -105,4 +135,8 @@ public class FulfillmentPricingServiceImpl implements FulfillmentPricingService
         this.providers = providers;
     }
 
+    public void setPricingQuoteService(PricingQuoteService pricingQuoteService) {
+        this.pricingQuoteService = pricingQuoteService;
+    }
+
 }
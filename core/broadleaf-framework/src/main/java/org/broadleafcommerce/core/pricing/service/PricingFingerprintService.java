@@ -0,0 +1,89 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.pricing.service;
+
+import org.broadleafcommerce.core.order.domain.FulfillmentGroup;
+import org.broadleafcommerce.core.order.domain.Order;
+
+/**
+ * Computes a canonical fingerprint of the price-relevant inputs of an {@link Order}: the skus, products and quantities
+ * of its items, any overridden prices, its fulfillment groups and destinations, the offer codes that were added to it,
+ * its payments, customer and currency. Two orders with the same fingerprint will price identically given the same
+ * catalog and offer configuration.
+ * 
+ * The last fingerprint that was priced is remembered per order, which allows cart operations to skip the pricing
+ * workflow entirely when nothing that pricing depends on has changed. There is no skipping of individual pricing
+ * activities.
+ */
+public interface PricingFingerprintService {
+
+    /**
+     * Builds the canonical fingerprint for the given order. Item, fulfillment group and payment ordering does not
+     * influence the result.
+     * 
+     * @param order
+     * @return the fingerprint
+     */
+    public String buildFingerprint(Order order);
+
+    /**
+     * Builds the canonical fingerprint of everything a fulfillment pricing provider may consider for the given
+     * fulfillment group: its fulfillment option, destination and the skus, quantities and amounts of its items.
+     * 
+     * @param fulfillmentGroup
+     * @return the fingerprint
+     */
+    public String buildFulfillmentQuoteFingerprint(FulfillmentGroup fulfillmentGroup);
+
+    /**
+     * Builds the canonical fingerprint of everything a tax provider may consider for the given order: the customer and
+     * its exemption, and for every fulfillment group its destination, fulfillment price, fees and the skus, quantities and
+     * taxable amounts of its items. Unlike {@link #buildFingerprint(Order)}, this includes the prices computed by the
+     * earlier steps of the pricing workflow and depends on the ordering of the fulfillment groups and their items.
+     * 
+     * @param order
+     * @return the fingerprint
+     */
+    public String buildTaxQuoteFingerprint(Order order);
+
+    /**
+     * Determines whether or not the given order was already priced in its current state. This will always return false
+     * if skipping pricing for unchanged orders is disabled or the order has not yet been persisted.
+     * 
+     * @param order
+     * @return whether or not the last priced fingerprint for this order matches its current state
+     */
+    public boolean isPricingCurrent(Order order);
+
+    /**
+     * Remembers the current fingerprint of the given order as the one that was last priced
+     * 
+     * @param order
+     */
+    public void recordPricedFingerprint(Order order);
+
+    /**
+     * Forgets any priced fingerprint for the given order, forcing the next cart operation to run the pricing workflow
+     * 
+     * @param order
+     */
+    public void removePricedFingerprint(Order order);
+
+}
@@ -0,0 +1,260 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.pricing.service;
+
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Element;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.broadleafcommerce.core.offer.domain.OfferCode;
+import org.broadleafcommerce.core.order.domain.BundleOrderItem;
+import org.broadleafcommerce.core.order.domain.DiscreteOrderItem;
+import org.broadleafcommerce.core.order.domain.FulfillmentGroup;
+import org.broadleafcommerce.core.order.domain.FulfillmentGroupFee;
+import org.broadleafcommerce.core.order.domain.FulfillmentGroupItem;
+import org.broadleafcommerce.core.order.domain.Order;
+import org.broadleafcommerce.core.order.domain.OrderItem;
+import org.broadleafcommerce.core.payment.domain.OrderPayment;
+import org.broadleafcommerce.profile.core.domain.Address;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service("blPricingFingerprintService")
+public class PricingFingerprintServiceImpl implements PricingFingerprintService {
+
+    private static final Log LOG = LogFactory.getLog(PricingFingerprintServiceImpl.class);
+
+    protected static final char SEPARATOR = '|';
+
+    @Value("${pricing.skip.unchanged.cart}")
+    protected boolean skipUnchangedCart = true;
+
+    protected Cache pricedFingerprintCache;
+
+    @Override
+    public String buildFingerprint(Order order) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(order.getCustomer() == null ? null : order.getCustomer().getId()).append(SEPARATOR);
+        sb.append(order.getCurrency() == null ? null : order.getCurrency().getCurrencyCode()).append(SEPARATOR);
+        sb.append(order.getTaxOverride()).append(SEPARATOR);
+
+        // Offer processing may split or merge items with the same sku, so quantities are aggregated per item key
+        Map<String, Integer> itemQuantities = new TreeMap<String, Integer>();
+        for (OrderItem orderItem : order.getOrderItems()) {
+            addQuantity(itemQuantities, buildOrderItemKey(orderItem), orderItem.getQuantity());
+        }
+        sb.append("items").append(itemQuantities).append(SEPARATOR);
+
+        List<String> fulfillmentGroups = new ArrayList<String>();
+        for (FulfillmentGroup fg : order.getFulfillmentGroups()) {
+            fulfillmentGroups.add(buildFulfillmentGroupKey(fg));
+        }
+        Collections.sort(fulfillmentGroups);
+        sb.append("fgs").append(fulfillmentGroups).append(SEPARATOR);
+
+        List<String> offerCodes = new ArrayList<String>();
+        if (order.getAddedOfferCodes() != null) {
+            for (OfferCode offerCode : order.getAddedOfferCodes()) {
+                offerCodes.add(offerCode.getOfferCode());
+            }
+        }
+        Collections.sort(offerCodes);
+        sb.append("codes").append(offerCodes).append(SEPARATOR);
+
+        List<String> payments = new ArrayList<String>();
+        if (order.getPayments() != null) {
+            for (OrderPayment payment : order.getPayments()) {
+                payments.add(buildPaymentKey(payment));
+            }
+        }
+        Collections.sort(payments);
+        sb.append("payments").append(payments);
+
+        String canonical = sb.toString();
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("Canonical pricing fingerprint for order " + order.getId() + ": " + canonical);
+        }
+        return DigestUtils.md5Hex(canonical);
+    }
+
+    @Override
+    public String buildFulfillmentQuoteFingerprint(FulfillmentGroup fulfillmentGroup) {
+        StringBuilder sb = new StringBuilder();
+        Order order = fulfillmentGroup.getOrder();
+        sb.append(order == null || order.getCurrency() == null ? null : order.getCurrency().getCurrencyCode()).append(SEPARATOR);
+        sb.append(fulfillmentGroup.getType() == null ? null : fulfillmentGroup.getType().getType()).append(SEPARATOR);
+        sb.append(fulfillmentGroup.getFulfillmentOption() == null ? null : fulfillmentGroup.getFulfillmentOption().getId()).append(SEPARATOR);
+        sb.append(buildAddressKey(fulfillmentGroup.getAddress()));
+        for (FulfillmentGroupItem fgi : fulfillmentGroup.getFulfillmentGroupItems()) {
+            sb.append(SEPARATOR).append('[').append(buildOrderItemKey(fgi.getOrderItem())).append(SEPARATOR);
+            sb.append(fgi.getQuantity()).append(SEPARATOR);
+            sb.append(fgi.getTotalItemAmount()).append(']');
+        }
+        return DigestUtils.md5Hex(sb.toString());
+    }
+
+    @Override
+    public String buildTaxQuoteFingerprint(Order order) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(order.getCustomer() == null ? null : order.getCustomer().getId()).append(SEPARATOR);
+        sb.append(order.getCustomer() == null ? null : order.getCustomer().isTaxExempt()).append(SEPARATOR);
+        sb.append(order.getCurrency() == null ? null : order.getCurrency().getCurrencyCode());
+        for (FulfillmentGroup fg : order.getFulfillmentGroups()) {
+            sb.append(SEPARATOR).append("fg[");
+            sb.append(fg.getType() == null ? null : fg.getType().getType()).append(SEPARATOR);
+            sb.append(buildAddressKey(fg.getAddress())).append(SEPARATOR);
+            sb.append(fg.getFulfillmentPrice()).append(SEPARATOR);
+            sb.append(fg.isShippingPriceTaxable());
+            for (FulfillmentGroupItem fgi : fg.getFulfillmentGroupItems()) {
+                sb.append(SEPARATOR).append("item[").append(buildOrderItemKey(fgi.getOrderItem())).append(SEPARATOR);
+                sb.append(fgi.getOrderItem().isTaxable()).append(SEPARATOR);
+                sb.append(fgi.getQuantity()).append(SEPARATOR);
+                sb.append(fgi.getTotalItemTaxableAmount()).append(']');
+            }
+            for (FulfillmentGroupFee fee : fg.getFulfillmentGroupFees()) {
+                sb.append(SEPARATOR).append("fee[").append(fee.getName()).append(SEPARATOR);
+                sb.append(fee.isTaxable()).append(SEPARATOR);
+                sb.append(fee.getAmount()).append(']');
+            }
+            sb.append(']');
+        }
+        return DigestUtils.md5Hex(sb.toString());
+    }
+
+    @Override
+    public boolean isPricingCurrent(Order order) {
+        if (!skipUnchangedCart || order == null || order.getId() == null) {
+            return false;
+        }
+        Element element = getPricedFingerprintCache().get(order.getId());
+        return element != null && buildFingerprint(order).equals(element.getObjectValue());
+    }
+
+    @Override
+    public void recordPricedFingerprint(Order order) {
+        if (skipUnchangedCart && order != null && order.getId() != null) {
+            getPricedFingerprintCache().put(new Element(order.getId(), buildFingerprint(order)));
+        }
+    }
+
+    @Override
+    public void removePricedFingerprint(Order order) {
+        if (order != null && order.getId() != null) {
+            getPricedFingerprintCache().remove(order.getId());
+        }
+    }
+
+    /**
+     * Builds the quantity-independent key that identifies the priced content of an order item
+     * 
+     * @param orderItem
+     * @return the key
+     */
+    protected String buildOrderItemKey(OrderItem orderItem) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(orderItem.getOrderItemType() == null ? null : orderItem.getOrderItemType().getType()).append(SEPARATOR);
+        if (orderItem instanceof DiscreteOrderItem) {
+            DiscreteOrderItem doi = (DiscreteOrderItem) orderItem;
+            sb.append(doi.getSku() == null ? null : doi.getSku().getId()).append(SEPARATOR);
+            sb.append(doi.getProduct() == null ? null : doi.getProduct().getId()).append(SEPARATOR);
+        } else if (orderItem instanceof BundleOrderItem) {
+            Map<String, Integer> bundledQuantities = new TreeMap<String, Integer>();
+            for (DiscreteOrderItem doi : ((BundleOrderItem) orderItem).getDiscreteOrderItems()) {
+                addQuantity(bundledQuantities, buildOrderItemKey(doi), doi.getQuantity());
+            }
+            sb.append(bundledQuantities).append(SEPARATOR);
+        } else {
+            // Non-discrete items carry their own prices
+            sb.append(orderItem.getName()).append(SEPARATOR);
+            sb.append(orderItem.getRetailPrice()).append(SEPARATOR);
+            sb.append(orderItem.getSalePrice()).append(SEPARATOR);
+        }
+        if (orderItem.isRetailPriceOverride()) {
+            sb.append(orderItem.getRetailPrice());
+        }
+        sb.append(SEPARATOR);
+        if (orderItem.isSalePriceOverride()) {
+            sb.append(orderItem.getSalePrice());
+        }
+        return sb.toString();
+    }
+
+    protected String buildFulfillmentGroupKey(FulfillmentGroup fg) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(fg.getType() == null ? null : fg.getType().getType()).append(SEPARATOR);
+        sb.append(fg.getFulfillmentOption() == null ? null : fg.getFulfillmentOption().getId()).append(SEPARATOR);
+        sb.append(buildAddressKey(fg.getAddress())).append(SEPARATOR);
+        if (Boolean.TRUE.equals(fg.getShippingOverride())) {
+            sb.append(fg.getFulfillmentPrice());
+        }
+        sb.append(SEPARATOR);
+
+        Map<String, Integer> fgItemQuantities = new TreeMap<String, Integer>();
+        for (FulfillmentGroupItem fgi : fg.getFulfillmentGroupItems()) {
+            addQuantity(fgItemQuantities, buildOrderItemKey(fgi.getOrderItem()), fgi.getQuantity());
+        }
+        sb.append(fgItemQuantities);
+        return sb.toString();
+    }
+
+    protected String buildAddressKey(Address address) {
+        if (address == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(address.getAddressLine1()).append(SEPARATOR);
+        sb.append(address.getAddressLine2()).append(SEPARATOR);
+        sb.append(address.getCity()).append(SEPARATOR);
+        sb.append(address.getState() == null ? null : address.getState().getAbbreviation()).append(SEPARATOR);
+        sb.append(address.getPostalCode()).append(SEPARATOR);
+        sb.append(address.getCountry() == null ? null : address.getCountry().getAbbreviation());
+        return sb.toString();
+    }
+
+    protected String buildPaymentKey(OrderPayment payment) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(payment.getType() == null ? null : payment.getType().getType()).append(SEPARATOR);
+        sb.append(payment.getGatewayType() == null ? null : payment.getGatewayType().getType()).append(SEPARATOR);
+        sb.append(payment.getAmount());
+        return sb.toString();
+    }
+
+    protected void addQuantity(Map<String, Integer> quantities, String key, int quantity) {
+        Integer current = quantities.get(key);
+        quantities.put(key, current == null ? quantity : current + quantity);
+    }
+
+    protected Cache getPricedFingerprintCache() {
+        if (pricedFingerprintCache == null) {
+            pricedFingerprintCache = CacheManager.getInstance().getCache("blPricedOrderFingerprints");
+        }
+        return pricedFingerprintCache;
+    }
+
+}
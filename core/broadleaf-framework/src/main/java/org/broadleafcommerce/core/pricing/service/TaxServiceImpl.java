@@ -25,6 +25,7 @@ import org.broadleafcommerce.common.config.service.ModuleConfigurationService;
 import org.broadleafcommerce.common.config.service.type.ModuleConfigurationType;
 import org.broadleafcommerce.core.order.domain.Order;
 import org.broadleafcommerce.core.pricing.service.exception.TaxException;
+import org.broadleafcommerce.core.pricing.service.quote.PricingQuoteService;
 import org.broadleafcommerce.core.pricing.service.tax.provider.TaxProvider;
 import org.springframework.stereotype.Service;
 
@@ -43,6 +44,9 @@ public class TaxServiceImpl implements TaxService {
     @Resource(name = "blModuleConfigurationService")
     protected ModuleConfigurationService moduleConfigService;
 
+    @Resource(name = "blPricingQuoteService")
+    protected PricingQuoteService pricingQuoteService;
+
     @Override
     public Order calculateTaxForOrder(Order order) throws TaxException {
 
@@ -68,7 +72,7 @@ public class TaxServiceImpl implements TaxService {
         if (CollectionUtils.isNotEmpty(providers)) {
             for (TaxProvider provider : providers) {
                 if (provider.canRespond(config)) {
-                    return provider.calculateTaxForOrder(order, config);
+                    return calculateTaxForOrder(provider, order, config);
                 }
             }
         }
@@ -80,6 +84,32 @@ public class TaxServiceImpl implements TaxService {
         throw new TaxException("No eligible tax providers were configured.");
     }
 
+    /**
+     * Delegates tax calculation to the given provider, reusing a cached tax quote when the order's tax inputs are
+     * unchanged since a previous calculation
+     * 
+     * @param provider
+     * @param order
+     * @param config
+     * @return the order with taxes applied
+     * @throws TaxException
+     */
+    protected Order calculateTaxForOrder(TaxProvider provider, Order order, ModuleConfiguration config) throws TaxException {
+        if (pricingQuoteService == null || !pricingQuoteService.isEnabled()) {
+            return provider.calculateTaxForOrder(order, config);
+        }
+
+        String key = pricingQuoteService.buildTaxQuoteKey(order, config);
+        if (pricingQuoteService.applyTaxQuote(key, order, config)) {
+            return order;
+        }
+
+        long start = System.nanoTime();
+        Order response = provider.calculateTaxForOrder(order, config);
+        pricingQuoteService.cacheTaxQuote(key, response, System.nanoTime() - start);
+        return response;
+    }
+
     @Override
     public Order commitTaxForOrder(Order order) throws TaxException {
 
@@ -169,4 +199,12 @@ public class TaxServiceImpl implements TaxService {
     public void setMustCalculate(boolean mustCalculate) {
         this.mustCalculate = mustCalculate;
     }
+
+    public void setPricingQuoteService(PricingQuoteService pricingQuoteService) {
+        this.pricingQuoteService = pricingQuoteService;
+    }
+
+    public void setModuleConfigurationService(ModuleConfigurationService moduleConfigService) {
+        this.moduleConfigService = moduleConfigService;
+    }
 }
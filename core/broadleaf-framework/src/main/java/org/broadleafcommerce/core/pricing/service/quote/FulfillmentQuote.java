@@ -0,0 +1,68 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.pricing.service.quote;
+
+import org.broadleafcommerce.common.money.Money;
+import org.broadleafcommerce.core.order.domain.FulfillmentGroup;
+
+import java.io.Serializable;
+
+/**
+ * The fulfillment prices a {@link org.broadleafcommerce.core.pricing.service.fulfillment.provider.FulfillmentPricingProvider}
+ * calculated for a {@link FulfillmentGroup}
+ */
+public class FulfillmentQuote implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    protected final Money retailFulfillmentPrice;
+    protected final Money saleFulfillmentPrice;
+    protected final Money fulfillmentPrice;
+
+    public FulfillmentQuote(FulfillmentGroup fulfillmentGroup) {
+        this.retailFulfillmentPrice = fulfillmentGroup.getRetailFulfillmentPrice();
+        this.saleFulfillmentPrice = fulfillmentGroup.getSaleFulfillmentPrice();
+        this.fulfillmentPrice = fulfillmentGroup.getFulfillmentPrice();
+    }
+
+    /**
+     * Sets the quoted prices on the given fulfillment group
+     * 
+     * @param fulfillmentGroup
+     */
+    public void applyTo(FulfillmentGroup fulfillmentGroup) {
+        fulfillmentGroup.setRetailFulfillmentPrice(retailFulfillmentPrice);
+        fulfillmentGroup.setSaleFulfillmentPrice(saleFulfillmentPrice);
+        fulfillmentGroup.setFulfillmentPrice(fulfillmentPrice);
+    }
+
+    public Money getRetailFulfillmentPrice() {
+        return retailFulfillmentPrice;
+    }
+
+    public Money getSaleFulfillmentPrice() {
+        return saleFulfillmentPrice;
+    }
+
+    public Money getFulfillmentPrice() {
+        return fulfillmentPrice;
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.pricing.service.quote;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A size and time bounded, least-recently-used cache of pricing quotes keyed by a canonical fingerprint of the quote's
+ * inputs. Hit, miss and calculation time statistics are kept so that the effectiveness of the cache can be monitored.
+ * 
+ * @param <V> the type of quote held by this cache
+ */
+public class PricingQuoteCache<V> {
+
+    protected final String name;
+    protected final int maxEntries;
+    protected final long timeToLiveMillis;
+    protected final LinkedHashMap<String, Entry<V>> entries;
+
+    protected final AtomicLong hits = new AtomicLong();
+    protected final AtomicLong misses = new AtomicLong();
+    protected final AtomicLong evictions = new AtomicLong();
+    protected final AtomicLong calculationCount = new AtomicLong();
+    protected final AtomicLong totalCalculationNanos = new AtomicLong();
+    protected final AtomicLong maxCalculationNanos = new AtomicLong();
+
+    public PricingQuoteCache(String name, final int maxEntries, long timeToLiveMillis) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.entries = new LinkedHashMap<String, Entry<V>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                if (size() > PricingQuoteCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @param key
+     * @return the unexpired quote for the given key, or null if there is none
+     */
+    public V get(String key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.isExpired(System.currentTimeMillis())) {
+                entries.remove(key);
+                evictions.incrementAndGet();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return entry.value;
+        }
+    }
+
+    /**
+     * Caches the given quote and records the time it took the provider to calculate it
+     * 
+     * @param key
+     * @param value
+     * @param calculationNanos
+     */
+    public void put(String key, V value, long calculationNanos) {
+        recordCalculation(calculationNanos);
+        if (maxEntries <= 0) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, new Entry<V>(value, System.currentTimeMillis() + timeToLiveMillis));
+        }
+    }
+
+    public void recordCalculation(long calculationNanos) {
+        calculationCount.incrementAndGet();
+        totalCalculationNanos.addAndGet(calculationNanos);
+        long currentMax = maxCalculationNanos.get();
+        while (calculationNanos > currentMax && !maxCalculationNanos.compareAndSet(currentMax, calculationNanos)) {
+            currentMax = maxCalculationNanos.get();
+        }
+    }
+
+    /**
+     * Removes all expired quotes
+     */
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Iterator<Entry<V>> itr = entries.values().iterator();
+            while (itr.hasNext()) {
+                if (itr.next().isExpired(now)) {
+                    itr.remove();
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public QuoteCacheStatistics getStatistics() {
+        return new QuoteCacheStatistics(name, hits.get(), misses.get(), evictions.get(), size(), calculationCount.get(),
+                totalCalculationNanos.get(), maxCalculationNanos.get());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    protected static class Entry<V> {
+
+        protected final V value;
+        protected final long expiresAt;
+
+        protected Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        protected boolean isExpired(long now) {
+            return now > expiresAt;
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.pricing.service.quote;
+
+import org.broadleafcommerce.common.config.domain.ModuleConfiguration;
+import org.broadleafcommerce.core.order.domain.FulfillmentGroup;
+import org.broadleafcommerce.core.order.domain.Order;
+
+/**
+ * Memoizes the results of fulfillment pricing and tax calculation keyed by a canonical fingerprint of their inputs, as
+ * built by {@link org.broadleafcommerce.core.pricing.service.PricingFingerprintService}. This keeps repeated pricing runs
+ * over an unchanged cart from calling the configured providers again, which matters most when those providers call out
+ * to an external system.
+ * 
+ * Typical usage is to build the key, attempt to apply a cached quote and, on a miss, call the provider and cache the
+ * resulting quote along with the time the provider took.
+ */
+public interface PricingQuoteService {
+
+    /**
+     * @return whether or not quotes should be cached and reused
+     */
+    public boolean isEnabled();
+
+    public String buildFulfillmentQuoteKey(FulfillmentGroup fulfillmentGroup);
+
+    /**
+     * Applies the cached fulfillment quote for the given key to the fulfillment group, if there is one
+     * 
+     * @param key
+     * @param fulfillmentGroup
+     * @return whether or not a cached quote was applied
+     */
+    public boolean applyFulfillmentQuote(String key, FulfillmentGroup fulfillmentGroup);
+
+    /**
+     * Caches the prices currently set on the given fulfillment group under the given key
+     * 
+     * @param key
+     * @param fulfillmentGroup
+     * @param calculationNanos the time the provider took to calculate the prices
+     */
+    public void cacheFulfillmentQuote(String key, FulfillmentGroup fulfillmentGroup, long calculationNanos);
+
+    public String buildTaxQuoteKey(Order order, ModuleConfiguration config);
+
+    /**
+     * Applies the cached tax quote for the given key to the order, if there is one
+     * 
+     * @param key
+     * @param order
+     * @param config the module configuration in effect for this calculation
+     * @return whether or not a cached quote was applied
+     */
+    public boolean applyTaxQuote(String key, Order order, ModuleConfiguration config);
+
+    /**
+     * Caches the tax details currently on the given order under the given key
+     * 
+     * @param key
+     * @param order
+     * @param calculationNanos the time the provider took to calculate the taxes
+     */
+    public void cacheTaxQuote(String key, Order order, long calculationNanos);
+
+    public QuoteCacheStatistics getFulfillmentQuoteStatistics();
+
+    public QuoteCacheStatistics getTaxQuoteStatistics();
+
+    /**
+     * Discards all cached quotes, for example after tax rates or fulfillment bands were changed
+     */
+    public void clearQuotes();
+
+}
@@ -0,0 +1,158 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.pricing.service.quote;
+
+import org.broadleafcommerce.common.config.domain.ModuleConfiguration;
+import org.broadleafcommerce.common.persistence.EntityConfiguration;
+import org.broadleafcommerce.core.order.domain.FulfillmentGroup;
+import org.broadleafcommerce.core.order.domain.Order;
+import org.broadleafcommerce.core.pricing.service.PricingFingerprintService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+
+@Service("blPricingQuoteService")
+@ManagedResource(objectName="org.broadleafcommerce:name=PricingQuoteService", description="Pricing Quote Service", currencyTimeLimit=15)
+public class PricingQuoteServiceImpl implements PricingQuoteService {
+
+    @Resource(name = "blPricingFingerprintService")
+    protected PricingFingerprintService pricingFingerprintService;
+
+    @Resource(name = "blEntityConfiguration")
+    protected EntityConfiguration entityConfig;
+
+    @Value("${pricing.quote.cache.enabled}")
+    protected boolean enabled = true;
+
+    @Value("${pricing.quote.cache.max.entries}")
+    protected int maxEntries = 10000;
+
+    @Value("${pricing.quote.cache.ttl.seconds}")
+    protected int timeToLiveSeconds = 300;
+
+    protected PricingQuoteCache<FulfillmentQuote> fulfillmentQuoteCache;
+    protected PricingQuoteCache<TaxQuote> taxQuoteCache;
+
+    @PostConstruct
+    public void init() {
+        fulfillmentQuoteCache = new PricingQuoteCache<FulfillmentQuote>("fulfillmentQuotes", maxEntries, timeToLiveSeconds * 1000L);
+        taxQuoteCache = new PricingQuoteCache<TaxQuote>("taxQuotes", maxEntries, timeToLiveSeconds * 1000L);
+    }
+
+    @Override
+    @ManagedAttribute(description="Whether or not pricing quotes are cached", currencyTimeLimit=15)
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public String buildFulfillmentQuoteKey(FulfillmentGroup fulfillmentGroup) {
+        return pricingFingerprintService.buildFulfillmentQuoteFingerprint(fulfillmentGroup);
+    }
+
+    @Override
+    public boolean applyFulfillmentQuote(String key, FulfillmentGroup fulfillmentGroup) {
+        FulfillmentQuote quote = fulfillmentQuoteCache.get(key);
+        if (quote == null) {
+            return false;
+        }
+        quote.applyTo(fulfillmentGroup);
+        return true;
+    }
+
+    @Override
+    public void cacheFulfillmentQuote(String key, FulfillmentGroup fulfillmentGroup, long calculationNanos) {
+        fulfillmentQuoteCache.put(key, new FulfillmentQuote(fulfillmentGroup), calculationNanos);
+    }
+
+    @Override
+    public String buildTaxQuoteKey(Order order, ModuleConfiguration config) {
+        return pricingFingerprintService.buildTaxQuoteFingerprint(order) + "-" + (config == null ? null : config.getId());
+    }
+
+    @Override
+    public boolean applyTaxQuote(String key, Order order, ModuleConfiguration config) {
+        TaxQuote quote = taxQuoteCache.get(key);
+        if (quote == null) {
+            return false;
+        }
+        quote.applyTo(order, config, entityConfig);
+        return true;
+    }
+
+    @Override
+    public void cacheTaxQuote(String key, Order order, long calculationNanos) {
+        taxQuoteCache.put(key, new TaxQuote(order), calculationNanos);
+    }
+
+    @Override
+    public QuoteCacheStatistics getFulfillmentQuoteStatistics() {
+        return fulfillmentQuoteCache.getStatistics();
+    }
+
+    @Override
+    public QuoteCacheStatistics getTaxQuoteStatistics() {
+        return taxQuoteCache.getStatistics();
+    }
+
+    @Override
+    @ManagedOperation(description="Discards all cached fulfillment and tax quotes")
+    public void clearQuotes() {
+        fulfillmentQuoteCache.clear();
+        taxQuoteCache.clear();
+    }
+
+    @ManagedAttribute(description="Fulfillment quote cache statistics", currencyTimeLimit=15)
+    public String getFulfillmentQuoteSummary() {
+        return getFulfillmentQuoteStatistics().toString();
+    }
+
+    @ManagedAttribute(description="Tax quote cache statistics", currencyTimeLimit=15)
+    public String getTaxQuoteSummary() {
+        return getTaxQuoteStatistics().toString();
+    }
+
+    @ManagedAttribute(description="Whether or not pricing quotes are cached", currencyTimeLimit=15)
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+        this.timeToLiveSeconds = timeToLiveSeconds;
+    }
+
+    public void setPricingFingerprintService(PricingFingerprintService pricingFingerprintService) {
+        this.pricingFingerprintService = pricingFingerprintService;
+    }
+
+    public void setEntityConfiguration(EntityConfiguration entityConfig) {
+        this.entityConfig = entityConfig;
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.pricing.service.quote;
+
+import java.io.Serializable;
+
+/**
+ * Point-in-time statistics for a {@link PricingQuoteCache}. Calculation times are those of the providers that were
+ * called on a cache miss.
+ */
+public class QuoteCacheStatistics implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    protected final String name;
+    protected final long hits;
+    protected final long misses;
+    protected final long evictions;
+    protected final int size;
+    protected final long calculationCount;
+    protected final long totalCalculationNanos;
+    protected final long maxCalculationNanos;
+
+    public QuoteCacheStatistics(String name, long hits, long misses, long evictions, int size, long calculationCount,
+            long totalCalculationNanos, long maxCalculationNanos) {
+        this.name = name;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+        this.calculationCount = calculationCount;
+        this.totalCalculationNanos = totalCalculationNanos;
+        this.maxCalculationNanos = maxCalculationNanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public double getHitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0D : (double) hits / requests;
+    }
+
+    public long getCalculationCount() {
+        return calculationCount;
+    }
+
+    public double getAverageCalculationMillis() {
+        return calculationCount == 0 ? 0D : totalCalculationNanos / (calculationCount * 1000000D);
+    }
+
+    public double getMaxCalculationMillis() {
+        return maxCalculationNanos / 1000000D;
+    }
+
+    /**
+     * @return the provider time avoided by cache hits, estimated from the average calculation time
+     */
+    public double getEstimatedMillisSaved() {
+        return hits * getAverageCalculationMillis();
+    }
+
+    @Override
+    public String toString() {
+        return name + " [hits=" + hits + ", misses=" + misses + ", hitRatio=" + getHitRatio() + ", evictions=" + evictions
+                + ", size=" + size + ", avgCalculationMillis=" + getAverageCalculationMillis() + ", maxCalculationMillis="
+                + getMaxCalculationMillis() + "]";
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.pricing.service.quote;
+
+import org.broadleafcommerce.common.config.domain.ModuleConfiguration;
+import org.broadleafcommerce.common.currency.util.BroadleafCurrencyUtils;
+import org.broadleafcommerce.common.money.Money;
+import org.broadleafcommerce.common.persistence.EntityConfiguration;
+import org.broadleafcommerce.core.order.domain.FulfillmentGroup;
+import org.broadleafcommerce.core.order.domain.FulfillmentGroupFee;
+import org.broadleafcommerce.core.order.domain.FulfillmentGroupItem;
+import org.broadleafcommerce.core.order.domain.Order;
+import org.broadleafcommerce.core.order.domain.TaxDetail;
+import org.broadleafcommerce.core.order.domain.TaxType;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@link TaxDetail}s a {@link org.broadleafcommerce.core.pricing.service.tax.provider.TaxProvider} placed on the
+ * fulfillment groups, fulfillment group items and fulfillment group fees of an {@link Order}. The details are held
+ * positionally, so a quote may only be applied to an order whose tax quote fingerprint matches the one it was taken from.
+ */
+public class TaxQuote implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    protected final List<List<TaxDetailSnapshot>> fulfillmentGroupTaxes = new ArrayList<List<TaxDetailSnapshot>>();
+    protected final List<List<TaxDetailSnapshot>> fulfillmentGroupItemTaxes = new ArrayList<List<TaxDetailSnapshot>>();
+    protected final List<List<TaxDetailSnapshot>> fulfillmentGroupFeeTaxes = new ArrayList<List<TaxDetailSnapshot>>();
+
+    public TaxQuote(Order order) {
+        for (FulfillmentGroup fg : order.getFulfillmentGroups()) {
+            fulfillmentGroupTaxes.add(snapshot(fg.getTaxes()));
+            for (FulfillmentGroupItem fgi : fg.getFulfillmentGroupItems()) {
+                fulfillmentGroupItemTaxes.add(snapshot(fgi.getTaxes()));
+            }
+            for (FulfillmentGroupFee fee : fg.getFulfillmentGroupFees()) {
+                fulfillmentGroupFeeTaxes.add(snapshot(fee.getTaxes()));
+            }
+        }
+    }
+
+    /**
+     * Places the quoted tax details on the given order, reusing its existing {@link TaxDetail} instances where possible
+     * 
+     * @param order
+     * @param config the module configuration in effect for this calculation
+     * @param entityConfig used to create any additional {@link TaxDetail}s that are needed
+     */
+    public void applyTo(Order order, ModuleConfiguration config, EntityConfiguration entityConfig) {
+        int itemPosition = 0;
+        int feePosition = 0;
+        int fgPosition = 0;
+        for (FulfillmentGroup fg : order.getFulfillmentGroups()) {
+            apply(fulfillmentGroupTaxes.get(fgPosition++), fg.getTaxes(), order, config, entityConfig);
+            for (FulfillmentGroupItem fgi : fg.getFulfillmentGroupItems()) {
+                apply(fulfillmentGroupItemTaxes.get(itemPosition++), fgi.getTaxes(), order, config, entityConfig);
+            }
+            for (FulfillmentGroupFee fee : fg.getFulfillmentGroupFees()) {
+                apply(fulfillmentGroupFeeTaxes.get(feePosition++), fee.getTaxes(), order, config, entityConfig);
+            }
+        }
+    }
+
+    protected List<TaxDetailSnapshot> snapshot(List<TaxDetail> taxes) {
+        List<TaxDetailSnapshot> snapshots = new ArrayList<TaxDetailSnapshot>();
+        if (taxes != null) {
+            for (TaxDetail detail : taxes) {
+                snapshots.add(new TaxDetailSnapshot(detail));
+            }
+        }
+        return snapshots;
+    }
+
+    protected void apply(List<TaxDetailSnapshot> snapshots, List<TaxDetail> taxes, Order order, ModuleConfiguration config,
+            EntityConfiguration entityConfig) {
+        for (int i = 0; i < snapshots.size(); i++) {
+            TaxDetail detail;
+            if (i < taxes.size()) {
+                detail = taxes.get(i);
+            } else {
+                detail = entityConfig.createEntityInstance(TaxDetail.class.getName(), TaxDetail.class);
+                taxes.add(detail);
+            }
+            snapshots.get(i).applyTo(detail, order, config);
+        }
+        while (taxes.size() > snapshots.size()) {
+            taxes.remove(taxes.size() - 1);
+        }
+    }
+
+    protected static class TaxDetailSnapshot implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        protected final TaxType type;
+        protected final Money amount;
+        protected final BigDecimal rate;
+        protected final boolean hasCurrency;
+        protected final boolean hasModuleConfiguration;
+        protected final String jurisdictionName;
+        protected final String taxName;
+        protected final String region;
+        protected final String country;
+
+        protected TaxDetailSnapshot(TaxDetail detail) {
+            this.type = detail.getType();
+            this.amount = detail.getAmount();
+            this.rate = detail.getRate();
+            this.hasCurrency = detail.getCurrency() != null;
+            this.hasModuleConfiguration = detail.getModuleConfiguration() != null;
+            this.jurisdictionName = detail.getJurisdictionName();
+            this.taxName = detail.getTaxName();
+            this.region = detail.getRegion();
+            this.country = detail.getCountry();
+        }
+
+        protected void applyTo(TaxDetail detail, Order order, ModuleConfiguration config) {
+            detail.setType(type);
+            // A reused detail must not keep the amount of an earlier calculation. TaxDetailImpl does not accept a null
+            // amount, so a detail quoted without one gets a zero amount instead.
+            detail.setAmount(amount != null ? amount : BroadleafCurrencyUtils.getMoney(order.getCurrency()));
+            detail.setRate(rate);
+            detail.setCurrency(hasCurrency ? order.getCurrency() : null);
+            detail.setModuleConfiguration(hasModuleConfiguration ? config : null);
+            detail.setJurisdictionName(jurisdictionName);
+            detail.setTaxName(taxName);
+            detail.setRegion(region);
+            detail.setCountry(country);
+        }
+    }
+
+}
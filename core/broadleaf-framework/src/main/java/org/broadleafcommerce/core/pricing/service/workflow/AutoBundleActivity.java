@@ -19,8 +19,14 @@
  */
 package org.broadleafcommerce.core.pricing.service.workflow;
 
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Element;
+
 import org.broadleafcommerce.core.catalog.domain.ProductBundle;
 import org.broadleafcommerce.core.catalog.domain.SkuBundleItem;
+import org.broadleafcommerce.core.catalog.service.AutomaticBundleIndex;
+import org.broadleafcommerce.core.catalog.service.AutomaticBundleIndexService;
 import org.broadleafcommerce.core.catalog.service.CatalogService;
 import org.broadleafcommerce.core.order.dao.FulfillmentGroupItemDao;
 import org.broadleafcommerce.core.order.dao.OrderItemDao;
@@ -44,6 +50,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import javax.annotation.Resource;
 
@@ -56,6 +63,10 @@ import javax.annotation.Resource;
  *
  * This only occurs if the ProductBundle is set to "automatically" bundle.
  *
+ * Only the bundles whose skus are all present in the cart are evaluated, as determined by the
+ * {@link AutomaticBundleIndex}. Since bundling and unbundling never change the total quantity of each sku in the cart,
+ * the activity does nothing when that quantity per sku is unchanged since the last run for the same order.
+ *
  */
 public class AutoBundleActivity extends BaseActivity<ProcessContext<Order>> {
     @Resource(name="blCatalogService")
@@ -70,6 +81,11 @@ public class AutoBundleActivity extends BaseActivity<ProcessContext<Order>> {
     @Resource(name="blFulfillmentGroupItemDao")
     protected FulfillmentGroupItemDao fulfillmentGroupItemDao;
 
+    @Resource(name="blAutomaticBundleIndexService")
+    protected AutomaticBundleIndexService automaticBundleIndexService;
+
+    protected Cache bundledSkuQuantitiesCache;
+
     public ProcessContext<Order> execute(ProcessContext<Order> context) throws Exception {
         Order order = context.getSeedData();
         order = handleAutomaticBundling(order);
@@ -81,7 +97,19 @@ public class AutoBundleActivity extends BaseActivity<ProcessContext<Order>> {
         boolean itemsHaveBeenUnbundled = false;
         List<DiscreteOrderItem> unbundledItems = null;
 
-        List<ProductBundle> productBundles = catalogService.findAutomaticProductBundles();
+        List<ProductBundle> automaticBundles = catalogService.findAutomaticProductBundles();
+        AutomaticBundleIndex index = automaticBundleIndexService.getIndex(automaticBundles);
+        Map<Long, Integer> skuQuantities = buildSkuQuantities(order);
+        String signature = index.getVersion() + "-" + skuQuantities;
+        if (order.getId() != null) {
+            Element element = getBundledSkuQuantitiesCache().get(order.getId());
+            if (element != null && signature.equals(element.getObjectValue())) {
+                return order;
+            }
+        }
+
+        List<ProductBundle> productBundles = automaticBundleIndexService.findCandidateBundles(automaticBundles,
+                skuQuantities.keySet());
         Set<Long> processedBundleIds = new HashSet<Long>();
         for (ProductBundle productBundle : productBundles) {
             int existingUses = countExistingUsesOfBundle(order, productBundle);
@@ -106,9 +134,51 @@ public class AutoBundleActivity extends BaseActivity<ProcessContext<Order>> {
                 order = bundleItems(order, productBundle, maxApplications, unbundledItems);
             }
         }
+
+        if (order.getId() != null) {
+            getBundledSkuQuantitiesCache().put(new Element(order.getId(), signature));
+        }
         return order;
     }
 
+    /**
+     * Builds the total quantity of each sku in the order, counting the items inside automatic bundles as well as
+     * discrete items. This is unaffected by bundling or unbundling, which only regroups the same skus.
+     *
+     * @param order
+     * @return the quantity of each sku, keyed by sku id
+     */
+    protected Map<Long, Integer> buildSkuQuantities(Order order) {
+        Map<Long, Integer> skuQuantities = new TreeMap<Long, Integer>();
+        for (OrderItem orderItem : order.getOrderItems()) {
+            if (orderItem instanceof DiscreteOrderItem) {
+                DiscreteOrderItem item = (DiscreteOrderItem) orderItem;
+                addSkuQuantity(skuQuantities, item.getSku().getId(), item.getQuantity());
+            } else if (orderItem instanceof BundleOrderItem) {
+                BundleOrderItem bundleItem = (BundleOrderItem) orderItem;
+                if (bundleItem.getProductBundle() != null && bundleItem.getProductBundle().getAutoBundle()) {
+                    for (DiscreteOrderItem discreteItem : bundleItem.getDiscreteOrderItems()) {
+                        addSkuQuantity(skuQuantities, discreteItem.getSku().getId(),
+                                discreteItem.getQuantity() * bundleItem.getQuantity());
+                    }
+                }
+            }
+        }
+        return skuQuantities;
+    }
+
+    protected void addSkuQuantity(Map<Long, Integer> skuQuantities, Long skuId, int quantity) {
+        Integer current = skuQuantities.get(skuId);
+        skuQuantities.put(skuId, current == null ? quantity : current + quantity);
+    }
+
+    protected Cache getBundledSkuQuantitiesCache() {
+        if (bundledSkuQuantitiesCache == null) {
+            bundledSkuQuantitiesCache = CacheManager.getInstance().getCache("blAutoBundleSkuQuantities");
+        }
+        return bundledSkuQuantitiesCache;
+    }
+
     /**
      * Removes all automatic bundles from the order and replaces with DiscreteOrderItems.
      *
@@ -21,6 +21,7 @@ package org.broadleafcommerce.core.pricing.service.workflow;
 
 import org.broadleafcommerce.common.currency.util.BroadleafCurrencyUtils;
 import org.broadleafcommerce.common.money.Money;
+import org.broadleafcommerce.common.money.MoneyAccumulator;
 import org.broadleafcommerce.core.order.domain.FulfillmentGroup;
 import org.broadleafcommerce.core.order.domain.FulfillmentGroupItem;
 import org.broadleafcommerce.core.order.domain.Order;
@@ -44,12 +45,12 @@ public class FulfillmentGroupMerchandiseTotalActivity extends BaseActivity<Proce
         Order order = context.getSeedData();
 
         for(FulfillmentGroup fulfillmentGroup : order.getFulfillmentGroups()) {
-            Money merchandiseTotal = BroadleafCurrencyUtils.getMoney(BigDecimal.ZERO, fulfillmentGroup.getOrder().getCurrency());
+            MoneyAccumulator merchandiseTotal = new MoneyAccumulator(BroadleafCurrencyUtils.getMoney(BigDecimal.ZERO, fulfillmentGroup.getOrder().getCurrency()));
             for(FulfillmentGroupItem fulfillmentGroupItem : fulfillmentGroup.getFulfillmentGroupItems()) {
                 OrderItem item = fulfillmentGroupItem.getOrderItem();
-                merchandiseTotal = merchandiseTotal.add(item.getTotalPrice());
+                merchandiseTotal.add(item.getTotalPrice());
             }
-            fulfillmentGroup.setMerchandiseTotal(merchandiseTotal);
+            fulfillmentGroup.setMerchandiseTotal(merchandiseTotal.toMoney());
         }
         context.setSeedData(order);
 
@@ -21,6 +21,7 @@ package org.broadleafcommerce.core.pricing.service.workflow;
 
 import org.broadleafcommerce.common.currency.util.BroadleafCurrencyUtils;
 import org.broadleafcommerce.common.money.Money;
+import org.broadleafcommerce.common.money.MoneyAccumulator;
 import org.broadleafcommerce.core.order.domain.FulfillmentGroup;
 import org.broadleafcommerce.core.order.domain.FulfillmentGroupFee;
 import org.broadleafcommerce.core.order.domain.FulfillmentGroupItem;
@@ -115,45 +116,50 @@ public class TotalActivity extends BaseActivity<ProcessContext<Order>> {
         Money orderTotalTax = BroadleafCurrencyUtils.getMoney(BigDecimal.ZERO, order.getCurrency());
         
         for (FulfillmentGroup fg : order.getFulfillmentGroups()) {
-            Money fgTotalFgTax = BroadleafCurrencyUtils.getMoney(BigDecimal.ZERO, order.getCurrency());
-            Money fgTotalItemTax = BroadleafCurrencyUtils.getMoney(BigDecimal.ZERO, order.getCurrency());
-            Money fgTotalFeeTax = BroadleafCurrencyUtils.getMoney(BigDecimal.ZERO, order.getCurrency());
+            MoneyAccumulator fgTaxes = new MoneyAccumulator(BroadleafCurrencyUtils.getMoney(BigDecimal.ZERO, order.getCurrency()));
+            MoneyAccumulator fgItemTaxes = new MoneyAccumulator(BroadleafCurrencyUtils.getMoney(BigDecimal.ZERO, order.getCurrency()));
+            MoneyAccumulator fgFeeTaxes = new MoneyAccumulator(BroadleafCurrencyUtils.getMoney(BigDecimal.ZERO, order.getCurrency()));
             
             // Add in all FG specific taxes (such as shipping tax)
             if (fg.getTaxes() != null) {
                 for (TaxDetail tax : fg.getTaxes()) {
-                    fgTotalFgTax = fgTotalFgTax.add(tax.getAmount());
+                    fgTaxes.add(tax.getAmount());
                 }
             }
             
             for (FulfillmentGroupItem item : fg.getFulfillmentGroupItems()) {
-                Money itemTotalTax = BroadleafCurrencyUtils.getMoney(BigDecimal.ZERO, order.getCurrency());
+                MoneyAccumulator itemTaxes = new MoneyAccumulator(BroadleafCurrencyUtils.getMoney(BigDecimal.ZERO, order.getCurrency()));
                 
                 // Add in all taxes for this item
                 if (item.getTaxes() != null) {
                     for (TaxDetail tax : item.getTaxes()) {
-                        itemTotalTax = itemTotalTax.add(tax.getAmount());
+                        itemTaxes.add(tax.getAmount());
                     }
                 }
                 
+                Money itemTotalTax = itemTaxes.toMoney();
                 item.setTotalTax(itemTotalTax);
-                fgTotalItemTax = fgTotalItemTax.add(itemTotalTax);
+                fgItemTaxes.add(itemTotalTax);
             }
             
             for (FulfillmentGroupFee fee : fg.getFulfillmentGroupFees()) {
-                Money feeTotalTax = BroadleafCurrencyUtils.getMoney(BigDecimal.ZERO, order.getCurrency());
+                MoneyAccumulator feeTaxes = new MoneyAccumulator(BroadleafCurrencyUtils.getMoney(BigDecimal.ZERO, order.getCurrency()));
                 
                 // Add in all taxes for this fee
                 if (fee.getTaxes() != null) {
                     for (TaxDetail tax : fee.getTaxes()) {
-                        feeTotalTax = feeTotalTax.add(tax.getAmount());
+                        feeTaxes.add(tax.getAmount());
                     }
                 }
                 
+                Money feeTotalTax = feeTaxes.toMoney();
                 fee.setTotalTax(feeTotalTax);
-                fgTotalFeeTax = fgTotalFeeTax.add(feeTotalTax);
+                fgFeeTaxes.add(feeTotalTax);
             }
             
+            Money fgTotalFgTax = fgTaxes.toMoney();
+            Money fgTotalItemTax = fgItemTaxes.toMoney();
+            Money fgTotalFeeTax = fgFeeTaxes.toMoney();
             Money fgTotalTax = BroadleafCurrencyUtils.getMoney(BigDecimal.ZERO, order.getCurrency()).add(fgTotalFgTax).add(fgTotalItemTax).add(fgTotalFeeTax);
             
             // Set the fulfillment group tax sums
@@ -43,6 +43,23 @@ public interface RatingSummaryDao {
     RatingSummary saveRatingSummary(RatingSummary summary);
     void deleteRatingSummary(RatingSummary summary);
 
+    /**
+     * Applies a new or changed rating to the aggregates (count, sum, histogram and average) of the given, saved summary
+     * with an atomic UPDATE, so that concurrent ratings of the same item are not lost. The summary is refreshed
+     * afterwards.
+     *
+     * @param previousRating the rating being replaced, or null if this is a new rating
+     * @param newRating the new rating
+     */
+    void updateRatingAggregates(RatingSummary summary, Double previousRating, Double newRating);
+
+    /**
+     * Increments the number of reviews of the given, saved summary with an atomic UPDATE. The summary is refreshed
+     * afterwards.
+     */
+    void incrementReviewCount(RatingSummary summary);
+
     RatingDetail readRating(Long customerId, Long ratingSummaryId);
+    RatingDetail saveRatingDetail(RatingDetail ratingDetail);
     ReviewDetail readReview(Long customerId, Long ratingSummaryId);
 }
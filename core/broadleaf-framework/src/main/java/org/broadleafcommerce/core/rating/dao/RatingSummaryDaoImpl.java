@@ -91,6 +91,72 @@ public class RatingSummaryDaoImpl extends BatchRetrieveDao implements RatingSumm
         return em.merge(summary);
     }
 
+    @Override
+    public void updateRatingAggregates(final RatingSummary summary, final Double previousRating, final Double newRating) {
+        initializeAggregates(summary);
+        int countDelta = 0;
+        double sumDelta = 0;
+        int[] starDeltas = new int[5];
+        if (previousRating != null) {
+            countDelta--;
+            sumDelta -= previousRating;
+            starDeltas[RatingSummaryImpl.getStars(previousRating) - 1]--;
+        }
+        if (newRating != null) {
+            countDelta++;
+            sumDelta += newRating;
+            starDeltas[RatingSummaryImpl.getStars(newRating) - 1]++;
+        }
+
+        Query query = em.createNamedQuery("BC_UPDATE_RATING_SUMMARY_RATING_AGGREGATES");
+        query.setParameter("ratingSummaryId", summary.getId());
+        query.setParameter("ratingCountDelta", countDelta);
+        query.setParameter("ratingSumDelta", sumDelta);
+        query.setParameter("oneStarDelta", starDeltas[0]);
+        query.setParameter("twoStarDelta", starDeltas[1]);
+        query.setParameter("threeStarDelta", starDeltas[2]);
+        query.setParameter("fourStarDelta", starDeltas[3]);
+        query.setParameter("fiveStarDelta", starDeltas[4]);
+        query.executeUpdate();
+
+        // the row is locked by the update above, so the average is computed from the latest count and sum
+        query = em.createNamedQuery("BC_UPDATE_RATING_SUMMARY_AVERAGE_RATING");
+        query.setParameter("ratingSummaryId", summary.getId());
+        query.executeUpdate();
+
+        em.refresh(summary);
+    }
+
+    @Override
+    public void incrementReviewCount(final RatingSummary summary) {
+        initializeAggregates(summary);
+        Query query = em.createNamedQuery("BC_INCREMENT_RATING_SUMMARY_REVIEW_COUNT");
+        query.setParameter("ratingSummaryId", summary.getId());
+        query.executeUpdate();
+
+        em.refresh(summary);
+    }
+
+    /**
+     * Summaries saved before the aggregates were maintained hold nulls, which would stay null when incremented. These
+     * are set once from the ratings and reviews of the summary; the update only applies while they are still null, so
+     * it is a no-op for every other summary and for all but the first of concurrent callers.
+     */
+    protected void initializeAggregates(RatingSummary summary) {
+        int[] histogram = summary.getRatingHistogram();
+        Query query = em.createNamedQuery("BC_INITIALIZE_RATING_SUMMARY_AGGREGATES");
+        query.setParameter("ratingSummaryId", summary.getId());
+        query.setParameter("ratingCount", summary.getNumberOfRatings());
+        query.setParameter("ratingSum", summary.getRatingSum());
+        query.setParameter("reviewCount", summary.getNumberOfReviews());
+        query.setParameter("oneStarCount", histogram[0]);
+        query.setParameter("twoStarCount", histogram[1]);
+        query.setParameter("threeStarCount", histogram[2]);
+        query.setParameter("fourStarCount", histogram[3]);
+        query.setParameter("fiveStarCount", histogram[4]);
+        query.executeUpdate();
+    }
+
     @Override
     public List<RatingSummary> readRatingSummaries(final List<String> itemIds, final RatingType type) {
         final Query query = em.createNamedQuery("BC_READ_RATING_SUMMARIES_BY_ITEM_ID_AND_TYPE");
@@ -138,6 +204,11 @@ public class RatingSummaryDaoImpl extends BatchRetrieveDao implements RatingSumm
         return ratingDetail;
     }
 
+    @Override
+    public RatingDetail saveRatingDetail(final RatingDetail ratingDetail) {
+        return em.merge(ratingDetail);
+    }
+
     @Override
     public ReviewDetail readReview(final Long customerId, final Long ratingSummaryId) {
         final Query query = em.createNamedQuery("BC_READ_REVIEW_DETAIL_BY_CUSTOMER_ID_AND_RATING_SUMMARY_ID");
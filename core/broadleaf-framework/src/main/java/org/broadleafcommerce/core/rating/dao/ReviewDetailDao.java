@@ -21,8 +21,11 @@ package org.broadleafcommerce.core.rating.dao;
 
 import org.broadleafcommerce.core.rating.domain.ReviewDetail;
 import org.broadleafcommerce.core.rating.domain.ReviewFeedback;
+import org.broadleafcommerce.core.rating.service.type.RatingSortType;
 import org.broadleafcommerce.profile.core.domain.Customer;
 
+import java.util.List;
+
 public interface ReviewDetailDao {
 
     ReviewDetail readReviewDetailById(Long reviewId);
@@ -31,4 +34,15 @@ public interface ReviewDetailDao {
     ReviewFeedback createFeedback();
     ReviewDetail readReviewByCustomerAndItem(Customer customer, String itemId);
 
+    /**
+     * Reads a page of the reviews of a rating summary, sorted and paged by the database
+     *
+     * @param ratingSummaryId the id of the rating summary
+     * @param start the index of the first review to return
+     * @param maxResults the maximum number of reviews to return
+     * @param sortBy {@link RatingSortType#MOST_HELPFUL} and {@link RatingSortType#MOST_RECENT} sort descending,
+     * anything else sorts by submission date, oldest first
+     */
+    List<ReviewDetail> readReviews(Long ratingSummaryId, int start, int maxResults, RatingSortType sortBy);
+
 }
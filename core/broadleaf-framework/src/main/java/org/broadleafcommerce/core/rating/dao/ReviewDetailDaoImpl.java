@@ -23,9 +23,12 @@ import org.broadleafcommerce.common.persistence.EntityConfiguration;
 import org.broadleafcommerce.core.rating.domain.ReviewDetail;
 import org.broadleafcommerce.core.rating.domain.ReviewDetailImpl;
 import org.broadleafcommerce.core.rating.domain.ReviewFeedback;
+import org.broadleafcommerce.core.rating.service.type.RatingSortType;
 import org.broadleafcommerce.profile.core.domain.Customer;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 import javax.annotation.Resource;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
@@ -63,6 +66,22 @@ public class ReviewDetailDaoImpl implements ReviewDetailDao {
         return reviewDetail;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ReviewDetail> readReviews(Long ratingSummaryId, int start, int maxResults, RatingSortType sortBy) {
+        String queryName = "BC_READ_REVIEW_DETAILS_BY_SUMMARY_ID_ORDER_BY_DATE";
+        if (RatingSortType.MOST_HELPFUL.equals(sortBy)) {
+            queryName = "BC_READ_REVIEW_DETAILS_BY_SUMMARY_ID_ORDER_BY_HELPFUL";
+        } else if (RatingSortType.MOST_RECENT.equals(sortBy)) {
+            queryName = "BC_READ_REVIEW_DETAILS_BY_SUMMARY_ID_ORDER_BY_DATE_DESC";
+        }
+        final Query query = em.createNamedQuery(queryName);
+        query.setParameter("ratingSummaryId", ratingSummaryId);
+        query.setFirstResult(start);
+        query.setMaxResults(maxResults);
+        return query.getResultList();
+    }
+
     public ReviewDetail create() {
         return (ReviewDetail) entityConfiguration.createEntityInstance(ReviewDetail.class.getName());
     }
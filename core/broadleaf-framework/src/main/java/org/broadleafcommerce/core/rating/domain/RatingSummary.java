@@ -43,8 +43,40 @@ public interface RatingSummary {
     
     public Double getAverageRating();
     
+    /**
+     * Recomputes the average rating from the maintained rating count and sum
+     */
     public void resetAverageRating();
 
+    /**
+     * Applies a new or changed rating to the maintained aggregates (count, sum and histogram) of this instance without
+     * loading the ratings. Saved summaries should be updated through
+     * {@link org.broadleafcommerce.core.rating.dao.RatingSummaryDao#updateRatingAggregates(RatingSummary, Double, Double)}
+     * instead, which is safe for concurrent ratings of the same item.
+     *
+     * @param previousRating the rating being replaced, or null if this is a new rating
+     * @param newRating the new rating
+     */
+    public void recordRating(Double previousRating, Double newRating);
+
+    /**
+     * Increments the maintained number of reviews of this instance for a newly submitted review. Saved summaries should
+     * be updated through {@link org.broadleafcommerce.core.rating.dao.RatingSummaryDao#incrementReviewCount(RatingSummary)}
+     * instead.
+     */
+    public void recordReview();
+
+    /**
+     * @return the sum of all ratings
+     */
+    public Double getRatingSum();
+
+    /**
+     * @return the number of ratings for each star value, where index 0 holds the number of 1 star ratings and index 4
+     * the number of 5 star ratings. Fractional ratings are rounded to the nearest star.
+     */
+    public int[] getRatingHistogram();
+
     public List<ReviewDetail> getReviews();
     
     public void setReviews(List<ReviewDetail> reviews);
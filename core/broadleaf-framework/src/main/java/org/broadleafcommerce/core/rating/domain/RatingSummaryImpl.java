@@ -66,6 +66,34 @@ public class RatingSummaryImpl implements RatingSummary {
     @Column(name = "AVERAGE_RATING", nullable = false)
     protected Double averageRating = new Double(0);
 
+    /*
+     * The aggregates below are maintained incrementally with atomic updates by RatingSummaryDao. They are null for
+     * summaries saved before they were introduced, in which case they are computed once from the collections.
+     */
+    @Column(name = "RATING_COUNT")
+    protected Integer ratingCount = 0;
+
+    @Column(name = "RATING_SUM")
+    protected Double ratingSum = new Double(0);
+
+    @Column(name = "REVIEW_COUNT")
+    protected Integer reviewCount = 0;
+
+    @Column(name = "RATING_COUNT_1_STAR")
+    protected Integer oneStarCount = 0;
+
+    @Column(name = "RATING_COUNT_2_STAR")
+    protected Integer twoStarCount = 0;
+
+    @Column(name = "RATING_COUNT_3_STAR")
+    protected Integer threeStarCount = 0;
+
+    @Column(name = "RATING_COUNT_4_STAR")
+    protected Integer fourStarCount = 0;
+
+    @Column(name = "RATING_COUNT_5_STAR")
+    protected Integer fiveStarCount = 0;
+
     @OneToMany(mappedBy = "ratingSummary", targetEntity = RatingDetailImpl.class, cascade = {CascadeType.ALL})
     protected List<RatingDetail> ratings = new ArrayList<RatingDetail>();
 
@@ -92,18 +120,101 @@ public class RatingSummaryImpl implements RatingSummary {
     
     @Override
     public void resetAverageRating() {
-        if (ratings == null || ratings.isEmpty()) {
+        initializeRatingAggregates();
+        if (ratingCount == 0) {
             this.averageRating = new Double(0);
         } else {
-            double sum = 0;
-            for (RatingDetail detail : ratings) {
-                sum += detail.getRating();
+            this.averageRating = new Double(ratingSum / ratingCount);
+        }
+    }
+
+    @Override
+    public void recordRating(Double previousRating, Double newRating) {
+        initializeRatingAggregates();
+        if (previousRating != null) {
+            ratingCount--;
+            ratingSum -= previousRating;
+            addToHistogram(previousRating, -1);
+        }
+        if (newRating != null) {
+            ratingCount++;
+            ratingSum += newRating;
+            addToHistogram(newRating, 1);
+        }
+        resetAverageRating();
+    }
+
+    @Override
+    public void recordReview() {
+        initializeReviewCount();
+        reviewCount++;
+    }
+
+    @Override
+    public Double getRatingSum() {
+        initializeRatingAggregates();
+        return ratingSum;
+    }
+
+    @Override
+    public int[] getRatingHistogram() {
+        initializeRatingAggregates();
+        return new int[] { oneStarCount, twoStarCount, threeStarCount, fourStarCount, fiveStarCount };
+    }
+
+    /**
+     * Computes the rating aggregates from the ratings collection for summaries that were saved before the aggregates
+     * were maintained
+     */
+    protected void initializeRatingAggregates() {
+        if (ratingCount != null && ratingSum != null && oneStarCount != null && twoStarCount != null
+                && threeStarCount != null && fourStarCount != null && fiveStarCount != null) {
+            return;
+        }
+        ratingCount = 0;
+        ratingSum = new Double(0);
+        oneStarCount = 0;
+        twoStarCount = 0;
+        threeStarCount = 0;
+        fourStarCount = 0;
+        fiveStarCount = 0;
+        for (RatingDetail detail : getRatings()) {
+            if (detail.getRating() != null) {
+                ratingCount++;
+                ratingSum += detail.getRating();
+                addToHistogram(detail.getRating(), 1);
             }
+        }
+    }
 
-            this.averageRating = new Double(sum / ratings.size());
+    protected void initializeReviewCount() {
+        if (reviewCount == null) {
+            reviewCount = getReviews().size();
+        }
+    }
+
+    protected void addToHistogram(Double rating, int delta) {
+        int stars = getStars(rating);
+        if (stars == 1) {
+            oneStarCount += delta;
+        } else if (stars == 2) {
+            twoStarCount += delta;
+        } else if (stars == 3) {
+            threeStarCount += delta;
+        } else if (stars == 4) {
+            fourStarCount += delta;
+        } else {
+            fiveStarCount += delta;
         }
     }
 
+    /**
+     * @return the histogram bucket (1 to 5 stars) of the given rating, rounded to the nearest star
+     */
+    public static int getStars(Double rating) {
+        return (int) Math.max(1, Math.min(5, Math.round(rating)));
+    }
+
     @Override
     public String getItemId() {
         return itemId;
@@ -116,12 +227,14 @@ public class RatingSummaryImpl implements RatingSummary {
 
     @Override
     public Integer getNumberOfRatings() {
-        return getRatings().size();
+        initializeRatingAggregates();
+        return ratingCount;
     }
 
     @Override
     public Integer getNumberOfReviews() {
-        return getReviews().size();
+        initializeReviewCount();
+        return reviewCount;
     }
 
     @Override
@@ -34,6 +34,8 @@ public interface ReviewDetail {
     Date getReviewSubmittedDate();
     Integer helpfulCount();
     Integer notHelpfulCount();
+    void setHelpfulCount(Integer helpfulCount);
+    void setNotHelpfulCount(Integer notHelpfulCount);
     ReviewStatusType getStatus();
     RatingSummary getRatingSummary();
     RatingDetail getRatingDetail();
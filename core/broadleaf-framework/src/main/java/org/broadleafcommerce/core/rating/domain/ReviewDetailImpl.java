@@ -46,6 +46,11 @@ import javax.persistence.Table;
 @Entity
 @Inheritance(strategy = InheritanceType.JOINED)
 @Table(name = "BLC_REVIEW_DETAIL")
+//multi-column indexes don't appear to get exported correctly when declared at the field level, so declaring here as a workaround
+@org.hibernate.annotations.Table(appliesTo = "BLC_REVIEW_DETAIL", indexes = {
+        @Index(name = "REVIEWDETAIL_SUMM_DATE_INDEX", columnNames = {"RATING_SUMMARY_ID", "REVIEW_SUBMITTED_DATE"}),
+        @Index(name = "REVIEWDETAIL_SUMM_HELP_INDEX", columnNames = {"RATING_SUMMARY_ID", "HELPFUL_COUNT"})
+})
 public class ReviewDetailImpl implements ReviewDetail {
 
     @Id
@@ -150,6 +155,16 @@ public class ReviewDetailImpl implements ReviewDetail {
         return notHelpfulCount;
     }
 
+    @Override
+    public void setHelpfulCount(Integer helpfulCount) {
+        this.helpfulCount = helpfulCount;
+    }
+
+    @Override
+    public void setNotHelpfulCount(Integer notHelpfulCount) {
+        this.notHelpfulCount = notHelpfulCount;
+    }
+
     @Override
     public RatingSummary getRatingSummary() {
         return ratingSummary;
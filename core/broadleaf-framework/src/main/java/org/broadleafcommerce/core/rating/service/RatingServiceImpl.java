@@ -19,7 +19,6 @@
  */
 package org.broadleafcommerce.core.rating.service;
 
-import org.apache.commons.beanutils.BeanComparator;
 import org.broadleafcommerce.common.time.SystemTime;
 import org.broadleafcommerce.core.rating.dao.RatingSummaryDao;
 import org.broadleafcommerce.core.rating.dao.ReviewDetailDao;
@@ -35,7 +34,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -68,6 +66,11 @@ public class RatingServiceImpl implements RatingService {
             reviewFeedback.setIsHelpful(helpful);
             reviewFeedback.setReviewDetail(reviewDetail);
             reviewDetail.getReviewFeedback().add(reviewFeedback);
+            if (Boolean.TRUE.equals(helpful)) {
+                reviewDetail.setHelpfulCount(increment(reviewDetail.helpfulCount()));
+            } else {
+                reviewDetail.setNotHelpfulCount(increment(reviewDetail.notHelpfulCount()));
+            }
             reviewDetailDao.saveReviewDetail(reviewDetail);
         }
 
@@ -76,22 +79,8 @@ public class RatingServiceImpl implements RatingService {
     @Override
     @Transactional("blTransactionManager")
     public void rateItem(String itemId, RatingType type, Customer customer, Double rating) {
-        RatingSummary ratingSummary = this.readRatingSummary(itemId, type);
-
-        if (ratingSummary == null) {
-            ratingSummary = ratingSummaryDao.createSummary(itemId, type);
-        }
-
-        RatingDetail ratingDetail = ratingSummaryDao.readRating(customer.getId(), ratingSummary.getId());
-
-        if (ratingDetail == null) {
-            ratingDetail = ratingSummaryDao.createDetail(ratingSummary, rating, SystemTime.asDate(), customer);
-        }
-
-        ratingDetail.setRating(rating);
-
-        ratingSummary.getRatings().add(ratingDetail);
-        ratingSummaryDao.saveRatingSummary(ratingSummary);
+        RatingSummary ratingSummary = readOrCreateRatingSummary(itemId, type);
+        saveRating(ratingSummary, customer, rating);
     }
 
     @Override
@@ -112,32 +101,13 @@ public class RatingServiceImpl implements RatingService {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public List<ReviewDetail> readReviews(String itemId, RatingType type, int start, int finish, RatingSortType sortBy) {
         RatingSummary summary = this.readRatingSummary(itemId, type);
-        List<ReviewDetail> reviews = summary.getReviews();
-        List<ReviewDetail> reviewsToReturn = new ArrayList<ReviewDetail>();
-        int i = 0;
-        for (ReviewDetail review : reviews) {
-            if (i > finish) {
-                break;
-            }
-
-            if (i >= start) {
-                reviewsToReturn.add(review);
-            }
-
-            i++;
+        if (summary == null || finish < start) {
+            return new ArrayList<ReviewDetail>();
         }
-
-        String sortByBeanProperty = "reviewSubmittedDate";
-        if (sortBy == RatingSortType.MOST_HELPFUL) {
-            sortByBeanProperty = "helpfulCount";
-        }
-
-        Collections.sort(reviewsToReturn, new BeanComparator(sortByBeanProperty));
-
-        return reviewsToReturn;
+        // start and finish are both inclusive
+        return reviewDetailDao.readReviews(summary.getId(), start, finish - start + 1, sortBy);
     }
 
     @Override
@@ -149,34 +119,18 @@ public class RatingServiceImpl implements RatingService {
     @Override
     @Transactional("blTransactionManager")
     public void reviewItem(String itemId, RatingType type, Customer customer, Double rating, String reviewText) {
-        RatingSummary ratingSummary = this.readRatingSummary(itemId, type);
-
-        if (ratingSummary == null) {
-            ratingSummary = ratingSummaryDao.createSummary(itemId, type);
-        }
-
-        RatingDetail ratingDetail = ratingSummaryDao.readRating(customer.getId(), ratingSummary.getId());
-
-        if (ratingDetail == null) {
-            ratingDetail = ratingSummaryDao.createDetail(ratingSummary, rating, SystemTime.asDate(), customer);
-        } else {
-            ratingDetail.setRating(rating);         
-        }
-
-        ratingSummary.getRatings().add(ratingDetail);
+        RatingSummary ratingSummary = readOrCreateRatingSummary(itemId, type);
+        RatingDetail ratingDetail = saveRating(ratingSummary, customer, rating);
 
         ReviewDetail reviewDetail = ratingSummaryDao.readReview(customer.getId(), ratingSummary.getId());
 
         if (reviewDetail == null) {
+            ratingSummaryDao.incrementReviewCount(ratingSummary);
             reviewDetail = new ReviewDetailImpl(customer, SystemTime.asDate(), ratingDetail, reviewText, ratingSummary);
+            reviewDetailDao.saveReviewDetail(reviewDetail);
         } else {
             reviewDetail.setReviewText(reviewText);         
         }
-
-        ratingSummary.getReviews().add(reviewDetail);
-        // load reviews
-        ratingSummary.getReviews().size();
-        ratingSummaryDao.saveRatingSummary(ratingSummary);
     }
     
     @Override
@@ -184,4 +138,40 @@ public class RatingServiceImpl implements RatingService {
         return reviewDetailDao.readReviewByCustomerAndItem(customer, itemId);
     }
 
+    protected RatingSummary readOrCreateRatingSummary(String itemId, RatingType type) {
+        RatingSummary ratingSummary = this.readRatingSummary(itemId, type);
+
+        if (ratingSummary == null) {
+            // save right away so that the rating and review details can reference the summary by id
+            ratingSummary = ratingSummaryDao.saveRatingSummary(ratingSummaryDao.createSummary(itemId, type));
+        }
+
+        return ratingSummary;
+    }
+
+    /**
+     * Creates or updates the rating of the customer and applies it to the aggregates of the summary. The rating is
+     * saved on its own, rather than through the ratings collection of the summary, so that the existing ratings do not
+     * have to be loaded, and the aggregates are updated atomically in the database so that concurrent ratings of the
+     * same item are not lost.
+     */
+    protected RatingDetail saveRating(RatingSummary ratingSummary, Customer customer, Double rating) {
+        RatingDetail ratingDetail = ratingSummaryDao.readRating(customer.getId(), ratingSummary.getId());
+
+        if (ratingDetail == null) {
+            ratingSummaryDao.updateRatingAggregates(ratingSummary, null, rating);
+            ratingDetail = ratingSummaryDao.createDetail(ratingSummary, rating, SystemTime.asDate(), customer);
+            ratingDetail = ratingSummaryDao.saveRatingDetail(ratingDetail);
+        } else {
+            ratingSummaryDao.updateRatingAggregates(ratingSummary, ratingDetail.getRating(), rating);
+            ratingDetail.setRating(rating);
+        }
+
+        return ratingDetail;
+    }
+
+    protected Integer increment(Integer count) {
+        return count == null ? 1 : count + 1;
+    }
+
 }
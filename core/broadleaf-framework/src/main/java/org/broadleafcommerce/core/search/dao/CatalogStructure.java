@@ -21,58 +21,591 @@ package org.broadleafcommerce.core.search.dao;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 /**
- * Lightweight bean representation of
+ * Compact representation of
  * <p>
  * (1) All the immediate parent categories for a given product
- * (2) All the immediate parent categories for a give category and
- * (3) All the child products for a given category
+ * (2) All the immediate parent categories for a given category and
+ * (3) The display order of each product within its categories
  * </p>
+ * Product and category ids are mapped to dense ordinals, and the relationships are stored back to back in primitive
+ * arrays with a start offset and a count per ordinal, in the manner of a compressed sparse row matrix. An index run over
+ * a large catalog therefore holds a handful of arrays instead of a Long, a HashSet entry and a "categoryId-productId"
+ * String for every relationship.
+ * <p>
+ * The list for a product or category is added once, complete, but lists can be added in any order. This is how
+ * {@link SolrIndexDao#populateCatalogStructure(java.util.List, CatalogStructure)} builds the structure up page by page.
+ * Instances are not thread-safe; during indexing each one is confined to the indexing thread.
  *
  * @author Jeff Fischer
  */
 public class CatalogStructure implements Serializable {
 
-    Map<Long, Set<Long>> parentCategoriesByProduct = new HashMap<Long, Set<Long>>();
-    Map<Long, Set<Long>> parentCategoriesByCategory = new HashMap<Long, Set<Long>>();
-    Map<Long, List<Long>> productsByCategory = new HashMap<Long, List<Long>>();
-    Map<String, BigDecimal> displayOrdersByCategoryProduct = new HashMap<String, BigDecimal>();
+    private static final long serialVersionUID = 1L;
 
-    public Map<Long, Set<Long>> getParentCategoriesByProduct() {
-        return parentCategoriesByProduct;
+    protected static final int UNKNOWN = -1;
+    protected static final byte NO_SCALE = Byte.MIN_VALUE;
+    protected static final int INITIAL_CAPACITY = 16;
+
+    protected LongOrdinalMap productOrdinals = new LongOrdinalMap();
+    protected int[] productParentStart = new int[INITIAL_CAPACITY];
+    protected int[] productParentCount = new int[INITIAL_CAPACITY];
+    protected int[] productParents = new int[INITIAL_CAPACITY];
+    protected int productParentSize;
+
+    protected LongOrdinalMap categoryOrdinals = new LongOrdinalMap();
+    protected long[] categoryIds = new long[INITIAL_CAPACITY];
+    protected int[] categoryParentStart = newUnknownArray(INITIAL_CAPACITY);
+    protected int[] categoryParentCount = new int[INITIAL_CAPACITY];
+    protected int[] categoryParents = new int[INITIAL_CAPACITY];
+    protected int categoryParentSize;
+
+    protected int[] categoryProductStart = newUnknownArray(INITIAL_CAPACITY);
+    protected int[] categoryProductCount = new int[INITIAL_CAPACITY];
+    protected long[] categoryProductIds = new long[INITIAL_CAPACITY];
+    protected long[] displayOrderUnscaled = new long[INITIAL_CAPACITY];
+    protected byte[] displayOrderScale = new byte[INITIAL_CAPACITY];
+    protected int categoryProductSize;
+    protected Map<Integer, BigDecimal> wideDisplayOrders = new HashMap<Integer, BigDecimal>();
+
+    protected transient int[] visitMarks;
+    protected transient int visitEpoch;
+    protected transient int[] visitStack;
+
+    /**
+     * @return whether the parent categories of the product have been added
+     */
+    public boolean containsProduct(long productId) {
+        return productOrdinals.get(productId) != UNKNOWN;
     }
 
-    public void setParentCategoriesByProduct(Map<Long, Set<Long>> parentCategoriesByProduct) {
-        this.parentCategoriesByProduct = parentCategoriesByProduct;
+    /**
+     * Adds the immediate parent categories of a product. Does nothing if they were already added.
+     */
+    public void addProductParents(long productId, Collection<Long> parentCategoryIds) {
+        if (containsProduct(productId)) {
+            return;
+        }
+        int ordinal = productOrdinals.add(productId);
+        if (ordinal == productParentStart.length) {
+            productParentStart = Arrays.copyOf(productParentStart, ordinal * 2);
+            productParentCount = Arrays.copyOf(productParentCount, ordinal * 2);
+        }
+        productParents = ensureCapacity(productParents, productParentSize + parentCategoryIds.size());
+        productParentStart[ordinal] = productParentSize;
+        productParentCount[ordinal] = parentCategoryIds.size();
+        for (Long parentCategoryId : parentCategoryIds) {
+            productParents[productParentSize++] = categoryOrdinal(parentCategoryId);
+        }
     }
 
-    public Map<Long, Set<Long>> getParentCategoriesByCategory() {
-        return parentCategoriesByCategory;
+    /**
+     * @return the number of immediate parent categories of the product, or 0 if none were added
+     */
+    public int getProductParentCount(long productId) {
+        int ordinal = productOrdinals.get(productId);
+        return ordinal == UNKNOWN ? 0 : productParentCount[ordinal];
     }
 
-    public void setParentCategoriesByCategory(Map<Long, Set<Long>> parentCategoriesByCategory) {
-        this.parentCategoriesByCategory = parentCategoriesByCategory;
+    /**
+     * @return the id of the product's immediate parent category at the given position
+     */
+    public long getProductParent(long productId, int index) {
+        int ordinal = productOrdinals.get(productId);
+        if (ordinal == UNKNOWN || index < 0 || index >= productParentCount[ordinal]) {
+            throw new IndexOutOfBoundsException("Product " + productId + " has no parent category at " + index);
+        }
+        return categoryIds[productParents[productParentStart[ordinal] + index]];
     }
 
-    public Map<Long, List<Long>> getProductsByCategory() {
-        return productsByCategory;
+    /**
+     * @return whether the parent categories of the category have been added
+     */
+    public boolean containsCategoryParents(long categoryId) {
+        int ordinal = categoryOrdinals.get(categoryId);
+        return ordinal != UNKNOWN && categoryParentStart[ordinal] != UNKNOWN;
+    }
+
+    /**
+     * Adds the immediate parent categories of a category. Does nothing if they were already added.
+     */
+    public void addCategoryParents(long categoryId, Collection<Long> parentCategoryIds) {
+        int ordinal = categoryOrdinal(categoryId);
+        if (categoryParentStart[ordinal] != UNKNOWN) {
+            return;
+        }
+        categoryParents = ensureCapacity(categoryParents, categoryParentSize + parentCategoryIds.size());
+        int start = categoryParentSize;
+        for (Long parentCategoryId : parentCategoryIds) {
+            categoryParents[categoryParentSize++] = categoryOrdinal(parentCategoryId);
+        }
+        categoryParentStart[ordinal] = start;
+        categoryParentCount[ordinal] = parentCategoryIds.size();
+    }
+
+    /**
+     * @return the number of immediate parent categories of the category, or 0 if none were added
+     */
+    public int getCategoryParentCount(long categoryId) {
+        int ordinal = categoryOrdinals.get(categoryId);
+        return ordinal == UNKNOWN || categoryParentStart[ordinal] == UNKNOWN ? 0 : categoryParentCount[ordinal];
+    }
+
+    /**
+     * @return the id of the category's immediate parent category at the given position
+     */
+    public long getCategoryParent(long categoryId, int index) {
+        int ordinal = categoryOrdinals.get(categoryId);
+        if (ordinal == UNKNOWN || index < 0 || index >= getCategoryParentCount(categoryId)) {
+            throw new IndexOutOfBoundsException("Category " + categoryId + " has no parent category at " + index);
+        }
+        return categoryIds[categoryParents[categoryParentStart[ordinal] + index]];
+    }
+
+    /**
+     * Calls the visitor once for the category and once for each of its ancestors, walking up depth first. Categories
+     * reached along more than one path, or through a circular reference, are only visited once. Nothing is allocated
+     * once the internal traversal buffers have grown to the size of the category graph.
+     */
+    public void visitCategoryHierarchy(long categoryId, CategoryVisitor visitor) {
+        int ordinal = categoryOrdinals.get(categoryId);
+        if (ordinal == UNKNOWN) {
+            visitor.visit(categoryId);
+            return;
+        }
+        int categoryCount = categoryOrdinals.size();
+        if (visitMarks == null || visitMarks.length < categoryCount) {
+            visitMarks = new int[Math.max(categoryCount, INITIAL_CAPACITY)];
+            visitEpoch = 0;
+        }
+        if (++visitEpoch == 0) {
+            Arrays.fill(visitMarks, 0);
+            visitEpoch = 1;
+        }
+        if (visitStack == null) {
+            visitStack = new int[INITIAL_CAPACITY];
+        }
+        int top = 0;
+        visitStack[top++] = ordinal;
+        visitMarks[ordinal] = visitEpoch;
+        while (top > 0) {
+            int current = visitStack[--top];
+            visitor.visit(categoryIds[current]);
+            int start = categoryParentStart[current];
+            if (start == UNKNOWN) {
+                continue;
+            }
+            // push in reverse so that parents are visited in the order they were added
+            for (int i = start + categoryParentCount[current] - 1; i >= start; i--) {
+                int parent = categoryParents[i];
+                if (visitMarks[parent] != visitEpoch) {
+                    visitMarks[parent] = visitEpoch;
+                    if (top == visitStack.length) {
+                        visitStack = Arrays.copyOf(visitStack, top * 2);
+                    }
+                    visitStack[top++] = parent;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return whether the products of the category have been added
+     */
+    public boolean containsCategoryProducts(long categoryId) {
+        int ordinal = categoryOrdinals.get(categoryId);
+        return ordinal != UNKNOWN && categoryProductStart[ordinal] != UNKNOWN;
+    }
+
+    /**
+     * Adds the products of a category along with their display orders. Does nothing if they were already added.
+     *
+     * @param categoryId
+     * @param productIds the products in the category
+     * @param displayOrders the display order of each product, in the same order (entries may be null)
+     * @param count the number of entries to read from the arrays
+     */
+    public void addCategoryProducts(long categoryId, long[] productIds, BigDecimal[] displayOrders, int count) {
+        int ordinal = categoryOrdinal(categoryId);
+        if (categoryProductStart[ordinal] != UNKNOWN) {
+            return;
+        }
+        int start = categoryProductSize;
+        int end = start + count;
+        categoryProductIds = ensureCapacity(categoryProductIds, end);
+        displayOrderUnscaled = ensureCapacity(displayOrderUnscaled, end);
+        displayOrderScale = ensureCapacity(displayOrderScale, end);
+        for (int i = 0; i < count; i++) {
+            int position = start + i;
+            categoryProductIds[position] = productIds[i];
+            BigDecimal displayOrder = displayOrders[i];
+            if (displayOrder == null) {
+                displayOrderScale[position] = NO_SCALE;
+            } else if (displayOrder.scale() > NO_SCALE && displayOrder.scale() <= Byte.MAX_VALUE
+                    && displayOrder.unscaledValue().bitLength() < 64) {
+                displayOrderUnscaled[position] = displayOrder.unscaledValue().longValue();
+                displayOrderScale[position] = (byte) displayOrder.scale();
+            } else {
+                displayOrderScale[position] = NO_SCALE;
+                wideDisplayOrders.put(position, displayOrder);
+            }
+        }
+        sortByProductId(start, end);
+        categoryProductSize = end;
+        categoryProductStart[ordinal] = start;
+        categoryProductCount[ordinal] = count;
+    }
+
+    /**
+     * @return the display order of the product within the category, or null if there is none
+     */
+    public BigDecimal getDisplayOrder(long categoryId, long productId) {
+        int ordinal = categoryOrdinals.get(categoryId);
+        if (ordinal == UNKNOWN || categoryProductStart[ordinal] == UNKNOWN) {
+            return null;
+        }
+        int start = categoryProductStart[ordinal];
+        int position = Arrays.binarySearch(categoryProductIds, start, start + categoryProductCount[ordinal], productId);
+        if (position < 0) {
+            return null;
+        }
+        byte scale = displayOrderScale[position];
+        if (scale == NO_SCALE) {
+            return wideDisplayOrders.isEmpty() ? null : wideDisplayOrders.get(position);
+        }
+        return BigDecimal.valueOf(displayOrderUnscaled[position], scale);
+    }
+
+    public int getProductCount() {
+        return productOrdinals.size();
+    }
+
+    public int getCategoryCount() {
+        return categoryOrdinals.size();
+    }
+
+    /**
+     * @return a copy of the immediate parent categories of each product, keyed by product id. Changes to the returned
+     * map are not reflected in this structure.
+     * @deprecated builds a boxed copy of the structure on every call, which defeats its purpose on large catalogs. Use
+     * {@link #getProductParentCount(long)} and {@link #getProductParent(long, int)} instead.
+     */
+    @Deprecated
+    public Map<Long, Set<Long>> getParentCategoriesByProduct() {
+        long[] productIds = productOrdinals.getKeysByOrdinal();
+        Map<Long, Set<Long>> parentCategoriesByProduct = new HashMap<Long, Set<Long>>(productIds.length * 2);
+        for (int ordinal = 0; ordinal < productIds.length; ordinal++) {
+            Set<Long> parents = new LinkedHashSet<Long>();
+            int start = productParentStart[ordinal];
+            for (int i = start; i < start + productParentCount[ordinal]; i++) {
+                parents.add(categoryIds[productParents[i]]);
+            }
+            parentCategoriesByProduct.put(productIds[ordinal], parents);
+        }
+        return parentCategoriesByProduct;
+    }
+
+    /**
+     * @return a copy of the immediate parent categories of each category whose parents have been added, keyed by
+     * category id. Changes to the returned map are not reflected in this structure.
+     * @deprecated builds a boxed copy of the structure on every call. Use {@link #getCategoryParentCount(long)},
+     * {@link #getCategoryParent(long, int)} or {@link #visitCategoryHierarchy(long, CategoryVisitor)} instead.
+     */
+    @Deprecated
+    public Map<Long, Set<Long>> getParentCategoriesByCategory() {
+        Map<Long, Set<Long>> parentCategoriesByCategory = new HashMap<Long, Set<Long>>(categoryOrdinals.size() * 2);
+        for (int ordinal = 0; ordinal < categoryOrdinals.size(); ordinal++) {
+            int start = categoryParentStart[ordinal];
+            if (start == UNKNOWN) {
+                continue;
+            }
+            Set<Long> parents = new LinkedHashSet<Long>();
+            for (int i = start; i < start + categoryParentCount[ordinal]; i++) {
+                parents.add(categoryIds[categoryParents[i]]);
+            }
+            parentCategoriesByCategory.put(categoryIds[ordinal], parents);
+        }
+        return parentCategoriesByCategory;
     }
 
-    public void setProductsByCategory(Map<Long, List<Long>> productsByCategory) {
-        this.productsByCategory = productsByCategory;
+    /**
+     * @return a copy of the products of each category whose products have been added, keyed by category id, with the
+     * products in id order. Changes to the returned map are not reflected in this structure.
+     * @deprecated builds a boxed copy of the structure on every call. Use {@link #containsCategoryProducts(long)} and
+     * {@link #getDisplayOrder(long, long)} instead.
+     */
+    @Deprecated
+    public Map<Long, List<Long>> getProductsByCategory() {
+        Map<Long, List<Long>> productsByCategory = new HashMap<Long, List<Long>>(categoryOrdinals.size() * 2);
+        for (int ordinal = 0; ordinal < categoryOrdinals.size(); ordinal++) {
+            int start = categoryProductStart[ordinal];
+            if (start == UNKNOWN) {
+                continue;
+            }
+            List<Long> products = new ArrayList<Long>(categoryProductCount[ordinal]);
+            for (int i = start; i < start + categoryProductCount[ordinal]; i++) {
+                products.add(categoryProductIds[i]);
+            }
+            productsByCategory.put(categoryIds[ordinal], products);
+        }
+        return productsByCategory;
     }
 
+    /**
+     * @return a copy of the display order of each product within its categories, keyed by "categoryId-productId".
+     * Changes to the returned map are not reflected in this structure.
+     * @deprecated builds a boxed copy of the structure on every call. Use {@link #getDisplayOrder(long, long)} instead.
+     */
+    @Deprecated
     public Map<String, BigDecimal> getDisplayOrdersByCategoryProduct() {
+        Map<String, BigDecimal> displayOrdersByCategoryProduct = new HashMap<String, BigDecimal>(categoryProductSize * 2);
+        for (int ordinal = 0; ordinal < categoryOrdinals.size(); ordinal++) {
+            int start = categoryProductStart[ordinal];
+            if (start == UNKNOWN) {
+                continue;
+            }
+            for (int i = start; i < start + categoryProductCount[ordinal]; i++) {
+                displayOrdersByCategoryProduct.put(categoryIds[ordinal] + "-" + categoryProductIds[i],
+                        getDisplayOrder(categoryIds[ordinal], categoryProductIds[i]));
+            }
+        }
         return displayOrdersByCategoryProduct;
     }
 
-    public void setDisplayOrdersByCategoryProduct(Map<String, BigDecimal> displayOrdersByCategoryProduct) {
-        this.displayOrdersByCategoryProduct = displayOrdersByCategoryProduct;
+    /**
+     * @return the approximate number of bytes held by the arrays of this structure
+     */
+    public long getSizeInBytes() {
+        long size = productOrdinals.getSizeInBytes() + categoryOrdinals.getSizeInBytes();
+        size += 4L * (productParentStart.length + productParentCount.length + productParents.length);
+        size += 8L * categoryIds.length;
+        size += 4L * (categoryParentStart.length + categoryParentCount.length + categoryParents.length);
+        size += 4L * (categoryProductStart.length + categoryProductCount.length);
+        size += 8L * (categoryProductIds.length + displayOrderUnscaled.length) + displayOrderScale.length;
+        return size;
+    }
+
+    protected int categoryOrdinal(long categoryId) {
+        int ordinal = categoryOrdinals.get(categoryId);
+        if (ordinal != UNKNOWN) {
+            return ordinal;
+        }
+        ordinal = categoryOrdinals.add(categoryId);
+        if (ordinal == categoryIds.length) {
+            int capacity = ordinal * 2;
+            categoryIds = Arrays.copyOf(categoryIds, capacity);
+            categoryParentStart = copyUnknown(categoryParentStart, capacity);
+            categoryParentCount = Arrays.copyOf(categoryParentCount, capacity);
+            categoryProductStart = copyUnknown(categoryProductStart, capacity);
+            categoryProductCount = Arrays.copyOf(categoryProductCount, capacity);
+        }
+        categoryIds[ordinal] = categoryId;
+        return ordinal;
+    }
+
+    /**
+     * Sorts the product ids in [from, to) along with their display orders, so that they can be binary searched
+     */
+    protected void sortByProductId(int from, int to) {
+        boolean sorted = true;
+        for (int i = from + 1; i < to && sorted; i++) {
+            sorted = categoryProductIds[i - 1] <= categoryProductIds[i];
+        }
+        if (sorted) {
+            return;
+        }
+        // display orders too wide to pack are keyed by position, so re-key them once the positions have moved
+        Map<Long, BigDecimal> wide = null;
+        if (!wideDisplayOrders.isEmpty()) {
+            wide = new HashMap<Long, BigDecimal>();
+            for (int i = from; i < to; i++) {
+                BigDecimal value = wideDisplayOrders.remove(i);
+                if (value != null) {
+                    wide.put(categoryProductIds[i], value);
+                }
+            }
+        }
+        quickSort(from, to - 1);
+        if (wide != null) {
+            for (int i = from; i < to; i++) {
+                BigDecimal value = wide.get(categoryProductIds[i]);
+                if (value != null) {
+                    wideDisplayOrders.put(i, value);
+                }
+            }
+        }
+    }
+
+    protected void quickSort(int low, int high) {
+        while (high - low > 16) {
+            long pivot = categoryProductIds[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (categoryProductIds[i] < pivot) {
+                    i++;
+                }
+                while (categoryProductIds[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            // recurse into the smaller half to bound the stack depth
+            if (j - low < high - i) {
+                quickSort(low, j);
+                low = i;
+            } else {
+                quickSort(i, high);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            for (int j = i; j > low && categoryProductIds[j - 1] > categoryProductIds[j]; j--) {
+                swap(j - 1, j);
+            }
+        }
+    }
+
+    protected void swap(int i, int j) {
+        long id = categoryProductIds[i];
+        categoryProductIds[i] = categoryProductIds[j];
+        categoryProductIds[j] = id;
+        long unscaled = displayOrderUnscaled[i];
+        displayOrderUnscaled[i] = displayOrderUnscaled[j];
+        displayOrderUnscaled[j] = unscaled;
+        byte scale = displayOrderScale[i];
+        displayOrderScale[i] = displayOrderScale[j];
+        displayOrderScale[j] = scale;
+    }
+
+    protected static int[] newUnknownArray(int capacity) {
+        int[] array = new int[capacity];
+        Arrays.fill(array, UNKNOWN);
+        return array;
+    }
+
+    protected static int[] copyUnknown(int[] array, int capacity) {
+        int length = array.length;
+        int[] copy = Arrays.copyOf(array, capacity);
+        Arrays.fill(copy, length, capacity, UNKNOWN);
+        return copy;
+    }
+
+    protected static int[] ensureCapacity(int[] array, int capacity) {
+        return capacity <= array.length ? array : Arrays.copyOf(array, Math.max(capacity, array.length * 2));
+    }
+
+    protected static long[] ensureCapacity(long[] array, int capacity) {
+        return capacity <= array.length ? array : Arrays.copyOf(array, Math.max(capacity, array.length * 2));
+    }
+
+    protected static byte[] ensureCapacity(byte[] array, int capacity) {
+        return capacity <= array.length ? array : Arrays.copyOf(array, Math.max(capacity, array.length * 2));
+    }
+
+    /**
+     * Receives each category visited by {@link CatalogStructure#visitCategoryHierarchy(long, CategoryVisitor)}
+     */
+    public interface CategoryVisitor {
+
+        void visit(long categoryId);
+
+    }
+
+    /**
+     * Open addressing map from a long id to the order in which it was added, without boxing
+     */
+    protected static class LongOrdinalMap implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        protected long[] keys = new long[INITIAL_CAPACITY * 2];
+        // ordinal + 1, so that 0 marks an empty slot
+        protected int[] values = new int[INITIAL_CAPACITY * 2];
+        protected int size;
+
+        public int get(long key) {
+            int mask = keys.length - 1;
+            for (int slot = hash(key) & mask; values[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return values[slot] - 1;
+                }
+            }
+            return UNKNOWN;
+        }
+
+        /**
+         * Adds a key that is not in the map yet
+         *
+         * @return the ordinal of the key
+         */
+        public int add(long key) {
+            if ((size + 1) * 2 > keys.length) {
+                rehash(keys.length * 2);
+            }
+            int ordinal = size++;
+            insert(keys, values, key, ordinal + 1);
+            return ordinal;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @return the keys, indexed by their ordinal
+         */
+        public long[] getKeysByOrdinal() {
+            long[] keysByOrdinal = new long[size];
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] != 0) {
+                    keysByOrdinal[values[i] - 1] = keys[i];
+                }
+            }
+            return keysByOrdinal;
+        }
+
+        public long getSizeInBytes() {
+            return 12L * keys.length;
+        }
+
+        protected void rehash(int capacity) {
+            long[] newKeys = new long[capacity];
+            int[] newValues = new int[capacity];
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] != 0) {
+                    insert(newKeys, newValues, keys[i], values[i]);
+                }
+            }
+            keys = newKeys;
+            values = newValues;
+        }
+
+        protected static void insert(long[] keys, int[] values, long key, int value) {
+            int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            while (values[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        protected static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
     }
 
 }
@@ -22,14 +22,13 @@ package org.broadleafcommerce.core.search.dao;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.broadleafcommerce.common.sandbox.SandBoxHelper;
-import org.broadleafcommerce.common.util.BLCCollectionUtils;
-import org.broadleafcommerce.common.util.TypedTransformer;
 import org.broadleafcommerce.core.catalog.domain.CategoryImpl;
 import org.broadleafcommerce.core.catalog.domain.ProductImpl;
 import org.springframework.stereotype.Repository;
 
 import com.google.common.collect.BiMap;
 
+import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -80,7 +79,7 @@ public class SolrIndexDaoImpl implements SolrIndexDao {
                 if (reverse.containsKey(sandBoxProductVal)) {
                     sandBoxProductVal = reverse.get(sandBoxProductVal);
                 }
-                if (!catalogStructure.getParentCategoriesByProduct().containsKey(sandBoxProductVal)) {
+                if (!catalogStructure.containsProduct(sandBoxProductVal)) {
                     if (!parentCategoriesByProduct.containsKey(sandBoxProductVal)) {
                         parentCategoriesByProduct.put(sandBoxProductVal, new HashSet<Long>());
                     }
@@ -94,34 +93,22 @@ public class SolrIndexDaoImpl implements SolrIndexDao {
             }
             for (Map.Entry<Long, Set<Long>> entry : parentCategoriesByProduct.entrySet()) {
                 for (Long categoryId : entry.getValue()) {
-                    if (!catalogStructure.getParentCategoriesByCategory().containsKey(categoryId)) {
+                    if (!catalogStructure.containsCategoryParents(categoryId)) {
                         Set<Long> hierarchy = new HashSet<Long>();
                         parentCategoriesByCategory.put(categoryId, hierarchy);
                     }
-                    if (!catalogStructure.getProductsByCategory().containsKey(categoryId)) {
+                    if (!catalogStructure.containsCategoryProducts(categoryId)) {
                         List<ProductsByCategoryWithOrder> categoryChildren = readProductIdsByCategory(categoryId);
 
-                        // Cache the display order bigdecimals
-                        for (ProductsByCategoryWithOrder child : categoryChildren) {
-                            catalogStructure.getDisplayOrdersByCategoryProduct().put(categoryId + "-" + child.getProductId(), child.getDisplayOrder());
+                        // Cache the display orders, keyed by the original product ids
+                        long[] childProductIds = new long[categoryChildren.size()];
+                        BigDecimal[] displayOrders = new BigDecimal[categoryChildren.size()];
+                        for (int i = 0; i < childProductIds.length; i++) {
+                            ProductsByCategoryWithOrder child = categoryChildren.get(i);
+                            childProductIds[i] = child.getProductId();
+                            displayOrders[i] = child.getDisplayOrder();
                         }
-
-                        //filter the list for sandbox values
-                        for (Map.Entry<Long, Long> sandBoxProduct : sandBoxProductToOriginalMap.entrySet()) {
-                            for (ProductsByCategoryWithOrder child : categoryChildren) {
-                                if (child.getProductId().equals(sandBoxProduct.getValue())) {
-                                    child.setProductId(sandBoxProduct.getKey());
-                                }
-                            }
-                        }
-                        
-                        List<Long> categoryChildProductIds = BLCCollectionUtils.collectList(categoryChildren, new TypedTransformer<Long>() {
-                            @Override
-                            public Long transform(Object input) {
-                                return ((ProductsByCategoryWithOrder) input).getProductId();
-                            }
-                        });
-                        catalogStructure.getProductsByCategory().put(categoryId, categoryChildProductIds);
+                        catalogStructure.addCategoryProducts(categoryId, childProductIds, displayOrders, childProductIds.length);
                     }
                 }
             }
@@ -129,8 +116,12 @@ public class SolrIndexDaoImpl implements SolrIndexDao {
             pos = (count * batchSize) < products.length ? (count * batchSize) : products.length;
         }
         readFullCategoryHierarchy(parentCategoriesByCategory, new HashSet<Long>());
-        catalogStructure.getParentCategoriesByProduct().putAll(parentCategoriesByProduct);
-        catalogStructure.getParentCategoriesByCategory().putAll(parentCategoriesByCategory);
+        for (Map.Entry<Long, Set<Long>> entry : parentCategoriesByProduct.entrySet()) {
+            catalogStructure.addProductParents(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<Long, Set<Long>> entry : parentCategoriesByCategory.entrySet()) {
+            catalogStructure.addCategoryParents(entry.getKey(), entry.getValue());
+        }
     }
 
     protected List<ProductsByCategoryWithOrder> readProductIdsByCategory(Long categoryId) {
@@ -27,7 +27,9 @@ import org.apache.commons.lang.StringUtils;
 import org.broadleafcommerce.common.exception.ServiceException;
 import org.broadleafcommerce.core.catalog.domain.Category;
 import org.broadleafcommerce.core.catalog.domain.Product;
+import org.broadleafcommerce.core.catalog.domain.Sku;
 import org.broadleafcommerce.core.catalog.service.CatalogService;
+import org.broadleafcommerce.core.catalog.service.dynamic.SkuPricingConsiderationContext;
 import org.broadleafcommerce.core.search.dao.FieldDao;
 import org.broadleafcommerce.core.search.dao.SearchFacetDao;
 import org.broadleafcommerce.core.search.domain.CategorySearchFacet;
@@ -81,6 +83,7 @@ public class DatabaseSearchServiceImpl implements SearchService {
         ProductSearchResult result = new ProductSearchResult();
         setQualifiedKeys(searchCriteria);
         List<Product> products = catalogService.findFilteredActiveProductsByCategory(category, searchCriteria);
+        resolveDynamicPrices(products);
         List<SearchFacetDTO> facets = getCategoryFacets(category);
         setActiveFacets(facets, searchCriteria);
         result.setProducts(products);
@@ -96,6 +99,7 @@ public class DatabaseSearchServiceImpl implements SearchService {
         ProductSearchResult result = new ProductSearchResult();
         setQualifiedKeys(searchCriteria);
         List<Product> products = catalogService.findFilteredActiveProductsByQuery(query, searchCriteria);
+        resolveDynamicPrices(products);
         List<SearchFacetDTO> facets = getSearchFacets();
         setActiveFacets(facets, searchCriteria);
         result.setProducts(products);
@@ -148,6 +152,25 @@ public class DatabaseSearchServiceImpl implements SearchService {
         }
         return facets;
     }
+
+    /**
+     * Prices the default skus of the given products in one call to the dynamic pricing service, when it supports
+     * batches, rather than one call per product as the page renders
+     * 
+     * @param products
+     */
+    protected void resolveDynamicPrices(List<Product> products) {
+        if (products == null || products.isEmpty()) {
+            return;
+        }
+        List<Sku> skus = new ArrayList<Sku>(products.size());
+        for (Product product : products) {
+            if (product.getDefaultSku() != null) {
+                skus.add(product.getDefaultSku());
+            }
+        }
+        SkuPricingConsiderationContext.resolveSkuPrices(skus);
+    }
     
     /**
      * Perform any necessary conversion of the key to be used by the search service
@@ -0,0 +1,119 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.search.service.solr;
+
+import org.broadleafcommerce.core.search.domain.SearchFacetDTO;
+import org.broadleafcommerce.core.search.domain.SearchFacetResultDTO;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * The part of a Solr search result that does not depend on the requesting user: the matching product ids in result
+ * order, the total number of matches and the facet values with their counts. Products and facet DTOs are rebuilt from
+ * it for every request, so the entry can be shared through {@link SolrSearchResultCache}.
+ */
+public class CachedSolrSearchResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    protected final List<Long> productIds;
+    protected final int numResults;
+    protected final List<FacetValue> facetValues;
+    protected final boolean complete;
+
+    /**
+     * @param productIds the product ids in result order
+     * @param numResults the total number of matching products
+     * @param namedFacetMap the facets, keyed by their Solr field, after their results have been set
+     * @param complete false if some of the facet results could not be computed
+     */
+    public CachedSolrSearchResult(List<Long> productIds, int numResults, Map<String, SearchFacetDTO> namedFacetMap,
+            boolean complete) {
+        this.productIds = Collections.unmodifiableList(new ArrayList<Long>(productIds));
+        this.numResults = numResults;
+        this.complete = complete;
+        List<FacetValue> values = new ArrayList<FacetValue>();
+        for (Entry<String, SearchFacetDTO> entry : namedFacetMap.entrySet()) {
+            for (SearchFacetResultDTO result : entry.getValue().getFacetValues()) {
+                values.add(new FacetValue(entry.getKey(), result.getValue(), result.getQuantity(), result.getMinValue(),
+                        result.getMaxValue()));
+            }
+        }
+        this.facetValues = Collections.unmodifiableList(values);
+    }
+
+    /**
+     * Adds the cached facet values to the facets of the current request
+     * 
+     * @param namedFacetMap the facets, keyed by their Solr field
+     */
+    public void applyFacetResults(Map<String, SearchFacetDTO> namedFacetMap) {
+        for (FacetValue value : facetValues) {
+            SearchFacetDTO facetDTO = namedFacetMap.get(value.facetKey);
+            if (facetDTO != null) {
+                SearchFacetResultDTO resultDTO = new SearchFacetResultDTO();
+                resultDTO.setFacet(facetDTO.getFacet());
+                resultDTO.setValue(value.value);
+                resultDTO.setQuantity(value.quantity);
+                resultDTO.setMinValue(value.minValue);
+                resultDTO.setMaxValue(value.maxValue);
+                facetDTO.getFacetValues().add(resultDTO);
+            }
+        }
+    }
+
+    public List<Long> getProductIds() {
+        return productIds;
+    }
+
+    public int getNumResults() {
+        return numResults;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    protected static class FacetValue implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        protected final String facetKey;
+        protected final String value;
+        protected final Integer quantity;
+        protected final BigDecimal minValue;
+        protected final BigDecimal maxValue;
+
+        protected FacetValue(String facetKey, String value, Integer quantity, BigDecimal minValue, BigDecimal maxValue) {
+            this.facetKey = facetKey;
+            this.value = value;
+            this.quantity = quantity;
+            this.minValue = minValue;
+            this.maxValue = maxValue;
+        }
+    }
+
+}
@@ -27,7 +27,6 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.solr.client.solrj.SolrServer;
 import org.apache.solr.client.solrj.SolrServerException;
 import org.apache.solr.common.SolrInputDocument;
-import org.broadleafcommerce.common.exception.ExceptionHelper;
 import org.broadleafcommerce.common.exception.ServiceException;
 import org.broadleafcommerce.common.extension.ExtensionResultStatusType;
 import org.broadleafcommerce.common.locale.domain.Locale;
@@ -54,20 +53,16 @@ import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionStatus;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
 
 import javax.annotation.Resource;
 
@@ -124,15 +119,7 @@ public class SolrIndexServiceImpl implements SolrIndexService {
     }
 
     protected int getCacheSizeInMemoryApproximation(CatalogStructure structure) {
-        try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ObjectOutputStream oos = new ObjectOutputStream(baos);
-            oos.writeObject(structure);
-            oos.close();
-            return baos.size();
-        } catch (IOException e) {
-            throw ExceptionHelper.refineException(e);
-        }
+        return structure == null ? 0 : (int) Math.min(Integer.MAX_VALUE, structure.getSizeInBytes());
     }
 
     @Override
@@ -168,6 +155,7 @@ public class SolrIndexServiceImpl implements SolrIndexService {
 
         // Swap the active and the reindex cores
         shs.swapActiveCores();
+        SolrSearchResultCache.markIndexChanged();
 
         // If we are not in single core mode, we delete the documents for the unused core after swapping
         if (!SolrContext.isSingleCoreMode()) {
@@ -243,6 +231,9 @@ public class SolrIndexServiceImpl implements SolrIndexService {
                 SolrServer server = useReindexServer ? SolrContext.getReindexServer() : SolrContext.getServer();
                 server.add(documents);
                 server.commit();
+                if (!useReindexServer) {
+                    SolrSearchResultCache.markIndexChanged();
+                }
             }
             TransactionUtils.finalizeTransaction(status, transactionManager, false);
         } catch (SolrServerException e) {
@@ -379,25 +370,23 @@ public class SolrIndexServiceImpl implements SolrIndexService {
             extensionManager.getProxy().attachAdditionalBasicFields(product, document, shs);
 
             // The explicit categories are the ones defined by the product itself
-            if (cache.getParentCategoriesByProduct().containsKey(product.getId())) {
-                for (Long categoryId : cache.getParentCategoriesByProduct().get(product.getId())) {
-                    document.addField(shs.getExplicitCategoryFieldName(), shs.getCategoryId(categoryId));
-
-                    String categorySortFieldName = shs.getCategorySortFieldName(shs.getCategoryId(categoryId));
-                    String displayOrderKey = categoryId + "-" + shs.getProductId(product.getId());
-                    BigDecimal displayOrder = cache.getDisplayOrdersByCategoryProduct().get(displayOrderKey);
-                    if (displayOrder == null) {
-                        displayOrderKey = categoryId + "-" + product.getId();
-                        displayOrder = cache.getDisplayOrdersByCategoryProduct().get(displayOrderKey);
-                    }
-
-                    if (document.getField(categorySortFieldName) == null) {
-                        document.addField(categorySortFieldName, displayOrder);
-                    }
+            int parentCount = cache.getProductParentCount(product.getId());
+            for (int i = 0; i < parentCount; i++) {
+                Long categoryId = cache.getProductParent(product.getId(), i);
+                document.addField(shs.getExplicitCategoryFieldName(), shs.getCategoryId(categoryId));
+
+                String categorySortFieldName = shs.getCategorySortFieldName(shs.getCategoryId(categoryId));
+                BigDecimal displayOrder = cache.getDisplayOrder(categoryId, shs.getProductId(product.getId()));
+                if (displayOrder == null) {
+                    displayOrder = cache.getDisplayOrder(categoryId, product.getId());
+                }
 
-                    // This is the entire tree of every category defined on the product
-                    buildFullCategoryHierarchy(document, cache, categoryId, new HashSet<Long>());
+                if (document.getField(categorySortFieldName) == null) {
+                    document.addField(categorySortFieldName, displayOrder);
                 }
+
+                // This is the entire tree of every category defined on the product
+                buildFullCategoryHierarchy(document, cache, categoryId);
             }
         } finally {
             if (!cacheOperationManaged) {
@@ -413,21 +402,18 @@ public class SolrIndexServiceImpl implements SolrIndexService {
      * @param cache the catalog structure cache
      * @param categoryId the current category id
      */
-    protected void buildFullCategoryHierarchy(SolrInputDocument document, CatalogStructure cache, Long categoryId, Set<Long> indexedParents) {
-        Long catIdToAdd = shs.getCategoryId(categoryId); 
-
-        Collection<Object> existingValues = document.getFieldValues(shs.getCategoryFieldName());
-        if (existingValues == null || !existingValues.contains(catIdToAdd)) {
-            document.addField(shs.getCategoryFieldName(), catIdToAdd);
-        }
-
-        Set<Long> parents = cache.getParentCategoriesByCategory().get(categoryId);
-        for (Long parent : parents) {
-            if (!indexedParents.contains(parent)) {
-                indexedParents.add(parent);
-                buildFullCategoryHierarchy(document, cache, parent, indexedParents);
+    protected void buildFullCategoryHierarchy(final SolrInputDocument document, CatalogStructure cache, Long categoryId) {
+        cache.visitCategoryHierarchy(categoryId, new CatalogStructure.CategoryVisitor() {
+            @Override
+            public void visit(long categoryId) {
+                Long catIdToAdd = shs.getCategoryId(categoryId);
+
+                Collection<Object> existingValues = document.getFieldValues(shs.getCategoryFieldName());
+                if (existingValues == null || !existingValues.contains(catIdToAdd)) {
+                    document.addField(shs.getCategoryFieldName(), catIdToAdd);
+                }
             }
-        }
+        });
     }
 
     /**
@@ -0,0 +1,253 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.search.service.solr;
+
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Element;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.request.LukeRequest;
+import org.apache.solr.client.solrj.response.LukeResponse;
+import org.apache.solr.common.SolrException;
+import org.broadleafcommerce.common.time.SystemTime;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches {@link CachedSolrSearchResult}s in the blSolrSearchResults cache, keyed by a normalized form of the
+ * {@link SolrQuery} that produced them.
+ * <p/>
+ * Every key is prefixed with the current index version so that results from before a reindex are never served. The
+ * version changes when this node swaps cores or writes to the live index (see {@link #markIndexChanged()}) and, when
+ * solr.search.cache.index.version.check.seconds is positive, when the version Solr reports for the live core changes.
+ * The latter is what picks up reindexes performed by other nodes. If Solr does not support reporting it, the check is
+ * turned off and the cache's time to live applies instead. Any other failure to read it is retried after a back-off
+ * that doubles with every consecutive failure, up to {@link #maxIndexVersionBackoffSeconds}.
+ */
+@Component("blSolrSearchResultCache")
+public class SolrSearchResultCache {
+
+    private static final Log LOG = LogFactory.getLog(SolrSearchResultCache.class);
+
+    protected static final AtomicLong LOCAL_VERSION = new AtomicLong();
+
+    @Value("${solr.search.cache.enabled}")
+    protected boolean enabled = true;
+
+    @Value("${solr.search.cache.index.version.check.seconds}")
+    protected int indexVersionCheckSeconds = 10;
+
+    /**
+     * Upper bound of the wait before the index version is read again after a failure
+     */
+    protected int maxIndexVersionBackoffSeconds = 300;
+
+    protected Cache cache;
+    protected volatile String serverIndexVersion = "";
+    protected volatile long serverIndexVersionCheckedAt;
+    protected volatile long serverIndexVersionRetryAt;
+    protected volatile int serverIndexVersionFailures;
+    protected volatile boolean serverIndexVersionSupported = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @param key a key built by {@link #buildKey(SolrQuery, String)}
+     * @return the cached result, or null if there is none
+     */
+    public CachedSolrSearchResult get(String key) {
+        Element element = getCache().get(key);
+        return element == null ? null : (CachedSolrSearchResult) element.getObjectValue();
+    }
+
+    public void put(String key, CachedSolrSearchResult result) {
+        getCache().put(new Element(key, result));
+    }
+
+    /**
+     * Builds a key that is the same for any two queries with the same parameters, regardless of the order the
+     * parameters and filter queries were added in.
+     * 
+     * @param query the fully built query
+     * @param context anything else the result depends on, such as the locale
+     * @return the cache key
+     */
+    public String buildKey(SolrQuery query, String context) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(getIndexVersion()).append('|').append(context);
+        for (String name : toSet(query.getParameterNamesIterator())) {
+            String[] values = query.getParams(name);
+            if (values == null) {
+                continue;
+            }
+            if ("fq".equals(name)) {
+                values = values.clone();
+                Arrays.sort(values);
+            }
+            sb.append('|').append(name).append('=');
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append(values[i]);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Invalidates every cached result. Called whenever this node changes the live index.
+     */
+    public static void markIndexChanged() {
+        LOCAL_VERSION.incrementAndGet();
+    }
+
+    public void clear() {
+        markIndexChanged();
+        getCache().removeAll();
+    }
+
+    protected String getIndexVersion() {
+        return LOCAL_VERSION.get() + ":" + getServerIndexVersion();
+    }
+
+    /**
+     * @return the version of the live index as reported by Solr, rechecked at most every
+     * solr.search.cache.index.version.check.seconds
+     */
+    protected String getServerIndexVersion() {
+        if (indexVersionCheckSeconds <= 0 || !serverIndexVersionSupported) {
+            return serverIndexVersion;
+        }
+        long now = SystemTime.asMillis();
+        if (!isServerIndexVersionCheckDue(now)) {
+            return serverIndexVersion;
+        }
+        synchronized (this) {
+            if (serverIndexVersionSupported && isServerIndexVersionCheckDue(now)) {
+                serverIndexVersionCheckedAt = now;
+                try {
+                    Object version = readServerIndexVersion();
+                    if (version == null) {
+                        serverIndexVersionSupported = false;
+                        LOG.warn("Solr does not report an index version, cached search results from before a reindex "
+                                + "on another node will be served until they expire");
+                    } else {
+                        serverIndexVersion = String.valueOf(version);
+                        serverIndexVersionFailures = 0;
+                        serverIndexVersionRetryAt = 0;
+                    }
+                } catch (Exception e) {
+                    if (isServerIndexVersionUnsupported(e)) {
+                        serverIndexVersionSupported = false;
+                        LOG.warn("Solr does not support reading the index version, cached search results from before "
+                                + "a reindex on another node will be served until they expire", e);
+                    } else {
+                        long backoffSeconds = getServerIndexVersionBackoffSeconds(++serverIndexVersionFailures);
+                        serverIndexVersionRetryAt = now + backoffSeconds * 1000L;
+                        LOG.warn("Unable to read the Solr index version, retrying in " + backoffSeconds + " seconds", e);
+                    }
+                }
+            }
+        }
+        return serverIndexVersion;
+    }
+
+    protected boolean isServerIndexVersionCheckDue(long now) {
+        return now - serverIndexVersionCheckedAt >= indexVersionCheckSeconds * 1000L && now >= serverIndexVersionRetryAt;
+    }
+
+    /**
+     * @return the version of the live index, read with a Luke request, or null if Solr does not report one
+     */
+    protected Object readServerIndexVersion() throws Exception {
+        LukeRequest request = new LukeRequest();
+        request.setNumTerms(0);
+        request.setShowSchema(false);
+        LukeResponse response = request.process(SolrContext.getServer());
+        return response.getIndexInfo() == null ? null : response.getIndexInfo().get("version");
+    }
+
+    /**
+     * @return whether the given failure to read the index version means Solr will never be able to report it, such as
+     * when the Luke request handler is not configured, as opposed to Solr being temporarily unavailable
+     */
+    protected boolean isServerIndexVersionUnsupported(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof UnsupportedOperationException) {
+                return true;
+            }
+            if (cause instanceof SolrException
+                    && ((SolrException) cause).code() == SolrException.ErrorCode.NOT_FOUND.code) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the wait before the next read of the index version after the given number of consecutive failures
+     */
+    protected long getServerIndexVersionBackoffSeconds(int failures) {
+        long backoff = Math.max(1, indexVersionCheckSeconds);
+        for (int i = 1; i < failures && backoff < maxIndexVersionBackoffSeconds; i++) {
+            backoff *= 2;
+        }
+        return Math.min(backoff, Math.max(1, maxIndexVersionBackoffSeconds));
+    }
+
+    protected static TreeSet<String> toSet(Iterator<String> iterator) {
+        TreeSet<String> set = new TreeSet<String>();
+        while (iterator.hasNext()) {
+            set.add(iterator.next());
+        }
+        return set;
+    }
+
+    protected Cache getCache() {
+        if (cache == null) {
+            cache = CacheManager.getInstance().getCache("blSolrSearchResults");
+        }
+        return cache;
+    }
+
+    public void setCache(Cache cache) {
+        this.cache = cache;
+    }
+
+    public void setIndexVersionCheckSeconds(int indexVersionCheckSeconds) {
+        this.indexVersionCheckSeconds = indexVersionCheckSeconds;
+    }
+
+}
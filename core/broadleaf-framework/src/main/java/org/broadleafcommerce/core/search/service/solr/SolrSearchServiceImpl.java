@@ -36,6 +36,8 @@ import org.apache.solr.client.solrj.response.GroupCommand;
 import org.apache.solr.client.solrj.response.GroupResponse;
 import org.apache.solr.client.solrj.response.QueryResponse;
 import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.params.CommonParams;
+import org.apache.solr.common.params.FacetParams;
 import org.apache.solr.core.CoreContainer;
 import org.broadleafcommerce.common.exception.ServiceException;
 import org.broadleafcommerce.common.locale.domain.Locale;
@@ -45,6 +47,8 @@ import org.broadleafcommerce.common.web.BroadleafRequestContext;
 import org.broadleafcommerce.core.catalog.dao.ProductDao;
 import org.broadleafcommerce.core.catalog.domain.Category;
 import org.broadleafcommerce.core.catalog.domain.Product;
+import org.broadleafcommerce.core.catalog.domain.Sku;
+import org.broadleafcommerce.core.catalog.service.dynamic.SkuPricingConsiderationContext;
 import org.broadleafcommerce.core.search.dao.FieldDao;
 import org.broadleafcommerce.core.search.dao.SearchFacetDao;
 import org.broadleafcommerce.core.search.domain.CategorySearchFacet;
@@ -59,6 +63,7 @@ import org.broadleafcommerce.core.search.domain.SearchFacetResultDTO;
 import org.broadleafcommerce.core.search.domain.solr.FieldType;
 import org.broadleafcommerce.core.search.service.SearchService;
 import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.xml.sax.SAXException;
 
 import java.io.BufferedInputStream;
@@ -75,9 +80,20 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.Resource;
 import javax.xml.parsers.ParserConfigurationException;
@@ -111,6 +127,20 @@ public class SolrSearchServiceImpl implements SearchService, DisposableBean {
     @Resource(name = "blSolrSearchServiceExtensionManager")
     protected SolrSearchServiceExtensionManager extensionManager;
 
+    @Resource(name = "blSolrSearchResultCache")
+    protected SolrSearchResultCache searchResultCache;
+
+    @Value("${solr.search.facet.parallel.enabled}")
+    protected boolean parallelFacetsEnabled = false;
+
+    @Value("${solr.search.facet.threads}")
+    protected int facetThreads = 8;
+
+    @Value("${solr.search.facet.timeout.millis}")
+    protected long facetTimeoutMillis = 2000;
+
+    protected volatile ExecutorService facetExecutor;
+
     public SolrSearchServiceImpl(String solrServer) throws IOException, ParserConfigurationException, SAXException {
         if ("solrhome".equals(solrServer)) {
 
@@ -255,6 +285,9 @@ public class SolrSearchServiceImpl implements SearchService, DisposableBean {
 
     @Override
     public void destroy() throws Exception {
+        if (facetExecutor != null) {
+            facetExecutor.shutdownNow();
+        }
         if (SolrContext.getServer() instanceof EmbeddedSolrServer) {
             ((EmbeddedSolrServer) SolrContext.getServer()).shutdown();
         }
@@ -376,38 +409,221 @@ public class SolrSearchServiceImpl implements SearchService, DisposableBean {
             }
         }
 
-        // Query solr
-        QueryResponse response;
-        List<SolrDocument> responseDocuments;
-        int numResults = 0;
-        try {
-            response = SolrContext.getServer().query(solrQuery);
-            responseDocuments = getResponseDocuments(response);
-            numResults = (int) response.getResults().getNumFound();
+        String cacheKey = buildSearchResultCacheKey(solrQuery);
+        CachedSolrSearchResult searchResult = cacheKey == null ? null : searchResultCache.get(cacheKey);
+        if (searchResult == null) {
+            searchResult = executeSearch(solrQuery, namedFacetMap);
+            if (cacheKey != null && searchResult.isComplete()) {
+                searchResultCache.put(cacheKey, searchResult);
+            }
+        } else {
+            searchResult.applyFacetResults(namedFacetMap);
+        }
+        sortFacetResults(namedFacetMap);
+
+        // Get the products
+        List<Product> products = getProductsById(searchResult.getProductIds());
+
+        ProductSearchResult result = new ProductSearchResult();
+        result.setFacets(facets);
+        result.setProducts(products);
+        setPagingAttributes(result, searchResult.getNumResults(), searchCriteria);
+        return result;
+    }
+
+    /**
+     * Runs the given query against Solr and sets the facet results on the given facets. When parallel facet
+     * execution is enabled and the query has more than one facet, each facet is computed by its own request,
+     * concurrently with the main query, and facets that do not finish within solr.search.facet.timeout.millis are
+     * left without results.
+     * 
+     * @param solrQuery
+     * @param namedFacetMap
+     * @return the result to cache
+     * @throws ServiceException
+     */
+    protected CachedSolrSearchResult executeSearch(SolrQuery solrQuery, Map<String, SearchFacetDTO> namedFacetMap)
+            throws ServiceException {
+        List<SolrQuery> facetQueries = parallelFacetsEnabled ? splitFacetQueries(solrQuery) : null;
+        if (facetQueries == null || facetQueries.size() < 2) {
+            QueryResponse response = query(solrQuery);
+            setFacetResults(namedFacetMap, response);
+            return new CachedSolrSearchResult(getProductIds(getResponseDocuments(response)),
+                    (int) response.getResults().getNumFound(), namedFacetMap, true);
+        }
+
+        SolrQuery mainQuery = solrQuery.getCopy();
+        mainQuery.remove(FacetParams.FACET_FIELD);
+        mainQuery.remove(FacetParams.FACET_QUERY);
+        mainQuery.setFacet(false);
+
+        List<Future<QueryResponse>> futures = new ArrayList<Future<QueryResponse>>(facetQueries.size());
+        ExecutorService executor = getFacetExecutor();
+        for (final SolrQuery facetQuery : facetQueries) {
+            try {
+                futures.add(executor.submit(new Callable<QueryResponse>() {
+                    @Override
+                    public QueryResponse call() throws Exception {
+                        return SolrContext.getServer().query(facetQuery);
+                    }
+                }));
+            } catch (RejectedExecutionException e) {
+                futures.add(null);
+            }
+        }
+
+        QueryResponse response = query(mainQuery);
+
+        boolean complete = true;
+        long deadline = System.currentTimeMillis() + facetTimeoutMillis;
+        for (int i = 0; i < futures.size(); i++) {
+            Future<QueryResponse> future = futures.get(i);
+            try {
+                if (future == null) {
+                    // No thread was free to compute this facet, so compute it on this one
+                    setFacetResults(namedFacetMap, query(facetQueries.get(i)));
+                } else {
+                    long remaining = Math.max(0, deadline - System.currentTimeMillis());
+                    setFacetResults(namedFacetMap, future.get(remaining, TimeUnit.MILLISECONDS));
+                }
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                complete = false;
+                LOG.warn("Timed out computing facet " + facetQueries.get(i).getFacetFields() + facetQueries.get(i).getFacetQuery());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                complete = false;
+            } catch (Exception e) {
+                complete = false;
+                LOG.warn("Could not compute facet " + facetQueries.get(i).getFacetFields() + facetQueries.get(i).getFacetQuery(), e);
+            }
+        }
+
+        return new CachedSolrSearchResult(getProductIds(getResponseDocuments(response)),
+                (int) response.getResults().getNumFound(), namedFacetMap, complete);
+    }
 
+    protected QueryResponse query(SolrQuery solrQuery) throws ServiceException {
+        try {
+            QueryResponse response = SolrContext.getServer().query(solrQuery);
             if (LOG.isTraceEnabled()) {
                 LOG.trace(response.toString());
 
-                for (SolrDocument doc : responseDocuments) {
+                for (SolrDocument doc : getResponseDocuments(response)) {
                     LOG.trace(doc);
                 }
             }
+            return response;
         } catch (SolrServerException e) {
             throw new ServiceException("Could not perform search", e);
         }
+    }
 
-        // Get the facets
-        setFacetResults(namedFacetMap, response);
-        sortFacetResults(namedFacetMap);
+    /**
+     * Splits the facets of the given query into one facet-only request (no rows) per facet. Range facets are made up
+     * of several facet queries on the same field, which are kept together.
+     * 
+     * @param solrQuery
+     * @return the facet requests
+     */
+    protected List<SolrQuery> splitFacetQueries(SolrQuery solrQuery) {
+        Map<String, List<String>> facetQueriesByField = new LinkedHashMap<String, List<String>>();
+        String[] rangeQueries = solrQuery.getFacetQuery();
+        if (rangeQueries != null) {
+            for (String rangeQuery : rangeQueries) {
+                String field = rangeQuery.substring(rangeQuery.indexOf('}') + 1, rangeQuery.indexOf(':'));
+                List<String> queries = facetQueriesByField.get(field);
+                if (queries == null) {
+                    queries = new ArrayList<String>();
+                    facetQueriesByField.put(field, queries);
+                }
+                queries.add(rangeQuery);
+            }
+        }
 
-        // Get the products
-        List<Product> products = getProducts(responseDocuments);
+        List<SolrQuery> facetRequests = new ArrayList<SolrQuery>();
+        String[] facetFields = solrQuery.getFacetFields();
+        if (facetFields != null) {
+            for (String facetField : facetFields) {
+                SolrQuery facetRequest = createFacetRequest(solrQuery);
+                facetRequest.addFacetField(facetField);
+                facetRequests.add(facetRequest);
+            }
+        }
+        for (List<String> queries : facetQueriesByField.values()) {
+            SolrQuery facetRequest = createFacetRequest(solrQuery);
+            for (String query : queries) {
+                facetRequest.addFacetQuery(query);
+            }
+            facetRequests.add(facetRequest);
+        }
+        return facetRequests;
+    }
 
-        ProductSearchResult result = new ProductSearchResult();
-        result.setFacets(facets);
-        result.setProducts(products);
-        setPagingAttributes(result, numResults, searchCriteria);
-        return result;
+    protected SolrQuery createFacetRequest(SolrQuery solrQuery) {
+        SolrQuery facetRequest = solrQuery.getCopy();
+        facetRequest.remove(FacetParams.FACET_FIELD);
+        facetRequest.remove(FacetParams.FACET_QUERY);
+        facetRequest.remove(CommonParams.SORT);
+        facetRequest.setStart(0);
+        facetRequest.setRows(0);
+        facetRequest.setFacet(true);
+        return facetRequest;
+    }
+
+    /**
+     * @param solrQuery the fully built query
+     * @return the key the result of the given query is cached under, or null if it must not be cached
+     */
+    protected String buildSearchResultCacheKey(SolrQuery solrQuery) {
+        if (searchResultCache == null || !searchResultCache.isEnabled()) {
+            return null;
+        }
+        String pricingContextKey = buildPricingContextKey();
+        if (pricingContextKey == null) {
+            return null;
+        }
+        String localeCode = null;
+        String currencyCode = null;
+        BroadleafRequestContext brc = BroadleafRequestContext.getBroadleafRequestContext();
+        if (brc != null) {
+            localeCode = brc.getLocale() == null ? null : brc.getLocale().getLocaleCode();
+            currencyCode = brc.getBroadleafCurrency() == null ? null : brc.getBroadleafCurrency().getCurrencyCode();
+        }
+        return searchResultCache.buildKey(solrQuery, localeCode + "|" + currencyCode + "|" + pricingContextKey);
+    }
+
+    /**
+     * Search results only depend on what has been indexed, so by default they are shared by every pricing context.
+     * Override this to return a key describing the pricing context when a query depends on it, or null to not cache
+     * results for the current request.
+     * 
+     * @return the pricing context part of the cache key
+     */
+    protected String buildPricingContextKey() {
+        return "default";
+    }
+
+    protected ExecutorService getFacetExecutor() {
+        if (facetExecutor == null) {
+            synchronized (this) {
+                if (facetExecutor == null) {
+                    facetExecutor = new ThreadPoolExecutor(facetThreads, facetThreads, 60L, TimeUnit.SECONDS,
+                            new ArrayBlockingQueue<Runnable>(facetThreads * 4), new ThreadFactory() {
+                                protected final AtomicInteger threadNumber = new AtomicInteger();
+
+                                @Override
+                                public Thread newThread(Runnable r) {
+                                    Thread thread = new Thread(r, "blSolrFacet-" + threadNumber.incrementAndGet());
+                                    thread.setDaemon(true);
+                                    return thread;
+                                }
+                            });
+                    ((ThreadPoolExecutor) facetExecutor).allowCoreThreadTimeOut(true);
+                }
+            }
+        }
+        return facetExecutor;
     }
 
     /**
@@ -657,27 +873,66 @@ public class SolrSearchServiceImpl implements SearchService, DisposableBean {
      * @return the actual Product instances as a result of the search
      */
     protected List<Product> getProducts(List<SolrDocument> responseDocuments) {
-        final List<Long> productIds = new ArrayList<Long>();
+        return getProductsById(getProductIds(responseDocuments));
+    }
+
+    protected List<Long> getProductIds(List<SolrDocument> responseDocuments) {
+        List<Long> productIds = new ArrayList<Long>(responseDocuments.size());
         for (SolrDocument doc : responseDocuments) {
             productIds.add((Long) doc.getFieldValue(shs.getProductIdFieldName()));
         }
+        return productIds;
+    }
 
+    /**
+     * Looks up the products with the given Solr product ids and returns them in the same order as the ids.
+     * 
+     * @param productIds
+     * @return the actual Product instances as a result of the search
+     */
+    protected List<Product> getProductsById(List<Long> productIds) {
         List<Product> products = productDao.readProductsByIds(productIds);
 
         // We have to sort the products list by the order of the productIds list to maintain sortability in the UI
         if (products != null) {
+            final Map<Long, Integer> positions = new HashMap<Long, Integer>();
+            for (int i = 0; i < productIds.size(); i++) {
+                if (!positions.containsKey(productIds.get(i))) {
+                    positions.put(productIds.get(i), i);
+                }
+            }
             Collections.sort(products, new Comparator<Product>() {
                 public int compare(Product o1, Product o2) {
-                    Long o1id = shs.getProductId(o1.getId());
-                    Long o2id = shs.getProductId(o2.getId());
-                    return new Integer(productIds.indexOf(o1id)).compareTo(productIds.indexOf(o2id));
+                    Integer o1Position = positions.get(shs.getProductId(o1.getId()));
+                    Integer o2Position = positions.get(shs.getProductId(o2.getId()));
+                    return (o1Position == null ? -1 : o1Position).compareTo(o2Position == null ? -1 : o2Position);
                 }
             });
         }
+        resolveDynamicPrices(products);
 
         return products;
     }
 
+    /**
+     * Prices the default skus of the given products in one call to the dynamic pricing service, when it supports
+     * batches, rather than one call per product as the page renders
+     * 
+     * @param products
+     */
+    protected void resolveDynamicPrices(List<Product> products) {
+        if (products == null || products.isEmpty()) {
+            return;
+        }
+        List<Sku> skus = new ArrayList<Sku>(products.size());
+        for (Product product : products) {
+            if (product.getDefaultSku() != null) {
+                skus.add(product.getDefaultSku());
+            }
+        }
+        SkuPricingConsiderationContext.resolveSkuPrices(skus);
+    }
+
     /**
      * Create the wrapper DTO around the SearchFacet
      * 
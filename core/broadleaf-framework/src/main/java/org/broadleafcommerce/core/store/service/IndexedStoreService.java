@@ -0,0 +1,50 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.store.service;
+
+import java.util.Map;
+
+import org.broadleafcommerce.core.store.domain.Store;
+import org.broadleafcommerce.profile.core.domain.Address;
+
+/**
+ * A {@link StoreService} that answers its distance searches from an in-memory spatial index of the stores rather than
+ * by reading and measuring every store. Callers that need the nearest-store search or must refresh the index after
+ * changing stores should check for this interface, so that existing implementations of {@link StoreService} keep
+ * compiling.
+ *
+ * @see StoreServiceImpl
+ */
+public interface IndexedStoreService extends StoreService {
+
+    /**
+     * Finds the given number of stores nearest to the postal code of the address
+     *
+     * @return the matching stores mapped to their distance in miles, nearest first
+     */
+    public Map<Store,Double> findNearestStoresByAddress(Address searchAddress, int limit);
+
+    /**
+     * Discards the spatial index of stores used by the distance searches, so that it is rebuilt on the next search.
+     * Should be called after stores are added, removed or moved.
+     */
+    public void invalidateStoreIndex();
+
+}
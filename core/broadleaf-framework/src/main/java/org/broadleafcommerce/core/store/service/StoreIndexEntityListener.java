@@ -0,0 +1,67 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2014 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.store.service;
+
+import org.broadleafcommerce.common.util.ApplicationContextHolder;
+import org.broadleafcommerce.core.store.domain.Store;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * JPA entity listener for {@link Store} that discards the spatial index of {@link IndexedStoreService} once the
+ * transaction that added, changed or removed a store commits, so that the next distance search sees the change.
+ */
+public class StoreIndexEntityListener {
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        final IndexedStoreService service = getIndexedStoreService();
+        if (service == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    service.invalidateStoreIndex();
+                }
+            });
+        } else {
+            service.invalidateStoreIndex();
+        }
+    }
+
+    protected IndexedStoreService getIndexedStoreService() {
+        ApplicationContext applicationContext = ApplicationContextHolder.getApplicationContext();
+        if (applicationContext == null || !applicationContext.containsBean("blStoreService")) {
+            return null;
+        }
+        Object service = applicationContext.getBean("blStoreService");
+        return service instanceof IndexedStoreService ? (IndexedStoreService) service : null;
+    }
+
+}
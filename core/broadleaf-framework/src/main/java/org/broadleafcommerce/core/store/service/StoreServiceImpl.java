@@ -19,20 +19,23 @@
  */
 package org.broadleafcommerce.core.store.service;
 
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 import javax.annotation.Resource;
 
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.broadleafcommerce.core.store.dao.StoreDao;
 import org.broadleafcommerce.core.store.domain.Store;
 import org.broadleafcommerce.core.store.domain.ZipCode;
 import org.broadleafcommerce.profile.core.domain.Address;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service("blStoreService")
-public class StoreServiceImpl implements StoreService {
+public class StoreServiceImpl implements IndexedStoreService {
 
     // private final static int MAXIMUM_DISTANCE = Integer.valueOf(25);
     @Resource(name = "blStoreDao")
@@ -41,6 +44,20 @@ public class StoreServiceImpl implements StoreService {
     @Resource(name = "blZipCodeService")
     private ZipCodeService zipCodeService;
 
+    /**
+     * Stores changed outside of JPA, which {@link StoreIndexEntityListener} does not see, are picked up by the
+     * distance searches after this interval
+     */
+    @Value("${store.index.refresh.interval}")
+    protected long indexRefreshInterval = 300000L;
+
+    /**
+     * Size, in degrees of latitude and longitude, of the cells of the spatial index
+     */
+    protected double indexCellDegrees = 1.0;
+
+    protected volatile StoreSpatialIndex storeIndex;
+
     public Store readStoreById(Long id) {
         return storeDao.readStoreById(id);
     }
@@ -62,26 +79,50 @@ public class StoreServiceImpl implements StoreService {
     }
 
     public Map<Store, Double> findStoresByAddress(Address searchAddress, double distance) {
-        Map<Store, Double> matchingStores = new HashMap<Store, Double>();
-        for (Store store : readAllStores()) {
-            Double storeDistance = findStoreDistance(store, Integer.parseInt(searchAddress.getPostalCode()));
-            if (storeDistance != null && storeDistance <= distance) {
-                matchingStores.put(store, storeDistance);
-            }
+        ZipCode zipCode = findZipCode(searchAddress);
+        if (zipCode == null) {
+            return Collections.emptyMap();
         }
-
-        return matchingStores;
+        return getStoreIndex().findWithin(zipCode.getZipLatitude(), zipCode.getZipLongitude(), distance);
     }
 
-    private Double findStoreDistance(Store store, Integer zip) {
-        ZipCode zipCode = zipCodeService.findZipCodeByZipCode(zip);
+    public Map<Store, Double> findNearestStoresByAddress(Address searchAddress, int limit) {
+        ZipCode zipCode = findZipCode(searchAddress);
         if (zipCode == null) {
+            return Collections.emptyMap();
+        }
+        return getStoreIndex().findNearest(zipCode.getZipLatitude(), zipCode.getZipLongitude(), limit);
+    }
+
+    public void invalidateStoreIndex() {
+        storeIndex = null;
+    }
+
+    /**
+     * Resolves the coordinate of the search once per search, rather than once per store
+     */
+    protected ZipCode findZipCode(Address searchAddress) {
+        if (searchAddress == null) {
+            return null;
+        }
+        String postalCode = StringUtils.substringBefore(StringUtils.trim(searchAddress.getPostalCode()), "-");
+        if (!NumberUtils.isDigits(postalCode)) {
             return null;
         }
-        // A constant used to convert from degrees to radians.
-        double degreesToRadians = 57.3;
-        double storeDistance = 3959 * Math.acos((Math.sin(zipCode.getZipLatitude() / degreesToRadians) * Math.sin(store.getLatitude() / degreesToRadians))
-                + (Math.cos(zipCode.getZipLatitude() / degreesToRadians) * Math.cos(store.getLatitude() / degreesToRadians) * Math.cos((store.getLongitude() / degreesToRadians) - (zipCode.getZipLongitude() / degreesToRadians))));
-        return storeDistance;
+        return zipCodeService.findZipCodeByZipCode(Integer.parseInt(postalCode));
+    }
+
+    protected StoreSpatialIndex getStoreIndex() {
+        StoreSpatialIndex current = storeIndex;
+        if (current == null || System.currentTimeMillis() - current.getBuildTime() > indexRefreshInterval) {
+            synchronized (this) {
+                current = storeIndex;
+                if (current == null || System.currentTimeMillis() - current.getBuildTime() > indexRefreshInterval) {
+                    current = new StoreSpatialIndex(readAllStores(), indexCellDegrees);
+                    storeIndex = current;
+                }
+            }
+        }
+        return current;
     }
 }
@@ -0,0 +1,271 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.store.service;
+
+import org.broadleafcommerce.core.store.domain.Store;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable grid index of stores by latitude and longitude. Stores are bucketed into cells of a fixed number of
+ * degrees, so that radius and nearest-store searches only need to compute the distance to the stores in the cells
+ * surrounding the search coordinate. Distances are great circle distances in miles, computed with the haversine
+ * formula. Stores without a latitude or longitude are not indexed.
+ */
+public class StoreSpatialIndex {
+
+    public static final double EARTH_RADIUS_MILES = 3959;
+
+    protected final double cellDegrees;
+    protected final int rows;
+    protected final int columns;
+    protected final Map<Integer, List<IndexedStore>> cells = new HashMap<Integer, List<IndexedStore>>();
+    protected final int size;
+    protected final long buildTime = System.currentTimeMillis();
+
+    public StoreSpatialIndex(Collection<Store> stores, double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+        this.rows = (int) Math.ceil(180 / cellDegrees);
+        this.columns = (int) Math.ceil(360 / cellDegrees);
+        int count = 0;
+        for (Store store : stores) {
+            if (store.getLatitude() == null || store.getLongitude() == null) {
+                continue;
+            }
+            IndexedStore indexed = new IndexedStore(store, store.getLatitude(), store.getLongitude());
+            Integer cell = cellKey(row(indexed.latitude), column(indexed.longitude));
+            List<IndexedStore> members = cells.get(cell);
+            if (members == null) {
+                members = new ArrayList<IndexedStore>();
+                cells.put(cell, members);
+            }
+            members.add(indexed);
+            count++;
+        }
+        size = count;
+    }
+
+    /**
+     * @return the stores within the given distance (in miles) of the coordinate, nearest first, mapped to their distance
+     */
+    public Map<Store, Double> findWithin(double latitude, double longitude, double distance) {
+        List<StoreMatch> matches = new ArrayList<StoreMatch>();
+        double latitudeSpan = Math.toDegrees(distance / EARTH_RADIUS_MILES);
+        int minRow = row(Math.max(-90, latitude - latitudeSpan));
+        int maxRow = row(Math.min(90, latitude + latitudeSpan));
+        double maxAbsLatitude = Math.min(90, Math.abs(latitude) + latitudeSpan);
+        double longitudeSpan = maxAbsLatitude >= 90 ? 180 : latitudeSpan / Math.cos(Math.toRadians(maxAbsLatitude));
+        int columnSpan = longitudeSpan >= 180 ? columns : (int) Math.ceil(longitudeSpan / cellDegrees);
+        int centerColumn = column(longitude);
+
+        double searchLatitude = Math.toRadians(latitude);
+        double searchLongitude = Math.toRadians(longitude);
+        double cosSearchLatitude = Math.cos(searchLatitude);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column : columnsAround(centerColumn, columnSpan)) {
+                List<IndexedStore> members = cells.get(cellKey(row, column));
+                if (members == null) {
+                    continue;
+                }
+                for (IndexedStore member : members) {
+                    double storeDistance = member.distanceTo(searchLatitude, searchLongitude, cosSearchLatitude);
+                    if (storeDistance <= distance) {
+                        matches.add(new StoreMatch(member.store, storeDistance));
+                    }
+                }
+            }
+        }
+        return toSortedMap(matches, matches.size());
+    }
+
+    /**
+     * @return the given number of stores nearest to the coordinate, nearest first, mapped to their distance in miles
+     */
+    public Map<Store, Double> findNearest(double latitude, double longitude, int limit) {
+        List<StoreMatch> matches = new ArrayList<StoreMatch>();
+        if (limit <= 0 || size == 0) {
+            return toSortedMap(matches, 0);
+        }
+        double searchLatitude = Math.toRadians(latitude);
+        double searchLongitude = Math.toRadians(longitude);
+        double cosSearchLatitude = Math.cos(searchLatitude);
+        int centerRow = row(latitude);
+        int centerColumn = column(longitude);
+        int maxRing = Math.max(rows, columns);
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+                if (row < 0 || row >= rows) {
+                    continue;
+                }
+                boolean edgeRow = row == centerRow - ring || row == centerRow + ring;
+                for (int offset = -ring; offset <= ring; offset++) {
+                    if (!edgeRow && offset != -ring && offset != ring) {
+                        continue;
+                    }
+                    if (2 * ring + 1 > columns && (offset < -(columns / 2) || offset > columns - 1 - columns / 2)) {
+                        // the ring wraps around the whole globe; avoid visiting the same column twice
+                        continue;
+                    }
+                    List<IndexedStore> members = cells.get(cellKey(row, wrapColumn(centerColumn + offset)));
+                    if (members == null) {
+                        continue;
+                    }
+                    for (IndexedStore member : members) {
+                        matches.add(new StoreMatch(member.store, member.distanceTo(searchLatitude, searchLongitude, cosSearchLatitude)));
+                    }
+                }
+            }
+            if (matches.size() >= limit) {
+                Collections.sort(matches, MATCH_COMPARATOR);
+                if (matches.get(limit - 1).distance <= minimumDistanceBeyondRing(latitude, ring)) {
+                    break;
+                }
+            }
+        }
+        return toSortedMap(matches, limit);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getBuildTime() {
+        return buildTime;
+    }
+
+    /**
+     * A lower bound for the distance from the search coordinate to any store in a cell outside of the given ring. Such
+     * a store is at least {@code ring} cells away in latitude, or at least {@code ring} cells away in longitude while
+     * lying in one of the rows covered by the next ring.
+     */
+    protected double minimumDistanceBeyondRing(double latitude, int ring) {
+        double latitudeBound = Math.toRadians(ring * cellDegrees) * EARTH_RADIUS_MILES;
+        double maxAbsLatitude = Math.min(90, Math.abs(latitude) + (ring + 1) * cellDegrees);
+        double longitudeDifference = Math.toRadians(Math.min(180, ring * cellDegrees));
+        double longitudeBound = 2 * EARTH_RADIUS_MILES * Math.asin(Math.cos(Math.toRadians(maxAbsLatitude)) * Math.sin(longitudeDifference / 2));
+        return Math.min(latitudeBound, longitudeBound);
+    }
+
+    protected List<Integer> columnsAround(int centerColumn, int columnSpan) {
+        List<Integer> result = new ArrayList<Integer>();
+        if (2 * columnSpan + 1 >= columns) {
+            for (int column = 0; column < columns; column++) {
+                result.add(column);
+            }
+        } else {
+            for (int offset = -columnSpan; offset <= columnSpan; offset++) {
+                result.add(wrapColumn(centerColumn + offset));
+            }
+        }
+        return result;
+    }
+
+    protected int row(double latitude) {
+        return Math.min(rows - 1, Math.max(0, (int) Math.floor((latitude + 90) / cellDegrees)));
+    }
+
+    protected int column(double longitude) {
+        return wrapColumn((int) Math.floor((longitude + 180) / cellDegrees));
+    }
+
+    protected int wrapColumn(int column) {
+        int wrapped = column % columns;
+        return wrapped < 0 ? wrapped + columns : wrapped;
+    }
+
+    protected Integer cellKey(int row, int column) {
+        return row * columns + column;
+    }
+
+    protected Map<Store, Double> toSortedMap(List<StoreMatch> matches, int limit) {
+        Collections.sort(matches, MATCH_COMPARATOR);
+        Map<Store, Double> result = new LinkedHashMap<Store, Double>();
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            result.put(matches.get(i).store, matches.get(i).distance);
+        }
+        return result;
+    }
+
+    /**
+     * @return the haversine distance in miles between two coordinates given in degrees
+     */
+    public static double haversineDistance(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double lat1 = Math.toRadians(latitude1);
+        double lat2 = Math.toRadians(latitude2);
+        return haversine(lat1, Math.toRadians(longitude1), Math.cos(lat1), lat2, Math.toRadians(longitude2), Math.cos(lat2));
+    }
+
+    protected static double haversine(double lat1, double lon1, double cosLat1, double lat2, double lon2, double cosLat2) {
+        double sinHalfLatitude = Math.sin((lat2 - lat1) / 2);
+        double sinHalfLongitude = Math.sin((lon2 - lon1) / 2);
+        double a = sinHalfLatitude * sinHalfLatitude + cosLat1 * cosLat2 * sinHalfLongitude * sinHalfLongitude;
+        return 2 * EARTH_RADIUS_MILES * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    protected static final Comparator<StoreMatch> MATCH_COMPARATOR = new Comparator<StoreMatch>() {
+
+        @Override
+        public int compare(StoreMatch o1, StoreMatch o2) {
+            return Double.compare(o1.distance, o2.distance);
+        }
+    };
+
+    protected static class IndexedStore {
+
+        protected final Store store;
+        protected final double latitude;
+        protected final double longitude;
+        protected final double latitudeRadians;
+        protected final double longitudeRadians;
+        protected final double cosLatitude;
+
+        protected IndexedStore(Store store, double latitude, double longitude) {
+            this.store = store;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.latitudeRadians = Math.toRadians(latitude);
+            this.longitudeRadians = Math.toRadians(longitude);
+            this.cosLatitude = Math.cos(latitudeRadians);
+        }
+
+        protected double distanceTo(double searchLatitude, double searchLongitude, double cosSearchLatitude) {
+            return haversine(searchLatitude, searchLongitude, cosSearchLatitude, latitudeRadians, longitudeRadians, cosLatitude);
+        }
+    }
+
+    protected static class StoreMatch {
+
+        protected final Store store;
+        protected final double distance;
+
+        protected StoreMatch(Store store, double distance) {
+            this.store = store;
+            this.distance = distance;
+        }
+    }
+
+}
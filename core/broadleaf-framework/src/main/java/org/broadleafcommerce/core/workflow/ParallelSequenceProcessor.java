@@ -0,0 +1,433 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.workflow;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.broadleafcommerce.common.web.BroadleafRequestContext;
+import org.broadleafcommerce.core.workflow.state.ActivityStateManager;
+import org.broadleafcommerce.core.workflow.state.ActivityStateManagerImpl;
+import org.broadleafcommerce.core.workflow.state.RollbackStateLocal;
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link SequenceProcessor} that runs independent activities concurrently. The dependencies between activities are
+ * declared through {@link #setActivityDependencies(Map)}, keyed by activity bean name, with the bean names of the
+ * activities that must complete first as the value. An activity that has no entry in the map depends on every activity
+ * ordered before it, so a processor without any declared dependencies behaves exactly like a {@link SequenceProcessor}.
+ * Prerequisites must be ordered before the activities that depend on them, which also rules out cycles.
+ * 
+ * <p>Activities are run on a bounded executor shared by all executions of this processor. The {@link BroadleafRequestContext}
+ * and {@link RollbackStateLocal} of the calling thread are propagated to the worker threads, but transaction bound
+ * resources (such as the EntityManager of the current transaction) are not, so only activities that do not rely on
+ * the caller's transaction - typically calls to external services such as payment gateways or tax providers - should
+ * be declared independent. Activities that run concurrently must also not share mutable entities: the entities of the
+ * seed data (such as the Order of a checkout) and the persistence context they belong to are not thread safe. The
+ * checkout activities all modify the Order, so blCheckoutWorkflow must stay a {@link SequenceProcessor}.</p>
+ * 
+ * <p>RollbackHandlers are registered with the {@link ActivityStateManager} on the calling thread as each activity
+ * completes. When an activity fails, no new activities are started and the ones already running are allowed to
+ * finish (and register their RollbackHandlers) before state is rolled back and the error handlers are invoked.</p>
+ */
+public class ParallelSequenceProcessor extends SequenceProcessor implements DisposableBean {
+
+    private static final Log LOG = LogFactory.getLog(ParallelSequenceProcessor.class);
+
+    protected Map<String, List<String>> activityDependencies = new HashMap<String, List<String>>();
+
+    @Value("${workflow.parallel.max.threads}")
+    protected int maxThreads = 4;
+
+    @Value("${workflow.parallel.queue.capacity}")
+    protected int queueCapacity = 100;
+
+    protected ThreadPoolExecutor executor;
+
+    /**
+     * For each activity (by position), the positions of the activities that must complete before it may start
+     */
+    protected List<Set<Integer>> prerequisites;
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        super.afterPropertiesSet();
+        prerequisites = buildPrerequisites();
+        if (executor == null) {
+            executor = createExecutor();
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Override
+    public ProcessContext<?> doActivities(Object seedData) throws WorkflowException {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(getBeanName() + " processor is running..");
+        }
+        ActivityStateManager activityStateManager = ((ActivityStateManager) getBeanFactory().getBean("blActivityStateManager"));
+        if (activityStateManager == null) {
+            throw new IllegalStateException("Unable to find an instance of ActivityStateManager registered under bean id blActivityStateManager");
+        }
+        ProcessContext<?> context = null;
+        RollbackStateLocal rollbackStateLocal = RollbackStateLocal.getRollbackStateLocal();
+        if (rollbackStateLocal == null) {
+            rollbackStateLocal = new RollbackStateLocal();
+            rollbackStateLocal.setThreadId(String.valueOf(Thread.currentThread().getId()));
+            rollbackStateLocal.setWorkflowId(getBeanName());
+            RollbackStateLocal.setRollbackStateLocal(rollbackStateLocal);
+        }
+        try {
+            context = createContext(seedData);
+            context = runActivities(context, rollbackStateLocal);
+        } finally {
+            rollbackStateLocal = RollbackStateLocal.getRollbackStateLocal();
+            if (rollbackStateLocal != null && rollbackStateLocal.getWorkflowId().equals(getBeanName())) {
+                activityStateManager.clearAllState();
+                RollbackStateLocal.setRollbackStateLocal(null);
+            }
+        }
+        LOG.debug(getBeanName() + " processor is done.");
+
+        return context;
+    }
+
+    /**
+     * Schedules every activity whose prerequisites have completed, waits for the next one to finish and repeats until
+     * all activities have run or the process is stopped.
+     */
+    protected ProcessContext<?> runActivities(ProcessContext<?> context, RollbackStateLocal rollbackStateLocal) throws WorkflowException {
+        List<Activity<ProcessContext<?>>> activities = getActivities();
+        List<Set<Integer>> prerequisites = this.prerequisites == null ? buildPrerequisites() : this.prerequisites;
+
+        Set<Integer> pending = new LinkedHashSet<Integer>();
+        for (int i = 0; i < activities.size(); i++) {
+            pending.add(i);
+        }
+        Set<Integer> finished = new HashSet<Integer>();
+        List<ActivityResult> failures = new ArrayList<ActivityResult>();
+        CompletionService<ActivityResult> completionService = new ExecutorCompletionService<ActivityResult>(executor);
+        BroadleafRequestContext requestContext = BroadleafRequestContext.getBroadleafRequestContext();
+        int inFlight = 0;
+        boolean stopped = false;
+
+        while (true) {
+            if (!stopped && failures.isEmpty()) {
+                boolean scheduled = true;
+                while (scheduled) {
+                    scheduled = false;
+                    for (Iterator<Integer> itr = pending.iterator(); itr.hasNext();) {
+                        Integer position = itr.next();
+                        if (!finished.containsAll(prerequisites.get(position))) {
+                            continue;
+                        }
+                        itr.remove();
+                        Activity<ProcessContext<?>> activity = activities.get(position);
+                        if (activity.shouldExecute(context)) {
+                            if (LOG.isDebugEnabled()) {
+                                LOG.debug("running activity:" + activity.getBeanName() + " using arguments:" + context);
+                            }
+                            completionService.submit(new ActivityTask(position, activity, context, rollbackStateLocal, requestContext));
+                            inFlight++;
+                        } else {
+                            LOG.debug("Not executing activity: " + activity.getBeanName() + " based on the context: " + context);
+                            finished.add(position);
+                            // skipping an activity may release its dependents, so scan again
+                            scheduled = true;
+                        }
+                    }
+                }
+            }
+
+            if (inFlight == 0) {
+                if (failures.isEmpty()) {
+                    break;
+                }
+                if (!handleFailures(context, failures)) {
+                    break;
+                }
+                // every failed activity had its own error handler; continue with the remaining activities
+                for (ActivityResult failure : failures) {
+                    finished.add(failure.getPosition());
+                }
+                failures.clear();
+                continue;
+            }
+
+            ActivityResult result = takeResult(completionService);
+            inFlight--;
+            Activity<ProcessContext<?>> activity = activities.get(result.getPosition());
+            if (result.getError() != null) {
+                failures.add(result);
+                continue;
+            }
+
+            context = result.getContext();
+            finished.add(result.getPosition());
+            if (processShouldStop(context, activity)) {
+                stopped = true;
+                continue;
+            }
+            registerRollbackHandler(activity, context);
+        }
+
+        return context;
+    }
+
+    /**
+     * Rolls back the registered state and runs the error handlers for the failed activities once all of the activities
+     * that were running alongside them have finished.
+     * 
+     * @return whether or not the remaining activities should be run
+     */
+    protected boolean handleFailures(ProcessContext<?> context, List<ActivityResult> failures) throws WorkflowException {
+        if (getAutoRollbackOnError()) {
+            LOG.info("Automatically rolling back state for any previously registered RollbackHandlers. RollbackHandlers may be registered for workflow activities in appContext.");
+            ActivityStateManagerImpl.getStateManager().rollbackAllState();
+        }
+        boolean proceed = true;
+        for (ActivityResult failure : failures) {
+            Activity<ProcessContext<?>> activity = failure.getActivity();
+            ErrorHandler errorHandler = activity.getErrorHandler();
+            if (errorHandler == null) {
+                LOG.info("no error handler for this action, run default error" + "handler and abort processing ");
+                getDefaultErrorHandler().handleError(context, failure.getError());
+                proceed = false;
+                break;
+            }
+            LOG.info("run error handler and continue");
+            errorHandler.handleError(context, failure.getError());
+        }
+        if (proceed) {
+            for (ActivityResult failure : failures) {
+                if (processShouldStop(context, failure.getActivity())) {
+                    return false;
+                }
+                registerRollbackHandler(failure.getActivity(), context);
+            }
+        }
+        return proceed;
+    }
+
+    protected void registerRollbackHandler(Activity<ProcessContext<?>> activity, ProcessContext<?> context) {
+        if (activity.getRollbackHandler() != null && activity.getAutomaticallyRegisterRollbackHandler()) {
+            ActivityStateManagerImpl.getStateManager().registerState(activity, context, activity.getRollbackRegion(), activity.getRollbackHandler(), activity.getStateConfiguration());
+        }
+    }
+
+    protected ActivityResult takeResult(CompletionService<ActivityResult> completionService) throws WorkflowException {
+        try {
+            return completionService.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WorkflowException("Interrupted while waiting for the activities of the " + getBeanName() + " workflow", e);
+        } catch (ExecutionException e) {
+            // ActivityTask captures all failures, so this is unexpected
+            throw new WorkflowException(e.getCause());
+        }
+    }
+
+    /**
+     * Resolves {@link #getActivityDependencies()} into activity positions. Activities without an entry depend on every
+     * activity ordered before them.
+     */
+    protected List<Set<Integer>> buildPrerequisites() {
+        List<Activity<ProcessContext<?>>> activities = getActivities();
+        Map<String, Integer> positions = new HashMap<String, Integer>();
+        for (int i = 0; i < activities.size(); i++) {
+            positions.put(activities.get(i).getBeanName(), i);
+        }
+        for (String name : activityDependencies.keySet()) {
+            if (!positions.containsKey(name)) {
+                throw new BeanInitializationException("The workflow processor [" + getBeanName() + "] declares dependencies "
+                        + "for the activity [" + name + "], which is not part of the workflow");
+            }
+        }
+
+        List<Set<Integer>> result = new ArrayList<Set<Integer>>(activities.size());
+        for (int i = 0; i < activities.size(); i++) {
+            String name = activities.get(i).getBeanName();
+            Set<Integer> required = new HashSet<Integer>();
+            if (activityDependencies.containsKey(name)) {
+                List<String> dependencies = activityDependencies.get(name);
+                if (dependencies != null) {
+                    for (String dependency : dependencies) {
+                        Integer position = positions.get(dependency);
+                        if (position == null || position >= i) {
+                            throw new BeanInitializationException("The workflow processor [" + getBeanName() + "] declares that ["
+                                    + name + "] depends on [" + dependency + "], which must be an activity ordered before it");
+                        }
+                        required.add(position);
+                    }
+                }
+            } else {
+                for (int j = 0; j < i; j++) {
+                    required.add(j);
+                }
+            }
+            result.add(Collections.unmodifiableSet(required));
+        }
+        return result;
+    }
+
+    protected ThreadPoolExecutor createExecutor() {
+        final String prefix = (getBeanName() == null ? "workflow" : getBeanName()) + "-activity-";
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(queueCapacity), new ThreadFactory() {
+
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        return threadPoolExecutor;
+    }
+
+    /**
+     * Map of activity bean name to the bean names of the activities that must complete before it is started. An empty
+     * list allows the activity to start as soon as the workflow does.
+     */
+    public Map<String, List<String>> getActivityDependencies() {
+        return activityDependencies;
+    }
+
+    public void setActivityDependencies(Map<String, List<String>> activityDependencies) {
+        this.activityDependencies = activityDependencies == null ? new HashMap<String, List<String>>() : activityDependencies;
+    }
+
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    public void setMaxThreads(int maxThreads) {
+        this.maxThreads = maxThreads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public void setExecutor(ThreadPoolExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Executes a single activity on a worker thread with the thread locals of the calling thread in place
+     */
+    protected static class ActivityTask implements Callable<ActivityResult> {
+
+        protected final int position;
+        protected final Activity<ProcessContext<?>> activity;
+        protected final ProcessContext<?> context;
+        protected final RollbackStateLocal rollbackStateLocal;
+        protected final BroadleafRequestContext requestContext;
+
+        public ActivityTask(int position, Activity<ProcessContext<?>> activity, ProcessContext<?> context,
+                RollbackStateLocal rollbackStateLocal, BroadleafRequestContext requestContext) {
+            this.position = position;
+            this.activity = activity;
+            this.context = context;
+            this.rollbackStateLocal = rollbackStateLocal;
+            this.requestContext = requestContext;
+        }
+
+        @Override
+        public ActivityResult call() {
+            RollbackStateLocal previousRollbackState = RollbackStateLocal.getRollbackStateLocal();
+            BroadleafRequestContext previousRequestContext = BroadleafRequestContext.getBroadleafRequestContext();
+            RollbackStateLocal.setRollbackStateLocal(rollbackStateLocal);
+            BroadleafRequestContext.setBroadleafRequestContext(requestContext);
+            try {
+                return new ActivityResult(position, activity, activity.execute(context), null);
+            } catch (Throwable th) {
+                return new ActivityResult(position, activity, context, th);
+            } finally {
+                RollbackStateLocal.setRollbackStateLocal(previousRollbackState);
+                BroadleafRequestContext.setBroadleafRequestContext(previousRequestContext);
+            }
+        }
+    }
+
+    protected static class ActivityResult {
+
+        protected final int position;
+        protected final Activity<ProcessContext<?>> activity;
+        protected final ProcessContext<?> context;
+        protected final Throwable error;
+
+        public ActivityResult(int position, Activity<ProcessContext<?>> activity, ProcessContext<?> context, Throwable error) {
+            this.position = position;
+            this.activity = activity;
+            this.context = context;
+            this.error = error;
+        }
+
+        public int getPosition() {
+            return position;
+        }
+
+        public Activity<ProcessContext<?>> getActivity() {
+            return activity;
+        }
+
+        public ProcessContext<?> getContext() {
+            return context;
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+    }
+
+}
@@ -82,10 +82,14 @@ public class ActivityStateManagerImpl implements ActivityStateManager {
     @Override
     public void registerState(Activity<? extends ProcessContext> activity, ProcessContext processContext, String region, RollbackHandler rollbackHandler, Map<String, Object> stateItems) {
         RollbackStateLocal rollbackStateLocal = getRollbackStateLocal();
-        Stack<StateContainer> containers = stateMap.get(rollbackStateLocal.getThreadId() + "_" + rollbackStateLocal.getWorkflowId());
-        if (containers == null) {
-            containers = new Stack<StateContainer>();
-            stateMap.put(rollbackStateLocal.getThreadId() + "_" + rollbackStateLocal.getWorkflowId(), containers);
+        Stack<StateContainer> containers;
+        // activities of a ParallelSequenceProcessor may register state for the same workflow from several threads
+        synchronized (stateMap) {
+            containers = stateMap.get(rollbackStateLocal.getThreadId() + "_" + rollbackStateLocal.getWorkflowId());
+            if (containers == null) {
+                containers = new Stack<StateContainer>();
+                stateMap.put(rollbackStateLocal.getThreadId() + "_" + rollbackStateLocal.getWorkflowId(), containers);
+            }
         }
 
         StateContainer stateContainer = new StateContainer();
@@ -0,0 +1,99 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.catalog.service;
+
+import junit.framework.TestCase;
+
+import org.broadleafcommerce.core.catalog.domain.ProductBundle;
+import org.broadleafcommerce.core.catalog.domain.Sku;
+import org.broadleafcommerce.core.catalog.domain.SkuBundleItem;
+import org.easymock.EasyMock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+public class AutomaticBundleIndexTest extends TestCase {
+
+    public void testOnlyBundlesWithAllSkusPresentAreCandidates() throws Exception {
+        List<ProductBundle> bundles = new ArrayList<ProductBundle>();
+        bundles.add(buildBundle(1L, 10L, 11L));
+        bundles.add(buildBundle(2L, 10L, 12L));
+        bundles.add(buildBundle(3L, 13L));
+
+        AutomaticBundleIndex index = new AutomaticBundleIndex(1L, bundles);
+
+        Set<Long> candidates = index.findCandidateBundleIds(Arrays.asList(10L, 11L, 14L));
+        assertEquals(1, candidates.size());
+        assertTrue(candidates.contains(1L));
+
+        candidates = index.findCandidateBundleIds(Arrays.asList(10L, 11L, 12L, 13L));
+        assertEquals(3, candidates.size());
+
+        assertTrue(index.findCandidateBundleIds(Arrays.asList(99L)).isEmpty());
+    }
+
+    public void testIndexDetectsChangedBundles() throws Exception {
+        List<ProductBundle> bundles = new ArrayList<ProductBundle>();
+        bundles.add(buildBundle(1L, 10L));
+        AutomaticBundleIndex index = new AutomaticBundleIndex(1L, bundles);
+        assertTrue(index.isBuiltFrom(bundles));
+
+        List<ProductBundle> changed = new ArrayList<ProductBundle>(bundles);
+        changed.add(buildBundle(2L, 11L));
+        assertFalse(index.isBuiltFrom(changed));
+    }
+
+    public void testServiceRebuildsOnlyWhenBundlesChange() throws Exception {
+        AutomaticBundleIndexServiceImpl service = new AutomaticBundleIndexServiceImpl();
+        List<ProductBundle> bundles = new ArrayList<ProductBundle>();
+        bundles.add(buildBundle(1L, 10L));
+
+        AutomaticBundleIndex first = service.getIndex(bundles);
+        assertSame(first, service.getIndex(bundles));
+
+        bundles.add(buildBundle(2L, 11L));
+        AutomaticBundleIndex second = service.getIndex(bundles);
+        assertNotSame(first, second);
+        assertTrue(second.getVersion() > first.getVersion());
+
+        service.invalidateIndex();
+        assertNotSame(second, service.getIndex(bundles));
+    }
+
+    protected ProductBundle buildBundle(Long bundleId, Long... skuIds) {
+        List<SkuBundleItem> skuBundleItems = new ArrayList<SkuBundleItem>();
+        for (Long skuId : skuIds) {
+            Sku sku = EasyMock.createMock(Sku.class);
+            EasyMock.expect(sku.getId()).andReturn(skuId).anyTimes();
+            SkuBundleItem skuBundleItem = EasyMock.createMock(SkuBundleItem.class);
+            EasyMock.expect(skuBundleItem.getSku()).andReturn(sku).anyTimes();
+            EasyMock.replay(sku, skuBundleItem);
+            skuBundleItems.add(skuBundleItem);
+        }
+        ProductBundle bundle = EasyMock.createMock(ProductBundle.class);
+        EasyMock.expect(bundle.getId()).andReturn(bundleId).anyTimes();
+        EasyMock.expect(bundle.getSkuBundleItems()).andReturn(skuBundleItems).anyTimes();
+        EasyMock.replay(bundle);
+        return bundle;
+    }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.catalog.service.dynamic;
+
+import junit.framework.TestCase;
+
+import org.broadleafcommerce.common.money.Money;
+import org.broadleafcommerce.core.catalog.domain.ProductOptionValueImpl;
+import org.broadleafcommerce.core.catalog.domain.Sku;
+import org.broadleafcommerce.core.catalog.domain.SkuBundleItem;
+import org.broadleafcommerce.core.catalog.domain.SkuImpl;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SkuPricingConsiderationContextTest extends TestCase {
+
+    protected CountingPricingService pricingService;
+
+    @Override
+    protected void setUp() throws Exception {
+        pricingService = new CountingPricingService();
+        SkuPricingConsiderationContext.setSkuPricingService(pricingService);
+        SkuPricingConsiderationContext.setSkuPricingConsiderationContext(new HashMap());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        SkuPricingConsiderationContext.setSkuPricingService(null);
+        SkuPricingConsiderationContext.setSkuPricingConsiderationContext(null);
+    }
+
+    public void testSkusArePricedInOneBatch() {
+        List<Sku> skus = Arrays.<Sku>asList(createSku(1L), createSku(2L), createSku(3L));
+
+        SkuPricingConsiderationContext.resolveSkuPrices(skus);
+        for (Sku sku : skus) {
+            assertEquals(new Money(sku.getId()), sku.getSalePrice());
+            assertEquals(new Money(sku.getId()), sku.getRetailPrice());
+        }
+
+        assertEquals(1, pricingService.batchCalls);
+        assertEquals(3, pricingService.batchSkus);
+        assertEquals(0, pricingService.singleCalls);
+    }
+
+    public void testResolvedSkusAreNotPricedAgain() {
+        SkuPricingConsiderationContext.resolveSkuPrices(Arrays.<Sku>asList(createSku(1L), createSku(2L)));
+        SkuPricingConsiderationContext.resolveSkuPrices(Arrays.<Sku>asList(createSku(2L), createSku(3L)));
+        SkuPricingConsiderationContext.resolveSkuPrices(Arrays.<Sku>asList(createSku(1L), createSku(3L)));
+
+        assertEquals(2, pricingService.batchCalls);
+        assertEquals(3, pricingService.batchSkus);
+    }
+
+    public void testUnresolvedSkuIsPricedOncePerRequest() {
+        createSku(1L).getSalePrice();
+        createSku(1L).getSalePrice();
+        assertEquals(1, pricingService.singleCalls);
+
+        // a new request sets the considerations again
+        SkuPricingConsiderationContext.setSkuPricingConsiderationContext(new HashMap());
+        createSku(1L).getSalePrice();
+        assertEquals(2, pricingService.singleCalls);
+        assertEquals(0, pricingService.batchCalls);
+    }
+
+    public void testClearDynamicPricesForcesRepricing() {
+        Sku sku = createSku(1L);
+        SkuPricingConsiderationContext.resolveSkuPrices(Arrays.asList(sku));
+        sku.getSalePrice();
+        sku.clearDynamicPrices();
+        sku.getSalePrice();
+
+        assertEquals(1, pricingService.batchCalls);
+        assertEquals(1, pricingService.singleCalls);
+    }
+
+    public void testNonBatchServiceIsCalledPerSku() {
+        SingleSkuPricingService singleService = new SingleSkuPricingService();
+        SkuPricingConsiderationContext.setSkuPricingService(singleService);
+        List<Sku> skus = Arrays.<Sku>asList(createSku(1L), createSku(2L));
+
+        SkuPricingConsiderationContext.resolveSkuPrices(skus);
+        for (Sku sku : skus) {
+            sku.getSalePrice();
+            sku.getRetailPrice();
+        }
+
+        assertEquals(2, singleService.calls);
+    }
+
+    protected Sku createSku(Long id) {
+        Sku sku = new SkuImpl();
+        sku.setId(id);
+        return sku;
+    }
+
+    protected static DynamicSkuPrices createPrices(Sku sku) {
+        DynamicSkuPrices prices = new DynamicSkuPrices();
+        prices.setRetailPrice(new Money(sku.getId()));
+        prices.setSalePrice(new Money(sku.getId()));
+        return prices;
+    }
+
+    protected static class CountingPricingService extends DefaultDynamicSkuPricingServiceImpl {
+
+        protected int batchCalls;
+        protected int batchSkus;
+        protected int singleCalls;
+
+        @Override
+        public Map<Long, DynamicSkuPrices> getSkuPrices(Collection<Sku> skus, HashMap skuPricingConsiderations) {
+            batchCalls++;
+            batchSkus += skus.size();
+            Map<Long, DynamicSkuPrices> prices = new HashMap<Long, DynamicSkuPrices>();
+            for (Sku sku : skus) {
+                prices.put(sku.getId(), createPrices(sku));
+            }
+            return prices;
+        }
+
+        @Override
+        public DynamicSkuPrices getSkuPrices(Sku sku, HashMap skuPricingConsiderations) {
+            singleCalls++;
+            return createPrices(sku);
+        }
+    }
+
+    protected static class SingleSkuPricingService implements DynamicSkuPricingService {
+
+        protected int calls;
+
+        @Override
+        public DynamicSkuPrices getSkuPrices(Sku sku, HashMap skuPricingConsiderations) {
+            calls++;
+            return createPrices(sku);
+        }
+
+        @Override
+        public DynamicSkuPrices getSkuBundleItemPrice(SkuBundleItem sku, HashMap skuPricingConsiderations) {
+            return null;
+        }
+
+        @Override
+        public DynamicSkuPrices getPriceAdjustment(ProductOptionValueImpl productOptionValueImpl,
+                Money priceAdjustment, HashMap skuPricingConsiderationContext) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2014 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.catalog.service.hierarchy;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class CategoryHierarchyIndexTest extends TestCase {
+
+    protected CategoryHierarchyIndex index;
+
+    @Override
+    protected void setUp() throws Exception {
+        index = new CategoryHierarchyIndex();
+    }
+
+    public void testMultipleParents() {
+        // 1 is the root; 4 sits under both 2 and 3, and 5 under 4
+        index.setDefaultParent(2L, 1L);
+        index.setDefaultParent(3L, 1L);
+        index.setDefaultParent(4L, 2L);
+        index.putXref(100L, 3L, 4L);
+        index.putXref(101L, 4L, 5L);
+
+        assertEquals(Arrays.asList(5L, 4L, 2L, 1L, 3L), index.getAncestorIds(5L));
+        assertEquals(Arrays.asList(5L), index.getDefaultAncestorIds(5L));
+        assertEquals(Arrays.asList(4L, 2L, 1L), index.getDefaultAncestorIds(4L));
+        assertEquals(1, index.getDepth(4L, 5L));
+        assertEquals(2, index.getDepth(3L, 5L));
+        assertEquals(3, index.getDepth(1L, 5L));
+        assertEquals(0, index.getDepth(5L, 5L));
+        assertEquals(-1, index.getDepth(5L, 1L));
+        assertTrue(index.isAncestor(1L, 5L));
+        assertFalse(index.isAncestor(5L, 1L));
+        assertEquals(Arrays.asList(2L, 3L, 4L, 5L), sorted(index.getDescendantIds(1L)));
+        assertEquals(Arrays.asList(4L, 5L), sorted(index.getDescendantIds(3L)));
+        assertEquals(Arrays.asList(4L), index.getChildIds(3L));
+        assertEquals(Collections.<Long>emptyList(), index.getChildIds(2L));
+        assertFalse(index.isInCycle(5L));
+    }
+
+    public void testCycles() {
+        index.putXref(100L, 1L, 2L);
+        index.putXref(101L, 2L, 3L);
+        index.putXref(102L, 3L, 1L);
+        index.setDefaultParent(4L, 4L);
+
+        assertEquals(Arrays.asList(1L, 3L, 2L), index.getAncestorIds(1L));
+        assertEquals(Arrays.asList(1L, 2L, 3L), sorted(index.getDescendantIds(1L)));
+        assertTrue(index.isInCycle(1L));
+        assertTrue(index.isInCycle(4L));
+        assertEquals(Arrays.asList(4L), index.getDefaultAncestorIds(4L));
+        assertEquals(2, index.getDepth(2L, 1L));
+
+        index.removeXref(102L);
+
+        assertFalse(index.isInCycle(1L));
+        assertEquals(Arrays.asList(3L, 2L, 1L), index.getAncestorIds(3L));
+        assertEquals(Arrays.asList(1L), index.getAncestorIds(1L));
+    }
+
+    public void testUnknownCategory() {
+        assertEquals(Arrays.asList(42L), index.getAncestorIds(42L));
+        assertEquals(Collections.<Long>emptyList(), index.getDescendantIds(42L));
+        assertEquals(-1, index.getDepth(1L, 42L));
+    }
+
+    public void testIncrementalUpdatesDiscardStaleClosures() {
+        index.setDefaultParent(2L, 1L);
+        index.putXref(100L, 2L, 3L);
+        index.putXref(101L, 3L, 4L);
+        assertEquals(Arrays.asList(4L, 3L, 2L, 1L), index.getAncestorIds(4L));
+        assertEquals(Arrays.asList(2L, 3L, 4L), sorted(index.getDescendantIds(1L)));
+
+        // move 3 from under 2 to under 10
+        index.putXref(100L, 10L, 3L);
+        assertEquals(Arrays.asList(4L, 3L, 10L), index.getAncestorIds(4L));
+        assertEquals(Arrays.asList(2L), index.getDescendantIds(1L));
+        assertEquals(Arrays.asList(3L, 4L), sorted(index.getDescendantIds(10L)));
+
+        // re-parent 10 by default parent
+        index.setDefaultParent(10L, 1L);
+        assertEquals(Arrays.asList(4L, 3L, 10L, 1L), index.getAncestorIds(4L));
+        assertEquals(3, index.getDepth(1L, 4L));
+        index.setDefaultParent(10L, null);
+        assertEquals(Arrays.asList(4L, 3L, 10L), index.getAncestorIds(4L));
+
+        // the same edge saved again is a no-op
+        index.putXref(101L, 3L, 4L);
+        assertEquals(1, index.getDepth(3L, 4L));
+
+        index.removeCategory(3L);
+        assertEquals(Arrays.asList(4L), index.getAncestorIds(4L));
+        assertEquals(Collections.<Long>emptyList(), index.getDescendantIds(10L));
+        assertEquals(0, index.getXrefCount());
+    }
+
+    public void testIncrementalUpdatesMatchRebuild() {
+        Random random = new Random(7L);
+        Map<Long, Long[]> xrefs = new HashMap<Long, Long[]>();
+        Map<Long, Long> defaultParents = new HashMap<Long, Long>();
+        for (int i = 0; i < 2000; i++) {
+            long categoryId = 1 + random.nextInt(40);
+            int operation = random.nextInt(4);
+            if (operation == 0) {
+                Long xrefId = (long) random.nextInt(60);
+                Long[] edge = new Long[] { 1L + random.nextInt(40), categoryId };
+                xrefs.put(xrefId, edge);
+                index.putXref(xrefId, edge[0], edge[1]);
+            } else if (operation == 1) {
+                Long xrefId = (long) random.nextInt(60);
+                xrefs.remove(xrefId);
+                index.removeXref(xrefId);
+            } else {
+                Long parentId = random.nextInt(5) == 0 ? null : Long.valueOf(1 + random.nextInt(40));
+                if (parentId == null) {
+                    defaultParents.remove(categoryId);
+                } else {
+                    defaultParents.put(categoryId, parentId);
+                }
+                index.setDefaultParent(categoryId, parentId);
+            }
+            // query as we go so that there are cached closures to discard
+            index.getAncestorIds(1 + (long) random.nextInt(40));
+            index.getDescendantIds(1 + (long) random.nextInt(40));
+        }
+
+        CategoryHierarchyIndex rebuilt = new CategoryHierarchyIndex();
+        for (Map.Entry<Long, Long> entry : defaultParents.entrySet()) {
+            rebuilt.setDefaultParent(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<Long, Long[]> entry : xrefs.entrySet()) {
+            rebuilt.putXref(entry.getKey(), entry.getValue()[0], entry.getValue()[1]);
+        }
+        for (long categoryId = 1; categoryId <= 40; categoryId++) {
+            assertEquals(sorted(rebuilt.getAncestorIds(categoryId)), sorted(index.getAncestorIds(categoryId)));
+            assertEquals(sorted(rebuilt.getDescendantIds(categoryId)), sorted(index.getDescendantIds(categoryId)));
+            assertEquals(rebuilt.getDefaultAncestorIds(categoryId), index.getDefaultAncestorIds(categoryId));
+            assertEquals(rebuilt.isInCycle(categoryId), index.isInCycle(categoryId));
+            for (long ancestorId = 1; ancestorId <= 40; ancestorId++) {
+                assertEquals(rebuilt.getDepth(ancestorId, categoryId), index.getDepth(ancestorId, categoryId));
+            }
+        }
+    }
+
+    protected List<Long> sorted(List<Long> ids) {
+        List<Long> sorted = new ArrayList<Long>(ids);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+}
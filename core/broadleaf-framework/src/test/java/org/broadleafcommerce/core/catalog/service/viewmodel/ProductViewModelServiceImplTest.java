@@ -0,0 +1,138 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.catalog.service.viewmodel;
+
+import junit.framework.TestCase;
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.CacheManager;
+
+import org.broadleafcommerce.common.media.domain.Media;
+import org.broadleafcommerce.core.catalog.domain.Product;
+import org.broadleafcommerce.core.catalog.domain.ProductOption;
+import org.broadleafcommerce.core.catalog.domain.RelatedProduct;
+import org.broadleafcommerce.core.catalog.domain.Sku;
+import org.broadleafcommerce.core.catalog.service.CatalogService;
+import org.broadleafcommerce.core.rating.service.RatingService;
+import org.easymock.EasyMock;
+
+import java.util.Collections;
+
+public class ProductViewModelServiceImplTest extends TestCase {
+
+    protected Cache cache;
+    protected CatalogService catalogService;
+    protected ProductViewModelServiceImpl service;
+
+    @Override
+    protected void setUp() throws Exception {
+        cache = new Cache("productViewModelTest" + System.nanoTime(), 100, false, false, 60, 60);
+        CacheManager.create().addCache(cache);
+        catalogService = EasyMock.createMock(CatalogService.class);
+        service = new ProductViewModelServiceImpl();
+        service.catalogService = catalogService;
+        service.ratingService = EasyMock.createNiceMock(RatingService.class);
+        service.setViewModelCache(cache);
+        EasyMock.replay(service.ratingService);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        CacheManager.create().removeCache(cache.getName());
+    }
+
+    public void testViewModelIsBuiltOnceAndShared() {
+        Product product = createProduct(1L);
+        EasyMock.expect(catalogService.findProductById(1L)).andReturn(product).once();
+        EasyMock.replay(catalogService);
+
+        ProductViewModel first = service.getProductViewModel(1L);
+        ProductViewModel second = service.getProductViewModel(1L);
+
+        assertSame(first, second);
+        assertEquals("[]", first.getProductOptionsJson());
+        assertEquals("[]", first.getSkuPricingJson());
+        EasyMock.verify(catalogService);
+    }
+
+    public void testProductChangeOnlyInvalidatesThatProduct() {
+        Product one = createProduct(1L);
+        Product two = createProduct(2L);
+        EasyMock.expect(catalogService.findProductById(1L)).andReturn(one).times(2);
+        EasyMock.expect(catalogService.findProductById(2L)).andReturn(two).once();
+        EasyMock.replay(catalogService);
+
+        ProductViewModel firstOne = service.getProductViewModel(1L);
+        ProductViewModel firstTwo = service.getProductViewModel(2L);
+        new ProductViewModelInvalidationListener().onChange(one);
+
+        assertNotSame(firstOne, service.getProductViewModel(1L));
+        assertSame(firstTwo, service.getProductViewModel(2L));
+        EasyMock.verify(catalogService);
+    }
+
+    public void testOtherCatalogChangeInvalidatesEveryProduct() {
+        Product product = createProduct(1L);
+        EasyMock.expect(catalogService.findProductById(1L)).andReturn(product).times(2);
+        EasyMock.replay(catalogService);
+
+        ProductViewModel first = service.getProductViewModel(1L);
+        new ProductViewModelInvalidationListener().onChange(EasyMock.createNiceMock(ProductOption.class));
+
+        assertNotSame(first, service.getProductViewModel(1L));
+        EasyMock.verify(catalogService);
+    }
+
+    public void testTrackedProductVersionsAreBounded() {
+        Product product = createProduct(1L);
+        EasyMock.expect(catalogService.findProductById(1L)).andReturn(product).times(2);
+        EasyMock.replay(catalogService);
+
+        ProductViewModel first = service.getProductViewModel(1L);
+        for (long id = 1000; id <= 1000 + ProductViewModelInvalidationListener.MAX_TRACKED_PRODUCTS; id++) {
+            ProductViewModelInvalidationListener.markChanged(id);
+        }
+
+        assertTrue(ProductViewModelInvalidationListener.PRODUCT_VERSIONS.size() < ProductViewModelInvalidationListener.MAX_TRACKED_PRODUCTS);
+        assertNotSame(first, service.getProductViewModel(1L));
+        EasyMock.verify(catalogService);
+    }
+
+    public void testMissingProductIsNotCached() {
+        EasyMock.expect(catalogService.findProductById(3L)).andReturn(null).times(2);
+        EasyMock.replay(catalogService);
+
+        assertNull(service.getProductViewModel(3L));
+        assertNull(service.getProductViewModel(3L));
+        EasyMock.verify(catalogService);
+    }
+
+    protected Product createProduct(Long id) {
+        Product product = EasyMock.createNiceMock(Product.class);
+        EasyMock.expect(product.getId()).andReturn(id).anyTimes();
+        EasyMock.expect(product.getProductOptions()).andReturn(Collections.<ProductOption>emptyList()).anyTimes();
+        EasyMock.expect(product.getSkus()).andReturn(Collections.<Sku>emptyList()).anyTimes();
+        EasyMock.expect(product.getMedia()).andReturn(Collections.<String, Media>emptyMap()).anyTimes();
+        EasyMock.expect(product.getCrossSaleProducts()).andReturn(Collections.<RelatedProduct>emptyList()).anyTimes();
+        EasyMock.expect(product.getUpSaleProducts()).andReturn(Collections.<RelatedProduct>emptyList()).anyTimes();
+        EasyMock.replay(product);
+        return product;
+    }
+
+}
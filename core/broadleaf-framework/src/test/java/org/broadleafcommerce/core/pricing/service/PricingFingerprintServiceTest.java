@@ -0,0 +1,91 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.pricing.service;
+
+import junit.framework.TestCase;
+
+import org.broadleafcommerce.core.catalog.domain.Sku;
+import org.broadleafcommerce.core.offer.domain.OfferCode;
+import org.broadleafcommerce.core.offer.domain.OfferCodeImpl;
+import org.broadleafcommerce.core.order.domain.DiscreteOrderItem;
+import org.broadleafcommerce.core.order.domain.DiscreteOrderItemImpl;
+import org.broadleafcommerce.core.order.domain.Order;
+import org.broadleafcommerce.core.order.domain.OrderImpl;
+import org.easymock.EasyMock;
+
+public class PricingFingerprintServiceTest extends TestCase {
+
+    protected PricingFingerprintServiceImpl fingerprintService = new PricingFingerprintServiceImpl();
+
+    public void testItemOrderDoesNotAffectFingerprint() throws Exception {
+        Order order1 = new OrderImpl();
+        order1.getOrderItems().add(buildItem(1L, 2));
+        order1.getOrderItems().add(buildItem(2L, 1));
+
+        Order order2 = new OrderImpl();
+        order2.getOrderItems().add(buildItem(2L, 1));
+        order2.getOrderItems().add(buildItem(1L, 2));
+
+        assertEquals(fingerprintService.buildFingerprint(order1), fingerprintService.buildFingerprint(order2));
+    }
+
+    public void testSplitItemsMatchMergedItem() throws Exception {
+        Order split = new OrderImpl();
+        split.getOrderItems().add(buildItem(1L, 1));
+        split.getOrderItems().add(buildItem(1L, 1));
+
+        Order merged = new OrderImpl();
+        merged.getOrderItems().add(buildItem(1L, 2));
+
+        assertEquals(fingerprintService.buildFingerprint(split), fingerprintService.buildFingerprint(merged));
+    }
+
+    public void testQuantityChangeAffectsFingerprint() throws Exception {
+        Order order = new OrderImpl();
+        DiscreteOrderItem item = buildItem(1L, 1);
+        order.getOrderItems().add(item);
+        String before = fingerprintService.buildFingerprint(order);
+
+        item.setQuantity(3);
+        assertFalse(before.equals(fingerprintService.buildFingerprint(order)));
+    }
+
+    public void testOfferCodeAffectsFingerprint() throws Exception {
+        Order order = new OrderImpl();
+        order.getOrderItems().add(buildItem(1L, 1));
+        String before = fingerprintService.buildFingerprint(order);
+
+        OfferCode offerCode = new OfferCodeImpl();
+        offerCode.setOfferCode("TENOFF");
+        order.getAddedOfferCodes().add(offerCode);
+        assertFalse(before.equals(fingerprintService.buildFingerprint(order)));
+    }
+
+    protected DiscreteOrderItem buildItem(Long skuId, int quantity) {
+        Sku sku = EasyMock.createNiceMock(Sku.class);
+        EasyMock.expect(sku.getId()).andReturn(skuId).anyTimes();
+        EasyMock.replay(sku);
+        DiscreteOrderItem item = new DiscreteOrderItemImpl();
+        item.setSku(sku);
+        item.setQuantity(quantity);
+        return item;
+    }
+
+}
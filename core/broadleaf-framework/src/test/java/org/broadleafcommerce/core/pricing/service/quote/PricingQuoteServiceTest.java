@@ -0,0 +1,169 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.pricing.service.quote;
+
+import junit.framework.TestCase;
+
+import org.broadleafcommerce.common.config.service.ModuleConfigurationService;
+import org.broadleafcommerce.common.config.service.type.ModuleConfigurationType;
+import org.broadleafcommerce.common.money.Money;
+import org.broadleafcommerce.core.catalog.domain.Sku;
+import org.broadleafcommerce.core.order.domain.DiscreteOrderItem;
+import org.broadleafcommerce.core.order.domain.DiscreteOrderItemImpl;
+import org.broadleafcommerce.core.order.domain.FulfillmentGroup;
+import org.broadleafcommerce.core.order.domain.FulfillmentGroupImpl;
+import org.broadleafcommerce.core.order.domain.FulfillmentGroupItem;
+import org.broadleafcommerce.core.order.domain.FulfillmentGroupItemImpl;
+import org.broadleafcommerce.core.order.domain.Order;
+import org.broadleafcommerce.core.order.domain.OrderImpl;
+import org.broadleafcommerce.core.order.domain.TaxDetail;
+import org.broadleafcommerce.core.order.domain.TaxDetailImpl;
+import org.broadleafcommerce.core.pricing.service.PricingFingerprintServiceImpl;
+import org.broadleafcommerce.core.pricing.service.TaxServiceImpl;
+import org.broadleafcommerce.core.pricing.service.tax.provider.TaxProvider;
+import org.easymock.EasyMock;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PricingQuoteServiceTest extends TestCase {
+
+    protected StubTaxProvider taxProvider;
+    protected PricingQuoteServiceImpl quoteService;
+    protected TaxServiceImpl taxService;
+
+    @Override
+    protected void setUp() throws Exception {
+        taxProvider = new StubTaxProvider();
+
+        quoteService = new PricingQuoteServiceImpl();
+        quoteService.setPricingFingerprintService(new PricingFingerprintServiceImpl());
+        quoteService.init();
+
+        ModuleConfigurationService moduleConfigService = EasyMock.createMock(ModuleConfigurationService.class);
+        EasyMock.expect(moduleConfigService.findActiveConfigurationsByType(ModuleConfigurationType.TAX_CALCULATION))
+                .andReturn(null).anyTimes();
+        EasyMock.replay(moduleConfigService);
+
+        List<TaxProvider> providers = new ArrayList<TaxProvider>();
+        providers.add(taxProvider);
+        taxService = new TaxServiceImpl();
+        taxService.setTaxProviders(providers);
+        taxService.setModuleConfigurationService(moduleConfigService);
+        taxService.setPricingQuoteService(quoteService);
+    }
+
+    public void testUnchangedOrderReusesTaxQuote() throws Exception {
+        Order order = buildOrder(2, new BigDecimal("20.00"));
+
+        taxService.calculateTaxForOrder(order);
+        Money firstTax = getItem(order).getTaxes().get(0).getAmount();
+        taxService.calculateTaxForOrder(order);
+
+        assertEquals(1, taxProvider.getCalculationCount());
+        assertEquals(1, getItem(order).getTaxes().size());
+        assertEquals(firstTax, getItem(order).getTaxes().get(0).getAmount());
+        assertEquals(1L, quoteService.getTaxQuoteStatistics().getHits());
+        assertEquals(1L, quoteService.getTaxQuoteStatistics().getMisses());
+    }
+
+    public void testChangedAmountRecalculatesTax() throws Exception {
+        Order order = buildOrder(2, new BigDecimal("20.00"));
+        taxService.calculateTaxForOrder(order);
+
+        getItem(order).setTotalItemTaxableAmount(new Money(new BigDecimal("30.00")));
+        taxService.calculateTaxForOrder(order);
+
+        assertEquals(2, taxProvider.getCalculationCount());
+        BigDecimal tax = getItem(order).getTaxes().get(0).getAmount().getAmount();
+        assertEquals(0, tax.compareTo(new BigDecimal("1.50")));
+    }
+
+    public void testQuotedDetailWithoutAmountClearsReusedAmount() throws Exception {
+        Order order = buildOrder(1, new BigDecimal("10.00"));
+        TaxDetail detail = new TaxDetailImpl();
+        getItem(order).getTaxes().add(detail);
+        TaxQuote quote = new TaxQuote(order);
+
+        detail.setAmount(new Money(new BigDecimal("5.00")));
+        quote.applyTo(order, null, null);
+
+        assertSame(detail, getItem(order).getTaxes().get(0));
+        assertEquals(0, detail.getAmount().getAmount().signum());
+    }
+
+    public void testDisabledCacheAlwaysCallsProvider() throws Exception {
+        quoteService.setEnabled(false);
+        Order order = buildOrder(1, new BigDecimal("10.00"));
+        taxService.calculateTaxForOrder(order);
+        taxService.calculateTaxForOrder(order);
+
+        assertEquals(2, taxProvider.getCalculationCount());
+    }
+
+    public void testQuoteCacheBounds() throws Exception {
+        PricingQuoteCache<String> cache = new PricingQuoteCache<String>("test", 2, 60000L);
+        cache.put("a", "1", 10L);
+        cache.put("b", "2", 10L);
+        cache.get("a");
+        cache.put("c", "3", 10L);
+
+        assertEquals(2, cache.size());
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(1L, cache.getStatistics().getEvictions());
+
+        PricingQuoteCache<String> expiring = new PricingQuoteCache<String>("expiring", 2, -1L);
+        expiring.put("a", "1", 10L);
+        assertNull(expiring.get("a"));
+    }
+
+    protected FulfillmentGroupItem getItem(Order order) {
+        return order.getFulfillmentGroups().get(0).getFulfillmentGroupItems().get(0);
+    }
+
+    protected Order buildOrder(int quantity, BigDecimal taxableAmount) {
+        Order order = new OrderImpl();
+
+        Sku sku = EasyMock.createNiceMock(Sku.class);
+        EasyMock.expect(sku.getId()).andReturn(1L).anyTimes();
+        EasyMock.replay(sku);
+
+        DiscreteOrderItem item = new DiscreteOrderItemImpl();
+        item.setSku(sku);
+        item.setQuantity(quantity);
+        item.setOrder(order);
+        order.getOrderItems().add(item);
+
+        FulfillmentGroup fg = new FulfillmentGroupImpl();
+        fg.setOrder(order);
+        FulfillmentGroupItem fgi = new FulfillmentGroupItemImpl();
+        fgi.setOrderItem(item);
+        fgi.setFulfillmentGroup(fg);
+        fgi.setQuantity(quantity);
+        fgi.setTotalItemTaxableAmount(new Money(taxableAmount));
+        fg.getFulfillmentGroupItems().add(fgi);
+        order.getFulfillmentGroups().add(fg);
+
+        return order;
+    }
+
+}
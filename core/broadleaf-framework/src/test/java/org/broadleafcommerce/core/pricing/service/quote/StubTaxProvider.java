@@ -0,0 +1,74 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.pricing.service.quote;
+
+import org.broadleafcommerce.common.config.domain.ModuleConfiguration;
+import org.broadleafcommerce.core.order.domain.FulfillmentGroup;
+import org.broadleafcommerce.core.order.domain.FulfillmentGroupItem;
+import org.broadleafcommerce.core.order.domain.Order;
+import org.broadleafcommerce.core.order.domain.TaxDetail;
+import org.broadleafcommerce.core.order.domain.TaxDetailImpl;
+import org.broadleafcommerce.core.order.domain.TaxType;
+import org.broadleafcommerce.core.pricing.service.exception.TaxException;
+import org.broadleafcommerce.core.pricing.service.tax.provider.TaxProvider;
+
+import java.math.BigDecimal;
+
+/**
+ * Local stand-in for an external tax provider that applies a flat rate to every fulfillment group item and counts how
+ * many times it was asked to calculate
+ */
+public class StubTaxProvider implements TaxProvider {
+
+    protected BigDecimal rate = new BigDecimal("0.05");
+    protected int calculationCount = 0;
+
+    @Override
+    public boolean canRespond(ModuleConfiguration config) {
+        return true;
+    }
+
+    @Override
+    public Order calculateTaxForOrder(Order order, ModuleConfiguration config) throws TaxException {
+        calculationCount++;
+        for (FulfillmentGroup fg : order.getFulfillmentGroups()) {
+            for (FulfillmentGroupItem fgi : fg.getFulfillmentGroupItems()) {
+                fgi.getTaxes().clear();
+                TaxDetail detail = new TaxDetailImpl(TaxType.COMBINED, fgi.getTotalItemTaxableAmount().multiply(rate), rate);
+                fgi.getTaxes().add(detail);
+            }
+        }
+        return order;
+    }
+
+    @Override
+    public Order commitTaxForOrder(Order order, ModuleConfiguration config) throws TaxException {
+        return order;
+    }
+
+    @Override
+    public void cancelTax(Order order, ModuleConfiguration config) throws TaxException {
+    }
+
+    public int getCalculationCount() {
+        return calculationCount;
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.rating.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class RatingSummaryImplTest extends TestCase {
+
+    public void testAggregatesAreMaintainedIncrementally() {
+        RatingSummaryImpl summary = new RatingSummaryImpl();
+        summary.recordRating(null, 5D);
+        summary.recordRating(null, 4D);
+        summary.recordRating(null, 1D);
+
+        assertEquals(Integer.valueOf(3), summary.getNumberOfRatings());
+        assertEquals(10D, summary.getRatingSum());
+        assertEquals(10D / 3, summary.getAverageRating(), 0.0001);
+        assertHistogram(summary, 1, 0, 0, 1, 1);
+
+        // a customer changing their rating from 1 to 3 stars
+        summary.recordRating(1D, 3D);
+        assertEquals(Integer.valueOf(3), summary.getNumberOfRatings());
+        assertEquals(4D, summary.getAverageRating(), 0.0001);
+        assertHistogram(summary, 0, 0, 1, 1, 1);
+
+        // the collections are never consulted once the aggregates are maintained
+        assertTrue(summary.getRatings().isEmpty());
+    }
+
+    public void testAggregatesAreInitializedFromExistingRatings() {
+        RatingSummaryImpl summary = new RatingSummaryImpl();
+        List<RatingDetail> ratings = new ArrayList<RatingDetail>();
+        ratings.add(buildRating(2D));
+        ratings.add(buildRating(4.6D));
+        summary.setRatings(ratings);
+        // simulates a summary saved before the aggregates were maintained
+        summary.ratingCount = null;
+        summary.ratingSum = null;
+        summary.reviewCount = null;
+
+        summary.recordRating(null, 3D);
+
+        assertEquals(Integer.valueOf(3), summary.getNumberOfRatings());
+        assertEquals(9.6D, summary.getRatingSum(), 0.0001);
+        assertEquals(3.2D, summary.getAverageRating(), 0.0001);
+        assertHistogram(summary, 0, 1, 1, 0, 1);
+        assertEquals(Integer.valueOf(0), summary.getNumberOfReviews());
+
+        summary.recordReview();
+        assertEquals(Integer.valueOf(1), summary.getNumberOfReviews());
+    }
+
+    protected void assertHistogram(RatingSummary summary, int... expected) {
+        int[] histogram = summary.getRatingHistogram();
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals("stars: " + (i + 1), expected[i], histogram[i]);
+        }
+    }
+
+    protected RatingDetail buildRating(Double rating) {
+        RatingDetail detail = new RatingDetailImpl();
+        detail.setRating(rating);
+        return detail;
+    }
+
+}
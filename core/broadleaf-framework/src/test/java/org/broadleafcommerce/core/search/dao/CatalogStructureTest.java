@@ -0,0 +1,180 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2014 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.search.dao;
+
+import junit.framework.TestCase;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class CatalogStructureTest extends TestCase {
+
+    protected CatalogStructure structure;
+
+    @Override
+    protected void setUp() throws Exception {
+        structure = new CatalogStructure();
+    }
+
+    public void testProductParents() {
+        structure.addProductParents(1L, Arrays.asList(10L, 20L));
+
+        assertTrue(structure.containsProduct(1L));
+        assertFalse(structure.containsProduct(2L));
+        assertEquals(2, structure.getProductParentCount(1L));
+        assertEquals(10L, structure.getProductParent(1L, 0));
+        assertEquals(20L, structure.getProductParent(1L, 1));
+        assertEquals(0, structure.getProductParentCount(2L));
+    }
+
+    public void testParentsAreOnlyAddedOnce() {
+        structure.addProductParents(1L, Arrays.asList(10L));
+        structure.addProductParents(1L, Arrays.asList(20L, 30L));
+        structure.addCategoryParents(10L, Arrays.asList(100L));
+        structure.addCategoryParents(10L, Arrays.asList(200L));
+
+        assertEquals(1, structure.getProductParentCount(1L));
+        assertEquals(10L, structure.getProductParent(1L, 0));
+        assertEquals(1, structure.getCategoryParentCount(10L));
+        assertEquals(100L, structure.getCategoryParent(10L, 0));
+    }
+
+    public void testCategoryParentsCanBeAddedInAnyOrder() {
+        // the parents of a category are known before their own parents are read
+        structure.addCategoryParents(3L, Arrays.asList(2L));
+        structure.addCategoryParents(1L, Collections.<Long>emptyList());
+        structure.addCategoryParents(2L, Arrays.asList(1L));
+
+        assertTrue(structure.containsCategoryParents(2L));
+        assertFalse(structure.containsCategoryParents(4L));
+        assertEquals(Arrays.asList(3L, 2L, 1L), visit(3L));
+    }
+
+    public void testHierarchyVisitsSharedAncestorsOnce() {
+        // 5 has two parents, 3 and 4, which share the parent 2, whose parent is 1
+        structure.addCategoryParents(5L, Arrays.asList(3L, 4L));
+        structure.addCategoryParents(3L, Arrays.asList(2L));
+        structure.addCategoryParents(4L, Arrays.asList(2L));
+        structure.addCategoryParents(2L, Arrays.asList(1L));
+
+        assertEquals(Arrays.asList(5L, 3L, 2L, 1L, 4L), visit(5L));
+    }
+
+    public void testHierarchyStopsAtCircularReferences() {
+        structure.addCategoryParents(1L, Arrays.asList(2L));
+        structure.addCategoryParents(2L, Arrays.asList(3L));
+        structure.addCategoryParents(3L, Arrays.asList(1L));
+
+        assertEquals(Arrays.asList(1L, 2L, 3L), visit(1L));
+        assertEquals(Arrays.asList(2L, 3L, 1L), visit(2L));
+    }
+
+    public void testHierarchyOfUnknownCategory() {
+        assertEquals(Arrays.asList(42L), visit(42L));
+    }
+
+    public void testDisplayOrders() {
+        structure.addCategoryProducts(10L, new long[] { 3L, 1L, 2L, 99L },
+                new BigDecimal[] { new BigDecimal("3.000000"), new BigDecimal("1.5"), null, new BigDecimal("-2") }, 3);
+
+        assertTrue(structure.containsCategoryProducts(10L));
+        assertFalse(structure.containsCategoryProducts(20L));
+        assertEquals(new BigDecimal("3.000000"), structure.getDisplayOrder(10L, 3L));
+        assertEquals(new BigDecimal("1.5"), structure.getDisplayOrder(10L, 1L));
+        assertNull(structure.getDisplayOrder(10L, 2L));
+        // only the given count of entries is read
+        assertNull(structure.getDisplayOrder(10L, 99L));
+        assertNull(structure.getDisplayOrder(20L, 3L));
+    }
+
+    public void testDisplayOrdersTooWideToPack() {
+        BigDecimal wide = new BigDecimal("123456789012345678901234567890.5");
+        structure.addCategoryProducts(10L, new long[] { 5L, 4L, 3L },
+                new BigDecimal[] { wide, BigDecimal.ONE, null }, 3);
+
+        assertEquals(wide, structure.getDisplayOrder(10L, 5L));
+        assertEquals(BigDecimal.ONE, structure.getDisplayOrder(10L, 4L));
+        assertNull(structure.getDisplayOrder(10L, 3L));
+    }
+
+    public void testGrowsPastInitialCapacity() {
+        int count = 5000;
+        long[] productIds = new long[count];
+        BigDecimal[] displayOrders = new BigDecimal[count];
+        for (int i = 0; i < count; i++) {
+            long categoryId = 100000L + i;
+            structure.addProductParents(i, Arrays.asList(categoryId, 100000L + (i + 1) % count));
+            structure.addCategoryParents(categoryId, Arrays.asList(100000L + i / 2));
+            productIds[i] = count - i;
+            displayOrders[i] = BigDecimal.valueOf(i);
+        }
+        structure.addCategoryProducts(100000L, productIds, displayOrders, count);
+
+        assertEquals(count, structure.getProductCount());
+        assertEquals(count, structure.getCategoryCount());
+        for (int i = 0; i < count; i++) {
+            assertEquals(100000L + i, structure.getProductParent(i, 0));
+            assertEquals(100000L + (i + 1) % count, structure.getProductParent(i, 1));
+            assertEquals(BigDecimal.valueOf(i), structure.getDisplayOrder(100000L, count - i));
+        }
+        assertEquals(Arrays.asList(100003L, 100001L, 100000L), visit(100003L));
+    }
+
+    @SuppressWarnings("deprecation")
+    public void testDeprecatedMapViews() {
+        structure.addProductParents(1L, Arrays.asList(10L, 20L));
+        structure.addCategoryParents(10L, Arrays.asList(100L));
+        structure.addCategoryProducts(10L, new long[] { 2L, 1L }, new BigDecimal[] { BigDecimal.ONE, null }, 2);
+
+        Map<Long, Set<Long>> parentCategoriesByProduct = structure.getParentCategoriesByProduct();
+        assertEquals(1, parentCategoriesByProduct.size());
+        assertEquals(Arrays.asList(10L, 20L), new ArrayList<Long>(parentCategoriesByProduct.get(1L)));
+
+        Map<Long, Set<Long>> parentCategoriesByCategory = structure.getParentCategoriesByCategory();
+        // 20 and 100 are known as parents, but their own parents were never added
+        assertEquals(1, parentCategoriesByCategory.size());
+        assertEquals(Collections.singleton(100L), parentCategoriesByCategory.get(10L));
+
+        assertEquals(Collections.singletonMap(10L, Arrays.asList(1L, 2L)), structure.getProductsByCategory());
+
+        Map<String, BigDecimal> displayOrders = structure.getDisplayOrdersByCategoryProduct();
+        assertEquals(2, displayOrders.size());
+        assertEquals(BigDecimal.ONE, displayOrders.get("10-2"));
+        assertTrue(displayOrders.containsKey("10-1"));
+        assertNull(displayOrders.get("10-1"));
+    }
+
+    protected List<Long> visit(long categoryId) {
+        final List<Long> visited = new ArrayList<Long>();
+        structure.visitCategoryHierarchy(categoryId, new CatalogStructure.CategoryVisitor() {
+            @Override
+            public void visit(long categoryId) {
+                visited.add(categoryId);
+            }
+        });
+        return visited;
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.search.service.solr;
+
+import junit.framework.TestCase;
+
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.common.SolrException;
+
+import java.io.IOException;
+
+public class SolrSearchResultCacheTest extends TestCase {
+
+    protected SolrSearchResultCache cache;
+
+    @Override
+    protected void setUp() throws Exception {
+        cache = new SolrSearchResultCache();
+        cache.setIndexVersionCheckSeconds(0);
+    }
+
+    public void testKeyIgnoresParameterAndFilterOrder() {
+        SolrQuery first = new SolrQuery("*:*");
+        first.addFilterQuery("category:2002");
+        first.addFilterQuery("namespace:(\"d\")");
+        first.set("defType", "edismax");
+        first.setRows(15);
+
+        SolrQuery second = new SolrQuery();
+        second.setRows(15);
+        second.set("defType", "edismax");
+        second.addFilterQuery("namespace:(\"d\")");
+        second.addFilterQuery("category:2002");
+        second.setQuery("*:*");
+
+        assertEquals(cache.buildKey(first, "en_US"), cache.buildKey(second, "en_US"));
+    }
+
+    public void testKeyDependsOnPageAndContext() {
+        SolrQuery query = new SolrQuery("*:*").setRows(15).setStart(0);
+        String firstPage = cache.buildKey(query, "en_US");
+
+        assertFalse(firstPage.equals(cache.buildKey(query, "es_ES")));
+        query.setStart(15);
+        assertFalse(firstPage.equals(cache.buildKey(query, "en_US")));
+    }
+
+    public void testIndexChangeChangesKey() {
+        SolrQuery query = new SolrQuery("*:*");
+        String before = cache.buildKey(query, "en_US");
+        SolrSearchResultCache.markIndexChanged();
+
+        assertFalse(before.equals(cache.buildKey(query, "en_US")));
+    }
+
+    public void testUnavailableServerIsRetriedWithBackoff() {
+        StubVersionCache stub = new StubVersionCache();
+        stub.setIndexVersionCheckSeconds(10);
+        stub.failure = new IOException("Connection refused");
+
+        assertEquals("", stub.getServerIndexVersion());
+        assertEquals(1, stub.reads);
+        assertTrue(stub.serverIndexVersionSupported);
+        assertEquals(10L, stub.getServerIndexVersionBackoffSeconds(1));
+        assertEquals(40L, stub.getServerIndexVersionBackoffSeconds(3));
+        assertEquals(300L, stub.getServerIndexVersionBackoffSeconds(20));
+
+        stub.getServerIndexVersion();
+        assertEquals(1, stub.reads);
+
+        // once the back-off has passed, the version is read again
+        stub.serverIndexVersionCheckedAt = 0;
+        stub.serverIndexVersionRetryAt = 0;
+        stub.failure = null;
+        assertEquals("42", stub.getServerIndexVersion());
+        assertEquals(2, stub.reads);
+        assertEquals(0, stub.serverIndexVersionFailures);
+    }
+
+    public void testUnsupportedVersionDisablesCheck() {
+        StubVersionCache stub = new StubVersionCache();
+        stub.setIndexVersionCheckSeconds(10);
+        stub.failure = new SolrException(SolrException.ErrorCode.NOT_FOUND, "/admin/luke not found");
+
+        stub.getServerIndexVersion();
+        assertFalse(stub.serverIndexVersionSupported);
+
+        stub.serverIndexVersionCheckedAt = 0;
+        stub.getServerIndexVersion();
+        assertEquals(1, stub.reads);
+    }
+
+    protected static class StubVersionCache extends SolrSearchResultCache {
+
+        protected Exception failure;
+        protected int reads;
+
+        @Override
+        protected Object readServerIndexVersion() throws Exception {
+            reads++;
+            if (failure != null) {
+                throw failure;
+            }
+            return 42L;
+        }
+    }
+
+}
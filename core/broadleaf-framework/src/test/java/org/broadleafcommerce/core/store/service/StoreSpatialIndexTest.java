@@ -0,0 +1,118 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.store.service;
+
+import org.broadleafcommerce.core.store.domain.Store;
+import org.broadleafcommerce.core.store.domain.StoreImpl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class StoreSpatialIndexTest extends TestCase {
+
+    protected List<Store> stores = new ArrayList<Store>();
+
+    @Override
+    protected void setUp() throws Exception {
+        Random random = new Random(42);
+        for (long i = 0; i < 2000; i++) {
+            stores.add(buildStore(i, random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180));
+        }
+        // clustered stores, as in a typical store network
+        for (long i = 2000; i < 4000; i++) {
+            stores.add(buildStore(i, 40 + random.nextDouble() * 2, -75 + random.nextDouble() * 2));
+        }
+        stores.add(buildStore(5000L, null, null));
+    }
+
+    public void testRadiusSearchMatchesFullScan() {
+        StoreSpatialIndex index = new StoreSpatialIndex(stores, 1.0);
+        assertEquals(4000, index.size());
+        double[][] searches = { { 41, -74 }, { 0, 179.9 }, { 89.5, 10 }, { -60, -179.5 } };
+        for (double[] search : searches) {
+            for (double distance : new double[] { 5, 50, 500 }) {
+                Map<Store, Double> result = index.findWithin(search[0], search[1], distance);
+                int expected = 0;
+                for (Store store : stores) {
+                    if (store.getLatitude() != null && StoreSpatialIndex.haversineDistance(search[0], search[1],
+                            store.getLatitude(), store.getLongitude()) <= distance) {
+                        expected++;
+                    }
+                }
+                assertEquals(expected, result.size());
+                assertSortedWithin(result, distance);
+            }
+        }
+    }
+
+    public void testNearestSearchMatchesFullScan() {
+        StoreSpatialIndex index = new StoreSpatialIndex(stores, 1.0);
+        double[][] searches = { { 41, -74 }, { 0, 179.9 }, { 89.5, 10 }, { -60, -179.5 } };
+        for (double[] search : searches) {
+            Map<Store, Double> result = index.findNearest(search[0], search[1], 10);
+            assertEquals(10, result.size());
+            assertSortedWithin(result, Double.MAX_VALUE);
+
+            double farthest = 0;
+            for (Double distance : result.values()) {
+                farthest = distance;
+            }
+            int closer = 0;
+            for (Store store : stores) {
+                if (store.getLatitude() != null && StoreSpatialIndex.haversineDistance(search[0], search[1],
+                        store.getLatitude(), store.getLongitude()) < farthest) {
+                    closer++;
+                }
+            }
+            assertTrue(closer <= 9);
+        }
+    }
+
+    public void testHaversineDistance() {
+        // New York to Los Angeles is roughly 2,445 miles
+        double distance = StoreSpatialIndex.haversineDistance(40.7128, -74.0060, 34.0522, -118.2437);
+        assertTrue(Math.abs(distance - 2445) < 10);
+    }
+
+    protected void assertSortedWithin(Map<Store, Double> result, double distance) {
+        Iterator<Double> itr = result.values().iterator();
+        double previous = -1;
+        while (itr.hasNext()) {
+            double current = itr.next();
+            assertTrue(current >= previous);
+            assertTrue(current <= distance);
+            previous = current;
+        }
+    }
+
+    protected Store buildStore(Long id, Double latitude, Double longitude) {
+        Store store = new StoreImpl();
+        store.setId(id);
+        store.setLatitude(latitude);
+        store.setLongitude(longitude);
+        return store;
+    }
+
+}
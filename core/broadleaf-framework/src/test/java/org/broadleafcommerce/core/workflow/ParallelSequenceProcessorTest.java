@@ -0,0 +1,180 @@
+/*
+ * #%L
+ * BroadleafCommerce Framework
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.workflow;
+
+import org.broadleafcommerce.core.workflow.state.ActivityStateManagerImpl;
+import org.broadleafcommerce.core.workflow.state.RollbackFailureException;
+import org.broadleafcommerce.core.workflow.state.RollbackHandler;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class ParallelSequenceProcessorTest extends TestCase {
+
+    protected List<String> rolledBack = Collections.synchronizedList(new ArrayList<String>());
+
+    public void testIndependentActivitiesRunConcurrently() throws Exception {
+        // each activity waits for the other one to have started, which only succeeds if they run at the same time
+        CountDownLatch started = new CountDownLatch(2);
+        TestActivity payment = new TestActivity("payment", started, false);
+        TestActivity tax = new TestActivity("tax", started, false);
+        TestActivity complete = new TestActivity("complete", null, false);
+
+        Map<String, List<String>> dependencies = new HashMap<String, List<String>>();
+        dependencies.put("payment", Collections.<String>emptyList());
+        dependencies.put("tax", Collections.<String>emptyList());
+        ParallelSequenceProcessor processor = buildProcessor(dependencies, payment, tax, complete);
+
+        processor.doActivities("seed");
+
+        assertTrue(payment.executed);
+        assertTrue(tax.executed);
+        assertTrue(complete.executed);
+        assertFalse(payment.timedOut);
+        assertFalse(tax.timedOut);
+        assertTrue(complete.executedAfter(payment) && complete.executedAfter(tax));
+        processor.destroy();
+    }
+
+    public void testUndeclaredDependenciesRunInSequence() throws Exception {
+        TestActivity first = new TestActivity("first", null, false);
+        TestActivity second = new TestActivity("second", null, false);
+        ParallelSequenceProcessor processor = buildProcessor(new HashMap<String, List<String>>(), first, second);
+
+        processor.doActivities("seed");
+
+        assertTrue(second.executedAfter(first));
+        processor.destroy();
+    }
+
+    public void testFailedBranchRollsBackCompletedSibling() throws Exception {
+        TestActivity payment = new TestActivity("payment", null, false);
+        TestActivity tax = new TestActivity("tax", null, true);
+        TestActivity complete = new TestActivity("complete", null, false);
+
+        Map<String, List<String>> dependencies = new HashMap<String, List<String>>();
+        dependencies.put("payment", Collections.<String>emptyList());
+        dependencies.put("tax", Collections.<String>emptyList());
+        ParallelSequenceProcessor processor = buildProcessor(dependencies, payment, tax, complete);
+
+        try {
+            processor.doActivities("seed");
+            fail("Expected the failure of the tax activity to be reported");
+        } catch (WorkflowException e) {
+            // expected
+        }
+
+        assertTrue(payment.executed);
+        assertFalse(complete.executed);
+        assertEquals(Arrays.asList("payment"), rolledBack);
+        processor.destroy();
+    }
+
+    public void testPrerequisiteMustBeOrderedFirst() throws Exception {
+        Map<String, List<String>> dependencies = new HashMap<String, List<String>>();
+        dependencies.put("first", Arrays.asList("second"));
+        try {
+            buildProcessor(dependencies, new TestActivity("first", null, false), new TestActivity("second", null, false));
+            fail("Expected a dependency on a later activity to be rejected");
+        } catch (Exception e) {
+            // expected
+        }
+    }
+
+    protected ParallelSequenceProcessor buildProcessor(Map<String, List<String>> dependencies, TestActivity... activities) throws Exception {
+        ActivityStateManagerImpl stateManager = new ActivityStateManagerImpl();
+        stateManager.init();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("blActivityStateManager", stateManager);
+
+        ParallelSequenceProcessor processor = new ParallelSequenceProcessor();
+        processor.setBeanName("testWorkflow");
+        processor.setBeanFactory(beanFactory);
+        processor.setActivities(new ArrayList(Arrays.asList(activities)));
+        processor.setActivityDependencies(dependencies);
+        processor.setDefaultErrorHandler(new DefaultErrorHandler());
+        processor.setProcessContextFactory(new ProcessContextFactory<Object, Object>() {
+
+            @Override
+            public ProcessContext<Object> createContext(Object preSeedData) throws WorkflowException {
+                DefaultProcessContextImpl<Object> context = new DefaultProcessContextImpl<Object>();
+                context.setSeedData(preSeedData);
+                return context;
+            }
+        });
+        processor.afterPropertiesSet();
+        return processor;
+    }
+
+    protected class TestActivity extends BaseActivity<ProcessContext<Object>> {
+
+        protected final CountDownLatch started;
+        protected final boolean fail;
+        protected volatile boolean executed = false;
+        protected volatile boolean timedOut = false;
+        protected volatile long startTime;
+        protected volatile long endTime;
+
+        public TestActivity(final String name, CountDownLatch started, boolean fail) {
+            this.started = started;
+            this.fail = fail;
+            setBeanName(name);
+            setAutomaticallyRegisterRollbackHandler(true);
+            setRollbackHandler(new RollbackHandler<ProcessContext<Object>>() {
+
+                @Override
+                public void rollbackState(Activity<? extends ProcessContext<ProcessContext<Object>>> activity,
+                        ProcessContext<ProcessContext<Object>> processContext, Map<String, Object> stateConfiguration) throws RollbackFailureException {
+                    rolledBack.add(name);
+                }
+            });
+        }
+
+        @Override
+        public ProcessContext<Object> execute(ProcessContext<Object> context) throws Exception {
+            startTime = System.nanoTime();
+            if (started != null) {
+                started.countDown();
+                timedOut = !started.await(5, TimeUnit.SECONDS);
+            }
+            if (fail) {
+                throw new IllegalStateException("Failure in " + getBeanName());
+            }
+            executed = true;
+            endTime = System.nanoTime();
+            return context;
+        }
+
+        public boolean executedAfter(TestActivity other) {
+            return startTime >= other.endTime;
+        }
+    }
+
+}
@@ -64,14 +64,14 @@ public class CustomerStateRefresher implements ApplicationListener<CustomerPersi
                 Customer sessionCustomer = (Customer) request.getAttribute(customerAttribute, WebRequest.SCOPE_GLOBAL_SESSION);
                 //invalidate the session-based customer if it's there and the ID is the same as the Customer that has been
                 //persisted
-                if (sessionCustomer != null && sessionCustomer.getId().equals(dbCustomer.getId())) {
+                if (sessionCustomer != null && dbCustomer.getId().equals(sessionCustomer.getId())) {
                     request.removeAttribute(customerAttribute, WebRequest.SCOPE_GLOBAL_SESSION);
                     request.setAttribute(customerIdAttribute, dbCustomer.getId(), WebRequest.SCOPE_GLOBAL_SESSION);
                 }
             }
             
             //Update CustomerState if the persisted Customer ID is the same
-            if (CustomerState.getCustomer() != null && CustomerState.getCustomer().getId().equals(dbCustomer.getId())) {
+            if (CustomerState.getCustomer() != null && dbCustomer.getId().equals(CustomerState.getCustomer().getId())) {
                 //Copy transient fields from the customer that existed in CustomerState, prior to the DB refresh, 
                 //to the customer that has been saved (merged) in the DB....
                 Customer preMergedCustomer = CustomerState.getCustomer();
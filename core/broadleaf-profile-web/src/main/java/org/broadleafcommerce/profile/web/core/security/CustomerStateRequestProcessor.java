@@ -29,6 +29,7 @@ import org.broadleafcommerce.profile.core.domain.Customer;
 import org.broadleafcommerce.profile.core.service.CustomerService;
 import org.broadleafcommerce.profile.web.core.CustomerState;
 import org.broadleafcommerce.profile.web.core.CustomerStateRefresher;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationEventPublisherAware;
@@ -66,6 +67,13 @@ public class CustomerStateRequestProcessor extends AbstractBroadleafWebRequestPr
 
     protected ApplicationEventPublisher eventPublisher;
 
+    /**
+     * When set, new anonymous customers do not get an id until they are first persisted (for instance when a cart is
+     * created for them), so that visitors who only browse never reserve ids or write to the database
+     */
+    @Value("${customer.state.defer.anonymous.customer.id}")
+    protected boolean deferAnonymousCustomerId = true;
+
     public static final String ANONYMOUS_CUSTOMER_SESSION_ATTRIBUTE_NAME = "_blc_anonymousCustomer";
     public static final String ANONYMOUS_CUSTOMER_ID_SESSION_ATTRIBUTE_NAME = "_blc_anonymousCustomerId";
     private static final String LAST_PUBLISHED_EVENT_SESSION_ATTRIBUTED_NAME = "_blc_lastPublishedEvent";
@@ -238,7 +246,8 @@ public class CustomerStateRequestProcessor extends AbstractBroadleafWebRequestPr
      *      </ul>
      *      <li>If no there is no customer ID in session (and thus no {@link Customer})</li>
      *      <ol>
-     *          <li>Create a new customer</li>
+     *          <li>Create a new customer. Unless customer.state.defer.anonymous.customer.id is turned off, the customer
+     *          does not get an id until it is first persisted</li>
      *          <li>Put the newly-created {@link Customer} in session</li>
      *      </ol>
      *  </ul>
@@ -257,7 +266,7 @@ public class CustomerStateRequestProcessor extends AbstractBroadleafWebRequestPr
         //If there is no Customer object in session, AND no customer id in session, create a new customer
         //and store the entire customer in session (don't persist to DB just yet)
         if (customer == null) {
-            customer = customerService.createNewCustomer();
+            customer = createAnonymousCustomer();
             if (BLCRequestUtils.isOKtoUseSession(request)) {
                 request.setAttribute(getAnonymousCustomerSessionAttributeName(), customer, WebRequest.SCOPE_GLOBAL_SESSION);
             }
@@ -267,6 +276,19 @@ public class CustomerStateRequestProcessor extends AbstractBroadleafWebRequestPr
         return customer;
     }
     
+    /**
+     * Creates the {@link Customer} for a first-time anonymous visitor. By default this is a transient customer without an
+     * id; {@link CustomerService#saveCustomer(Customer)} and cart creation reserve the id when it is first persisted.
+     * 
+     * @return a new, non-persisted anonymous customer
+     */
+    protected Customer createAnonymousCustomer() {
+        if (deferAnonymousCustomerId) {
+            return customerService.createTransientCustomer();
+        }
+        return customerService.createNewCustomer();
+    }
+
     /**
      * Returns the anonymous customer that was saved in session. This first checks for a full customer in session (meaning
      * that the customer has not already been persisted) and returns that. If there is no full customer in session (and
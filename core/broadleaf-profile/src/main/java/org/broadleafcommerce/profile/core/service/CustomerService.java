@@ -68,6 +68,22 @@ public interface CustomerService {
      */
     public Customer createNewCustomer();
 
+    /**
+     * Returns a non-persisted <code>Customer</code> that does not have an id yet. Anonymous visitors start out this way
+     * so that browsing does not reserve ids; the id is assigned through {@link #assignCustomerIdIfNecessary(Customer)}
+     * once the customer is persisted.
+     */
+    public Customer createTransientCustomer();
+
+    /**
+     * Reserves an id for a <code>Customer</code> created by {@link #createTransientCustomer()}. Customers that already
+     * have an id are returned unchanged.
+     * 
+     * @param customer the customer that is about to be persisted
+     * @return the same customer instance
+     */
+    public Customer assignCustomerIdIfNecessary(Customer customer);
+
     public void addPostRegisterListener(PostRegistrationObserver postRegisterListeners);
 
     public void removePostRegisterListener(PostRegistrationObserver postRegisterListeners);
@@ -124,6 +124,7 @@ public class CustomerServiceImpl implements CustomerService {
     @Override
     @Transactional(TransactionUtils.DEFAULT_TRANSACTION_MANAGER)
     public Customer saveCustomer(Customer customer, boolean register) {
+        assignCustomerIdIfNecessary(customer);
         if (register && !customer.isRegistered()) {
             customer.setRegistered(true);
         }
@@ -151,9 +152,7 @@ public class CustomerServiceImpl implements CustomerService {
         customer.setRegistered(true);
 
         // When unencodedPassword is set the save() will encode it
-        if (customer.getId() == null) {
-            customer.setId(findNextCustomerId());
-        }
+        assignCustomerIdIfNecessary(customer);
         customer.setUnencodedPassword(password);
         Customer retCustomer = saveCustomer(customer);
         createRegisteredCustomerRoles(retCustomer);
@@ -267,6 +266,19 @@ public class CustomerServiceImpl implements CustomerService {
         return createCustomerFromId(null);
     }
 
+    @Override
+    public Customer createTransientCustomer() {
+        return customerDao.create();
+    }
+
+    @Override
+    public Customer assignCustomerIdIfNecessary(Customer customer) {
+        if (customer.getId() == null) {
+            customer.setId(findNextCustomerId());
+        }
+        return customer;
+    }
+
     @Override
     public void deleteCustomer(Customer customer) {
         customerDao.delete(customer);
@@ -0,0 +1,120 @@
+/*
+ * #%L
+ * BroadleafCommerce Integration
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.order.service;
+
+import org.broadleafcommerce.core.catalog.domain.Product;
+import org.broadleafcommerce.core.offer.domain.OrderItemAdjustmentImpl;
+import org.broadleafcommerce.core.offer.domain.OrderItemPriceDetailAdjustmentImpl;
+import org.broadleafcommerce.core.order.dao.OrderDao;
+import org.broadleafcommerce.core.order.domain.DiscreteOrderItem;
+import org.broadleafcommerce.core.order.domain.Order;
+import org.broadleafcommerce.core.order.domain.OrderImpl;
+import org.broadleafcommerce.core.order.domain.OrderItem;
+import org.broadleafcommerce.core.order.domain.OrderItemImpl;
+import org.broadleafcommerce.core.order.domain.OrderItemPriceDetail;
+import org.broadleafcommerce.core.order.domain.OrderItemPriceDetailImpl;
+import org.broadleafcommerce.core.order.service.call.OrderItemRequestDTO;
+import org.broadleafcommerce.profile.core.domain.Customer;
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.hibernate.stat.Statistics;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.annotation.Transactional;
+import org.testng.annotations.Test;
+
+import javax.annotation.Resource;
+
+public class CartFetchPlanTest extends OrderBaseTest {
+
+    protected static final int ITEM_COUNT = 50;
+
+    @Resource(name = "blOrderDao")
+    protected OrderDao orderDao;
+
+    protected Long customerId;
+
+    @Test(groups = { "createCartForFetchPlan" })
+    @Rollback(false)
+    @Transactional
+    public void createCartForFetchPlan() throws Exception {
+        Customer customer = customerService.saveCustomer(createNamedCustomer());
+        Order order = orderService.createNewCartForCustomer(customer);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            Product product = addTestProduct("Fetch Plan Box " + i, "Fetch Plan Boxes");
+            order = orderService.addItem(order.getId(), new OrderItemRequestDTO(product.getId(),
+                    product.getDefaultSku().getId(), product.getDefaultCategory().getId(), 1), false);
+        }
+        order = orderService.save(order, true);
+        assert order.getOrderItems().size() == ITEM_COUNT;
+        customerId = customer.getId();
+    }
+
+    @Test(groups = { "readCartWithFetchPlan" }, dependsOnGroups = { "createCartForFetchPlan" })
+    @Transactional
+    public void readCartWithFetchPlan() {
+        Customer customer = customerService.readCustomerById(customerId);
+        // Walk the cart once so that the catalog entities its items point at are in the second level cache, as they
+        // would be in a running store
+        walkCart(orderDao.readCartForCustomerWithFetchPlan(customer));
+
+        Session session = em.unwrap(Session.class);
+        evictOrderAggregate(session.getSessionFactory().getCache());
+        em.clear();
+
+        Statistics statistics = session.getSessionFactory().getStatistics();
+        boolean statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            Order cart = orderDao.readCartForCustomerWithFetchPlan(customer);
+            assert cart != null;
+            assert cart.getOrderItems().size() == ITEM_COUNT;
+            walkCart(cart);
+            long statements = statistics.getPrepareStatementCount();
+            assert statements <= 4 : "Hydrating a " + ITEM_COUNT + " item cart took " + statements + " statements";
+        } finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+        }
+    }
+
+    protected void walkCart(Order cart) {
+        for (OrderItem item : cart.getOrderItems()) {
+            DiscreteOrderItem discreteItem = (DiscreteOrderItem) item;
+            assert discreteItem.getSku().getId() != null;
+            assert discreteItem.getProduct().getId() != null;
+            for (OrderItemPriceDetail priceDetail : item.getOrderItemPriceDetails()) {
+                priceDetail.getOrderItemPriceDetailAdjustments().size();
+            }
+            item.getOrderItemAdjustments().size();
+            item.getTotalPrice();
+        }
+    }
+
+    protected void evictOrderAggregate(Cache cache) {
+        cache.evictEntityRegion(OrderImpl.class);
+        cache.evictEntityRegion(OrderItemImpl.class);
+        cache.evictEntityRegion(OrderItemPriceDetailImpl.class);
+        cache.evictEntityRegion(OrderItemPriceDetailAdjustmentImpl.class);
+        cache.evictEntityRegion(OrderItemAdjustmentImpl.class);
+        cache.evictCollectionRegions();
+        cache.evictQueryRegions();
+    }
+
+}
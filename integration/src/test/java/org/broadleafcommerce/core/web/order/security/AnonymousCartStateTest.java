@@ -0,0 +1,115 @@
+/*
+ * #%L
+ * BroadleafCommerce Integration
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.core.web.order.security;
+
+import org.broadleafcommerce.common.web.BroadleafRequestContext;
+import org.broadleafcommerce.core.order.domain.NullOrderImpl;
+import org.broadleafcommerce.core.order.domain.Order;
+import org.broadleafcommerce.core.order.service.OrderService;
+import org.broadleafcommerce.core.web.order.CartState;
+import org.broadleafcommerce.profile.core.domain.Customer;
+import org.broadleafcommerce.profile.core.service.CustomerService;
+import org.broadleafcommerce.profile.web.core.CustomerState;
+import org.broadleafcommerce.profile.web.core.security.CustomerStateRequestProcessor;
+import org.broadleafcommerce.test.BaseTest;
+import org.hibernate.Session;
+import org.hibernate.stat.Statistics;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.testng.annotations.Test;
+
+import javax.annotation.Resource;
+
+public class AnonymousCartStateTest extends BaseTest {
+
+    protected static final int PAGE_VIEWS = 25;
+
+    @Resource(name = "blCustomerStateRequestProcessor")
+    protected CustomerStateRequestProcessor customerStateRequestProcessor;
+
+    @Resource(name = "blCartStateRequestProcessor")
+    protected CartStateRequestProcessor cartStateRequestProcessor;
+
+    @Resource(name = "blCustomerService")
+    protected CustomerService customerService;
+
+    @Resource(name = "blOrderService")
+    protected OrderService orderService;
+
+    @Test(groups = { "anonymousPageViewsDoNotPersist" })
+    @Transactional
+    public void anonymousPageViewsDoNotPersist() {
+        BroadleafRequestContext previousContext = BroadleafRequestContext.getBroadleafRequestContext();
+        Statistics statistics = em.unwrap(Session.class).getSessionFactory().getStatistics();
+        boolean statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            MockHttpSession session = new MockHttpSession();
+            Customer anonymousCustomer = null;
+            for (int i = 0; i < PAGE_VIEWS; i++) {
+                processPageView(session);
+                Customer customer = CustomerState.getCustomer();
+                assert customer != null && customer.isAnonymous();
+                assert customer.getId() == null : "Browsing reserved an id for the anonymous customer";
+                assert anonymousCustomer == null || anonymousCustomer == customer;
+                assert CartState.getCart() instanceof NullOrderImpl;
+                anonymousCustomer = customer;
+            }
+            em.flush();
+            assert statistics.getEntityInsertCount() == 0 : PAGE_VIEWS + " page views inserted "
+                    + statistics.getEntityInsertCount() + " rows";
+            // Reserving customer ids updates the id generation table
+            assert statistics.getEntityUpdateCount() == 0 : PAGE_VIEWS + " page views updated "
+                    + statistics.getEntityUpdateCount() + " rows";
+
+            // The first cart is what persists the anonymous customer
+            Order cart = orderService.createNewCartForCustomer(anonymousCustomer);
+            em.flush();
+            assert anonymousCustomer.getId() != null;
+            assert cart.getCustomer().getId().equals(anonymousCustomer.getId());
+            assert customerService.readCustomerById(anonymousCustomer.getId()) != null;
+            assert statistics.getEntityInsertCount() > 0;
+
+            processPageView(session);
+            assert anonymousCustomer.getId().equals(CustomerState.getCustomer().getId());
+            assert cart.getId().equals(CartState.getCart().getId());
+        } finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+            BroadleafRequestContext.setBroadleafRequestContext(previousContext);
+        }
+    }
+
+    protected void processPageView(MockHttpSession session) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setSession(session);
+        WebRequest webRequest = new ServletWebRequest(request, new MockHttpServletResponse());
+        BroadleafRequestContext context = new BroadleafRequestContext();
+        context.setWebRequest(webRequest);
+        BroadleafRequestContext.setBroadleafRequestContext(context);
+        customerStateRequestProcessor.process(webRequest);
+        cartStateRequestProcessor.process(webRequest);
+    }
+
+}
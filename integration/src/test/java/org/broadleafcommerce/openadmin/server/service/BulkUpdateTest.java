@@ -0,0 +1,138 @@
+/*
+ * #%L
+ * BroadleafCommerce Integration
+ * %%
+ * Copyright (C) 2009 - 2013 Broadleaf Commerce
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.broadleafcommerce.openadmin.server.service;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.broadleafcommerce.common.money.Money;
+import org.broadleafcommerce.core.catalog.domain.Product;
+import org.broadleafcommerce.core.catalog.domain.ProductImpl;
+import org.broadleafcommerce.core.catalog.domain.Sku;
+import org.broadleafcommerce.core.catalog.domain.SkuImpl;
+import org.broadleafcommerce.openadmin.server.dao.DynamicEntityDao;
+import org.broadleafcommerce.openadmin.server.dao.DynamicEntityDaoImpl;
+import org.broadleafcommerce.test.BaseTest;
+import org.springframework.transaction.annotation.Transactional;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times a bulk update of {@link #ROWS} products and their default SKUs against the embedded database, once flushing
+ * after every row as a single admin update does, and once the way {@link DynamicEntityRemoteService#bulkUpdate} runs:
+ * immediate flushing off and the entity manager flushed and cleared every {@link #FLUSH_SIZE} rows. The timings are
+ * logged rather than asserted, since they depend on the machine the build runs on.
+ */
+public class BulkUpdateTest extends BaseTest {
+
+    private static final Log LOG = LogFactory.getLog(BulkUpdateTest.class);
+
+    protected static final int ROWS = 10000;
+
+    /**
+     * The default of admin.bulk.flush.size
+     */
+    protected static final int FLUSH_SIZE = 50;
+
+    @Test(groups = {"testBulkUpdate"})
+    @Transactional
+    public void testBulkUpdate() throws Exception {
+        DynamicEntityDao dynamicEntityDao = new DynamicEntityDaoImpl();
+        dynamicEntityDao.setStandardEntityManager(em);
+
+        long start = System.currentTimeMillis();
+        List<Long> productIds = createProducts(dynamicEntityDao);
+        LOG.info("Bulk add of " + ROWS + " products and SKUs: " + (System.currentTimeMillis() - start) + "ms");
+
+        start = System.currentTimeMillis();
+        updateProducts(dynamicEntityDao, productIds, "row", true);
+        LOG.info("Row by row update of " + ROWS + " products and SKUs: " + (System.currentTimeMillis() - start) + "ms");
+
+        start = System.currentTimeMillis();
+        updateProducts(dynamicEntityDao, productIds, "bulk", false);
+        LOG.info("Bulk update of " + ROWS + " products and SKUs: " + (System.currentTimeMillis() - start) + "ms");
+
+        Long updatedSkus = (Long) em.createQuery("SELECT COUNT(sku) FROM " + SkuImpl.class.getName()
+                + " sku WHERE sku.name LIKE 'bulk %'").getSingleResult();
+        Long updatedProducts = (Long) em.createQuery("SELECT COUNT(product) FROM " + ProductImpl.class.getName()
+                + " product WHERE product.model LIKE 'bulk %'").getSingleResult();
+        assert updatedSkus == ROWS;
+        assert updatedProducts == ROWS;
+    }
+
+    protected List<Long> createProducts(DynamicEntityDao dynamicEntityDao) {
+        List<Long> productIds = new ArrayList<Long>(ROWS);
+        dynamicEntityDao.setImmediateFlush(false);
+        try {
+            for (int i = 0; i < ROWS; i++) {
+                Sku sku = new SkuImpl();
+                sku.setName("Bulk Product " + i);
+                sku.setRetailPrice(new Money(10D));
+                sku = dynamicEntityDao.persist(sku);
+                Product product = new ProductImpl();
+                product.setDefaultSku(sku);
+                product.setModel("model " + i);
+                product = dynamicEntityDao.persist(product);
+                productIds.add(product.getId());
+                if ((i + 1) % FLUSH_SIZE == 0) {
+                    dynamicEntityDao.flush();
+                    dynamicEntityDao.clear();
+                }
+            }
+            dynamicEntityDao.flush();
+            dynamicEntityDao.clear();
+        } finally {
+            dynamicEntityDao.setImmediateFlush(true);
+        }
+        return productIds;
+    }
+
+    /**
+     * Reads, changes and merges every product and its default SKU, flushing either after each merge or every
+     * {@link #FLUSH_SIZE} rows together with a clear of the entity manager
+     */
+    protected void updateProducts(DynamicEntityDao dynamicEntityDao, List<Long> productIds, String prefix,
+            boolean immediateFlush) {
+        dynamicEntityDao.setImmediateFlush(immediateFlush);
+        try {
+            int pending = 0;
+            for (int i = 0; i < productIds.size(); i++) {
+                Product product = (Product) dynamicEntityDao.retrieve(ProductImpl.class, productIds.get(i));
+                product.setModel(prefix + " model " + i);
+                dynamicEntityDao.merge(product);
+                Sku sku = product.getDefaultSku();
+                sku.setName(prefix + " product " + i);
+                sku.setSalePrice(new Money(9D));
+                dynamicEntityDao.merge(sku);
+                if (!immediateFlush && ++pending >= FLUSH_SIZE) {
+                    dynamicEntityDao.flush();
+                    dynamicEntityDao.clear();
+                    pending = 0;
+                }
+            }
+            dynamicEntityDao.flush();
+            dynamicEntityDao.clear();
+        } finally {
+            dynamicEntityDao.setImmediateFlush(true);
+        }
+    }
+
+}